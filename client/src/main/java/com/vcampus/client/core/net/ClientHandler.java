@@ -27,11 +27,14 @@ public class ClientHandler extends ChannelInboundHandlerAdapter {
     
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
-        String jsonResponse = (String) msg;
-        log.debug("📨 收到服务器响应: {}", jsonResponse);
+        // 二进制协议下解码器直接产出 Response，JSON 行协议下为字符串
+        String jsonResponse = msg instanceof Response ? null : (String) msg;
+        log.debug("📨 收到服务器响应: {}", jsonResponse != null ? jsonResponse : msg);
         
         try {
-            Response response = JsonUtils.fromJson(jsonResponse, Response.class);
+            Response response = msg instanceof Response
+                    ? (Response) msg
+                    : JsonUtils.fromJson(jsonResponse, Response.class);
             if (response != null && response.getId() != null) {
                 String responseId = response.getId().toString();
                 CompletableFuture<Response> future = pendingRequests.remove(responseId);
@@ -3,9 +3,13 @@ package com.vcampus.client.core.net;
 import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
 import com.vcampus.common.message.Session;
+import com.vcampus.common.message.codec.BinaryMessageDecoder;
+import com.vcampus.common.message.codec.BinaryMessageEncoder;
+import com.vcampus.common.message.codec.JsonLineEncoder;
+import com.vcampus.common.message.codec.MessageProtocol;
 import com.vcampus.common.util.JsonUtils;
 import io.netty.bootstrap.Bootstrap;
-import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
 import io.netty.channel.nio.NioEventLoopGroup;
@@ -13,10 +17,12 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.LineBasedFrameDecoder;
 import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
 import io.netty.util.CharsetUtil;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -33,8 +39,14 @@ import java.util.function.Consumer;
 @Slf4j
 public class NettyClient {
 
+    /**
+     * 服务端批量请求URI
+     */
+    public static final String BATCH_URI = "system/batch";
+
     private final String host;
     private final int port;
+    private final String protocol;
     private final EventLoopGroup group;
     private Channel channel;
     private final Map<String, CompletableFuture<Response>> pendingRequests;
@@ -44,11 +56,20 @@ public class NettyClient {
     private Session currentSession;
 
     public NettyClient(String host, int port) {
+        this(host, port, MessageProtocol.PROTOCOL_JSON);
+    }
+
+    /**
+     * @param protocol 传输协议：{@link MessageProtocol#PROTOCOL_JSON} 或 {@link MessageProtocol#PROTOCOL_BINARY}
+     */
+    public NettyClient(String host, int port, String protocol) {
         this.host = host;
         this.port = port;
+        this.protocol = MessageProtocol.PROTOCOL_BINARY.equalsIgnoreCase(protocol)
+                ? MessageProtocol.PROTOCOL_BINARY : MessageProtocol.PROTOCOL_JSON;
         this.group = new NioEventLoopGroup();
         this.pendingRequests = new ConcurrentHashMap<>();
-        log.info("NettyClient constructed for {}:{}", host, port);
+        log.info("NettyClient constructed for {}:{} ({})", host, port, this.protocol);
     }
 
     /**
@@ -63,14 +84,21 @@ public class NettyClient {
                     .channel(NioSocketChannel.class)
                     .option(ChannelOption.SO_KEEPALIVE, true)
                     .option(ChannelOption.TCP_NODELAY, true)
+                    .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                     .handler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         protected void initChannel(SocketChannel ch) throws Exception {
-                            ch.pipeline()
-                                    .addLast(new LineBasedFrameDecoder(10 * 1024 * 1024))
-                                    .addLast(new StringDecoder(CharsetUtil.UTF_8))
-                                    .addLast(new StringEncoder(CharsetUtil.UTF_8))
-                                    .addLast(new ClientHandler(pendingRequests));
+                            ChannelPipeline pipeline = ch.pipeline();
+                            if (isBinaryProtocol()) {
+                                pipeline.addLast(BinaryMessageDecoder.newFrameDecoder())
+                                        .addLast(new BinaryMessageDecoder())
+                                        .addLast(new BinaryMessageEncoder());
+                            } else {
+                                pipeline.addLast(new LineBasedFrameDecoder(MessageProtocol.MAX_FRAME_LENGTH))
+                                        .addLast(new StringDecoder(CharsetUtil.UTF_8))
+                                        .addLast(new JsonLineEncoder());
+                            }
+                            pipeline.addLast(new ClientHandler(pendingRequests));
                         }
                     });
 
@@ -78,6 +106,10 @@ public class NettyClient {
             channelFuture.addListener((ChannelFutureListener) cf -> {
                 if (cf.isSuccess()) {
                     channel = cf.channel();
+                    if (isBinaryProtocol()) {
+                        // 发送二进制协议前导字节，服务器据此切换为二进制帧协议
+                        channel.writeAndFlush(Unpooled.wrappedBuffer(MessageProtocol.BINARY_MAGIC));
+                    }
                     log.info("✅ 成功连接到服务器: {}:{}", host, port);
                     future.complete(true);
                 } else {
@@ -116,12 +148,8 @@ public class NettyClient {
         pendingRequests.put(requestId, future);
 
         try {
-            // 发送请求
-            // 使用紧凑单行 JSON 以避免按行分割时被截断
-            String jsonRequest = JsonUtils.toCompactJson(request);
-            // 使用换行结束请求以便服务器按行分割
-            String payload = jsonRequest + "\n";
-            channel.writeAndFlush(payload).addListener((ChannelFutureListener) cf -> {
+            // 发送请求，由管道中的编码器按当前协议（JSON 行 / 二进制帧）序列化
+            channel.writeAndFlush(request).addListener((ChannelFutureListener) cf -> {
                  if (cf.isSuccess()) {
                      log.debug("📤 请求发送成功: {}", requestId);
                  } else {
@@ -157,6 +185,24 @@ public class NettyClient {
         return future;
     }
 
+    /**
+     * 批量发送请求：多个请求合并为一次往返，服务端可并行执行无顺序键的子请求
+     *
+     * @param requests 子请求列表
+     * @return 与子请求顺序一致的子响应列表
+     */
+    public CompletableFuture<List<Response>> sendBatch(List<Request> requests) {
+        Request batch = new Request(BATCH_URI);
+        batch.addParam("requests", JsonUtils.toCompactJson(requests));
+        return sendRequest(batch).thenApply(response -> {
+            if (!response.isSuccess()) {
+                throw new IllegalStateException("批量请求失败: " + response.getMessage());
+            }
+            Response[] results = JsonUtils.fromJson(JsonUtils.toCompactJson(response.getData()), Response[].class);
+            return results != null ? new ArrayList<>(Arrays.asList(results)) : new ArrayList<>();
+        });
+    }
+
     /**
      * 断开连接
      */
@@ -181,6 +227,13 @@ public class NettyClient {
         return channel != null && channel.isActive();
     }
 
+    /**
+     * 是否使用二进制帧协议
+     */
+    public boolean isBinaryProtocol() {
+        return MessageProtocol.PROTOCOL_BINARY.equals(protocol);
+    }
+
     /**
      * 获取连接信息
      */
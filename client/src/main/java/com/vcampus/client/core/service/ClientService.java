@@ -6,6 +6,8 @@ import com.vcampus.common.message.Response;
 import com.vcampus.common.message.Session;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -106,6 +108,25 @@ public class ClientService {
                 });
     }
     
+    /**
+     * 批量发送请求（同步），一次往返获取多个URI的结果
+     * 
+     * @param requests 子请求列表
+     * @return 与子请求顺序一致的响应列表；整体失败时每个位置均为错误响应
+     */
+    public List<Response> sendBatch(List<Request> requests) {
+        try {
+            return client.sendBatch(requests).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("批量请求失败: {} 个子请求", requests.size(), e);
+            List<Response> errors = new ArrayList<>();
+            for (Request request : requests) {
+                errors.add(Response.Builder.error("请求失败: " + e.getMessage()).withId(request.getId()));
+            }
+            return errors;
+        }
+    }
+    
     /**
      * 发送简单请求（无参数）
      * 
@@ -39,6 +39,25 @@ public class CourseClientService {
         }
     }
 
+    /**
+     * 获取与已选课程时间冲突的教学班ID列表
+     */
+    public static List<Integer> getConflictingSections(NettyClient nettyClient, String cardNum) throws Exception {
+        Request req = new Request("academic/course")
+                .addParam("action", "GET_CONFLICTING_SECTIONS")
+                .addParam("cardNum", cardNum);
+        Response resp = nettyClient.sendRequest(req).get(10, TimeUnit.SECONDS);
+        if (resp != null && "SUCCESS".equals(resp.getStatus())) {
+            List<Integer> ids = new java.util.ArrayList<>();
+            for (Object id : (List<?>) resp.getData()) {
+                ids.add(((Number) id).intValue());
+            }
+            return ids;
+        } else {
+            throw new Exception(resp != null ? resp.getMessage() : "服务器无响应");
+        }
+    }
+
     /**
      * 选课
      */
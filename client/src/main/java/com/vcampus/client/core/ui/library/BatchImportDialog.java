@@ -11,10 +11,10 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -29,10 +29,15 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class BatchImportDialog extends JDialog {
     
+    private static final int PREVIEW_ROWS = 10;
+    private static final int CHUNK_BYTES = 256 * 1024; // 每个上传请求携带的文件字节数
+    private static final long POLL_INTERVAL_MS = 500;
+    
     private BookManagementPanel parentPanel;
     private NettyClient nettyClient;
     private File selectedFile;
-    private List<Map<String, String>> importData;
+    private List<Map<String, String>> importData; // 预览用，最多保留 PREVIEW_ROWS 行
+    private int rowCount = -1; // 数据行数，Excel 文件在服务器端解析，为 -1
     
     // UI组件
     private JButton selectFileButton;
@@ -323,28 +328,40 @@ public class BatchImportDialog extends JDialog {
     }
     
     private void parseCsvFile() throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get(selectedFile.getAbsolutePath()));
-        if (lines.isEmpty()) {
-            throw new IOException("文件为空");
-        }
-        
-        // 解析CSV头部
-        String[] headers = parseCsvLine(lines.get(0));
         importData.clear();
+        rowCount = 0;
         
-        // 解析数据行
-        for (int i = 1; i < lines.size(); i++) {
-            String[] values = parseCsvLine(lines.get(i));
-            if (values.length != headers.length) {
-                log.warn("第{}行数据列数不匹配，跳过", i + 1);
-                continue;
+        // 逐行读取，只保留预览行，其余行只计数
+        try (BufferedReader reader = Files.newBufferedReader(selectedFile.toPath(), StandardCharsets.UTF_8)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IOException("文件为空");
+            }
+            if (headerLine.startsWith("\uFEFF")) {
+                headerLine = headerLine.substring(1);
             }
             
-            Map<String, String> rowData = new HashMap<>();
-            for (int j = 0; j < headers.length; j++) {
-                rowData.put(headers[j].trim(), values[j].trim());
+            // 解析CSV头部
+            String[] headers = parseCsvLine(headerLine);
+            
+            // 解析数据行
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                rowCount++;
+                if (importData.size() >= PREVIEW_ROWS) {
+                    continue;
+                }
+                
+                String[] values = parseCsvLine(line);
+                Map<String, String> rowData = new LinkedHashMap<>();
+                for (int j = 0; j < headers.length; j++) {
+                    rowData.put(headers[j].trim(), j < values.length ? values[j].trim() : "");
+                }
+                importData.add(rowData);
             }
-            importData.add(rowData);
         }
     }
     
@@ -370,12 +387,21 @@ public class BatchImportDialog extends JDialog {
     }
     
     private void parseExcelFile() throws IOException {
-        // 这里需要添加Excel解析逻辑
-        // 由于没有Excel库，暂时抛出异常
-        throw new IOException("Excel文件解析功能需要添加Apache POI依赖");
+        // Excel 文件上传后由服务器流式解析，这里只检查文件可读
+        if (!selectedFile.canRead() || selectedFile.length() == 0) {
+            throw new IOException("文件为空或无法读取");
+        }
+        importData.clear();
+        rowCount = -1;
     }
     
     private void displayPreview() {
+        if (rowCount < 0) {
+            previewArea.setText(String.format("文件: %s\n大小: %.1f KB\n\nExcel文件将上传到服务器后逐行解析导入，" +
+                    "第一行为表头（书名、作者、ISBN、出版社、出版日期、分类、位置、总数量）。",
+                    selectedFile.getName(), selectedFile.length() / 1024.0));
+            return;
+        }
         if (importData.isEmpty()) {
             previewArea.setText("没有可预览的数据");
             return;
@@ -394,7 +420,7 @@ public class BatchImportDialog extends JDialog {
         preview.append("-".repeat(80)).append("\n");
         
         // 显示数据行（最多10行）
-        int maxRows = Math.min(10, importData.size());
+        int maxRows = Math.min(PREVIEW_ROWS, importData.size());
         for (int i = 0; i < maxRows; i++) {
             Map<String, String> row = importData.get(i);
             for (String value : row.values()) {
@@ -403,22 +429,29 @@ public class BatchImportDialog extends JDialog {
             preview.append("\n");
         }
         
-        if (importData.size() > 10) {
-            preview.append("... 还有 ").append(importData.size() - 10).append(" 条记录");
+        if (rowCount > maxRows) {
+            preview.append("... 还有 ").append(rowCount - maxRows).append(" 条记录");
         }
         
         previewArea.setText(preview.toString());
     }
     
     private void performImport() {
-        if (importData.isEmpty()) {
+        if (selectedFile == null || rowCount == 0) {
             JOptionPane.showMessageDialog(this, "没有可导入的数据", "提示", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
+        if (nettyClient == null) {
+            JOptionPane.showMessageDialog(this, "未连接到服务器", "错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         
         // 确认导入
+        String confirmMessage = rowCount > 0
+                ? "确定要导入 " + rowCount + " 条图书记录吗？"
+                : "确定要导入文件 " + selectedFile.getName() + " 吗？";
         int result = JOptionPane.showConfirmDialog(this, 
-                "确定要导入 " + importData.size() + " 条图书记录吗？", 
+                confirmMessage, 
                 "确认导入", 
                 JOptionPane.YES_NO_OPTION, 
                 JOptionPane.QUESTION_MESSAGE);
@@ -427,101 +460,130 @@ public class BatchImportDialog extends JDialog {
             return;
         }
         
-        // 在后台线程中执行导入
-        SwingUtilities.invokeLater(() -> {
-            new Thread(() -> {
-                try {
-                    updateStatus("正在导入数据...", 0);
-                    progressBar.setMaximum(importData.size());
-                    
-                    int successCount = 0;
-                    int failCount = 0;
-                    
-                    for (int i = 0; i < importData.size(); i++) {
-                        Map<String, String> bookData = importData.get(i);
-                        
-                        try {
-                            // 发送导入请求
-                            if (nettyClient != null) {
-                                Request request = new Request("library/admin/batch-import");
-                                
-                                // 映射字段名到服务器期望的参数名
-                                String title = bookData.get("书名") != null ? bookData.get("书名") : bookData.get("title");
-                                String author = bookData.get("作者") != null ? bookData.get("作者") : bookData.get("author");
-                                String publisher = bookData.get("出版社") != null ? bookData.get("出版社") : bookData.get("publisher");
-                                String isbn = bookData.get("ISBN") != null ? bookData.get("ISBN") : bookData.get("isbn");
-                                String category = bookData.get("分类") != null ? bookData.get("分类") : bookData.get("category");
-                                String location = bookData.get("位置") != null ? bookData.get("位置") : bookData.get("location");
-                                String totalQty = bookData.get("总数量") != null ? bookData.get("总数量") : bookData.get("totalQty");
-                                String availQty = bookData.get("可借数量") != null ? bookData.get("可借数量") : bookData.get("availQty");
-                                String status = bookData.get("状态") != null ? bookData.get("状态") : bookData.get("status");
-                                String publishDate = bookData.get("出版日期") != null ? bookData.get("出版日期") : bookData.get("publishDate");
-                                
-                                // 添加参数
-                                if (title != null) request.addParam("title", title);
-                                if (author != null) request.addParam("author", author);
-                                if (publisher != null) request.addParam("publisher", publisher);
-                                if (isbn != null) request.addParam("isbn", isbn);
-                                if (category != null) request.addParam("category", category);
-                                if (location != null) request.addParam("location", location);
-                                if (totalQty != null) request.addParam("totalQty", totalQty);
-                                if (availQty != null) request.addParam("availQty", availQty);
-                                if (status != null) request.addParam("status", status);
-                                if (publishDate != null) request.addParam("publishDate", publishDate);
-                                
-                                Response response = nettyClient.sendRequest(request).get(5, TimeUnit.SECONDS);
-                                
-                                if (response != null && "SUCCESS".equals(response.getStatus())) {
-                                    successCount++;
-                                } else {
-                                    failCount++;
-                                    log.warn("导入第{}条记录失败: {}", i + 1, 
-                                        response != null ? response.getMessage() : "服务器无响应");
-                                }
-                            } else {
-                                // 模拟导入成功
-                                successCount++;
-                            }
-                            
-                        } catch (Exception e) {
-                            failCount++;
-                            log.error("导入第{}条记录时发生错误", i + 1, e);
-                        }
-                        
-                        // 更新进度
-                        final int progress = i + 1;
-                        SwingUtilities.invokeLater(() -> {
-                            progressBar.setValue(progress);
-                            progressBar.setString(progress + "/" + importData.size());
-                        });
-                    }
-                    
-                    // 显示导入结果
-                    final int finalSuccessCount = successCount;
-                    final int finalFailCount = failCount;
-                    SwingUtilities.invokeLater(() -> {
-                        updateStatus("导入完成", 100);
-                        JOptionPane.showMessageDialog(this, 
-                            String.format("导入完成！\n成功：%d 条\n失败：%d 条", finalSuccessCount, finalFailCount), 
-                            "导入结果", 
-                            JOptionPane.INFORMATION_MESSAGE);
-                        
-                        // 刷新父面板
-                        parentPanel.refresh();
-                        dispose();
-                    });
-                    
-                } catch (Exception e) {
-                    log.error("批量导入时发生错误", e);
-                    SwingUtilities.invokeLater(() -> {
-                        JOptionPane.showMessageDialog(this, "导入时发生错误：" + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
-                        updateStatus("导入失败", 0);
-                    });
+        importButton.setEnabled(false);
+        
+        // 在后台线程中执行导入：先分块上传文件，再轮询服务器端的导入进度
+        new Thread(() -> {
+            try {
+                String importId = java.util.UUID.randomUUID().toString();
+                uploadFile(importId);
+                Map<String, Object> status = waitForImport(importId);
+                showImportResult(status);
+                
+            } catch (Exception e) {
+                log.error("批量导入时发生错误", e);
+                SwingUtilities.invokeLater(() -> {
+                    JOptionPane.showMessageDialog(this, "导入时发生错误：" + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+                    updateStatus("导入失败", 0);
+                    importButton.setEnabled(true);
+                });
+            }
+        }, "book-import-upload").start();
+    }
+    
+    /**
+     * 按 CHUNK_BYTES 分块上传文件，内存中只保留一块
+     */
+    private void uploadFile(String importId) throws Exception {
+        long fileSize = selectedFile.length();
+        long sent = 0;
+        int seq = 0;
+        byte[] buffer = new byte[CHUNK_BYTES];
+        
+        try (InputStream in = new BufferedInputStream(new FileInputStream(selectedFile))) {
+            int read = in.readNBytes(buffer, 0, buffer.length);
+            boolean last;
+            do {
+                byte[] chunk = java.util.Arrays.copyOf(buffer, read);
+                read = in.readNBytes(buffer, 0, buffer.length);
+                last = read == 0;
+                
+                Request request = new Request("library/admin/book/import-chunk");
+                request.addParam("importId", importId);
+                request.addParam("fileName", selectedFile.getName());
+                request.addParam("seq", String.valueOf(seq++));
+                request.addParam("data", java.util.Base64.getEncoder().encodeToString(chunk));
+                request.addParam("last", String.valueOf(last));
+                
+                Response response = nettyClient.sendRequest(request).get(30, TimeUnit.SECONDS);
+                if (response == null || !response.isSuccess()) {
+                    throw new IOException(response != null ? response.getMessage() : "服务器无响应");
                 }
-            }).start();
+                
+                sent += chunk.length;
+                int percent = fileSize > 0 ? (int) (sent * 100 / fileSize) : 100;
+                updateStatus("正在上传 " + percent + "%", percent);
+            } while (!last);
+        }
+    }
+    
+    /**
+     * 轮询导入进度直到完成
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> waitForImport(String importId) throws Exception {
+        while (true) {
+            Thread.sleep(POLL_INTERVAL_MS);
+            
+            Request request = new Request("library/admin/book/import-progress");
+            request.addParam("importId", importId);
+            Response response = nettyClient.sendRequest(request).get(10, TimeUnit.SECONDS);
+            if (response == null || !response.isSuccess()) {
+                throw new IOException(response != null ? response.getMessage() : "服务器无响应");
+            }
+            
+            Map<String, Object> status = (Map<String, Object>) response.getData();
+            int processed = toInt(status.get("processedCount"));
+            if (rowCount > 0) {
+                int percent = (int) Math.min(100, processed * 100L / rowCount);
+                updateStatus("正在导入 " + processed + "/" + rowCount, percent);
+            } else {
+                updateStatus("正在导入，已处理 " + processed + " 条", 100);
+            }
+            
+            if (Boolean.TRUE.equals(status.get("done"))) {
+                return status;
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void showImportResult(Map<String, Object> status) {
+        boolean failed = "FAILED".equals(status.get("state"));
+        StringBuilder message = new StringBuilder();
+        if (failed) {
+            message.append("导入失败：").append(status.get("message")).append("\n");
+        } else {
+            message.append("导入完成！\n");
+        }
+        message.append(String.format("成功：%d 条\n失败：%d 条\n跳过（ISBN重复）：%d 条",
+                toInt(status.get("successCount")), toInt(status.get("failCount")), toInt(status.get("skipCount"))));
+        
+        List<String> errors = (List<String>) status.get("errors");
+        if (errors != null && !errors.isEmpty()) {
+            message.append("\n\n错误明细（前5条）：");
+            for (int i = 0; i < Math.min(5, errors.size()); i++) {
+                message.append("\n").append(errors.get(i));
+            }
+        }
+        
+        SwingUtilities.invokeLater(() -> {
+            updateStatus(failed ? "导入失败" : "导入完成", 100);
+            JOptionPane.showMessageDialog(this, 
+                message.toString(), 
+                "导入结果", 
+                failed ? JOptionPane.ERROR_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+            
+            // 刷新父面板
+            parentPanel.refresh();
+            dispose();
         });
     }
     
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+    
     private void updateStatus(String message, int progress) {
         SwingUtilities.invokeLater(() -> {
             progressBar.setValue(progress);
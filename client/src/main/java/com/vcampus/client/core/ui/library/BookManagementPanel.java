@@ -785,6 +785,8 @@ public class BookManagementPanel extends JPanel implements LibraryPanel.Refresha
                     javax.swing.filechooser.FileNameExtensionFilter filter = 
                         new javax.swing.filechooser.FileNameExtensionFilter("Excel文件 (*.xlsx)", "xlsx");
                     fileChooser.setFileFilter(filter);
+                    fileChooser.addChoosableFileFilter(
+                        new javax.swing.filechooser.FileNameExtensionFilter("CSV文件 (*.csv)", "csv"));
                     
                     int result = fileChooser.showSaveDialog(this);
                     if (result != JFileChooser.APPROVE_OPTION) {
@@ -792,7 +794,8 @@ public class BookManagementPanel extends JPanel implements LibraryPanel.Refresha
                     }
                     
                     java.io.File selectedFile = fileChooser.getSelectedFile();
-                    if (!selectedFile.getName().toLowerCase().endsWith(".xlsx")) {
+                    String lowerName = selectedFile.getName().toLowerCase();
+                    if (!lowerName.endsWith(".xlsx") && !lowerName.endsWith(".csv")) {
                         selectedFile = new java.io.File(selectedFile.getAbsolutePath() + ".xlsx");
                     }
                     
@@ -810,81 +813,35 @@ public class BookManagementPanel extends JPanel implements LibraryPanel.Refresha
     }
     
     /**
-     * 导出图书数据到Excel文件
+     * 导出图书数据到文件
+     * 由服务器分批读取全部图书生成文件，客户端分块下载，不受当前表格内容限制
      */
     private void exportToExcel(java.io.File file) {
+        ProgressMonitor monitor = new ProgressMonitor(this, "正在导出图书数据", "正在生成...", 0, 100);
+        monitor.setMillisToDecideToPopup(200);
         try {
-            // 创建Excel工作簿
-            org.apache.poi.xssf.usermodel.XSSFWorkbook workbook = new org.apache.poi.xssf.usermodel.XSSFWorkbook();
-            org.apache.poi.ss.usermodel.Sheet sheet = workbook.createSheet("图书数据");
+            Request request = new Request("library/admin/book/export");
+            request.addParam("fileName", file.getName());
             
-            // 创建标题行
-            org.apache.poi.ss.usermodel.Row headerRow = sheet.createRow(0);
-            String[] headers = {"ID", "书名", "作者", "出版社", "出版日期", "分类", "位置", "ISBN", "状态", "库存"};
-            
-            // 设置标题样式
-            org.apache.poi.ss.usermodel.CellStyle headerStyle = workbook.createCellStyle();
-            org.apache.poi.ss.usermodel.Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setFontHeightInPoints((short) 12);
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(org.apache.poi.ss.usermodel.IndexedColors.LIGHT_BLUE.getIndex());
-            headerStyle.setFillPattern(org.apache.poi.ss.usermodel.FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(org.apache.poi.ss.usermodel.BorderStyle.THIN);
-            headerStyle.setBorderTop(org.apache.poi.ss.usermodel.BorderStyle.THIN);
-            headerStyle.setBorderRight(org.apache.poi.ss.usermodel.BorderStyle.THIN);
-            headerStyle.setBorderLeft(org.apache.poi.ss.usermodel.BorderStyle.THIN);
-            
-            // 创建标题单元格
-            for (int i = 0; i < headers.length; i++) {
-                org.apache.poi.ss.usermodel.Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-            
-            // 获取表格数据
-            int rowCount = tableModel.getRowCount();
-            int colCount = tableModel.getColumnCount();
-            
-            // 创建数据行
-            for (int i = 0; i < rowCount; i++) {
-                org.apache.poi.ss.usermodel.Row dataRow = sheet.createRow(i + 1);
-                for (int j = 0; j < colCount; j++) {
-                    org.apache.poi.ss.usermodel.Cell cell = dataRow.createCell(j);
-                    Object value = tableModel.getValueAt(i, j);
-                    if (value != null) {
-                        cell.setCellValue(value.toString());
-                    }
-                }
-            }
-            
-            // 自动调整列宽
-            for (int i = 0; i < colCount; i++) {
-                sheet.autoSizeColumn(i);
-                // 设置最小宽度
-                int currentWidth = sheet.getColumnWidth(i);
-                if (currentWidth < 2000) {
-                    sheet.setColumnWidth(i, 2000);
-                }
-            }
-            
-            // 写入文件
-            try (java.io.FileOutputStream fileOut = new java.io.FileOutputStream(file)) {
-                workbook.write(fileOut);
-            }
-            workbook.close();
+            long count = ExportDownloader.download(nettyClient, request, file, (note, percent) ->
+                SwingUtilities.invokeLater(() -> {
+                    monitor.setNote(note);
+                    monitor.setProgress(percent);
+                }));
             
             // 显示成功消息
             SwingUtilities.invokeLater(() -> {
+                monitor.close();
                 JOptionPane.showMessageDialog(this, 
-                    "导出成功！\n文件已保存到：" + file.getAbsolutePath() + "\n共导出 " + rowCount + " 条记录", 
+                    "导出成功！\n文件已保存到：" + file.getAbsolutePath() + "\n共导出 " + count + " 条记录", 
                     "导出成功", 
                     JOptionPane.INFORMATION_MESSAGE);
             });
             
         } catch (Exception e) {
-            log.error("导出Excel文件时发生错误", e);
+            log.error("导出图书数据文件时发生错误", e);
             SwingUtilities.invokeLater(() -> {
+                monitor.close();
                 JOptionPane.showMessageDialog(this, "导出失败：" + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
             });
         }
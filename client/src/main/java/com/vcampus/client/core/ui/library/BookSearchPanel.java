@@ -1273,30 +1273,14 @@ public class BookSearchPanel extends JPanel implements LibraryPanel.RefreshableP
                 try {
                     log.info("开始加载分类列表");
                     
-                    // 构建请求
-                    Request request = new Request("library/user/get-categories");
+                    // 分类未变化时服务器只返回版本号，直接使用缓存的列表
+                    List<Map<String, Object>> categories = CategoryCache.load(nettyClient);
                     
-                    // 发送请求
-                    CompletableFuture<Response> future = nettyClient.sendRequest(request);
-                    Response response = future.get(10, java.util.concurrent.TimeUnit.SECONDS);
+                    SwingUtilities.invokeLater(() -> {
+                        updateCategoryComboBox(categories);
+                    });
                     
-                    if (response != null && response.isSuccess()) {
-                        @SuppressWarnings("unchecked")
-                        List<Map<String, Object>> categories = (List<Map<String, Object>>) response.getData();
-                        
-                        SwingUtilities.invokeLater(() -> {
-                            updateCategoryComboBox(categories);
-                        });
-                        
-                        log.info("分类列表加载成功，共 {} 个分类", categories.size());
-                    } else {
-                        String errorMsg = response != null ? response.getMessage() : "服务器无响应";
-                        log.error("加载分类列表失败: {}", errorMsg);
-                        SwingUtilities.invokeLater(() -> {
-                            // 使用默认分类
-                            loadDefaultCategories();
-                        });
-                    }
+                    log.info("分类列表加载成功，共 {} 个分类", categories.size());
                 } catch (Exception e) {
                     log.error("加载分类列表时发生错误: {}", e.getMessage());
                     SwingUtilities.invokeLater(() -> {
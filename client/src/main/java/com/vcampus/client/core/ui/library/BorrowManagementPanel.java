@@ -40,6 +40,7 @@ public class BorrowManagementPanel extends JPanel implements LibraryPanel.Refres
     private JComboBox<String> dateTypeCombo; // 日期类型：借阅日期/应还日期
     
     private JButton searchButton;
+    private JButton exportButton;
     
     // 右键菜单
     private JPopupMenu contextMenu;
@@ -310,6 +311,18 @@ public class BorrowManagementPanel extends JPanel implements LibraryPanel.Refres
         searchButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
         buttonPanel.add(searchButton);
         
+        exportButton = new JButton("导出");
+        exportButton.setPreferredSize(new Dimension(80, 32));
+        exportButton.setBorder(BorderFactory.createEmptyBorder(6, 15, 6, 15));
+        exportButton.setBorderPainted(false);
+        exportButton.setFocusPainted(false);
+        exportButton.setBackground(new Color(39, 174, 96));
+        exportButton.setForeground(Color.WHITE);
+        exportButton.setFont(new Font("微软雅黑", Font.BOLD, 12));
+        exportButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        exportButton.setToolTipText("按当前搜索条件导出全部借阅记录");
+        buttonPanel.add(exportButton);
+        
         searchBar.add(buttonPanel, gbc);
         
         // 创建表格
@@ -387,6 +400,9 @@ public class BorrowManagementPanel extends JPanel implements LibraryPanel.Refres
             }
         });
         
+        // 导出按钮
+        exportButton.addActionListener(e -> exportBorrowRecords());
+        
         
         
         // 逾期处理功能已删除
@@ -636,6 +652,101 @@ public class BorrowManagementPanel extends JPanel implements LibraryPanel.Refres
         // 逾期处理功能已删除，此方法保留为空方法
     }
     
+    /**
+     * 按当前搜索条件构建请求，搜索和导出共用
+     */
+    private Request buildSearchRequest(String uri) {
+        String userSearch = userSearchField.getText().trim();
+        String bookSearch = bookSearchField.getText().trim();
+        String status = (String) statusCombo.getSelectedItem();
+        String searchDate = buildDateString(
+            (String) yearCombo.getSelectedItem(),
+            (String) monthCombo.getSelectedItem(),
+            (String) dayCombo.getSelectedItem()
+        );
+        String dateType = (String) dateTypeCombo.getSelectedItem();
+        
+        Request request = new Request(uri);
+        if (!userSearch.isEmpty()) request.addParam("userSearch", userSearch);
+        if (!bookSearch.isEmpty()) request.addParam("bookSearch", bookSearch);
+        if (!"全部".equals(status)) {
+            // 状态映射：将显示的状态转换为后端状态
+            String backendStatus = status;
+            switch (status) {
+                case "已归还":
+                    backendStatus = "RETURNED";
+                    break;
+                case "逾期":
+                    backendStatus = "OVERDUE";
+                    break;
+                case "续借":
+                    backendStatus = "RENEWED";
+                    break;
+            }
+            request.addParam("status", backendStatus);
+        }
+        if (!searchDate.isEmpty()) {
+            if ("借阅日期".equals(dateType)) {
+                request.addParam("borrowDate", searchDate);
+            } else if ("应还日期".equals(dateType)) {
+                request.addParam("dueDate", searchDate);
+            } else if ("归还日期".equals(dateType)) {
+                request.addParam("returnDate", searchDate);
+            }
+        }
+        return request;
+    }
+    
+    /**
+     * 按当前搜索条件导出全部借阅记录
+     * 由服务器分批读取生成文件，客户端分块下载
+     */
+    private void exportBorrowRecords() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("导出借阅记录");
+        fileChooser.setSelectedFile(new java.io.File("借阅记录_" + 
+            new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()) + ".xlsx"));
+        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Excel文件 (*.xlsx)", "xlsx"));
+        fileChooser.addChoosableFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV文件 (*.csv)", "csv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        java.io.File selected = fileChooser.getSelectedFile();
+        String lowerName = selected.getName().toLowerCase();
+        java.io.File file = lowerName.endsWith(".xlsx") || lowerName.endsWith(".csv")
+            ? selected : new java.io.File(selected.getAbsolutePath() + ".xlsx");
+        
+        Request request = buildSearchRequest("library/admin/borrow-records/export");
+        request.addParam("fileName", file.getName());
+        ProgressMonitor monitor = new ProgressMonitor(this, "正在导出借阅记录", "正在生成...", 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        exportButton.setEnabled(false);
+        
+        new Thread(() -> {
+            try {
+                long count = ExportDownloader.download(nettyClient, request, file, (note, percent) ->
+                    SwingUtilities.invokeLater(() -> {
+                        monitor.setNote(note);
+                        monitor.setProgress(percent);
+                    }));
+                log.info("借阅记录导出成功: file={}, count={}", file.getAbsolutePath(), count);
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                    "导出成功！\n文件已保存到：" + file.getAbsolutePath() + "\n共导出 " + count + " 条记录",
+                    "导出成功", JOptionPane.INFORMATION_MESSAGE));
+            } catch (Exception e) {
+                log.error("导出借阅记录时发生错误", e);
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                    "导出失败：" + e.getMessage(), "错误", JOptionPane.ERROR_MESSAGE));
+            } finally {
+                SwingUtilities.invokeLater(() -> {
+                    monitor.close();
+                    exportButton.setEnabled(true);
+                });
+            }
+        }).start();
+    }
+    
     private void searchBorrowRecords() {
         String userSearch = userSearchField.getText().trim();
         String bookSearch = bookSearchField.getText().trim();
@@ -661,6 +772,9 @@ public class BorrowManagementPanel extends JPanel implements LibraryPanel.Refres
             return;
         }
         
+        // 构建搜索请求
+        Request request = buildSearchRequest("library/admin/search-borrows");
+        
         // 在后台线程中执行搜索
         SwingUtilities.invokeLater(() -> {
             new Thread(() -> {
@@ -668,36 +782,6 @@ public class BorrowManagementPanel extends JPanel implements LibraryPanel.Refres
                     log.info("开始搜索借阅记录: user={}, book={}, status={}, searchDate={}, dateType={}", 
                              userSearch, bookSearch, status, searchDate, dateType);
                     
-                    // 构建搜索请求
-                    Request request = new Request("library/admin/search-borrows");
-                    if (!userSearch.isEmpty()) request.addParam("userSearch", userSearch);
-                    if (!bookSearch.isEmpty()) request.addParam("bookSearch", bookSearch);
-                    if (!"全部".equals(status)) {
-                        // 状态映射：将显示的状态转换为后端状态
-                        String backendStatus = status;
-                        switch (status) {
-                            case "已归还":
-                                backendStatus = "RETURNED";
-                                break;
-                            case "逾期":
-                                backendStatus = "OVERDUE";
-                                break;
-                            case "续借":
-                                backendStatus = "RENEWED";
-                                break;
-                        }
-                        request.addParam("status", backendStatus);
-                    }
-                    if (!searchDate.isEmpty()) {
-                        if ("借阅日期".equals(dateType)) {
-                            request.addParam("borrowDate", searchDate);
-                        } else if ("应还日期".equals(dateType)) {
-                            request.addParam("dueDate", searchDate);
-                        } else if ("归还日期".equals(dateType)) {
-                            request.addParam("returnDate", searchDate);
-                        }
-                    }
-                    
                     // 发送请求
                     Response response = nettyClient.sendRequest(request).get(10, java.util.concurrent.TimeUnit.SECONDS);
                     
@@ -0,0 +1,51 @@
+package com.vcampus.client.core.ui.library;
+
+import com.vcampus.client.core.net.NettyClient;
+import com.vcampus.common.message.Request;
+import com.vcampus.common.message.Response;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图书分类列表缓存
+ *
+ * 分类列表在客户端保存一份并记住服务器返回的版本号，再次加载时带上版本号，
+ * 分类未变化时服务器只返回版本号，不再重复传输整个列表。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+final class CategoryCache {
+
+    private static String version = "";
+    private static List<Map<String, Object>> categories;
+
+    private CategoryCache() {
+    }
+
+    /**
+     * 获取分类列表，分类未变化时直接返回缓存
+     *
+     * @param nettyClient 网络客户端
+     * @return 分类列表，元素包含 categoryCode、categoryName、description、sortOrder
+     */
+    @SuppressWarnings("unchecked")
+    static synchronized List<Map<String, Object>> load(NettyClient nettyClient) throws Exception {
+        Request request = new Request("library/user/get-categories");
+        request.addParam("ifNoneMatch", categories != null ? version : "");
+        Response response = nettyClient.sendRequest(request).get(10, TimeUnit.SECONDS);
+        if (response == null || !response.isSuccess()) {
+            throw new IOException(response != null ? response.getMessage() : "服务器无响应");
+        }
+
+        Map<String, Object> data = (Map<String, Object>) response.getData();
+        if (!Boolean.TRUE.equals(data.get("notModified"))) {
+            categories = (List<Map<String, Object>>) data.get("categories");
+            version = String.valueOf(data.get("version"));
+        }
+        return categories;
+    }
+}
@@ -0,0 +1,133 @@
+package com.vcampus.client.core.ui.library;
+
+import com.vcampus.client.core.net.NettyClient;
+import com.vcampus.common.message.Request;
+import com.vcampus.common.message.Response;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * 服务器端导出文件下载
+ *
+ * 发送导出请求后轮询服务器生成进度，完成后按块依次下载写入本地文件，
+ * 整个文件不会出现在单个响应或客户端内存中。服务器保留导出文件直到收齐后通知其结束，
+ * 因此单块下载失败（包括最后一块）可以重试。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+final class ExportDownloader {
+
+    private static final long POLL_INTERVAL_MS = 500;
+    private static final int CHUNK_ATTEMPTS = 3;
+
+    private ExportDownloader() {
+    }
+
+    /**
+     * 导出并下载到本地文件
+     *
+     * @param nettyClient 网络客户端
+     * @param exportRequest 开始导出的请求
+     * @param target 本地目标文件
+     * @param progress 进度回调，参数为提示文字和百分比
+     * @return 导出条数
+     */
+    static long download(NettyClient nettyClient, Request exportRequest, File target,
+                         BiConsumer<String, Integer> progress) throws Exception {
+        Map<String, Object> status = send(nettyClient, exportRequest, 30);
+        String exportId = (String) status.get("exportId");
+
+        // 1. 等待服务器生成文件
+        while (!Boolean.TRUE.equals(status.get("done"))) {
+            Thread.sleep(POLL_INTERVAL_MS);
+            Request request = new Request("library/admin/book/export-progress");
+            request.addParam("exportId", exportId);
+            status = send(nettyClient, request, 10);
+            progress.accept("正在生成，已导出 " + toLong(status.get("exportedCount")) + " 条", 0);
+        }
+        if (!"DONE".equals(status.get("state"))) {
+            throw new IOException(status.get("message") != null ? String.valueOf(status.get("message")) : "生成导出文件失败");
+        }
+
+        // 2. 分块下载，先写入临时文件，全部完成后再替换目标文件
+        long chunkCount = toLong(status.get("chunkCount"));
+        Path part = new File(target.getAbsolutePath() + ".part").toPath();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+            int seq = 0;
+            boolean last;
+            do {
+                Map<String, Object> chunk = downloadChunk(nettyClient, exportId, seq);
+                out.write(Base64.getDecoder().decode((String) chunk.get("data")));
+                last = Boolean.TRUE.equals(chunk.get("last"));
+                seq++;
+                int percent = chunkCount > 0 ? (int) Math.min(100, seq * 100L / chunkCount) : 100;
+                progress.accept("正在下载 " + percent + "%", percent);
+            } while (!last);
+        } catch (Exception e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Files.move(part, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        complete(nettyClient, exportId);
+        return toLong(status.get("exportedCount"));
+    }
+
+    /**
+     * 下载一块，失败时重试
+     */
+    private static Map<String, Object> downloadChunk(NettyClient nettyClient, String exportId, int seq) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            Request request = new Request("library/admin/book/export-chunk");
+            request.addParam("exportId", exportId);
+            request.addParam("seq", String.valueOf(seq));
+            try {
+                return send(nettyClient, request, 30);
+            } catch (Exception e) {
+                if (attempt >= CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                Thread.sleep(POLL_INTERVAL_MS);
+            }
+        }
+    }
+
+    /**
+     * 通知服务器删除导出文件；失败时由服务器在过期后清理
+     */
+    private static void complete(NettyClient nettyClient, String exportId) {
+        Request request = new Request("library/admin/book/export-complete");
+        request.addParam("exportId", exportId);
+        try {
+            send(nettyClient, request, 10);
+        } catch (Exception e) {
+            // 文件已保存到本地，服务器端的临时文件会在过期后清理
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> send(NettyClient nettyClient, Request request, int timeoutSeconds) throws Exception {
+        Response response = nettyClient.sendRequest(request).get(timeoutSeconds, TimeUnit.SECONDS);
+        if (response == null || !response.isSuccess()) {
+            throw new IOException(response != null ? response.getMessage() : "服务器无响应");
+        }
+        return (Map<String, Object>) response.getData();
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value == null ? 0 : Long.parseLong(value.toString());
+    }
+}
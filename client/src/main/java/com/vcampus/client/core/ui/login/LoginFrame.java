@@ -65,6 +65,7 @@ public class LoginFrame extends JFrame {
         // 从配置文件加载服务器地址与端口，回退到默认值
         String host = "localhost";
         int port = 8080;
+        String protocol = "json";
         try {
             java.util.Properties props = new java.util.Properties();
             // 尝试多个可能的配置路径，兼容不同工作目录
@@ -84,13 +85,14 @@ public class LoginFrame extends JFrame {
                     props.load(fis);
                     host = props.getProperty("server.host", host);
                     port = Integer.parseInt(props.getProperty("server.port", String.valueOf(port)));
+                    protocol = props.getProperty("server.protocol", protocol).trim();
                 }
             }
         } catch (Exception e) {
             log.warn("加载客户端配置失败，使用默认连接配置", e);
         }
-        nettyClient = new NettyClient(host, port);
-        log.info("登录界面初始化完成, server={}:{}", host, port);
+        nettyClient = new NettyClient(host, port, protocol);
+        log.info("登录界面初始化完成, server={}:{} ({})", host, port, protocol);
     }
 
     private void initializeUI() {
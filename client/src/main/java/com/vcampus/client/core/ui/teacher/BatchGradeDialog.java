@@ -3,6 +3,7 @@ package com.vcampus.client.core.ui.teacher;
 import com.vcampus.client.core.net.NettyClient;
 import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
+import com.vcampus.common.util.JsonUtils;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.swing.*;
@@ -303,56 +304,19 @@ public class BatchGradeDialog extends JDialog {
             SwingWorker<Boolean, Integer> worker = new SwingWorker<Boolean, Integer>() {
                 @Override
                 protected Boolean doInBackground() throws Exception {
-                    int successCount = 0;
-                    int failCount = 0;
-
-                    for (int i = 0; i < gradesToUpdate.size(); i++) {
-                        Map<String, Object> gradeData = gradesToUpdate.get(i);
-
-                        try {
-                            String cardNum = gradeData.get("cardNum").toString();
-                            String scoreStr = gradeData.get("score").toString();
-                            String gpaStr = gradeData.get("gpa").toString();
-
-                            if (!scoreStr.isEmpty() && !gpaStr.isEmpty()) {
-                                double score = Double.parseDouble(scoreStr);
-                                double gpa = Double.parseDouble(gpaStr);
-
-                                // 发送更新请求
-                                Request request = new Request("academic/course")
-                                        .addParam("action", "UPDATE_STUDENT_SCORE")
-                                        .addParam("cardNum", cardNum)
-                                        .addParam("sectionId", String.valueOf(currentSectionId))
-                                        .addParam("score", String.valueOf(score))
-                                        .addParam("gpa", String.valueOf(gpa));
-
-                                Response response = nettyClient.sendRequest(request).get(10, java.util.concurrent.TimeUnit.SECONDS);
-
-                                if (response != null && response.isSuccess()) {
-                                    successCount++;
-                                    log.debug("学生 {} 成绩更新成功", cardNum);
-                                } else {
-                                    failCount++;
-                                    log.warn("学生 {} 成绩更新失败: {}", cardNum,
-                                           response != null ? response.getMessage() : "未知错误");
-                                }
-                            }
-                        } catch (Exception e) {
-                            failCount++;
-                            log.error("更新学生成绩时发生错误", e);
-                        }
-
-                        // 更新进度
-                        publish(i + 1);
-
-                        // 添加小延迟避免过快请求
-                        Thread.sleep(100);
+                    // 整个教学班的成绩一次提交，服务器按分数计算GPA并在一个事务中写入
+                    Request request = new Request("academic/course")
+                            .addParam("action", "BATCH_UPDATE_SCORES")
+                            .addParam("sectionId", String.valueOf(currentSectionId))
+                            .addParam("scoresData", JsonUtils.toCompactJson(gradesToUpdate));
+
+                    Response response = nettyClient.sendRequest(request).get(30, java.util.concurrent.TimeUnit.SECONDS);
+                    if (response == null || !response.isSuccess()) {
+                        throw new Exception(response != null ? response.getMessage() : "服务器无响应");
                     }
-
-                    // 记录最终结果
-                    log.info("批量评分完成: 成功 {} 条，失败 {} 条", successCount, failCount);
-
-                    return successCount > 0; // 只要有成功的就返回true
+                    publish(updatedCount);
+                    log.info("批量评分完成: {} 条", updatedCount);
+                    return true;
                 }
 
                 @Override
@@ -382,8 +346,9 @@ public class BatchGradeDialog extends JDialog {
                         }
                     } catch (Exception e) {
                         log.error("获取保存结果时发生错误", e);
+                        Throwable cause = e instanceof java.util.concurrent.ExecutionException && e.getCause() != null ? e.getCause() : e;
                         JOptionPane.showMessageDialog(BatchGradeDialog.this,
-                            "保存过程中发生错误：" + e.getMessage(),
+                            "保存过程中发生错误：" + cause.getMessage(),
                             "错误",
                             JOptionPane.ERROR_MESSAGE);
                     }
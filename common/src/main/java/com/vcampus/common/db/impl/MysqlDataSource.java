@@ -2,18 +2,33 @@ package com.vcampus.common.db.impl;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import javax.sql.DataSource;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
  * MySQL数据源实现
- * 使用HikariCP连接池
+ * 使用HikariCP连接池，服务端 MyBatis 与 DbHelper 共用这一个连接池
+ * 
+ * 连接池大小：配置文件中的 db.pool.maxSize 优先；未配置时使用系统属性
+ * {@value #POOL_SIZE_HINT_PROPERTY}（服务端按业务线程数设置），都没有时为 {@value #DEFAULT_POOL_SIZE}
  */
 public class MysqlDataSource {
     
+    /**
+     * 连接池大小建议值的系统属性名，须在首次使用数据源之前设置
+     */
+    public static final String POOL_SIZE_HINT_PROPERTY = "vcampus.db.pool.sizeHint";
+    
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final String POOL_NAME = "vcampus-db";
+    
     private static HikariDataSource dataSource;
+    private static final PoolMetricsTracker metricsTracker = new PoolMetricsTracker();
     
     static {
         initializeDataSource();
@@ -31,10 +46,16 @@ public class MysqlDataSource {
             config.setUsername(props.getProperty("db.username", "root"));
             config.setPassword(props.getProperty("db.password", "123456"));
             config.setDriverClassName(props.getProperty("db.driver", "com.mysql.cj.jdbc.Driver"));
+            // 批量语句合并为一次发送，BATCH 执行器的多条 INSERT/UPDATE 只需一次往返
+            config.addDataSourceProperty("rewriteBatchedStatements",
+                    props.getProperty("db.rewriteBatchedStatements", "true"));
             
             // 连接池配置
-            config.setMaximumPoolSize(Integer.parseInt(props.getProperty("db.pool.maxSize", "10")));
-            config.setMinimumIdle(Integer.parseInt(props.getProperty("db.pool.minIdle", "5")));
+            int maxSize = resolvePoolSize(props);
+            int minIdle = Integer.parseInt(props.getProperty("db.pool.minIdle", "5"));
+            config.setPoolName(POOL_NAME);
+            config.setMaximumPoolSize(maxSize);
+            config.setMinimumIdle(Math.min(minIdle, maxSize));
             config.setConnectionTimeout(Long.parseLong(props.getProperty("db.pool.connectionTimeout", "30000")));
             config.setIdleTimeout(Long.parseLong(props.getProperty("db.pool.idleTimeout", "600000")));
             config.setMaxLifetime(Long.parseLong(props.getProperty("db.pool.maxLifetime", "1800000")));
@@ -43,7 +64,11 @@ public class MysqlDataSource {
             config.setConnectionTestQuery(props.getProperty("db.pool.connectionTestQuery", "SELECT 1"));
             config.setValidationTimeout(Long.parseLong(props.getProperty("db.pool.validationTimeout", "5000")));
             
+            // 连接池指标：等待时间、占用时间、超时次数
+            config.setMetricsTrackerFactory(metricsTracker);
+            
             dataSource = new HikariDataSource(config);
+            System.out.println("Database connection pool created: maxSize=" + maxSize + ", minIdle=" + config.getMinimumIdle());
             
             // 测试连接
             testConnection();
@@ -54,6 +79,17 @@ public class MysqlDataSource {
         }
     }
     
+    /**
+     * 确定连接池大小
+     */
+    private static int resolvePoolSize(Properties props) {
+        String configured = props.getProperty("db.pool.maxSize");
+        if (configured != null && !configured.isBlank()) {
+            return Math.max(1, Integer.parseInt(configured.trim()));
+        }
+        return Math.max(1, Integer.getInteger(POOL_SIZE_HINT_PROPERTY, DEFAULT_POOL_SIZE));
+    }
+    
     /**
      * 加载数据库配置文件
      */
@@ -85,4 +121,27 @@ public class MysqlDataSource {
     public static DataSource getInstance() {
         return dataSource;
     }
+    
+    /**
+     * 连接池状态快照：实时的活跃/空闲/总连接数与等待线程数，以及累计的等待时间、超时等指标
+     * 
+     * @return 状态快照，连接池未初始化时为空
+     */
+    public static Map<String, Object> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (dataSource == null) {
+            return stats;
+        }
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        stats.put("maxSize", dataSource.getMaximumPoolSize());
+        stats.put("minIdle", dataSource.getMinimumIdle());
+        if (pool != null) {
+            stats.put("active", pool.getActiveConnections());
+            stats.put("idle", pool.getIdleConnections());
+            stats.put("total", pool.getTotalConnections());
+            stats.put("waiting", pool.getThreadsAwaitingConnection());
+        }
+        stats.putAll(metricsTracker.snapshot());
+        return stats;
+    }
 }
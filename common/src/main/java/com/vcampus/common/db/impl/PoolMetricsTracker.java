@@ -0,0 +1,77 @@
+package com.vcampus.common.db.impl;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.IMetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HikariCP 连接池指标收集
+ * 记录获取连接的等待时间、连接占用时间、获取超时次数与新建连接数，
+ * 活跃/空闲/等待线程数等实时量由 {@link MysqlDataSource#getPoolStats()} 从连接池读取。
+ */
+public class PoolMetricsTracker implements IMetricsTrackerFactory, IMetricsTracker {
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder usages = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final AtomicLong maxUsageMillis = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return this;
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        connectionsCreated.increment();
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquisitions.increment();
+        acquireNanos.add(elapsedAcquiredNanos);
+        maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usages.increment();
+        usageMillis.add(elapsedBorrowedMillis);
+        maxUsageMillis.accumulateAndGet(elapsedBorrowedMillis, Math::max);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * 累计指标快照，时间单位为毫秒
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        long acquired = acquisitions.sum();
+        long used = usages.sum();
+        map.put("acquisitions", acquired);
+        map.put("avgWaitMs", acquired == 0 ? 0.0 : round(acquireNanos.sum() / 1_000_000.0 / acquired));
+        map.put("maxWaitMs", round(maxAcquireNanos.get() / 1_000_000.0));
+        map.put("timeouts", timeouts.sum());
+        map.put("avgUsageMs", used == 0 ? 0.0 : round((double) usageMillis.sum() / used));
+        map.put("maxUsageMs", maxUsageMillis.get());
+        map.put("connectionsCreated", connectionsCreated.sum());
+        return map;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
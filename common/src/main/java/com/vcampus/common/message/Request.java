@@ -44,6 +44,12 @@ public class Request {
      * 请求时间戳
      */
     private long timestamp = System.currentTimeMillis();
+
+    /**
+     * 可选的顺序键：同一连接上顺序键相同的请求按发送顺序依次执行，
+     * 未指定顺序键的请求可与其他请求并发执行、乱序返回（客户端按 id 匹配响应）
+     */
+    private String orderKey;
     
     /**
      * 便捷的构造方法
@@ -80,6 +86,17 @@ public class Request {
         return this;
     }
     
+    /**
+     * 设置顺序键
+     * 
+     * @param orderKey 顺序键
+     * @return 当前Request对象，支持链式调用
+     */
+    public Request withOrderKey(String orderKey) {
+        this.orderKey = orderKey;
+        return this;
+    }
+    
     /**
      * 获取参数
      * 
@@ -139,6 +139,13 @@ public class Response {
         public static Response internalError(String message) {
             return new Response(null, "INTERNAL_ERROR", message, null, null, System.currentTimeMillis());
         }
+        
+        /**
+         * 服务器繁忙（业务线程池已满）
+         */
+        public static Response busy(String message) {
+            return new Response(null, "BUSY", message, null, null, System.currentTimeMillis());
+        }
     }
     
     /**
@@ -1,12 +1,16 @@
 package com.vcampus.common.message;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 /**
  * 用户会话信息类
@@ -49,6 +53,13 @@ public class Session {
      */
     private boolean active = true;
 
+    /**
+     * 规范化后的角色集合缓存（不参与序列化），roles 变化时重建
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile Set<String> normalizedRoles;
+
     /**
      * 便捷构造方法
      * 
@@ -61,6 +72,16 @@ public class Session {
         this.userName = userName;
         this.roles = roles;
     }
+
+    /**
+     * 设置角色列表
+     *
+     * @param roles 角色数组
+     */
+    public void setRoles(String[] roles) {
+        this.roles = roles;
+        this.normalizedRoles = null;
+    }
     
     /**
      * 检查用户是否具有指定权限
@@ -82,36 +103,28 @@ public class Session {
         // 规范化需要的角色
         String req = requiredRole == null ? null : requiredRole.trim().toLowerCase();
 
+        Set<String> roleSet = getRoleSet();
+
         // 特殊处理：staff 与 teacher 可互通
         if (req != null && ("staff".equals(req) || "teacher".equals(req))) {
-            for (String role : roles) {
-                if (role == null) continue;
-                String lower = normalizeRole(role);
-                if ("staff".equals(lower) || "teacher".equals(lower) || "admin".equals(lower)) return true;
-            }
-            return false;
+            return roleSet.contains("staff") || roleSet.contains("teacher") || roleSet.contains("admin");
         }
 
         // 常规匹配（忽略大小写、允许ROLE_前缀）
-        for (String role : roles) {
-            if (role == null) continue;
-            String lower = normalizeRole(role);
-            if (lower.equals(req) || "admin".equals(lower)) {
-                return true;
-            }
-        }
-        
-        return false;
+        return (req != null && roleSet.contains(req)) || roleSet.contains("admin");
     }
     
     /**
      * 规范化角色字符串：去掉ROLE_前缀，trim并转小写
      */
-    private String normalizeRole(String raw) {
+    private static String normalizeRole(String raw) {
         if (raw == null) return "";
         String s = raw.trim();
         // 去掉可选的 ROLE_ 前缀（不区分大小写）
-        return s.replaceFirst("(?i)^role_", "").toLowerCase();
+        if (s.regionMatches(true, 0, "ROLE_", 0, 5)) {
+            s = s.substring(5);
+        }
+        return s.toLowerCase();
     }
 
     /**
@@ -124,19 +137,23 @@ public class Session {
     }
     
     /**
-     * 获取所有角色
+     * 获取所有角色（规范化后，只读）
      * 
      * @return 角色集合
      */
     public Set<String> getRoleSet() {
-        if (roles == null) {
-            return new HashSet<>();
-        }
-        Set<String> set = new HashSet<>();
-        for (String r : roles) {
-            set.add(normalizeRole(r));
+        Set<String> cached = normalizedRoles;
+        if (cached == null) {
+            Set<String> set = new HashSet<>();
+            if (roles != null) {
+                for (String r : roles) {
+                    set.add(normalizeRole(r));
+                }
+            }
+            cached = Collections.unmodifiableSet(set);
+            normalizedRoles = cached;
         }
-        return set;
+        return cached;
     }
     
     /**
@@ -146,7 +163,7 @@ public class Session {
      */
     public void addRole(String newRole) {
         if (roles == null) {
-            roles = new String[]{newRole};
+            setRoles(new String[]{newRole});
             return;
         }
         
@@ -161,7 +178,7 @@ public class Session {
         // 添加新角色
         String[] newRoles = Arrays.copyOf(roles, roles.length + 1);
         newRoles[roles.length] = newRole;
-        this.roles = newRoles;
+        setRoles(newRoles);
     }
     
     /**
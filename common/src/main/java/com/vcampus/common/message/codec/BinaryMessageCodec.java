@@ -0,0 +1,229 @@
+package com.vcampus.common.message.codec;
+
+import com.vcampus.common.message.Request;
+import com.vcampus.common.message.Response;
+import com.vcampus.common.message.Session;
+import com.vcampus.common.util.JsonUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.CorruptedFrameException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Request/Response/Session 的紧凑二进制编码
+ *
+ * 编码规则：
+ * - 字符串：varint(UTF-8 字节数 + 1) + UTF-8 字节，0 表示 null
+ * - UUID：1 字节存在标记 + 两个 long
+ * - Session：1 字节存在标记 + 各字段
+ * - Response.data 为任意对象，仍以紧凑 JSON 文本承载（与 JSON 协议解码结果保持一致）
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public final class BinaryMessageCodec {
+
+    private BinaryMessageCodec() {
+        // 工具类，禁止实例化
+    }
+
+    /**
+     * 编码消息（Request 或 Response）
+     *
+     * @param msg 消息对象
+     * @param out 目标缓冲区
+     */
+    public static void encode(Object msg, ByteBuf out) {
+        if (msg instanceof Request) {
+            out.writeByte(MessageProtocol.TYPE_REQUEST);
+            writeRequest((Request) msg, out);
+        } else if (msg instanceof Response) {
+            out.writeByte(MessageProtocol.TYPE_RESPONSE);
+            writeResponse((Response) msg, out);
+        } else {
+            throw new IllegalArgumentException("Unsupported message type: " + (msg == null ? "null" : msg.getClass().getName()));
+        }
+    }
+
+    /**
+     * 解码消息
+     *
+     * @param in 一个完整帧（不含长度前缀）
+     * @return Request 或 Response
+     */
+    public static Object decode(ByteBuf in) {
+        byte type = in.readByte();
+        switch (type) {
+            case MessageProtocol.TYPE_REQUEST:
+                return readRequest(in);
+            case MessageProtocol.TYPE_RESPONSE:
+                return readResponse(in);
+            default:
+                throw new CorruptedFrameException("Unknown message type: " + type);
+        }
+    }
+
+    private static void writeRequest(Request request, ByteBuf out) {
+        writeUuid(request.getId(), out);
+        writeString(request.getUri(), out);
+        out.writeLong(request.getTimestamp());
+        Map<String, String> params = request.getParams();
+        if (params == null) {
+            writeVarInt(0, out);
+        } else {
+            writeVarInt(params.size() + 1, out);
+            for (Map.Entry<String, String> entry : params.entrySet()) {
+                writeString(entry.getKey(), out);
+                writeString(entry.getValue(), out);
+            }
+        }
+        writeSession(request.getSession(), out);
+        writeString(request.getOrderKey(), out);
+    }
+
+    private static Request readRequest(ByteBuf in) {
+        Request request = new Request();
+        request.setId(readUuid(in));
+        request.setUri(readString(in));
+        request.setTimestamp(in.readLong());
+        int size = readVarInt(in) - 1;
+        if (size < 0) {
+            request.setParams(null);
+        } else {
+            Map<String, String> params = new HashMap<>(Math.max(16, size * 4 / 3 + 1));
+            for (int i = 0; i < size; i++) {
+                params.put(readString(in), readString(in));
+            }
+            request.setParams(params);
+        }
+        request.setSession(readSession(in));
+        request.setOrderKey(readString(in));
+        return request;
+    }
+
+    private static void writeResponse(Response response, ByteBuf out) {
+        writeUuid(response.getId(), out);
+        writeString(response.getStatus(), out);
+        writeString(response.getMessage(), out);
+        out.writeLong(response.getTimestamp());
+        writeString(response.getData() == null ? null : JsonUtils.toCompactJson(response.getData()), out);
+        writeSession(response.getSession(), out);
+    }
+
+    private static Response readResponse(ByteBuf in) {
+        UUID id = readUuid(in);
+        String status = readString(in);
+        String message = readString(in);
+        long timestamp = in.readLong();
+        String dataJson = readString(in);
+        Object data = dataJson == null ? null : JsonUtils.fromJson(dataJson, Object.class);
+        Session session = readSession(in);
+        return new Response(id, status, message, data, session, timestamp);
+    }
+
+    private static void writeSession(Session session, ByteBuf out) {
+        if (session == null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        writeString(session.getUserId(), out);
+        writeString(session.getUserName(), out);
+        String[] roles = session.getRoles();
+        if (roles == null) {
+            writeVarInt(0, out);
+        } else {
+            writeVarInt(roles.length + 1, out);
+            for (String role : roles) {
+                writeString(role, out);
+            }
+        }
+        out.writeLong(session.getCreateTime());
+        out.writeLong(session.getLastAccessTime());
+        out.writeBoolean(session.isActive());
+    }
+
+    private static Session readSession(ByteBuf in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Session session = new Session();
+        session.setUserId(readString(in));
+        session.setUserName(readString(in));
+        int roleCount = readVarInt(in) - 1;
+        if (roleCount >= 0) {
+            String[] roles = new String[roleCount];
+            for (int i = 0; i < roleCount; i++) {
+                roles[i] = readString(in);
+            }
+            session.setRoles(roles);
+        }
+        session.setCreateTime(in.readLong());
+        session.setLastAccessTime(in.readLong());
+        session.setActive(in.readBoolean());
+        return session;
+    }
+
+    private static void writeUuid(UUID id, ByteBuf out) {
+        if (id == null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(ByteBuf in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeString(String value, ByteBuf out) {
+        if (value == null) {
+            writeVarInt(0, out);
+            return;
+        }
+        writeVarInt(ByteBufUtil.utf8Bytes(value) + 1, out);
+        ByteBufUtil.writeUtf8(out, value);
+    }
+
+    private static String readString(ByteBuf in) {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.readableBytes()) {
+            throw new CorruptedFrameException("String length " + length + " exceeds frame");
+        }
+        String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+        in.skipBytes(length);
+        return value;
+    }
+
+    private static void writeVarInt(int value, ByteBuf out) {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuf in) {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.readByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new CorruptedFrameException("Malformed varint");
+    }
+}
@@ -0,0 +1,35 @@
+package com.vcampus.common.message.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+import java.util.List;
+
+/**
+ * 二进制帧解码器
+ * 接收 {@link #newFrameDecoder()} 切分好的完整帧，解码为 Request 或 Response 对象。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@ChannelHandler.Sharable
+public class BinaryMessageDecoder extends MessageToMessageDecoder<ByteBuf> {
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf frame, List<Object> out) {
+        out.add(BinaryMessageCodec.decode(frame));
+    }
+
+    /**
+     * 创建长度前缀帧切分器（有状态，每个连接一个实例）
+     *
+     * @return 帧切分器
+     */
+    public static LengthFieldBasedFrameDecoder newFrameDecoder() {
+        return new LengthFieldBasedFrameDecoder(MessageProtocol.MAX_FRAME_LENGTH,
+                0, MessageProtocol.LENGTH_FIELD_LENGTH, 0, MessageProtocol.LENGTH_FIELD_LENGTH);
+    }
+}
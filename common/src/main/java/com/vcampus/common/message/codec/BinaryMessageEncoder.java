@@ -0,0 +1,32 @@
+package com.vcampus.common.message.codec;
+
+import com.vcampus.common.message.Request;
+import com.vcampus.common.message.Response;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/**
+ * 二进制帧编码器
+ * 直接在（池化、直接内存）输出缓冲区中写入 4 字节长度前缀和消息体，不产生中间 String/byte[]。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@ChannelHandler.Sharable
+public class BinaryMessageEncoder extends MessageToByteEncoder<Object> {
+
+    @Override
+    public boolean acceptOutboundMessage(Object msg) {
+        return msg instanceof Request || msg instanceof Response;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) {
+        int lengthIndex = out.writerIndex();
+        out.writeInt(0);
+        BinaryMessageCodec.encode(msg, out);
+        out.setInt(lengthIndex, out.writerIndex() - lengthIndex - MessageProtocol.LENGTH_FIELD_LENGTH);
+    }
+}
@@ -0,0 +1,40 @@
+package com.vcampus.common.message.codec;
+
+import com.vcampus.common.message.Request;
+import com.vcampus.common.message.Response;
+import com.vcampus.common.util.JsonUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON 行协议编码器
+ * 将 Request/Response 以单行紧凑 JSON（以 '\n' 结尾）直接写入（池化）输出缓冲区，不生成中间 String。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@ChannelHandler.Sharable
+public class JsonLineEncoder extends MessageToByteEncoder<Object> {
+
+    @Override
+    public boolean acceptOutboundMessage(Object msg) {
+        return msg instanceof Request || msg instanceof Response;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
+        // 关闭 Writer 只会刷新到 out，不会释放缓冲区
+        try (Writer writer = new OutputStreamWriter(new ByteBufOutputStream(out), StandardCharsets.UTF_8)) {
+            // 使用紧凑单行 JSON，避免按行分割时被截断
+            JsonUtils.toCompactJson(msg, writer);
+            writer.write('\n');
+        }
+    }
+}
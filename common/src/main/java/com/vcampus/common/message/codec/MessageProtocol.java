@@ -0,0 +1,57 @@
+package com.vcampus.common.message.codec;
+
+/**
+ * 传输协议常量
+ *
+ * 支持两种帧格式：
+ * 1. JSON 协议（默认，兼容测试脚本）：连续的 JSON 对象，发送方以单行紧凑 JSON + '\n' 输出，
+ *    服务器按对象边界切分，也接受多行/漂亮打印的 JSON
+ * 2. 二进制协议：客户端连接后先发送 {@link #BINARY_MAGIC} 前导字节，
+ *    之后每帧为 4 字节长度前缀 + {@link BinaryMessageCodec} 编码的消息体
+ *
+ * 服务器根据连接上收到的首批字节自动识别协议。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public final class MessageProtocol {
+
+    /**
+     * 协议名称：JSON 行协议
+     */
+    public static final String PROTOCOL_JSON = "json";
+
+    /**
+     * 协议名称：二进制长度前缀协议
+     */
+    public static final String PROTOCOL_BINARY = "binary";
+
+    /**
+     * 二进制协议前导字节："VCB" + 版本号 1（JSON 消息总以 '{' 或空白开头，不会与之冲突）
+     */
+    public static final byte[] BINARY_MAGIC = {'V', 'C', 'B', 1};
+
+    /**
+     * 单帧（单个 JSON 对象）最大长度
+     */
+    public static final int MAX_FRAME_LENGTH = 10 * 1024 * 1024;
+
+    /**
+     * 长度前缀字节数
+     */
+    public static final int LENGTH_FIELD_LENGTH = 4;
+
+    /**
+     * 消息类型：请求
+     */
+    public static final byte TYPE_REQUEST = 1;
+
+    /**
+     * 消息类型：响应
+     */
+    public static final byte TYPE_RESPONSE = 2;
+
+    private MessageProtocol() {
+        // 常量类，禁止实例化
+    }
+}
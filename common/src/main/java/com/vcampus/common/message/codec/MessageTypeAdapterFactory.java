@@ -0,0 +1,340 @@
+package com.vcampus.common.message.codec;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.vcampus.common.message.Request;
+import com.vcampus.common.message.Response;
+import com.vcampus.common.message.Session;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Request/Response/Session 的流式 Gson 适配器
+ *
+ * 替代基于反射的默认序列化：
+ * - 请求参数直接按字符串解码（数字/布尔值取其字面量，"null" 视为 null），服务端无需再归一化
+ * - UUID 直接由字符串解析
+ * - 字段名与反射序列化保持一致，null 字段不输出，新旧客户端可互通
+ * Response.data 为任意对象，仍委托给 Gson 处理。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public class MessageTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        if (raw == Session.class) {
+            return (TypeAdapter<T>) new SessionAdapter();
+        }
+        if (raw == Request.class) {
+            return (TypeAdapter<T>) new RequestAdapter(new SessionAdapter());
+        }
+        if (raw == Response.class) {
+            return (TypeAdapter<T>) new ResponseAdapter(gson, new SessionAdapter());
+        }
+        return null;
+    }
+
+    /**
+     * Request 适配器
+     */
+    private static class RequestAdapter extends TypeAdapter<Request> {
+        private final SessionAdapter sessionAdapter;
+
+        RequestAdapter(SessionAdapter sessionAdapter) {
+            this.sessionAdapter = sessionAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, Request request) throws IOException {
+            if (request == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeUuid(out, "id", request.getId());
+            writeString(out, "uri", request.getUri());
+            Map<String, String> params = request.getParams();
+            if (params != null) {
+                out.name("params").beginObject();
+                for (Map.Entry<String, String> entry : params.entrySet()) {
+                    out.name(entry.getKey());
+                    out.value(entry.getValue());
+                }
+                out.endObject();
+            }
+            if (request.getSession() != null) {
+                out.name("session");
+                sessionAdapter.write(out, request.getSession());
+            }
+            out.name("timestamp").value(request.getTimestamp());
+            writeString(out, "orderKey", request.getOrderKey());
+            out.endObject();
+        }
+
+        @Override
+        public Request read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Request request = new Request();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        request.setId(readUuid(in));
+                        break;
+                    case "uri":
+                        request.setUri(readString(in));
+                        break;
+                    case "params":
+                        request.setParams(readParams(in));
+                        break;
+                    case "session":
+                        request.setSession(sessionAdapter.read(in));
+                        break;
+                    case "timestamp":
+                        request.setTimestamp(in.nextLong());
+                        break;
+                    case "orderKey":
+                        request.setOrderKey(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return request;
+        }
+
+        private static Map<String, String> readParams(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Map<String, String> params = new HashMap<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                String key = in.nextName();
+                String value;
+                switch (in.peek()) {
+                    case NULL:
+                        in.nextNull();
+                        value = null;
+                        break;
+                    case BOOLEAN:
+                        value = Boolean.toString(in.nextBoolean());
+                        break;
+                    case BEGIN_OBJECT:
+                    case BEGIN_ARRAY:
+                        // 兼容直接传入嵌套对象/数组的参数：保留其 JSON 文本
+                        value = JsonParser.parseReader(in).toString();
+                        break;
+                    default:
+                        // 字符串与数字均取字面量
+                        value = in.nextString();
+                        break;
+                }
+                // 避免将"null"字符串作为有效值
+                params.put(key, "null".equals(value) ? null : value);
+            }
+            in.endObject();
+            return params;
+        }
+    }
+
+    /**
+     * Response 适配器
+     */
+    private static class ResponseAdapter extends TypeAdapter<Response> {
+        private final Gson gson;
+        private final SessionAdapter sessionAdapter;
+
+        ResponseAdapter(Gson gson, SessionAdapter sessionAdapter) {
+            this.gson = gson;
+            this.sessionAdapter = sessionAdapter;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(JsonWriter out, Response response) throws IOException {
+            if (response == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeUuid(out, "id", response.getId());
+            writeString(out, "status", response.getStatus());
+            writeString(out, "message", response.getMessage());
+            Object data = response.getData();
+            if (data != null) {
+                out.name("data");
+                TypeAdapter<Object> adapter = (TypeAdapter<Object>) gson.getAdapter(data.getClass());
+                adapter.write(out, data);
+            }
+            if (response.getSession() != null) {
+                out.name("session");
+                sessionAdapter.write(out, response.getSession());
+            }
+            out.name("timestamp").value(response.getTimestamp());
+            out.endObject();
+        }
+
+        @Override
+        public Response read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Response response = new Response();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        response.setId(readUuid(in));
+                        break;
+                    case "status":
+                        response.setStatus(readString(in));
+                        break;
+                    case "message":
+                        response.setMessage(readString(in));
+                        break;
+                    case "data":
+                        response.setData(gson.getAdapter(Object.class).read(in));
+                        break;
+                    case "session":
+                        response.setSession(sessionAdapter.read(in));
+                        break;
+                    case "timestamp":
+                        response.setTimestamp(in.nextLong());
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    /**
+     * Session 适配器
+     */
+    private static class SessionAdapter extends TypeAdapter<Session> {
+
+        @Override
+        public void write(JsonWriter out, Session session) throws IOException {
+            if (session == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeString(out, "userId", session.getUserId());
+            writeString(out, "userName", session.getUserName());
+            if (session.getRoles() != null) {
+                out.name("roles").beginArray();
+                for (String role : session.getRoles()) {
+                    out.value(role);
+                }
+                out.endArray();
+            }
+            out.name("createTime").value(session.getCreateTime());
+            out.name("lastAccessTime").value(session.getLastAccessTime());
+            out.name("active").value(session.isActive());
+            out.endObject();
+        }
+
+        @Override
+        public Session read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Session session = new Session();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "userId":
+                        session.setUserId(readString(in));
+                        break;
+                    case "userName":
+                        session.setUserName(readString(in));
+                        break;
+                    case "roles":
+                        session.setRoles(readStringArray(in));
+                        break;
+                    case "createTime":
+                        session.setCreateTime(in.nextLong());
+                        break;
+                    case "lastAccessTime":
+                        session.setLastAccessTime(in.nextLong());
+                        break;
+                    case "active":
+                        session.setActive(in.nextBoolean());
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return session;
+        }
+
+        private static String[] readStringArray(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            in.beginArray();
+            while (in.hasNext()) {
+                values.add(readString(in));
+            }
+            in.endArray();
+            return values.toArray(new String[0]);
+        }
+    }
+
+    private static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    private static void writeUuid(JsonWriter out, String name, UUID value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value.toString());
+        }
+    }
+
+    private static String readString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static UUID readUuid(JsonReader in) throws IOException {
+        String value = readString(in);
+        return value == null ? null : UUID.fromString(value);
+    }
+}
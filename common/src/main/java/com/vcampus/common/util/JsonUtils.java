@@ -7,6 +7,7 @@ import com.google.gson.JsonParseException;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSerializer;
 import com.google.gson.JsonSyntaxException;
+import com.vcampus.common.message.codec.MessageTypeAdapterFactory;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -49,6 +50,7 @@ public class JsonUtils {
             .registerTypeAdapter(LocalDateTime.class, LOCAL_DATE_TIME_DESERIALIZER)
             .registerTypeAdapter(LocalDate.class, LOCAL_DATE_SERIALIZER)
             .registerTypeAdapter(LocalDate.class, LOCAL_DATE_DESERIALIZER)
+            .registerTypeAdapterFactory(new MessageTypeAdapterFactory())
             .create();
     
     // Compact gson for network transport (no pretty printing)
@@ -58,6 +60,7 @@ public class JsonUtils {
             .registerTypeAdapter(LocalDateTime.class, LOCAL_DATE_TIME_DESERIALIZER)
             .registerTypeAdapter(LocalDate.class, LOCAL_DATE_SERIALIZER)
             .registerTypeAdapter(LocalDate.class, LOCAL_DATE_DESERIALIZER)
+            .registerTypeAdapterFactory(new MessageTypeAdapterFactory())
             .create();
 
     /**
@@ -91,6 +94,16 @@ public class JsonUtils {
         }
     }
 
+    /**
+     * 对象以紧凑 JSON 直接写入目标（如包装了网络缓冲区的 Writer），不生成中间字符串
+     *
+     * @param obj 要转换的对象
+     * @param writer 输出目标
+     */
+    public static void toCompactJson(Object obj, Appendable writer) {
+        compactGson.toJson(obj, writer);
+    }
+
     /**
      * JSON字符串转对象
      * 
@@ -111,6 +124,22 @@ public class JsonUtils {
         }
     }
     
+    /**
+     * JSON字符串转对象，格式错误时直接抛出异常且不记录日志，由调用方决定如何报告
+     *
+     * @param json JSON字符串
+     * @param clazz 目标类型
+     * @param <T> 泛型类型
+     * @return 转换后的对象，json 为空时返回null
+     * @throws JsonParseException JSON格式错误
+     */
+    public static <T> T fromJsonStrict(String json, Class<T> clazz) {
+        if (json == null || json.trim().isEmpty()) {
+            return null;
+        }
+        return gson.fromJson(json, clazz);
+    }
+
     /**
      * JSON字符串转对象（支持 Type 参数以处理泛型类型）
      *
@@ -0,0 +1,75 @@
+package com.vcampus.common.message.codec;
+
+import com.vcampus.common.message.Request;
+import com.vcampus.common.message.Response;
+import com.vcampus.common.message.Session;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BinaryMessageCodecTest {
+
+    @Test
+    public void testRequestRoundTrip() {
+        Request request = new Request("library/user/search");
+        request.addParam("keyword", "数据结构");
+        request.addParam("category", null);
+        request.setSession(new Session("213220001", "张三", "student", "ROLE_admin"));
+
+        Request decoded = (Request) roundTrip(request);
+
+        assertEquals(request.getId(), decoded.getId());
+        assertEquals(request.getUri(), decoded.getUri());
+        assertEquals(request.getTimestamp(), decoded.getTimestamp());
+        assertEquals("数据结构", decoded.getParam("keyword"));
+        assertTrue(decoded.hasParam("category"));
+        assertNull(decoded.getParam("category"));
+        assertEquals("213220001", decoded.getSession().getUserId());
+        assertArrayEquals(new String[]{"student", "ROLE_admin"}, decoded.getSession().getRoles());
+        assertTrue(decoded.getSession().isActive());
+    }
+
+    @Test
+    public void testResponseRoundTrip() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("title", "算法导论");
+        data.put("count", 3);
+        Response response = Response.Builder.success("查询成功", data).withId(java.util.UUID.randomUUID());
+
+        Response decoded = (Response) roundTrip(response);
+
+        assertEquals(response.getId(), decoded.getId());
+        assertEquals("SUCCESS", decoded.getStatus());
+        assertEquals("查询成功", decoded.getMessage());
+        assertNull(decoded.getSession());
+        Map<?, ?> decodedData = (Map<?, ?>) decoded.getData();
+        assertEquals("算法导论", decodedData.get("title"));
+        assertEquals(3.0, ((Number) decodedData.get("count")).doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testNullFields() {
+        Response response = new Response(null, null, null, null, null, 0L);
+        Response decoded = (Response) roundTrip(response);
+        assertNull(decoded.getId());
+        assertNull(decoded.getStatus());
+        assertNull(decoded.getData());
+    }
+
+    private static Object roundTrip(Object msg) {
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            BinaryMessageCodec.encode(msg, buf);
+            Object decoded = BinaryMessageCodec.decode(buf);
+            assertEquals(0, buf.readableBytes());
+            return decoded;
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.vcampus.common.message.codec;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.vcampus.common.message.Request;
+import com.vcampus.common.message.Response;
+import com.vcampus.common.message.Session;
+import com.vcampus.common.util.JsonUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 反射 Gson 路径与流式适配器路径对比
+ * 非单元测试，手动运行 main 方法：500 条图书列表响应、课程列表响应、典型请求解码。
+ */
+public class JsonCodecBenchmark {
+
+    private static final int WARMUP = 1_000;
+    private static final int ITERATIONS = 5_000;
+
+    /**
+     * 旧路径：反射序列化（无 MessageTypeAdapterFactory）
+     */
+    private static final Gson REFLECTIVE_GSON = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss").create();
+
+    public static void main(String[] args) throws Exception {
+        Response books = listResponse(500, true);
+        Response sections = listResponse(200, false);
+        Request request = sampleRequest();
+
+        runEncode("encode book list (500)", books);
+        runEncode("encode course sections (200)", sections);
+        runDecode("decode book list (500)", JsonUtils.toCompactJson(books), Response.class);
+        runDecode("decode course sections (200)", JsonUtils.toCompactJson(sections), Response.class);
+        runDecode("decode request", JsonUtils.toCompactJson(request), Request.class);
+    }
+
+    private static void runEncode(String name, Response response) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            encodeReflective(response);
+            encodeStreaming(response);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            encodeReflective(response);
+        }
+        long reflective = (System.nanoTime() - start) / ITERATIONS;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            encodeStreaming(response);
+        }
+        long streaming = (System.nanoTime() - start) / ITERATIONS;
+        System.out.printf("%-32s reflective: %9d ns/op | streaming: %9d ns/op%n", name, reflective, streaming);
+    }
+
+    private static <T> void runDecode(String name, String json, Class<T> type) {
+        for (int i = 0; i < WARMUP; i++) {
+            decodeReflective(json, type);
+            JsonUtils.fromJson(json, type);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decodeReflective(json, type);
+        }
+        long reflective = (System.nanoTime() - start) / ITERATIONS;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            JsonUtils.fromJson(json, type);
+        }
+        long streaming = (System.nanoTime() - start) / ITERATIONS;
+        System.out.printf("%-32s reflective: %9d ns/op | streaming: %9d ns/op%n", name, reflective, streaming);
+    }
+
+    private static void encodeReflective(Response response) {
+        // 旧路径：生成 String、拼接换行，再由 StringEncoder 转为字节
+        String line = REFLECTIVE_GSON.toJson(response) + "\n";
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+        buf.writeCharSequence(line, StandardCharsets.UTF_8);
+        buf.release();
+    }
+
+    private static void encodeStreaming(Response response) throws Exception {
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try (Writer writer = new OutputStreamWriter(new ByteBufOutputStream(buf), StandardCharsets.UTF_8)) {
+            JsonUtils.toCompactJson(response, writer);
+            writer.write('\n');
+        }
+        buf.release();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void decodeReflective(String json, Class<T> type) {
+        T value = REFLECTIVE_GSON.fromJson(json, type);
+        if (value instanceof Request) {
+            // 旧路径中 ServerHandler 对参数的二次归一化
+            Request request = (Request) value;
+            Map<String, String> normalized = new HashMap<>();
+            ((Map<String, Object>) (Map<?, ?>) request.getParams()).forEach((k, v) -> normalized.put(k, v == null ? null : String.valueOf(v)));
+            request.setParams(normalized);
+        }
+    }
+
+    private static Request sampleRequest() {
+        Request request = new Request("course");
+        request.addParam("action", "SELECT_COURSE");
+        request.addParam("sectionId", "2031");
+        request.addParam("cardNum", "213220001");
+        request.addParam("term", "2024-2025-2");
+        request.setSession(new Session("213220001", "张三", "student"));
+        return request;
+    }
+
+    private static Response listResponse(int count, boolean books) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            if (books) {
+                row.put("bookId", 10000 + i);
+                row.put("isbn", "978711" + String.format("%07d", i));
+                row.put("title", "数据结构与算法分析（第" + (i % 5 + 1) + "版）");
+                row.put("author", "Mark Allen Weiss");
+                row.put("publisher", "机械工业出版社");
+                row.put("category", "TP");
+                row.put("location", "A区-3层-" + (i % 40));
+                row.put("totalQty", 5);
+                row.put("availQty", i % 6);
+                row.put("status", "IN_LIBRARY");
+            } else {
+                row.put("sectionId", 2000 + i);
+                row.put("courseName", "计算机网络原理 " + i);
+                row.put("credit", 3.0);
+                row.put("department", "计算机科学与工程学院");
+                row.put("teacherName", "李老师");
+                row.put("term", "2024-2025-2");
+                row.put("schedule", "周" + (i % 5 + 1) + " 1-2节");
+                row.put("capacity", 120);
+            }
+            rows.add(row);
+        }
+        return Response.Builder.success("获取成功", rows)
+                .withId(UUID.randomUUID())
+                .withSession(new Session("213220001", "张三", "student"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.vcampus.common.message.codec;
+
+import com.vcampus.common.message.Response;
+import com.vcampus.common.message.Session;
+import com.vcampus.common.util.JsonUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JSON 行协议与二进制帧协议对比（线上字节数、解码耗时）
+ * 非单元测试，手动运行 main 方法：典型的图书检索响应与课程列表响应。
+ */
+public class WireFormatBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    public static void main(String[] args) {
+        run("library search (200 books)", bookSearchResponse(200));
+        run("course list (120 sections)", courseListResponse(120));
+    }
+
+    private static void run(String name, Response response) {
+        String jsonLine = JsonUtils.toCompactJson(response) + "\n";
+        byte[] jsonBytes = jsonLine.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuf binary = PooledByteBufAllocator.DEFAULT.directBuffer();
+        binary.writeInt(0);
+        BinaryMessageCodec.encode(response, binary);
+        binary.setInt(0, binary.readableBytes() - MessageProtocol.LENGTH_FIELD_LENGTH);
+        int binaryBytes = binary.readableBytes();
+
+        for (int i = 0; i < WARMUP; i++) {
+            decodeJson(jsonBytes);
+            decodeBinary(binary);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decodeJson(jsonBytes);
+        }
+        long jsonNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decodeBinary(binary);
+        }
+        long binaryNanos = (System.nanoTime() - start) / ITERATIONS;
+        binary.release();
+
+        System.out.printf("%-28s json: %8d bytes %8d ns/decode | binary: %8d bytes %8d ns/decode%n",
+                name, jsonBytes.length, jsonNanos, binaryBytes, binaryNanos);
+    }
+
+    private static Response decodeJson(byte[] line) {
+        // 对应 LineBasedFrameDecoder + StringDecoder + Gson 的解码路径
+        String text = new String(line, 0, line.length - 1, StandardCharsets.UTF_8);
+        return JsonUtils.fromJson(text, Response.class);
+    }
+
+    private static Response decodeBinary(ByteBuf frame) {
+        ByteBuf slice = frame.slice(MessageProtocol.LENGTH_FIELD_LENGTH, frame.readableBytes() - MessageProtocol.LENGTH_FIELD_LENGTH);
+        return (Response) BinaryMessageCodec.decode(slice);
+    }
+
+    private static Response bookSearchResponse(int count) {
+        List<Map<String, Object>> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> book = new LinkedHashMap<>();
+            book.put("bookId", 10000 + i);
+            book.put("isbn", "978711" + String.format("%07d", i));
+            book.put("title", "数据结构与算法分析（第" + (i % 5 + 1) + "版）");
+            book.put("author", "Mark Allen Weiss");
+            book.put("publisher", "机械工业出版社");
+            book.put("publishDate", "2019-03-01");
+            book.put("category", "TP");
+            book.put("location", "A区-3层-" + (i % 40));
+            book.put("totalQty", 5);
+            book.put("availQty", i % 6);
+            book.put("status", "IN_LIBRARY");
+            books.add(book);
+        }
+        return Response.Builder.success("检索成功", books)
+                .withId(UUID.randomUUID())
+                .withSession(new Session("213220001", "张三", "student"));
+    }
+
+    private static Response courseListResponse(int count) {
+        List<Map<String, Object>> sections = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> section = new LinkedHashMap<>();
+            section.put("sectionId", 2000 + i);
+            section.put("courseId", "B" + (7000 + i));
+            section.put("courseName", "计算机网络原理 " + i);
+            section.put("credit", 3.0);
+            section.put("department", "计算机科学与工程学院");
+            section.put("teacherName", "李老师");
+            section.put("term", "2024-2025-2");
+            section.put("schedule", "周" + (i % 5 + 1) + " 1-2节 J3-" + (100 + i));
+            section.put("capacity", 120);
+            section.put("enrolled", i % 120);
+            sections.add(section);
+        }
+        return Response.Builder.success("获取成功", sections).withId(UUID.randomUUID());
+    }
+}
@@ -1,7 +1,14 @@
 package com.vcampus.server;
 
+import com.vcampus.common.db.impl.MysqlDataSource;
 import com.vcampus.server.core.net.NettyServer;
 import com.vcampus.server.core.common.router.Router;
+import com.vcampus.server.core.course.grade.GradeAggregator;
+import com.vcampus.server.core.course.registration.CourseRegistrar;
+import com.vcampus.server.core.library.overdue.OverdueTracker;
+import com.vcampus.server.core.system.metrics.MetricsRegistry;
+import com.vcampus.server.core.system.metrics.MetricsReporter;
+import com.vcampus.server.core.system.constant.SystemConstant;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Scanner;
@@ -18,6 +25,7 @@ public class ServerApplication {
     private static final int DEFAULT_PORT = 8081;
     private static NettyServer server;
     private static Router router;
+    private static MetricsReporter metricsReporter;
     
     public static void main(String[] args) {
         // 打印启动横幅
@@ -89,6 +97,19 @@ public class ServerApplication {
         router = new Router();
         router.initialize("com.vcampus.server.core");
         
+        // 启动指标定时输出
+        metricsReporter = MetricsReporter.fromSystemProperties();
+        metricsReporter.start();
+        
+        // 启动逾期跟踪：载入未归还的借阅记录，按应还时间标记逾期
+        OverdueTracker.getInstance().start();
+        
+        // 启动选课引擎：载入教学班余量与已选课程，选课结果排队写库
+        CourseRegistrar.getInstance().start();
+        
+        // 启动成绩汇总：载入各学生的学分加权成绩，定时与数据库比对重建
+        GradeAggregator.getInstance().start();
+        
         log.info("Server components initialization completed");
     }
     
@@ -98,6 +119,7 @@ public class ServerApplication {
     private static void initializeDatabase() {
         try {
             log.info("Initializing database connection...");
+            applyPoolSizeHint();
             com.vcampus.common.db.DbHelper.init();
             log.info("Database connection initialized successfully");
         } catch (Exception e) {
@@ -106,6 +128,20 @@ public class ServerApplication {
         }
     }
     
+    /**
+     * 按业务线程数为连接池设置默认大小：每个业务线程最多同时占用一个连接，
+     * 更大的连接池只会增加空闲连接。已显式指定或在 database.properties 中配置时不覆盖。
+     */
+    private static void applyPoolSizeHint() {
+        if (System.getProperty(MysqlDataSource.POOL_SIZE_HINT_PROPERTY) != null) {
+            return;
+        }
+        int threads = Integer.getInteger(SystemConstant.CONFIG_EXECUTOR_THREADS, SystemConstant.DEFAULT_EXECUTOR_THREADS);
+        int poolSize = Math.max(1, Math.min(threads, SystemConstant.DB_POOL_SIZE_CAP));
+        System.setProperty(MysqlDataSource.POOL_SIZE_HINT_PROPERTY, String.valueOf(poolSize));
+        log.info("Database pool size hint: {} (executor threads: {})", poolSize, threads);
+    }
+    
     /**
      * 注册关闭钩子
      */
@@ -115,6 +151,12 @@ public class ServerApplication {
             if (server != null) {
                 server.shutdown();
             }
+            if (metricsReporter != null) {
+                metricsReporter.stop();
+            }
+            OverdueTracker.getInstance().stop();
+            CourseRegistrar.getInstance().stop();
+            GradeAggregator.getInstance().stop();
             log.info("Server shutdown completed, goodbye!");
         }));
     }
@@ -191,6 +233,11 @@ public class ServerApplication {
                 showStats();
                 break;
                 
+            case "metrics":
+            case "m":
+                showMetrics();
+                break;
+                
             case "reset":
                 resetStats();
                 break;
@@ -222,6 +269,7 @@ public class ServerApplication {
         System.out.println("  status, s    - Show server status");
         System.out.println("  routes, r    - Show all routes");
         System.out.println("  stats        - Show server statistics");
+        System.out.println("  metrics, m   - Show route latency metrics");
         System.out.println("  reset        - Reset statistics");
         System.out.println("  stop, quit   - Stop server");
     }
@@ -234,6 +282,11 @@ public class ServerApplication {
         System.out.println("  Status: " + (server.isRunning() ? "Running" : "Stopped"));
         System.out.println("  Port: " + server.getPort());
         System.out.println("  Routes: " + router.getAllRoutes().size());
+        System.out.println("  Business executor: " + server.getBusinessExecutor().getMode()
+                + " (threads=" + server.getBusinessExecutor().getThreads()
+                + ", in-flight=" + server.getBusinessExecutor().getInFlightCount()
+                + ", rejected=" + server.getBusinessExecutor().getRejectedCount() + ")");
+        System.out.println("  Database pool: " + MysqlDataSource.getPoolStats());
     }
     
     /**
@@ -253,11 +306,19 @@ public class ServerApplication {
         System.out.println(com.vcampus.server.core.net.ServerHandler.getServerStats());
     }
     
+    /**
+     * 显示路由耗时指标
+     */
+    private static void showMetrics() {
+        System.out.println(com.vcampus.common.util.JsonUtils.toJson(MetricsRegistry.getInstance().snapshot()));
+    }
+    
     /**
      * 重置统计信息
      */
     private static void resetStats() {
         com.vcampus.server.core.net.ServerHandler.resetStats();
+        MetricsRegistry.getInstance().reset();
         System.out.println("Statistics reset completed");
     }
 }
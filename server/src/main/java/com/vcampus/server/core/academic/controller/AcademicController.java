@@ -4,6 +4,7 @@ import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
 import com.vcampus.common.util.JsonUtils;
 import com.vcampus.server.core.academic.service.AcademicService;
+import com.vcampus.server.core.common.annotation.ActionMapping;
 import com.vcampus.server.core.common.annotation.RouteMapping;
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,68 +26,11 @@ public class AcademicController {
 
     /**
      * 处理学术管理相关请求
+     * 各 action 由 @ActionMapping 方法直接处理，此处仅处理未注册的 action
      */
     @RouteMapping(uri = "ACADEMIC", role = "manager", description = "学术管理操作")
     public Response handleRequest(Request request) {
-        try {
-            String action = request.getParam("action");
-            if (action == null) {
-                return Response.Builder.badRequest("缺少action参数");
-            }
-
-            switch (action) {
-                // 学生相关操作
-                case "GET_ALL_STUDENTS_WITH_USER_INFO":
-                    return getAllStudentsWithUserInfo();
-
-                case "GET_STUDENT_BY_CARD_NUM":
-                    return getStudentByCardNum(request);
-
-                case "GET_STUDENT_BY_STUDENT_ID":
-                    return getStudentByStudentId(request);
-
-                case "ADD_STUDENT":
-                    return addStudent(request);
-
-                case "UPDATE_STUDENT":
-                    return updateStudent(request);
-
-                case "DELETE_STUDENT":
-                    return deleteStudent(request);
-
-                case "BATCH_DELETE_STUDENTS":
-                    return batchDeleteStudents(request);
-
-                // 教师相关操作
-                case "GET_ALL_STAFF_WITH_USER_INFO":
-                    return getAllStaffWithUserInfo();
-
-                case "GET_STAFF_BY_CARD_NUM":
-                    return getStaffByCardNum(request);
-
-                case "GET_STAFF_BY_STAFF_ID":
-                    return getStaffByStaffId(request);
-
-                case "ADD_STAFF":
-                    return addStaff(request);
-
-                case "UPDATE_STAFF":
-                    return updateStaff(request);
-
-                case "DELETE_STAFF":
-                    return deleteStaff(request);
-
-                case "BATCH_DELETE_STAFF":
-                    return batchDeleteStaff(request);
-
-                default:
-                    log.warn("未知的学术管理操作: {}", action);
-                    return Response.Builder.badRequest("不支持的操作类型: " + action);
-            }
-        } catch (Exception e) {
-            log.error("处理学术管理请求时发生错误", e);
-            return Response.Builder.internalError("处理请求时发生错误: " + e.getMessage());
-        }
+        return unsupportedAction(request, "学术管理");
     }
 
     /**
@@ -94,25 +38,7 @@ public class AcademicController {
      */
     @RouteMapping(uri = "academic/student", role = "student", description = "学生信息查询")
     public Response handleStudentRequest(Request request) {
-        try {
-            String action = request.getParam("action");
-            if (action == null) {
-                return Response.Builder.badRequest("缺少action参数");
-            }
-
-            switch (action) {
-                case "GET_STUDENT_BY_CARD_NUM":
-                    return getStudentByCardNum(request);
-                case "UPDATE_STUDENT_INFO":
-                    return updateStudentInfo(request);
-                default:
-                    log.warn("未知的学生操作: {}", action);
-                    return Response.Builder.badRequest("不支持的操作类型: " + action);
-            }
-        } catch (Exception e) {
-            log.error("处理学生请求时发生错误", e);
-            return Response.Builder.internalError("处理请求时发生错误: " + e.getMessage());
-        }
+        return unsupportedAction(request, "学生");
     }
 
     /**
@@ -120,25 +46,16 @@ public class AcademicController {
      */
     @RouteMapping(uri = "academic/staff", role = "staff", description = "教职工信息查询")
     public Response handleStaffRequest(Request request) {
-        try {
-            String action = request.getParam("action");
-            if (action == null) {
-                return Response.Builder.badRequest("缺少action参数");
-            }
+        return unsupportedAction(request, "教职工");
+    }
 
-            switch (action) {
-                case "GET_STAFF_BY_CARD_NUM":
-                    return getStaffByCardNum(request);
-                case "UPDATE_STAFF_INFO":
-                    return updateStaffInfo(request);
-                default:
-                    log.warn("未知的教职工操作: {}", action);
-                    return Response.Builder.badRequest("不支持的操作类型: " + action);
-            }
-        } catch (Exception e) {
-            log.error("处理教职工请求时发生错误", e);
-            return Response.Builder.internalError("处理请求时发生错误: " + e.getMessage());
+    private Response unsupportedAction(Request request, String scope) {
+        String action = request.getParam("action");
+        if (action == null) {
+            return Response.Builder.badRequest("缺少action参数");
         }
+        log.warn("未知的{}操作: {}", scope, action);
+        return Response.Builder.badRequest("不支持的操作类型: " + action);
     }
 
     /**
@@ -162,7 +79,8 @@ public class AcademicController {
     }
 
     // 学生相关方法
-    private Response getAllStudentsWithUserInfo() {
+    @ActionMapping(uri = "ACADEMIC", action = "GET_ALL_STUDENTS_WITH_USER_INFO")
+    private Response getAllStudentsWithUserInfo(Request request) {
         try {
             List<Map<String, Object>> studentDataList = academicService.getAllStudentsWithUserInfo();
             log.info("获取学生及用户信息列表成功，共 {} 条记录", studentDataList.size());
@@ -173,6 +91,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = {"ACADEMIC", "academic/student"}, action = "GET_STUDENT_BY_CARD_NUM")
     private Response getStudentByCardNum(Request request) {
         try {
             String cardNum = request.getParam("cardNum");
@@ -193,6 +112,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = "ACADEMIC", action = "GET_STUDENT_BY_STUDENT_ID")
     private Response getStudentByStudentId(Request request) {
         try {
             String studentId = request.getParam("studentId");
@@ -213,6 +133,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = "ACADEMIC", action = "ADD_STUDENT")
     private Response addStudent(Request request) {
         try {
             // 修复：直接获取Map对象，而不是JSON字符串
@@ -255,6 +176,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = "ACADEMIC", action = "UPDATE_STUDENT")
     private Response updateStudent(Request request) {
         try {
             String studentJson = request.getParam("student");
@@ -282,6 +204,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = "ACADEMIC", action = "DELETE_STUDENT")
     private Response deleteStudent(Request request) {
         try {
             String cardNum = request.getParam("cardNum");
@@ -302,6 +225,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = "ACADEMIC", action = "BATCH_DELETE_STUDENTS")
     private Response batchDeleteStudents(Request request) {
         try {
             String cardNumbersJson = request.getParam("cardNumbers");
@@ -329,7 +253,8 @@ public class AcademicController {
     }
 
     // 教师相关方法
-    private Response getAllStaffWithUserInfo() {
+    @ActionMapping(uri = "ACADEMIC", action = "GET_ALL_STAFF_WITH_USER_INFO")
+    private Response getAllStaffWithUserInfo(Request request) {
         try {
             List<Map<String, Object>> staffDataList = academicService.getAllStaffWithUserInfo();
             log.info("获取教师及用户信息列表成功，共 {} 条记录", staffDataList.size());
@@ -340,6 +265,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = {"ACADEMIC", "academic/staff"}, action = "GET_STAFF_BY_CARD_NUM")
     private Response getStaffByCardNum(Request request) {
         try {
             String cardNum = request.getParam("cardNum");
@@ -360,6 +286,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = "ACADEMIC", action = "GET_STAFF_BY_STAFF_ID")
     private Response getStaffByStaffId(Request request) {
         try {
             String staffId = request.getParam("staffId");
@@ -380,6 +307,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = "ACADEMIC", action = "ADD_STAFF")
     private Response addStaff(Request request) {
         try {
             // 修复：直接获取Map对象，而不是JSON字符串
@@ -422,6 +350,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = "ACADEMIC", action = "UPDATE_STAFF")
     private Response updateStaff(Request request) {
         try {
             String staffJson = request.getParam("staff");
@@ -449,6 +378,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = "ACADEMIC", action = "DELETE_STAFF")
     private Response deleteStaff(Request request) {
         try {
             String cardNum = request.getParam("cardNum");
@@ -469,6 +399,7 @@ public class AcademicController {
         }
     }
 
+    @ActionMapping(uri = "ACADEMIC", action = "BATCH_DELETE_STAFF")
     private Response batchDeleteStaff(Request request) {
         try {
             String cardNumbersJson = request.getParam("cardNumbers");
@@ -498,6 +429,7 @@ public class AcademicController {
     /**
      * 更新学生个人信息
      */
+    @ActionMapping(uri = "academic/student", action = "UPDATE_STUDENT_INFO")
     private Response updateStudentInfo(Request request) {
         try {
             String cardNum = request.getParam("cardNum");
@@ -539,6 +471,7 @@ public class AcademicController {
     /**
      * 更新教师个人信息
      */
+    @ActionMapping(uri = "academic/staff", action = "UPDATE_STAFF_INFO")
     private Response updateStaffInfo(Request request) {
         try {
             String cardNum = request.getParam("cardNum");
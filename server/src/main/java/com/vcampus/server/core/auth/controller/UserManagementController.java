@@ -6,6 +6,7 @@ import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
 import com.vcampus.common.util.UserUtils;
 import com.vcampus.server.core.common.annotation.RouteMapping;
+import com.vcampus.server.core.common.page.CursorPage;
 import com.vcampus.server.core.auth.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 
@@ -128,6 +129,18 @@ public class UserManagementController {
             int page = Integer.parseInt(pageStr);
             int size = Integer.parseInt(sizeStr);
             
+            // 携带 cursor 参数时按卡号游标分页
+            if (request.hasParam("cursor")) {
+                size = Math.max(1, Math.min(size, 100));
+                try {
+                    CursorPage<User> userPage = UserService.getUsersPage(request.getParam("cursor"), size);
+                    userPage.getItems().replaceAll(UserService::sanitized);
+                    return Response.Builder.success("获取用户列表成功", userPage);
+                } catch (IllegalArgumentException e) {
+                    return Response.Builder.badRequest(e.getMessage());
+                }
+            }
+            
             List<User> users = UserService.getAllUsers(page, size);
             
             return Response.Builder.success("获取用户列表成功", users);
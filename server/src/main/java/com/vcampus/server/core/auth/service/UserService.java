@@ -4,6 +4,8 @@ import com.vcampus.common.entity.base.User;
 import com.vcampus.common.enums.Gender;
 import com.vcampus.common.util.UserUtils;
 import com.vcampus.common.util.security.PasswordUtils;
+import com.vcampus.server.core.common.page.CursorPage;
+import com.vcampus.server.core.common.page.PageCursor;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.sql.DataSource;
@@ -20,6 +22,11 @@ public class UserService {
 
     private static final DataSource dataSource = com.vcampus.common.db.impl.MysqlDataSource.getInstance();
 
+    // 用户总数缓存：增删用户时失效，其他入口写入的用户最多延迟 USER_COUNT_TTL_MS 后计入
+    private static final long USER_COUNT_TTL_MS = 60_000L;
+    private static volatile long cachedUserCount = -1;
+    private static volatile long userCountLoadedAt;
+
     // =============== 用户认证 ===============
 
     /**
@@ -235,6 +242,68 @@ public class UserService {
         return users;
     }
 
+    /**
+     * 按卡号游标分页获取用户列表
+     *
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param size 每页大小
+     * @return 分页结果
+     * @throws IllegalArgumentException 游标无效
+     */
+    public static CursorPage<User> getUsersPage(String cursor, int size) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        String afterCardNum = pageCursor != null ? pageCursor.getKey(0) : null;
+        long total = pageCursor != null ? pageCursor.getTotalCount() : getUserCount();
+
+        String sql = "SELECT cardNum, cardNumPassword, Name, BirthDate, Gender, userType, Phone, avatar_url FROM tblUser"
+                + (afterCardNum != null ? " WHERE cardNum > ?" : "") + " ORDER BY cardNum LIMIT ?";
+        List<User> users = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (afterCardNum != null) {
+                stmt.setString(index++, afterCardNum);
+            }
+            stmt.setInt(index, size + 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(mapResultSetToUser(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            log.error("Failed to get users page: after={}, size={}", afterCardNum, size, e);
+        }
+
+        return PageCursor.page(users, size, total, user -> new String[]{user.getCardNum()});
+    }
+
+    /**
+     * 用户总数，缓存 USER_COUNT_TTL_MS 毫秒
+     */
+    public static long getUserCount() {
+        long count = cachedUserCount;
+        if (count >= 0 && System.currentTimeMillis() - userCountLoadedAt < USER_COUNT_TTL_MS) {
+            return count;
+        }
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM tblUser");
+             ResultSet rs = stmt.executeQuery()) {
+
+            count = rs.next() ? rs.getLong(1) : 0;
+            userCountLoadedAt = System.currentTimeMillis();
+            cachedUserCount = count;
+            return count;
+
+        } catch (SQLException e) {
+            log.error("Failed to count users", e);
+            return Math.max(count, 0);
+        }
+    }
+
     /**
      * 根据角色获取用户
      */
@@ -451,6 +520,7 @@ public class UserService {
             int rows = stmt.executeUpdate();
             if (rows > 0) {
                 log.info("User added successfully: {} ({})", username, user.getCardNum());
+                cachedUserCount = -1;
 
                 // 新增逻辑：为该用户创建一卡通记录（若不存在）
                 try {
@@ -579,6 +649,7 @@ public class UserService {
 
             if (rows > 0) {
                 log.info("User deleted successfully: {}", cardNum);
+                cachedUserCount = -1;
                 return true;
             } else {
                 log.warn("Failed to delete user: user not found - {}", cardNum);
@@ -8,6 +8,7 @@ import com.vcampus.server.core.card.dao.CardDao;
 import com.vcampus.server.core.card.entity.Card;
 import com.vcampus.server.core.card.service.CardService;
 import com.vcampus.server.core.card.service.impl.CardServiceImpl;
+import com.vcampus.server.core.common.annotation.ActionMapping;
 import com.vcampus.server.core.common.annotation.RouteMapping;
 import com.vcampus.server.core.db.DatabaseManager;
 import lombok.extern.slf4j.Slf4j;
@@ -33,37 +34,31 @@ public class CardController {
         this.cardDao = CardDao.getInstance();
     }
 
+    // 各 action 由 @ActionMapping 方法直接处理，入口方法仅处理未注册的 action
     @RouteMapping(uri = "card/student", role = "student", description = "一卡通-学生入口")
     public Response handleStudent(Request request) {
-        return handleUserCommon(request);
+        return unsupportedAction(request);
     }
 
     @RouteMapping(uri = "card/staff", role = "staff", description = "一卡通-教职工入口")
     public Response handleStaff(Request request) {
-        return handleUserCommon(request);
+        return unsupportedAction(request);
     }
 
     @RouteMapping(uri = "card/manager", role = "manager", description = "一卡通管理入口")
     public Response handleManager(Request request) {
+        return unsupportedAction(request);
+    }
+
+    private Response unsupportedAction(Request request) {
         String action = request.getParam("action");
         if (action == null) return Response.Builder.badRequest("缺少action参数");
-        try {
-            switch (action) {
-                case "CARD_LIST":
-                    return Response.Builder.success(listAllCards());
-                case "CARD_GET_BY_NUM":
-                    return cardGetByNum(request);
-                case "CARD_CREATE":
-                    return cardCreate(request);
-                case "CARD_DELETE":
-                    return cardDelete(request);
-                default:
-                    return Response.Builder.badRequest("不支持的操作: " + action);
-            }
-        } catch (Exception e) {
-            log.error("card/manager 处理失败, action={}", action, e);
-            return Response.Builder.error("处理失败: " + e.getMessage());
-        }
+        return Response.Builder.badRequest("不支持的操作: " + action);
+    }
+
+    @ActionMapping(uri = "card/manager", action = "CARD_LIST")
+    private Response cardList(Request request) {
+        return Response.Builder.success(listAllCards());
     }
 
     private Response listAllCards() {
@@ -90,6 +85,7 @@ public class CardController {
         }
     }
 
+    @ActionMapping(uri = "card/manager", action = "CARD_GET_BY_NUM")
     private Response cardGetByNum(Request request) {
         String cardNum = request.getParam("cardNum");
         if (cardNum == null || cardNum.isEmpty()) return Response.Builder.badRequest("缺少cardNum");
@@ -98,6 +94,7 @@ public class CardController {
         return Response.Builder.success(c);
     }
 
+    @ActionMapping(uri = "card/manager", action = "CARD_CREATE")
     private Response cardCreate(Request request) {
         String cardNum = request.getParam("cardNum");
         String balStr = request.getParam("balance");
@@ -114,6 +111,7 @@ public class CardController {
         return Response.Builder.success("创建成功", saved);
     }
 
+    @ActionMapping(uri = "card/manager", action = "CARD_DELETE")
     private Response cardDelete(Request request) {
         String cardNum = request.getParam("cardNum");
         if (cardNum == null || cardNum.isEmpty()) return Response.Builder.badRequest("缺少cardNum");
@@ -121,34 +119,6 @@ public class CardController {
         return Response.Builder.success("删除成功", null);
     }
 
-    // 公共用户入口方法：查询余额、充值、查看交易记录
-    private Response handleUserCommon(Request request) {
-        String action = request.getParam("action");
-        try {
-            log.info("card user common received action={}, params={}", action, request.getParams());
-        } catch (Exception ignore) {}
-        if (action == null) return Response.Builder.badRequest("缺少action参数");
-        try {
-            switch (action) {
-                case "GET_BALANCE":
-                    return getBalance(request);
-                case "SET_STATUS":
-                    return setStatus(request);
-                case "RECHARGE":
-                    return recharge(request);
-                case "CONSUME":
-                    return consume(request);
-                case "TRANS_LIST":
-                    return transList(request);
-                default:
-                    return Response.Builder.badRequest("不支持的操作: " + action);
-            }
-        } catch (Exception e) {
-            log.error("card 用户入口处理失败, action={}", action, e);
-            return Response.Builder.error("处理失败: " + e.getMessage());
-        }
-    }
-
     private String resolveCardNumFromRequestOrSession(Request request) {
         // 优先使用会话中的 userId，避免客户端通过参数冒充或篡改
         Session session = request.getSession();
@@ -161,6 +131,7 @@ public class CardController {
         return cardNum;
     }
 
+    @ActionMapping(uri = {"card/student", "card/staff"}, action = "GET_BALANCE")
     private Response getBalance(Request request) {
         String cardNum = resolveCardNumFromRequestOrSession(request);
         if (cardNum == null) return Response.Builder.forbidden("未登录或会话失效");
@@ -211,6 +182,8 @@ public class CardController {
         }
     }
 
+    // 充值/消费受 card-trans 通道并发上限约束，最多占用该上限数的业务线程，其余直接返回繁忙
+    @ActionMapping(uri = {"card/student", "card/staff"}, action = "RECHARGE", executor = "card-trans")
     private Response recharge(Request request) {
         String amountStr = request.getParam("amount");
         if (amountStr == null || amountStr.isEmpty()) return Response.Builder.badRequest("缺少amount");
@@ -229,6 +202,7 @@ public class CardController {
         ));
     }
 
+    @ActionMapping(uri = {"card/student", "card/staff"}, action = "CONSUME", executor = "card-trans")
     private Response consume(Request request) {
         String amountStr = request.getParam("amount");
         if (amountStr == null || amountStr.isEmpty()) return Response.Builder.badRequest("缺少amount");
@@ -247,6 +221,7 @@ public class CardController {
         ));
     }
 
+    @ActionMapping(uri = {"card/student", "card/staff"}, action = "TRANS_LIST")
     private Response transList(Request request) {
         String cardNum = resolveCardNumFromRequestOrSession(request);
         if (cardNum == null) return Response.Builder.forbidden("未登录或会话失效");
@@ -294,6 +269,7 @@ public class CardController {
      * 允许用户对自己的卡设置状态（例如：LOST / NORMAL）。
      * 优先使用会话中的 userId 作为 cardNum，避免客户端滥用。
      */
+    @ActionMapping(uri = {"card/student", "card/staff"}, action = "SET_STATUS")
     private Response setStatus(Request request) {
         String cardNum = resolveCardNumFromRequestOrSession(request);
         if (cardNum == null) return Response.Builder.forbidden("未登录或会话失效");
@@ -5,6 +5,7 @@ import com.vcampus.common.message.Response;
 import com.vcampus.common.message.Session;
 import com.vcampus.server.core.comment.entity.Comment;
 import com.vcampus.server.core.comment.service.CommentService;
+import com.vcampus.server.core.common.annotation.ActionMapping;
 import com.vcampus.server.core.common.annotation.RouteMapping;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,49 +24,44 @@ public class CommentController {
     private static final Logger logger = LoggerFactory.getLogger(CommentController.class);
     private final CommentService commentService = new CommentService();
 
+    /**
+     * 评论请求入口
+     * 各 action 由 @ActionMapping 方法直接处理，此处仅处理未注册的 action
+     */
     @RouteMapping(uri = "comment/handleRequest", role = "student", description = "处理校园集市评论相关请求")
     public Response handleRequest(Request request) {
         String action = request.getParam("action");
+        if (action == null) {
+            return Response.Builder.badRequest("缺少action参数");
+        }
+        return Response.Builder.badRequest("不支持的操作: " + action);
+    }
+
+    /**
+     * 从会话中获取当前用户卡号
+     */
+    private String resolveCardNum(Request request) {
         Session session = request.getSession();
-        
         if (session == null) {
-            return Response.Builder.forbidden("需要登录");
+            return null;
         }
-        
         String cardNum = session.getUserId();
         if (cardNum == null || cardNum.trim().isEmpty()) {
-            return Response.Builder.badRequest("无法获取用户卡号");
-        }
-        
-        logger.info("处理校园集市评论请求: action={}, cardNum={}", action, cardNum);
-        
-        try {
-            switch (action) {
-                case "ADD_COMMENT":
-                    return addComment(request, cardNum);
-                case "GET_ALL_COMMENTS":
-                    return getAllComments();
-                case "GET_MY_COMMENTS":
-                    return getMyComments(cardNum);
-                case "DELETE_COMMENT":
-                    return deleteComment(request, cardNum);
-                case "TOGGLE_LIKE":
-                    return toggleLike(request, cardNum);
-                case "CHECK_LIKE_STATUS":
-                    return checkLikeStatus(request, cardNum);
-                default:
-                    return Response.Builder.badRequest("不支持的操作: " + action);
-            }
-        } catch (Exception e) {
-            logger.error("处理校园集市评论请求时发生错误", e);
-            return Response.Builder.error("服务器内部错误: " + e.getMessage());
+            return null;
         }
+        return cardNum;
     }
 
     /**
      * 添加评论
      */
-    private Response addComment(Request request, String cardNum) {
+    @ActionMapping(uri = "comment/handleRequest", action = "ADD_COMMENT")
+    private Response addComment(Request request) {
+        String cardNum = resolveCardNum(request);
+        if (cardNum == null) {
+            return Response.Builder.badRequest("无法获取用户卡号");
+        }
+        
         String content = request.getParam("content");
         
         if (content == null || content.trim().isEmpty()) {
@@ -88,7 +84,8 @@ public class CommentController {
     /**
      * 获取所有评论
      */
-    private Response getAllComments() {
+    @ActionMapping(uri = "comment/handleRequest", action = "GET_ALL_COMMENTS")
+    private Response getAllComments(Request request) {
         List<Map<String, Object>> comments = commentService.getAllComments().stream()
                 .map(comment -> {
                     Map<String, Object> map = new java.util.HashMap<>();
@@ -107,7 +104,13 @@ public class CommentController {
     /**
      * 获取我的评论
      */
-    private Response getMyComments(String cardNum) {
+    @ActionMapping(uri = "comment/handleRequest", action = "GET_MY_COMMENTS")
+    private Response getMyComments(Request request) {
+        String cardNum = resolveCardNum(request);
+        if (cardNum == null) {
+            return Response.Builder.badRequest("无法获取用户卡号");
+        }
+        
         List<Map<String, Object>> comments = commentService.getCommentsByCardNum(cardNum).stream()
                 .map(comment -> {
                     Map<String, Object> map = new java.util.HashMap<>();
@@ -126,7 +129,13 @@ public class CommentController {
     /**
      * 删除评论
      */
-    private Response deleteComment(Request request, String cardNum) {
+    @ActionMapping(uri = "comment/handleRequest", action = "DELETE_COMMENT")
+    private Response deleteComment(Request request) {
+        String cardNum = resolveCardNum(request);
+        if (cardNum == null) {
+            return Response.Builder.badRequest("无法获取用户卡号");
+        }
+        
         String commentIdStr = request.getParam("commentId");
         
         if (commentIdStr == null || commentIdStr.trim().isEmpty()) {
@@ -150,7 +159,13 @@ public class CommentController {
     /**
      * 切换点赞状态
      */
-    private Response toggleLike(Request request, String cardNum) {
+    @ActionMapping(uri = "comment/handleRequest", action = "TOGGLE_LIKE")
+    private Response toggleLike(Request request) {
+        String cardNum = resolveCardNum(request);
+        if (cardNum == null) {
+            return Response.Builder.badRequest("无法获取用户卡号");
+        }
+        
         String commentIdStr = request.getParam("commentId");
         
         if (commentIdStr == null || commentIdStr.trim().isEmpty()) {
@@ -181,7 +196,13 @@ public class CommentController {
     /**
      * 检查点赞状态
      */
-    private Response checkLikeStatus(Request request, String cardNum) {
+    @ActionMapping(uri = "comment/handleRequest", action = "CHECK_LIKE_STATUS")
+    private Response checkLikeStatus(Request request) {
+        String cardNum = resolveCardNum(request);
+        if (cardNum == null) {
+            return Response.Builder.badRequest("无法获取用户卡号");
+        }
+        
         String commentIdStr = request.getParam("commentId");
         
         if (commentIdStr == null || commentIdStr.trim().isEmpty()) {
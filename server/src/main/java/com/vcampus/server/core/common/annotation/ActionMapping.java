@@ -0,0 +1,55 @@
+package com.vcampus.server.core.common.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 操作映射注解
+ * 用于按 action 参数复用同一URI的控制器：Router 以 (uri, action) 为键建立二级分发表，
+ * 命中时直接调用被标记的方法，未命中时仍交给该URI的 {@link RouteMapping} 方法处理。
+ * 方法签名须为 (Request)，返回 Response 或任意数据对象。
+ * 
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ActionMapping {
+    
+    /**
+     * 所属的路由URI（须已由 RouteMapping 注册），可同时挂到多个URI
+     * 例如: {"shop/student", "shop/staff"}
+     */
+    String[] uri();
+    
+    /**
+     * action 参数值，可为同一方法指定多个别名
+     * 例如: {"BUY", "BUY_NOW"}
+     */
+    String[] action();
+    
+    /**
+     * 额外要求的角色权限，在URI权限校验之后检查
+     * 默认为空，即沿用URI的权限
+     */
+    String role() default "";
+    
+    /**
+     * 执行超时阈值（毫秒），超过时计入超时指标并告警；操作不会被中断，仍返回其实际结果
+     * 默认为0，表示不限制
+     */
+    long timeoutMillis() default 0;
+    
+    /**
+     * 执行通道名称，同名操作共享一个并发上限，通道满时直接返回"服务器繁忙"
+     * 操作始终在当前业务线程上执行，通道只限制其同时占用的业务线程数；默认为空，表示不限制
+     */
+    String executor() default "";
+    
+    /**
+     * 操作描述
+     */
+    String description() default "";
+}
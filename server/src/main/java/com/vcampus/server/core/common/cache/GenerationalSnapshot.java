@@ -0,0 +1,108 @@
+package com.vcampus.server.core.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 按代数失效的只读快照
+ *
+ * 适用于整体载入内存、极少变化的小表：首次读取时载入，写操作提交后调用 {@link #invalidate()}，
+ * 另设过期时间兜底直接改库的情况。
+ *
+ * 每次失效递增代数。载入前后代数不一致说明载入期间数据被修改过，读到的可能是旧数据，丢弃后重新载入；
+ * 快照记下载入时的代数，代数变化后不再使用。持续失效时每次读取最多载入 {@value #MAX_LOAD_ATTEMPTS} 次，
+ * 仍不稳定则返回最后一次载入的结果且不缓存，下次读取重新载入。
+ *
+ * @param <T> 快照类型，应为不可变对象
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public final class GenerationalSnapshot<T> {
+
+    static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final String name;
+    private final Supplier<T> loader;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Loaded<T> loaded;
+
+    /**
+     * @param name 名称，用于日志
+     * @param loader 载入快照，读取数据库的一致结果
+     * @param ttl 过期时间
+     * @param unit 过期时间单位
+     */
+    public GenerationalSnapshot(String name, Supplier<T> loader, long ttl, TimeUnit unit) {
+        this(name, loader, unit.toMillis(ttl), System::currentTimeMillis);
+    }
+
+    GenerationalSnapshot(String name, Supplier<T> loader, long ttlMillis, LongSupplier clock) {
+        this.name = name;
+        this.loader = loader;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 当前快照，不可用时在调用线程上载入
+     */
+    public T get() {
+        Loaded<T> current = loaded;
+        if (isUsable(current)) {
+            return current.value;
+        }
+        synchronized (this) {
+            current = loaded;
+            if (isUsable(current)) {
+                return current.value;
+            }
+            T value = null;
+            for (int attempt = 0; attempt < MAX_LOAD_ATTEMPTS; attempt++) {
+                long expected = generation.get();
+                value = loader.get();
+                if (generation.get() == expected) {
+                    loaded = new Loaded<>(value, expected, clock.getAsLong());
+                    return value;
+                }
+            }
+            log.warn("{} 载入期间持续被修改，本次使用最后一次载入的结果且不缓存", name);
+            return value;
+        }
+    }
+
+    /**
+     * 丢弃快照，下次读取时重新载入
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private boolean isUsable(Loaded<T> current) {
+        return current != null && current.generation == generation.get()
+                && clock.getAsLong() - current.loadedAt <= ttlMillis;
+    }
+
+    /**
+     * 一次载入的快照及其代数
+     */
+    private static final class Loaded<T> {
+        final T value;
+        final long generation;
+        final long loadedAt;
+
+        Loaded(T value, long generation, long loadedAt) {
+            this.value = value;
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.vcampus.server.core.common.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ *
+ * 客户端把 nextCursor 原样作为下一次请求的 cursor 参数即可继续翻页；
+ * nextCursor 为空表示已到最后一页。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items; // 本页数据
+    private String nextCursor; // 下一页游标，最后一页为空
+    private boolean hasMore; // 是否还有下一页
+    private long totalCount; // 总数量
+    private int size; // 每页大小
+}
@@ -0,0 +1,125 @@
+package com.vcampus.server.core.common.page;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 键集分页游标
+ *
+ * 游标记录上一页最后一行的排序键和首次查询得到的总数，编码为 URL 安全的 Base64 字符串，对客户端不透明。
+ * 下一页查询以"排序键大于（或小于）游标键"为条件加 LIMIT，从索引位置直接继续读取，
+ * 不再像 LIMIT/OFFSET 那样先扫描并丢弃前面所有行；总数随游标传递，翻页时不必重复 COUNT。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public final class PageCursor {
+
+    private static final String VERSION = "1";
+    private static final String SEPARATOR = "\u001F";
+
+    private final long totalCount;
+    private final List<String> keys;
+
+    private PageCursor(long totalCount, List<String> keys) {
+        this.totalCount = totalCount;
+        this.keys = keys;
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param totalCount 结果总数
+     * @param keys 最后一行的排序键
+     * @return 游标字符串
+     */
+    public static String encode(long totalCount, String... keys) {
+        StringBuilder raw = new StringBuilder(VERSION).append(SEPARATOR).append(totalCount);
+        for (String key : keys) {
+            raw.append(SEPARATOR).append(key == null ? "" : key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param token 游标字符串，为空表示第一页
+     * @return 游标，第一页时返回 null
+     * @throws IllegalArgumentException 游标格式无效
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length < 2 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            long totalCount = Long.parseLong(parts[1]);
+            return new PageCursor(totalCount, Collections.unmodifiableList(Arrays.asList(parts).subList(2, parts.length)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
+    /**
+     * 由多取一行的查询结果生成分页结果
+     *
+     * @param rows 按排序键查询的结果，最多 size + 1 行，多出的一行只用于判断是否还有下一页
+     * @param size 每页大小
+     * @param totalCount 结果总数
+     * @param keyOf 取一行的排序键
+     * @return 分页结果
+     */
+    public static <T> CursorPage<T> page(List<T> rows, int size, long totalCount, Function<T, String[]> keyOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+        String nextCursor = hasMore ? encode(totalCount, keyOf.apply(items.get(items.size() - 1))) : null;
+        return CursorPage.<T>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .totalCount(totalCount)
+                .size(size)
+                .build();
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * 第 index 个排序键，不存在或为空时返回 null
+     */
+    public String getKey(int index) {
+        if (index < 0 || index >= keys.size() || keys.get(index).isEmpty()) {
+            return null;
+        }
+        return keys.get(index);
+    }
+
+    /**
+     * 第 index 个排序键的整数值
+     *
+     * @throws IllegalArgumentException 排序键不是整数
+     */
+    public Integer getIntKey(int index) {
+        String key = getKey(index);
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+}
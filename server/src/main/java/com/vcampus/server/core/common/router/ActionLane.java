@@ -0,0 +1,68 @@
+package com.vcampus.server.core.common.router;
+
+import com.vcampus.server.core.system.constant.SystemConstant;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * 操作执行通道
+ * 操作仍在调用它的业务线程上执行，通道只以信号量限制同时执行的操作数：
+ * 同名操作最多同时占用 concurrency 个业务线程，超出时直接返回"服务器繁忙"，
+ * 避免热点操作（如下单、选课）在高峰期占满业务线程池。
+ * 并发上限通过系统属性 vcampus.executor.lane.&lt;通道名&gt; 配置。
+ * 
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+final class ActionLane {
+    
+    private final String name;
+    private final int concurrency;
+    private final Semaphore permits;
+    
+    ActionLane(String name, int concurrency) {
+        this.name = name;
+        this.concurrency = Math.max(1, concurrency);
+        this.permits = new Semaphore(this.concurrency);
+        log.info("Action lane created: name={}, concurrency={}", name, this.concurrency);
+    }
+    
+    /**
+     * 根据系统属性创建执行通道
+     */
+    static ActionLane fromSystemProperties(String name) {
+        int concurrency = Integer.getInteger(SystemConstant.CONFIG_EXECUTOR_LANE_PREFIX + name,
+                SystemConstant.DEFAULT_EXECUTOR_LANE_CONCURRENCY);
+        return new ActionLane(name, concurrency);
+    }
+    
+    /**
+     * 占用一个执行名额，成功后须调用 {@link #exit()} 归还
+     * 
+     * @return 通道已满时返回 false
+     */
+    boolean tryEnter() {
+        return permits.tryAcquire();
+    }
+    
+    /**
+     * 归还执行名额
+     */
+    void exit() {
+        permits.release();
+    }
+    
+    String getName() {
+        return name;
+    }
+    
+    int getConcurrency() {
+        return concurrency;
+    }
+    
+    int getActiveCount() {
+        return concurrency - permits.availablePermits();
+    }
+}
@@ -0,0 +1,75 @@
+package com.vcampus.server.core.common.router;
+
+import com.google.gson.JsonParseException;
+import com.vcampus.common.message.Request;
+import com.vcampus.common.util.JsonUtils;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 已解析子请求的批量请求
+ * 批量请求的 requests 参数只在业务线程上解析一次，解析结果随请求进入连接的排队与路由，
+ * 确定顺序键和执行子请求时不再重复解析。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public final class BatchRequest extends Request {
+
+    /**
+     * 子请求；requests 参数缺失或格式错误时为 null
+     */
+    private final Request[] subRequests;
+
+    private BatchRequest(Request source, Request[] subRequests) {
+        setId(source.getId());
+        setUri(source.getUri());
+        setParams(source.getParams());
+        setSession(source.getSession());
+        setTimestamp(source.getTimestamp());
+        setOrderKey(source.getOrderKey());
+        this.subRequests = subRequests;
+    }
+
+    /**
+     * 解析批量请求的子请求（耗时与请求大小成正比，不应在 EventLoop 上调用）
+     *
+     * @param request 批量请求
+     * @return 已解析的批量请求，request 本身已解析时原样返回
+     */
+    public static BatchRequest parse(Request request) {
+        if (request instanceof BatchRequest) {
+            return (BatchRequest) request;
+        }
+        Request[] subRequests;
+        try {
+            subRequests = JsonUtils.fromJsonStrict(request.getParam("requests"), Request[].class);
+        } catch (JsonParseException e) {
+            log.warn("Invalid batch request {}: {}", request.getId(), e.getMessage());
+            subRequests = null;
+        }
+        return new BatchRequest(request, subRequests);
+    }
+
+    /**
+     * 解析子请求并按 {@link RequestOrdering#resolveBatchOrderKey} 设置批量请求的顺序键
+     *
+     * @param request 批量请求
+     * @return 已解析且已设置顺序键的批量请求
+     * @throws IllegalArgumentException 子请求含有多个不同的顺序键
+     */
+    public static BatchRequest prepare(Request request) {
+        BatchRequest batch = parse(request);
+        if (batch.subRequests != null) {
+            batch.withOrderKey(RequestOrdering.resolveBatchOrderKey(batch, batch.subRequests));
+        }
+        return batch;
+    }
+
+    /**
+     * @return 子请求；requests 参数缺失或格式错误时为 null
+     */
+    public Request[] getSubRequests() {
+        return subRequests;
+    }
+}
@@ -0,0 +1,83 @@
+package com.vcampus.server.core.common.router;
+
+import com.vcampus.common.message.Request;
+
+import java.util.Set;
+
+/**
+ * 请求顺序键规则
+ * 顺序键相同的请求按到达顺序依次执行；无顺序键的请求可并发执行。
+ * 批量请求整体占用其子请求的顺序键，与同连接上同键的顶层请求依次执行。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public final class RequestOrdering {
+
+    /**
+     * 默认顺序键：认证类请求
+     */
+    public static final String ORDER_KEY_AUTH = "auth";
+
+    /**
+     * 默认顺序键：写操作
+     */
+    public static final String ORDER_KEY_WRITE = "write";
+
+    /**
+     * 未显式指定顺序键时按写操作串行执行的 action
+     */
+    private static final Set<String> ORDERED_ACTIONS = Set.of(
+            "BUY", "BUY_NOW", "ADD_TO_CART", "SET_CART_ITEM", "REMOVE_FROM_CART", "CLEAR_CART", "CHECKOUT_CART",
+            "RECHARGE", "CONSUME", "SET_STATUS",
+            "SELECT_COURSE", "DROP_COURSE");
+
+    private RequestOrdering() {
+        // 工具类，禁止实例化
+    }
+
+    /**
+     * 确定请求的顺序键：优先使用客户端指定的键，其次为认证请求和写操作分配默认键
+     *
+     * @param request 请求对象
+     * @return 顺序键，null 表示可与其他请求并发执行
+     */
+    public static String resolveOrderKey(Request request) {
+        if (request.getOrderKey() != null && !request.getOrderKey().isEmpty()) {
+            return request.getOrderKey();
+        }
+        String uri = request.getUri();
+        if (uri != null && uri.startsWith("auth/")) {
+            return ORDER_KEY_AUTH;
+        }
+        String action = request.getParam("action");
+        if (action != null && ORDERED_ACTIONS.contains(action)) {
+            return ORDER_KEY_WRITE;
+        }
+        return null;
+    }
+
+    /**
+     * 确定批量请求的顺序键：批量请求自身与各子请求的顺序键至多一个，批量请求整体按该键排队
+     *
+     * @param batch 批量请求
+     * @param subRequests 已解析的子请求
+     * @return 顺序键，null 表示可与其他请求并发执行
+     * @throws IllegalArgumentException 子请求含有多个不同的顺序键
+     */
+    public static String resolveBatchOrderKey(Request batch, Request[] subRequests) {
+        String key = batch.getOrderKey() != null && !batch.getOrderKey().isEmpty() ? batch.getOrderKey() : null;
+        for (Request sub : subRequests) {
+            String subKey = sub != null ? resolveOrderKey(sub) : null;
+            if (subKey == null || subKey.equals(key)) {
+                continue;
+            }
+            if (key != null) {
+                throw new IllegalArgumentException(
+                        "Sub requests with different order keys cannot be batched: " + key + ", " + subKey);
+            }
+            key = subKey;
+        }
+        return key;
+    }
+}
@@ -0,0 +1,150 @@
+package com.vcampus.server.core.common.router;
+
+import com.vcampus.common.message.Session;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 预解析的路由角色要求
+ *
+ * 在路由注册时把逗号分隔的角色字符串展开为"可放行的会话角色"位图，
+ * 运行时只需将会话角色位图与之按位与，不再重复 split/规范化字符串。
+ * 展开规则与原有权限判断保持一致：
+ * - anonymous：任何请求放行
+ * - all：存在会话即放行
+ * - staff/teacher：会话含 staff、teacher 或 admin
+ * - student：会话含 student、staff、teacher、admin 或 manager
+ * - 其他角色：会话有效且含该角色或 admin
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+final class RoleRequirement {
+
+    /**
+     * 角色名 -> 位序号（最多 64 个不同角色）
+     */
+    private static final Map<String, Integer> ROLE_BITS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_BIT = new AtomicInteger(0);
+
+    private static final long STAFF_GROUP = mask("staff", "teacher", "admin");
+    private static final long STUDENT_GROUP = mask("student", "staff", "teacher", "admin", "manager");
+    private static final long ADMIN = mask("admin");
+
+    private final String role;
+    private final boolean anonymous;
+    private final boolean anyLoggedIn;
+    /**
+     * 不检查会话有效标记即可放行的会话角色
+     */
+    private final long roleMask;
+    /**
+     * 需要会话处于有效状态才放行的会话角色
+     */
+    private final long activeRoleMask;
+
+    private RoleRequirement(String role, boolean anonymous, boolean anyLoggedIn, long roleMask, long activeRoleMask) {
+        this.role = role;
+        this.anonymous = anonymous;
+        this.anyLoggedIn = anyLoggedIn;
+        this.roleMask = roleMask;
+        this.activeRoleMask = activeRoleMask;
+    }
+
+    /**
+     * 解析注解中的角色字符串
+     *
+     * @param role 角色字符串（可逗号分隔）
+     * @return 角色要求
+     */
+    static RoleRequirement parse(String role) {
+        if ("anonymous".equals(role)) {
+            return new RoleRequirement(role, true, false, 0L, 0L);
+        }
+        if ("all".equals(role)) {
+            return new RoleRequirement(role, false, true, 0L, 0L);
+        }
+        long roleMask = 0L;
+        long activeRoleMask = 0L;
+        if (role != null) {
+            for (String part : role.split(",")) {
+                String req = part.trim().toLowerCase();
+                if (req.isEmpty()) {
+                    continue;
+                }
+                if ("anonymous".equals(req)) {
+                    // 组合角色中的 anonymous 只要求存在会话
+                    return new RoleRequirement(role, false, true, 0L, 0L);
+                }
+                if ("staff".equals(req) || "teacher".equals(req)) {
+                    roleMask |= STAFF_GROUP;
+                } else if ("student".equals(req)) {
+                    roleMask |= STUDENT_GROUP;
+                } else {
+                    activeRoleMask |= mask(req) | ADMIN;
+                }
+            }
+        }
+        return new RoleRequirement(role, false, false, roleMask, activeRoleMask);
+    }
+
+    /**
+     * 检查会话是否满足要求
+     *
+     * @param session 会话（可为 null）
+     * @return 是否放行
+     */
+    boolean isSatisfiedBy(Session session) {
+        if (anonymous) {
+            return true;
+        }
+        if (session == null) {
+            return false;
+        }
+        if (anyLoggedIn) {
+            return true;
+        }
+        long sessionMask = sessionMask(session);
+        return (sessionMask & roleMask) != 0
+                || (session.isActive() && session.getRoles() != null && (sessionMask & activeRoleMask) != 0);
+    }
+
+    String getRole() {
+        return role;
+    }
+
+    /**
+     * 计算会话角色位图（基于会话缓存的规范化角色集合）
+     */
+    private static long sessionMask(Session session) {
+        long result = 0L;
+        for (String r : session.getRoleSet()) {
+            Integer bit = ROLE_BITS.get(r);
+            if (bit != null) {
+                result |= 1L << bit;
+            }
+        }
+        return result;
+    }
+
+    private static long mask(String... roles) {
+        long result = 0L;
+        for (String r : roles) {
+            result |= 1L << bitOf(r);
+        }
+        return result;
+    }
+
+    private static int bitOf(String role) {
+        return ROLE_BITS.computeIfAbsent(role, k -> {
+            int bit = NEXT_BIT.getAndIncrement();
+            if (bit >= Long.SIZE) {
+                throw new IllegalStateException("Too many distinct roles: " + k);
+            }
+            return bit;
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.vcampus.server.core.common.router;
+
+import com.vcampus.common.message.Request;
+
+/**
+ * 路由处理器
+ * 在路由器初始化时由控制器方法预编译生成，调用时不再经过反射
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RouteHandler {
+
+    /**
+     * 处理请求
+     *
+     * @param request 请求对象
+     * @return 控制器方法的返回值
+     * @throws Exception 控制器抛出的异常
+     */
+    Object handle(Request request) throws Exception;
+}
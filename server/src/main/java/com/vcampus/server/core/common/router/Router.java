@@ -2,15 +2,33 @@ package com.vcampus.server.core.common.router;
 
 import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
+import com.vcampus.server.core.common.annotation.ActionMapping;
 import com.vcampus.server.core.common.annotation.RouteMapping;
+import com.vcampus.server.core.system.metrics.MetricsRegistry;
+import com.vcampus.server.core.system.metrics.RouteMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.reflections.Reflections;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * 路由器 - 负责请求分发和权限控制
@@ -21,11 +39,41 @@ import java.util.Set;
 @Slf4j
 public class Router {
     
+    /**
+     * 批量请求URI：参数 requests 为子请求 JSON 数组，响应数据为按顺序排列的子响应数组
+     */
+    public static final String BATCH_URI = "system/batch";
+    
+    /**
+     * 单个批量请求允许的最大子请求数
+     */
+    private static final int MAX_BATCH_SIZE = 32;
+    
+    /**
+     * 批量请求中并行子请求的执行器（虚拟线程，避免占用业务线程池导致互相等待）
+     */
+    private final ExecutorService batchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    
+    /**
+     * 批量请求本身的指标（子请求另计入各自路由）
+     */
+    private final RouteMetrics batchMetrics = MetricsRegistry.getInstance().registerRoute(BATCH_URI);
+    
     /**
      * URI到控制器方法的映射
      */
     private final Map<String, RouteInfo> routeMap = new HashMap<>();
     
+    /**
+     * 二级分发表：URI -> action -> 操作信息
+     */
+    private final Map<String, Map<String, ActionInfo>> actionMap = new HashMap<>();
+    
+    /**
+     * 操作执行通道，按通道名共享
+     */
+    private final Map<String, ActionLane> lanes = new HashMap<>();
+    
     /**
      * 控制器实例缓存
      */
@@ -35,16 +83,51 @@ public class Router {
      * 路由信息内部类
      */
     private static class RouteInfo {
-        Object controller;
-        Method method;
-        String role;
-        String description;
+        final Object controller;
+        final Method method;
+        final RouteHandler handler;
+        final RoleRequirement requirement;
+        final String role;
+        final String description;
+        final RouteMetrics metrics;
         
-        RouteInfo(Object controller, Method method, String role, String description) {
+        RouteInfo(Object controller, Method method, RouteHandler handler, String role, String description,
+                  RouteMetrics metrics) {
             this.controller = controller;
             this.method = method;
+            this.handler = handler;
+            this.requirement = RoleRequirement.parse(role);
             this.role = role;
             this.description = description;
+            this.metrics = metrics;
+        }
+    }
+    
+    /**
+     * 操作信息内部类
+     */
+    private static class ActionInfo {
+        final Object controller;
+        final Method method;
+        final RouteHandler handler;
+        final RoleRequirement requirement;
+        final String role;
+        final long timeoutMillis;
+        final ActionLane lane;
+        final String description;
+        final RouteMetrics metrics;
+        
+        ActionInfo(Object controller, Method method, RouteHandler handler, ActionMapping annotation, ActionLane lane,
+                   RouteMetrics metrics) {
+            this.controller = controller;
+            this.method = method;
+            this.handler = handler;
+            this.role = annotation.role();
+            this.requirement = role.isEmpty() ? null : RoleRequirement.parse(role);
+            this.timeoutMillis = annotation.timeoutMillis();
+            this.lane = lane;
+            this.description = annotation.description();
+            this.metrics = metrics;
         }
     }
     
@@ -78,7 +161,17 @@ public class Router {
             registerManualRoutes();
         }
         
-        log.info("Router initialization completed, registered {} routes", routeMap.size());
+        // 操作只能挂在已注册的URI上，否则永远不会被分发
+        actionMap.keySet().removeIf(uri -> {
+            if (!routeMap.containsKey(uri)) {
+                log.warn("Actions registered on unknown route {} are ignored", uri);
+                return true;
+            }
+            return false;
+        });
+        
+        log.info("Router initialization completed, registered {} routes and {} actions",
+                routeMap.size(), actionMap.values().stream().mapToInt(Map::size).sum());
         printRoutes();
     }
     
@@ -245,18 +338,97 @@ public class Router {
                     String role = annotation.role();
                     String description = annotation.description();
                     
-                    RouteInfo routeInfo = new RouteInfo(controllerInstance, method, role, description);
+                    RouteHandler handler = compileHandler(controllerInstance, method);
+                    RouteInfo routeInfo = new RouteInfo(controllerInstance, method, handler, role, description,
+                            MetricsRegistry.getInstance().registerRoute(uri));
                     routeMap.put(uri, routeInfo);
                     
                     log.debug("Registering route: {} -> {}.{} (permission: {})", 
                             uri, controllerClass.getSimpleName(), method.getName(), role);
                 }
+                
+                ActionMapping actionMapping = method.getAnnotation(ActionMapping.class);
+                if (actionMapping != null) {
+                    registerAction(controllerInstance, method, actionMapping);
+                }
             }
         } catch (Exception e) {
             log.error("Failed to register controller: {}", controllerClass.getName(), e);
         }
     }
     
+    /**
+     * 注册操作
+     * 
+     * @param controllerInstance 控制器实例
+     * @param method 操作方法
+     * @param annotation 操作映射注解
+     */
+    private void registerAction(Object controllerInstance, Method method, ActionMapping annotation) throws Exception {
+        String laneName = annotation.executor();
+        ActionLane lane = laneName.isEmpty() ? null : lanes.computeIfAbsent(laneName, ActionLane::fromSystemProperties);
+        RouteHandler handler = compileHandler(controllerInstance, method);
+        
+        // 同一方法挂在多个URI/别名上时各自独立计数
+        for (String uri : annotation.uri()) {
+            Map<String, ActionInfo> actions = actionMap.computeIfAbsent(uri, k -> new HashMap<>());
+            for (String action : annotation.action()) {
+                ActionInfo previous = actions.put(action, new ActionInfo(controllerInstance, method, handler,
+                        annotation, lane, MetricsRegistry.getInstance().registerAction(uri, action)));
+                if (previous != null) {
+                    log.warn("Duplicate action {} on route {}: {}.{} replaced by {}.{}", action, uri,
+                            previous.controller.getClass().getSimpleName(), previous.method.getName(),
+                            controllerInstance.getClass().getSimpleName(), method.getName());
+                }
+                log.debug("Registering action: {}#{} -> {}.{} (lane: {})",
+                        uri, action, controllerInstance.getClass().getSimpleName(), method.getName(),
+                        lane != null ? lane.getName() : "inline");
+            }
+        }
+    }
+    
+    /**
+     * 将控制器方法预编译为 RouteHandler
+     * 优先使用 LambdaMetafactory 生成直接调用的实现；方法不可公开访问时退化为绑定的 MethodHandle。
+     * 
+     * @param controller 控制器实例
+     * @param method 控制器方法，签名为 (Request) -> 任意返回值
+     * @return 路由处理器
+     */
+    private static RouteHandler compileHandler(Object controller, Method method) throws Exception {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Class<?> controllerClass = controller.getClass();
+        
+        if (Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(controllerClass.getModifiers())) {
+            try {
+                MethodHandle target = lookup.unreflect(method);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "handle",
+                        MethodType.methodType(RouteHandler.class, controllerClass),
+                        MethodType.methodType(Object.class, Request.class),
+                        target,
+                        MethodType.methodType(method.getReturnType(), Request.class));
+                return (RouteHandler) site.getTarget().invoke(controller);
+            } catch (Throwable t) {
+                log.debug("LambdaMetafactory unavailable for {}.{}, falling back to MethodHandle: {}",
+                        controllerClass.getSimpleName(), method.getName(), t.toString());
+            }
+        }
+        
+        method.setAccessible(true);
+        MethodHandle bound = lookup.unreflect(method)
+                .bindTo(controller)
+                .asType(MethodType.methodType(Object.class, Request.class));
+        return request -> {
+            try {
+                return (Object) bound.invokeExact(request);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        };
+    }
+    
     /**
      * 获取或创建控制器实例
      * 
@@ -281,6 +453,12 @@ public class Router {
     public Response route(Request request) {
         String uri = request.getUri();
         
+        // 批量请求
+        if (BATCH_URI.equals(uri)) {
+            BatchRequest batch = BatchRequest.parse(request);
+            return measure(batchMetrics, () -> routeBatch(batch, batch.getSubRequests()));
+        }
+        
         // 检查路由是否存在
         RouteInfo routeInfo = routeMap.get(uri);
         if (routeInfo == null) {
@@ -289,18 +467,37 @@ public class Router {
         }
         
         // 检查权限
-        if (!hasPermission(request, routeInfo.role)) {
+        if (!routeInfo.requirement.isSatisfiedBy(request.getSession())) {
             log.warn("Insufficient permission: {} requires permission: {}", uri, routeInfo.role);
             return Response.Builder.forbidden("Insufficient permission, requires role: " + routeInfo.role);
         }
         
+        return measure(routeInfo.metrics, () -> invokeRoute(request, routeInfo));
+    }
+    
+    /**
+     * 调用路由（权限已校验）
+     */
+    private Response invokeRoute(Request request, RouteInfo routeInfo) {
+        String uri = request.getUri();
+        
+        // 二级分发：命中 (uri, action) 时直接调用对应操作，否则交给URI的处理方法
+        Map<String, ActionInfo> actions = actionMap.get(uri);
+        if (actions != null) {
+            String action = request.getParam("action");
+            ActionInfo actionInfo = action != null ? actions.get(action) : null;
+            if (actionInfo != null) {
+                return routeAction(request, action, actionInfo);
+            }
+        }
+        
         try {
             log.debug("Calling route: {} -> {}.{}", uri, 
                     routeInfo.controller.getClass().getSimpleName(), 
                     routeInfo.method.getName());
             
-            // 调用控制器方法
-            Object result = routeInfo.method.invoke(routeInfo.controller, request);
+            // 调用控制器方法（预编译的处理器，无反射开销）
+            Object result = routeInfo.handler.handle(request);
             
             if (result instanceof Response) {
                 Response response = (Response) result;
@@ -316,75 +513,174 @@ public class Router {
     }
     
     /**
-     * 检查权限
+     * 调用操作方法
      * 
-     * @param request 请求对象
-     * @param requiredRole 需要的角色
-     * @return 是否有权限
+     * @param request 请求对象（URI权限已校验）
+     * @param action 操作名
+     * @param actionInfo 操作信息
+     * @return 响应对象
      */
-    private boolean hasPermission(Request request, String requiredRole) {
-        if ("anonymous".equals(requiredRole)) {
-            return true;
+    private Response routeAction(Request request, String action, ActionInfo actionInfo) {
+        String uri = request.getUri();
+        if (actionInfo.requirement != null && !actionInfo.requirement.isSatisfiedBy(request.getSession())) {
+            log.warn("Insufficient permission: {}#{} requires permission: {}", uri, action, actionInfo.role);
+            return Response.Builder.forbidden("Insufficient permission, requires role: " + actionInfo.role)
+                    .withId(request.getId());
         }
-
-        // 新增：处理 "all" 角色 - 所有已登录用户都可以访问
-        if ("all".equals(requiredRole)) {
-            return request.getSession() != null;
+        
+        log.debug("Calling action: {}#{} -> {}.{}", uri, action,
+                actionInfo.controller.getClass().getSimpleName(), actionInfo.method.getName());
+        
+        return measure(actionInfo.metrics, () -> invokeAction(request, action, actionInfo));
+    }
+    
+    /**
+     * 执行并记录耗时、数据库耗时与在途数
+     * 
+     * @param metrics 指标
+     * @param call 实际调用
+     * @return 调用结果
+     */
+    private static Response measure(RouteMetrics metrics, Supplier<Response> call) {
+        metrics.begin();
+        long start = System.nanoTime();
+        long dbMark = MetricsRegistry.dbTimeMark();
+        Response response = null;
+        try {
+            response = call.get();
+            return response;
+        } finally {
+            metrics.end(System.nanoTime() - start, MetricsRegistry.dbTimeSince(dbMark),
+                    response == null || !response.isSuccess());
         }
-
-        if (request.getSession() == null) {
-            return false;
+    }
+    
+    /**
+     * 在当前业务线程上调用操作方法，指定了执行通道时先占用通道名额
+     */
+    private Response invokeAction(Request request, String action, ActionInfo actionInfo) {
+        String uri = request.getUri();
+        ActionLane lane = actionInfo.lane;
+        if (lane != null && !lane.tryEnter()) {
+            actionInfo.metrics.recordRejection();
+            log.warn("Action lane {} is full, rejecting {}#{}", lane.getName(), uri, action);
+            return Response.Builder.busy("服务器繁忙，请稍后重试").withId(request.getId());
         }
-
-        // 处理多角色权限（逗号分隔）
-        if (requiredRole != null && requiredRole.contains(",")) {
-            String[] roles = requiredRole.split(",");
-            for (String role : roles) {
-                if (hasSingleRolePermission(request, role.trim())) {
-                    return true;
-                }
+        
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = actionInfo.handler.handle(request);
+        } catch (Exception e) {
+            log.error("Action call exception: {}#{}", uri, action, e);
+            return Response.Builder.error("处理失败: " + e.getMessage()).withId(request.getId());
+        } finally {
+            if (lane != null) {
+                lane.exit();
             }
-            return false;
+            recordSlowAction(uri, action, actionInfo, System.nanoTime() - start);
         }
-
-        // 处理单角色权限
-        return hasSingleRolePermission(request, requiredRole);
+        
+        Response response = result instanceof Response
+                ? (Response) result
+                : Response.Builder.success(result);
+        return response.withId(request.getId());
     }
     
     /**
-     * 检查单个角色权限
+     * 记录超过超时阈值的操作
+     * 操作不会被中断（写操作可能已提交），仍返回其实际结果，超时只计入指标并告警。
      */
-    private boolean hasSingleRolePermission(Request request, String requiredRole) {
-        if (requiredRole == null || requiredRole.trim().isEmpty()) {
-            return false;
+    private static void recordSlowAction(String uri, String action, ActionInfo actionInfo, long elapsedNanos) {
+        if (actionInfo.timeoutMillis > 0 && elapsedNanos > TimeUnit.MILLISECONDS.toNanos(actionInfo.timeoutMillis)) {
+            actionInfo.metrics.recordTimeout();
+            log.warn("Action exceeded its {} ms timeout ({} ms): {}#{}", actionInfo.timeoutMillis,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), uri, action);
+        }
+    }
+    
+    /**
+     * 处理批量请求
+     * 子请求沿用批量请求的会话并各自校验权限；顺序键相同的子请求按数组顺序依次执行，
+     * 无顺序键的子请求并行执行。子响应中的会话变更不会生效（登录等请求不应放入批量请求）。
+     * 批量请求在连接上整体占用子请求的顺序键（见 {@link RequestOrdering#resolveBatchOrderKey}），
+     * 因此子请求至多含一个顺序键，否则整批拒绝。
+     * 
+     * @param request 批量请求
+     * @param subRequests 已解析的子请求（见 {@link BatchRequest}），参数缺失或格式错误时为 null
+     * @return 响应数据为子响应列表，顺序与子请求一致
+     */
+    private Response routeBatch(Request request, Request[] subRequests) {
+        if (subRequests == null) {
+            return Response.Builder.badRequest("Missing or invalid parameter: requests").withId(request.getId());
+        }
+        if (subRequests.length > MAX_BATCH_SIZE) {
+            return Response.Builder.badRequest("Too many requests in batch, max: " + MAX_BATCH_SIZE).withId(request.getId());
         }
-
-        // 兼容处理：将教职工角色视为等价权限（teacher 与 staff 互通）
         try {
-            String req = requiredRole.trim().toLowerCase();
-            if ("staff".equals(req) || "teacher".equals(req)) {
-                // 如果会话包含 staff 或 teacher 或 admin，则允许
-                java.util.Set<String> roleSet = request.getSession().getRoleSet();
-                for (String r : roleSet) {
-                    if (r == null) continue;
-                    String lower = r.toLowerCase();
-                    if ("staff".equals(lower) || "teacher".equals(lower) || "admin".equals(lower)) return true;
-                }
-                return false;
+            RequestOrdering.resolveBatchOrderKey(request, subRequests);
+        } catch (IllegalArgumentException e) {
+            return Response.Builder.badRequest(e.getMessage()).withId(request.getId());
+        }
+        
+        Response[] results = new Response[subRequests.length];
+        // 每个执行单元内的子请求依次执行，不同执行单元之间并行
+        List<List<Integer>> units = new ArrayList<>();
+        Map<String, List<Integer>> orderedUnits = new LinkedHashMap<>();
+        for (int i = 0; i < subRequests.length; i++) {
+            Request sub = subRequests[i];
+            if (sub == null || BATCH_URI.equals(sub.getUri())) {
+                results[i] = Response.Builder.badRequest("Invalid sub request")
+                        .withId(sub != null ? sub.getId() : null);
+                continue;
+            }
+            sub.setSession(request.getSession());
+            String orderKey = RequestOrdering.resolveOrderKey(sub);
+            if (orderKey == null) {
+                units.add(List.of(i));
+            } else {
+                orderedUnits.computeIfAbsent(orderKey, k -> new ArrayList<>()).add(i);
+            }
+        }
+        units.addAll(orderedUnits.values());
+        
+        if (units.size() <= 1) {
+            for (List<Integer> unit : units) {
+                runBatchUnit(subRequests, unit, results);
+            }
+        } else {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<Integer> unit : units) {
+                futures.add(batchExecutor.submit(() -> runBatchUnit(subRequests, unit, results)));
             }
-            // 兼容：允许教职工访问学生入口（部分学校将学生/教职工权限互通）
-            if ("student".equals(req)) {
-                java.util.Set<String> roleSet = request.getSession().getRoleSet();
-                for (String r : roleSet) {
-                    if (r == null) continue;
-                    String lower = r.toLowerCase();
-                    if ("student".equals(lower) || "staff".equals(lower) || "teacher".equals(lower) || "admin".equals(lower) || "manager".equals(lower)) return true;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    log.error("Batch sub request execution exception", e);
                 }
-                return false;
             }
-        } catch (Exception ignored) {}
-
-        return request.getSession().hasPermission(requiredRole);
+        }
+        
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = Response.Builder.internalError("Server internal error")
+                        .withId(subRequests[i] != null ? subRequests[i].getId() : null);
+            }
+        }
+        return Response.Builder.success(new ArrayList<>(Arrays.asList(results))).withId(request.getId());
+    }
+    
+    /**
+     * 依次执行批量请求中的一个执行单元
+     */
+    private void runBatchUnit(Request[] subRequests, List<Integer> unit, Response[] results) {
+        for (int index : unit) {
+            Response response = route(subRequests[index]);
+            // 会话变更只能通过顶层请求生效
+            response.setSession(null);
+            results[index] = response;
+        }
     }
     
     /**
@@ -420,9 +716,25 @@ public class Router {
                     routeInfo.controller.getClass().getSimpleName(),
                     routeInfo.method.getName(),
                     routeInfo.description.isEmpty() ? "No description" : routeInfo.description);
+            Map<String, ActionInfo> actions = actionMap.get(uri);
+            if (actions != null) {
+                actions.forEach((action, actionInfo) -> log.info("    #{} -> {}.{}{}{}",
+                        action,
+                        actionInfo.controller.getClass().getSimpleName(),
+                        actionInfo.method.getName(),
+                        actionInfo.lane != null ? " (lane: " + actionInfo.lane.getName() + ")" : "",
+                        actionInfo.timeoutMillis > 0 ? " (timeout: " + actionInfo.timeoutMillis + "ms)" : ""));
+            }
         });
     }
     
+    /**
+     * 关闭批量请求执行器
+     */
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+    
     /**
      * 获取所有路由信息
      * 
@@ -1,7 +1,10 @@
 package com.vcampus.server.core.course.controller;
 
+import com.vcampus.server.core.common.page.CursorPage;
 import com.vcampus.server.core.course.entity.Course;
+import com.vcampus.server.core.course.grade.BatchScoreResult;
 import com.vcampus.server.core.course.service.CourseService;
+import com.vcampus.server.core.common.annotation.ActionMapping;
 import com.vcampus.server.core.common.annotation.RouteMapping;
 import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
@@ -22,38 +25,69 @@ public class CourseController {
         return handleCourseRequest(request);
     }
 
-    private Response handleCourseRequest(Request request) {
-        String action = request.getParam("action");
+    // ===== 选课相关操作：由 Router 按 (uri, action) 直接分发 =====
+    // academic/course 入口转发到本控制器，同样挂载这些操作
+
+    @ActionMapping(uri = {"course/handleRequest", "course/manager", "academic/course"}, action = "GET_SELECTED_COURSES")
+    private Response getSelectedCourses(Request request) {
+        List<Map<String, Object>> selected = courseService.getSelectedCourses(request.getParam("cardNum"));
+        return Response.Builder.success(selected);
+    }
+
+    // 可按 department、term 筛选；携带 cursor 参数时按教学班ID游标分页
+    @ActionMapping(uri = {"course/handleRequest", "course/manager", "academic/course"}, action = "GET_AVAILABLE_COURSES")
+    private Response getAvailableCourses(Request request) {
         String cardNum = request.getParam("cardNum");
+        String department = request.getParam("department");
+        String term = request.getParam("term");
+        if (request.hasParam("cursor")) {
+            try {
+                int size = Math.max(1, Math.min(Integer.parseInt(request.getParams().getOrDefault("size", "20")), 100));
+                CursorPage<Map<String, Object>> page = courseService.getAvailableCoursesPage(
+                        cardNum, department, term, request.getParam("cursor"), size);
+                return Response.Builder.success(page);
+            } catch (IllegalArgumentException e) {
+                return Response.Builder.badRequest(e.getMessage());
+            }
+        }
+        List<Map<String, Object>> available = courseService.getAvailableCourses(cardNum, department, term);
+        return Response.Builder.success(available);
+    }
 
-        try {
-            switch (action) {
-                case "GET_SELECTED_COURSES":
-                    List<Map<String, Object>> selected = courseService.getSelectedCourses(cardNum);
-                    return Response.Builder.success(selected);
+    @ActionMapping(uri = {"course/handleRequest", "course/manager", "academic/course"}, action = "GET_CONFLICTING_SECTIONS")
+    private Response getConflictingSections(Request request) {
+        List<Integer> conflicting = courseService.getConflictingSections(request.getParam("cardNum"));
+        return Response.Builder.success(conflicting);
+    }
 
-                case "GET_AVAILABLE_COURSES":
-                    List<Map<String, Object>> available = courseService.getAvailableCourses(cardNum);
-                    return Response.Builder.success(available);
+    // 选课/退课受 course-select 通道并发上限约束，选课高峰时最多占用该上限数的业务线程，其余直接返回繁忙
+    @ActionMapping(uri = {"course/handleRequest", "course/manager", "academic/course"}, action = "SELECT_COURSE", executor = "course-select")
+    private Response selectCourse(Request request) {
+        try {
+            boolean ok = courseService.selectCourse(request.getParam("cardNum"), request.getParam("sectionId"));
+            return ok ? Response.Builder.success() : Response.Builder.error("选课失败");
+        } catch (RuntimeException e) {
+            return Response.Builder.error("选课失败：" + e.getMessage());
+        }
+    }
 
-                case "SELECT_COURSE":
-                    String selectSectionId = request.getParam("sectionId");
-                    try {
-                        boolean ok = courseService.selectCourse(cardNum, selectSectionId);
-                        return ok ? Response.Builder.success() : Response.Builder.error("选课失败");
-                    } catch (RuntimeException e) {
-                        return Response.Builder.error("选课失败：" + e.getMessage());
-                    }
+    @ActionMapping(uri = {"course/handleRequest", "course/manager", "academic/course"}, action = "DROP_COURSE", executor = "course-select")
+    private Response dropCourse(Request request) {
+        try {
+            boolean ok = courseService.dropCourse(request.getParam("cardNum"), request.getParam("sectionId"));
+            return ok ? Response.Builder.success() : Response.Builder.error("退课失败");
+        } catch (RuntimeException e) {
+            return Response.Builder.error("退课失败：" + e.getMessage());
+        }
+    }
 
-                case "DROP_COURSE":
-                    String dropSectionId = request.getParam("sectionId");
-                    try {
-                        boolean dropOk = courseService.dropCourse(cardNum, dropSectionId);
-                        return dropOk ? Response.Builder.success() : Response.Builder.error("退课失败");
-                    } catch (RuntimeException e) {
-                        return Response.Builder.error("退课失败：" + e.getMessage());
-                    }
+    // 其余操作仍在此按 action 分发
+    private Response handleCourseRequest(Request request) {
+        String action = request.getParam("action");
+        String cardNum = request.getParam("cardNum");
 
+        try {
+            switch (action) {
                 case "INSERT_COURSE": {
                     String courseName = request.getParam("courseName");
                     String creditStr = request.getParam("credit");
@@ -229,8 +263,13 @@ public class CourseController {
 
                     try {
                         int sectionId = Integer.parseInt(sectionIdStr);
-                        boolean updateOk = courseService.batchUpdateScores(sectionId, scoresData);
-                        return updateOk ? Response.Builder.success() : Response.Builder.error("批量更新成绩失败");
+                        BatchScoreResult result = courseService.batchUpdateScores(sectionId, scoresData);
+                        if (!result.isSuccess()) {
+                            List<String> errors = result.getErrors();
+                            String detail = String.join("\n", errors.subList(0, Math.min(errors.size(), 20)));
+                            return Response.Builder.error("批量更新成绩失败，共 " + errors.size() + " 处错误，未保存任何成绩：\n" + detail);
+                        }
+                        return Response.Builder.success("批量更新成绩成功", result);
                     } catch (NumberFormatException e) {
                         return Response.Builder.error("教学班ID格式错误");
                     } catch (Exception e) {
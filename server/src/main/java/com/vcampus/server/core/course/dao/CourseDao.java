@@ -1,6 +1,7 @@
 package com.vcampus.server.core.course.dao;
 
 import com.vcampus.server.core.course.entity.Course;
+import com.vcampus.server.core.course.grade.BatchScoreResult;
 import java.util.List;
 import java.util.Map;
 
@@ -35,7 +36,7 @@ public interface CourseDao {
     List<Map<String, Object>> getTeacherSections(String teacherId);
     List<Map<String, Object>> getSectionStudents(int sectionId);
     boolean updateStudentScore(String cardNum, int sectionId, double score, double gpa);
-    boolean batchUpdateScores(int sectionId, String scoresData);
+    BatchScoreResult batchUpdateScores(int sectionId, String scoresData);
     Map<String, Object> getSectionDetails(int sectionId);
     List<Map<String, Object>> getStudentGrades(int sectionId);
 
@@ -1,30 +1,41 @@
 package com.vcampus.server.core.course.dao;
 
+import com.vcampus.server.core.db.DatabaseManager;
 import com.vcampus.server.core.course.entity.Course;
+import com.vcampus.server.core.course.grade.BatchScoreResult;
+import com.vcampus.server.core.course.grade.GradeAggregator;
+import com.vcampus.server.core.course.grade.GradeStore;
+import com.vcampus.server.core.course.grade.ScoreBatchParser;
+import com.vcampus.server.core.course.grade.ScoreEntry;
 import com.vcampus.server.core.course.mapper.CourseMapper;
+import com.vcampus.server.core.course.registration.CourseRegistrar;
+import com.vcampus.server.core.course.registration.EnrollmentChange;
+import com.vcampus.server.core.course.registration.EnrollmentStore;
+import com.vcampus.server.core.course.util.ScheduleConflictChecker;
+import com.vcampus.server.core.course.util.ScheduleMask;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-public class CourseDaoImpl implements CourseDao {
+public class CourseDaoImpl implements CourseDao, EnrollmentStore, GradeStore {
     private static final Logger logger = LoggerFactory.getLogger(CourseDaoImpl.class);
     private static CourseDaoImpl instance;
     private final SqlSessionFactory sqlSessionFactory;
 
     public CourseDaoImpl() {
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("mybatis-config.xml")) {
-            this.sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
-        } catch (Exception e) {
-            throw new RuntimeException("初始化MyBatis失败", e);
-        }
+        // 共享全局 SqlSessionFactory 及其连接池
+        this.sqlSessionFactory = DatabaseManager.getSqlSessionFactory();
     }
 
     public static synchronized CourseDaoImpl getInstance() {
@@ -50,6 +61,10 @@ public class CourseDaoImpl implements CourseDao {
             CourseMapper mapper = session.getMapper(CourseMapper.class);
             int affected = mapper.updateCourse(course);
             session.commit();
+            if (affected > 0) {
+                CourseRegistrar.getInstance().reloadCatalog();
+                GradeAggregator.getInstance().requestRebuild();
+            }
             return affected > 0;
         }
     }
@@ -60,6 +75,10 @@ public class CourseDaoImpl implements CourseDao {
             CourseMapper mapper = session.getMapper(CourseMapper.class);
             int affected = mapper.deleteCourse(courseId);
             session.commit();
+            if (affected > 0) {
+                CourseRegistrar.getInstance().reloadCatalog();
+                GradeAggregator.getInstance().requestRebuild();
+            }
             return affected > 0;
         }
     }
@@ -132,6 +151,9 @@ public class CourseDaoImpl implements CourseDao {
             CourseMapper mapper = session.getMapper(CourseMapper.class);
             int affected = mapper.insertSection(courseId, term, teacherId, room, capacity, schedule);
             session.commit();
+            if (affected > 0) {
+                CourseRegistrar.getInstance().reloadCatalog();
+            }
             return affected > 0;
         } catch (Exception e) {
             logger.error("创建教学班失败", e);
@@ -145,6 +167,9 @@ public class CourseDaoImpl implements CourseDao {
             CourseMapper mapper = session.getMapper(CourseMapper.class);
             int affected = mapper.updateSection(sectionId, courseId, term, teacherId, room, capacity, schedule);
             session.commit();
+            if (affected > 0) {
+                CourseRegistrar.getInstance().sectionChanged(sectionId);
+            }
             return affected > 0;
         } catch (Exception e) {
             logger.error("更新教学班失败", e);
@@ -158,6 +183,10 @@ public class CourseDaoImpl implements CourseDao {
             CourseMapper mapper = session.getMapper(CourseMapper.class);
             int affected = mapper.deleteSection(sectionId);
             session.commit();
+            if (affected > 0) {
+                CourseRegistrar.getInstance().sectionRemoved(sectionId);
+                GradeAggregator.getInstance().requestRebuild();
+            }
             return affected > 0;
         } catch (Exception e) {
             logger.error("删除教学班失败", e);
@@ -165,6 +194,111 @@ public class CourseDaoImpl implements CourseDao {
         }
     }
 
+    // 选课引擎的载入与写入
+    @Override
+    public List<Map<String, Object>> loadSections() {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            return session.getMapper(CourseMapper.class).loadSectionSeats();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> loadEnrollments() {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            return session.getMapper(CourseMapper.class).loadEnrollmentKeys();
+        }
+    }
+
+    @Override
+    public Map<String, Object> findSection(int sectionId) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            return session.getMapper(CourseMapper.class).findSectionSeats(sectionId);
+        }
+    }
+
+    @Override
+    public String findStudentId(String cardNum) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            return session.getMapper(CourseMapper.class).findStudentId(cardNum);
+        }
+    }
+
+    @Override
+    public void persistEnrollmentChanges(List<EnrollmentChange> changes) {
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            CourseMapper mapper = session.getMapper(CourseMapper.class);
+            try {
+                for (EnrollmentChange change : changes) {
+                    if (change.isEnroll()) {
+                        mapper.insertEnrollment(change.getStudentId(), change.getSectionId());
+                    } else {
+                        mapper.deleteEnrollment(change.getStudentId(), change.getSectionId());
+                    }
+                }
+                session.flushStatements();
+                session.commit();
+            } catch (RuntimeException e) {
+                session.rollback();
+                throw e;
+            }
+        }
+        Set<String> studentIds = new LinkedHashSet<>();
+        for (EnrollmentChange change : changes) {
+            studentIds.add(change.getStudentId());
+        }
+        GradeAggregator.getInstance().refreshStudents(studentIds);
+    }
+
+    // 成绩汇总的载入
+    @Override
+    public List<Map<String, Object>> loadGradeRows(int chunk, int chunks) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            return session.getMapper(CourseMapper.class).loadGradeRows(chunk, chunks);
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> loadStudentGradeRows(Collection<String> studentIds) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            return session.getMapper(CourseMapper.class).findStudentGradeRows(studentIds);
+        }
+    }
+
+    /**
+     * 选课/退课提交后刷新该学生的成绩汇总
+     */
+    private void refreshGrades(SqlSession session, String cardNum) {
+        GradeAggregator aggregator = GradeAggregator.getInstance();
+        if (!aggregator.isLoaded()) {
+            return;
+        }
+        try {
+            String studentId = session.getMapper(CourseMapper.class).findStudentId(cardNum);
+            if (studentId != null) {
+                aggregator.refreshStudents(Collections.singleton(studentId));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("刷新成绩汇总失败: cardNum={}", cardNum, e);
+        }
+    }
+
+    /**
+     * 成绩提交后把相应选课记录的最新内容登记到成绩汇总，cardNum 为 null 时登记整个教学班
+     */
+    private void recordGrades(CourseMapper mapper, String cardNum, int sectionId) {
+        GradeAggregator aggregator = GradeAggregator.getInstance();
+        if (!aggregator.isLoaded()) {
+            return;
+        }
+        try {
+            aggregator.recordRows(cardNum == null
+                    ? mapper.findSectionGradeRows(sectionId)
+                    : Collections.singletonList(mapper.findGradeRow(cardNum, sectionId)));
+        } catch (RuntimeException e) {
+            logger.warn("登记成绩汇总失败: cardNum={}, sectionId={}", cardNum, sectionId, e);
+        }
+    }
+
     /**
      * 通过 cardNum 查询 studentId
      */
@@ -197,14 +331,12 @@ public class CourseDaoImpl implements CourseDao {
             return false;
         }
 
-        // 使用智能工具检查时间冲突
+        // 已选课程的时间合并为一张位图，只比较一次
+        ScheduleMask occupied = ScheduleMask.EMPTY;
         for (String selectedSchedule : selectedSchedules) {
-            if (com.vcampus.server.core.course.util.ScheduleConflictChecker.hasConflict(selectedSchedule, newSchedule)) {
-                return true;
-            }
+            occupied = occupied.union(ScheduleConflictChecker.toMask(selectedSchedule));
         }
-
-        return false;
+        return occupied.conflictsWith(ScheduleConflictChecker.toMask(newSchedule));
     }
 
     /**
@@ -250,6 +382,7 @@ public class CourseDaoImpl implements CourseDao {
             if (affected <= 0) {
                 throw new RuntimeException("选课失败，可能已选过或人数已满");
             }
+            refreshGrades(session, cardNum);
             return true;
         }
     }
@@ -277,6 +410,7 @@ public class CourseDaoImpl implements CourseDao {
             if (affected <= 0) {
                 throw new RuntimeException("退课失败，可能未选该课");
             }
+            refreshGrades(session, cardNum);
             return true;
         }
     }
@@ -347,6 +481,9 @@ public class CourseDaoImpl implements CourseDao {
             CourseMapper mapper = session.getMapper(CourseMapper.class);
             int affected = mapper.updateStudentScore(cardNum, sectionId, score, gpa);
             session.commit();
+            if (affected > 0) {
+                recordGrades(mapper, cardNum, sectionId);
+            }
             return affected > 0;
         } catch (Exception e) {
             logger.error("更新学生成绩失败", e);
@@ -354,15 +491,50 @@ public class CourseDaoImpl implements CourseDao {
         }
     }
 
+    /**
+     * 批量更新一个教学班的成绩：先校验全部行，全部通过后在一个事务中批量执行 UPDATE，
+     * 任一行不通过则整批不写入
+     */
     @Override
-    public boolean batchUpdateScores(int sectionId, String scoresData) {
-        try (SqlSession session = sqlSessionFactory.openSession()) {
-            // 这里需要解析scoresData并批量更新，暂时返回false，需要具体实现
-            // TODO: 实现批量更新逻辑
-            return false;
-        } catch (Exception e) {
-            logger.error("批量更新成绩失败", e);
-            return false;
+    public BatchScoreResult batchUpdateScores(int sectionId, String scoresData) {
+        BatchScoreResult result = new BatchScoreResult(sectionId);
+        List<ScoreEntry> entries = ScoreBatchParser.parse(scoresData, result);
+
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            CourseMapper mapper = session.getMapper(CourseMapper.class);
+            Map<String, String> studentIds = new HashMap<>();
+            for (Map<String, Object> row : mapper.getSectionEnrollmentKeys(sectionId)) {
+                studentIds.put(String.valueOf(row.get("cardNum")), String.valueOf(row.get("student_Id")));
+            }
+            if (studentIds.isEmpty() && !sectionExists(session, sectionId)) {
+                result.addError(0, null, "教学班不存在");
+                return result;
+            }
+            for (ScoreEntry entry : entries) {
+                if (!studentIds.containsKey(entry.getCardNum())) {
+                    result.addError(entry.getRow(), entry.getCardNum(), "该学生未选此教学班");
+                }
+            }
+            if (!result.isSuccess() || entries.isEmpty()) {
+                return result;
+            }
+
+            try {
+                for (ScoreEntry entry : entries) {
+                    mapper.updateScoreByStudentId(studentIds.get(entry.getCardNum()), sectionId,
+                            entry.getScore(), entry.getGpa());
+                }
+                session.flushStatements();
+                session.commit();
+                result.setUpdatedCount(entries.size());
+            } catch (RuntimeException e) {
+                session.rollback();
+                logger.error("批量更新成绩失败: sectionId={}", sectionId, e);
+                result.addError(0, null, "写入数据库失败：" + e.getMessage());
+                return result;
+            }
+            recordGrades(mapper, null, sectionId);
+            return result;
         }
     }
 
@@ -405,6 +577,9 @@ public class CourseDaoImpl implements CourseDao {
             CourseMapper mapper = session.getMapper(CourseMapper.class);
             int affected = mapper.updateStudentScore(cardNum, sectionId, score, gpa);
             session.commit();
+            if (affected > 0) {
+                recordGrades(mapper, cardNum, sectionId);
+            }
             return affected > 0;
         } catch (Exception e) {
             logger.error("通过学号更新学生成绩失败: {}", e.getMessage(), e);
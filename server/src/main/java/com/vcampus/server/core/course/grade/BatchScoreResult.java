@@ -0,0 +1,77 @@
+package com.vcampus.server.core.course.grade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量成绩更新结果
+ *
+ * 任一行校验失败时整批不写入，errors 逐行说明原因。
+ */
+public final class BatchScoreResult {
+
+    private final int sectionId;
+    private int totalCount;
+    private int skippedCount;
+    private int updatedCount;
+    private final List<String> errors = new ArrayList<>();
+
+    public BatchScoreResult(int sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public boolean isSuccess() {
+        return errors.isEmpty();
+    }
+
+    public int getSectionId() {
+        return sectionId;
+    }
+
+    /**
+     * 提交的总行数
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * 未填写分数而跳过的行数
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setUpdatedCount(int updatedCount) {
+        this.updatedCount = updatedCount;
+    }
+
+    void rowRead() {
+        totalCount++;
+    }
+
+    void rowSkipped() {
+        skippedCount++;
+    }
+
+    /**
+     * 记录一行的错误
+     *
+     * @param row 行号，从1开始；0 表示与具体行无关
+     */
+    public void addError(int row, String cardNum, String message) {
+        if (row <= 0) {
+            errors.add(message);
+        } else {
+            errors.add("第" + row + "行" + (cardNum != null ? "(" + cardNum + ")" : "") + "：" + message);
+        }
+    }
+}
@@ -0,0 +1,599 @@
+package com.vcampus.server.core.course.grade;
+
+import com.vcampus.server.core.course.dao.CourseDaoImpl;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 学生成绩汇总
+ *
+ * 每个学生在内存中维护已有成绩课程的学分合计、学分加权的分数合计与绩点合计、课程数，
+ * 成绩统计、平均成绩和成绩排名直接由此计算，不再每次联表 tblEnrollment、tblSection、tblCourse 求和。
+ * 口径与原 SQL 一致：Score 非空且不小于 0 的选课记录计入，GPA 为空的记录只计学分不计绩点。
+ *
+ * 成绩写入提交后由 {@link CourseDaoImpl} 传入相应选课记录的最新内容，汇总按该记录的新旧差值增量更新；
+ * 选课、退课提交后按学生重新读取。启动时以及每 {@value #REBUILD_INTERVAL_HOURS} 小时
+ * 按学号散列分为 {@value #REBUILD_CHUNKS} 片并行地从数据库重新计算全部汇总，
+ * 与内存中的汇总比对后替换，不一致的学生数写入日志；课程学分修改、课程或教学班删除后也会触发重建。
+ * 重建期间发生的变更先记下，替换后重放一遍，不会被重建覆盖。
+ * 按学生刷新时记下读库前的版本，读库期间这些学生有其他变更或发生重建则重新读取，不用旧结果覆盖新变更。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class GradeAggregator {
+
+    private static final int REBUILD_CHUNKS = 4;
+    private static final long REBUILD_INTERVAL_HOURS = 6;
+    private static final double EPSILON = 1e-6;
+    private static final int REFRESH_ATTEMPTS = 3;
+
+    private static volatile GradeAggregator instance;
+
+    private final GradeStore store;
+    private final Object rebuildLock = new Object();
+
+    private volatile Book book = new Book();
+    private volatile List<Map<String, Object>> ranking;
+    private List<Change> journal;
+
+    /**
+     * 变更版本：每次登记变更或重建替换汇总时递增；lastChanged 记下每个学生最近一次变更时的版本，
+     * rebuiltAt 记下最近一次替换汇总时的版本，均只在持有本对象锁时读写
+     */
+    private long version;
+    private long rebuiltAt;
+    private final Map<String, Long> lastChanged = new HashMap<>();
+
+    private volatile boolean loaded;
+    private ScheduledExecutorService scheduler;
+
+    GradeAggregator(GradeStore store) {
+        this.store = store;
+    }
+
+    public static GradeAggregator getInstance() {
+        if (instance == null) {
+            synchronized (GradeAggregator.class) {
+                if (instance == null) {
+                    instance = new GradeAggregator(CourseDaoImpl.getInstance());
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 载入全部汇总并启动定时重建；载入失败时成绩统计退回直接查询数据库
+     */
+    public void start() {
+        synchronized (this) {
+            if (scheduler != null) {
+                return;
+            }
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("成绩汇总载入失败，成绩统计将直接查询数据库", e);
+            return;
+        }
+        synchronized (this) {
+            if (scheduler != null) {
+                return;
+            }
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "vcampus-grade-rebuild");
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::runRebuild,
+                    REBUILD_INTERVAL_HOURS, REBUILD_INTERVAL_HOURS, TimeUnit.HOURS);
+        }
+    }
+
+    /**
+     * 停止定时重建
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        loaded = false;
+    }
+
+    /**
+     * 是否已载入；未载入时调用方应回退到数据库查询
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 在后台重建全部汇总，用于学分等影响大量学生的修改之后
+     */
+    public synchronized void requestRebuild() {
+        if (scheduler != null) {
+            scheduler.execute(this::runRebuild);
+        }
+    }
+
+    private void runRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("成绩汇总重建失败", e);
+        }
+    }
+
+    /**
+     * 分片并行地从数据库重新计算全部汇总并替换内存中的汇总
+     *
+     * @return 与替换前不一致的学生数，首次载入时为 0
+     */
+    int rebuild() {
+        synchronized (rebuildLock) {
+            long begin = System.currentTimeMillis();
+            synchronized (this) {
+                journal = new ArrayList<>();
+            }
+            Book fresh;
+            try {
+                fresh = loadChunks();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    journal = null;
+                }
+                throw e;
+            }
+            int mismatched;
+            synchronized (this) {
+                for (Change change : journal) {
+                    change.applyTo(fresh);
+                }
+                journal = null;
+                mismatched = loaded ? book.countMismatched(fresh) : 0;
+                book = fresh;
+                ranking = null;
+                loaded = true;
+                rebuiltAt = ++version;
+            }
+            if (mismatched > 0) {
+                log.warn("成绩汇总与数据库不一致的学生 {} 名，已按数据库重建", mismatched);
+            }
+            log.info("成绩汇总重建完成: 学生={}, 耗时={}ms",
+                    fresh.byStudentId.size(), System.currentTimeMillis() - begin);
+            return mismatched;
+        }
+    }
+
+    private Book loadChunks() {
+        ExecutorService pool = Executors.newFixedThreadPool(REBUILD_CHUNKS, r -> {
+            Thread t = new Thread(r, "vcampus-grade-chunk");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Map<String, StudentGrades>>> futures = new ArrayList<>(REBUILD_CHUNKS);
+            for (int chunk = 0; chunk < REBUILD_CHUNKS; chunk++) {
+                int current = chunk;
+                futures.add(pool.submit(() -> summarize(store.loadGradeRows(current, REBUILD_CHUNKS))));
+            }
+            Book fresh = new Book();
+            for (Future<Map<String, StudentGrades>> future : futures) {
+                for (StudentGrades grades : future.get().values()) {
+                    fresh.add(grades);
+                }
+            }
+            return fresh;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("成绩汇总重建被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Map<String, StudentGrades> summarize(List<Map<String, Object>> rows) {
+        Map<String, StudentGrades> part = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            GradeRow grade = GradeRow.of(row);
+            if (grade.isGraded()) {
+                part.computeIfAbsent(grade.studentId, id -> new StudentGrades(grade)).put(grade);
+            }
+        }
+        return part;
+    }
+
+    // ==================== 增量维护 ====================
+
+    /**
+     * 成绩写入提交后登记选课记录的最新内容（字段同 {@link GradeStore#loadGradeRows(int, int)}），
+     * 成绩为空的记录从汇总中移除
+     */
+    public void recordRows(List<Map<String, Object>> rows) {
+        if (!loaded || rows == null || rows.isEmpty()) {
+            return;
+        }
+        List<GradeRow> grades = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            if (row != null) {
+                grades.add(GradeRow.of(row));
+            }
+        }
+        apply(new Change(Collections.emptySet(), grades));
+    }
+
+    /**
+     * 选课、退课提交后按数据库重新汇总这些学生
+     * 读库期间这些学生另有变更登记或汇总被重建时，读到的可能比内存旧，丢弃后重新读取，
+     * 最多 {@value #REFRESH_ATTEMPTS} 次，仍不稳定则保留内存中的汇总等待下次重建
+     */
+    public void refreshStudents(Collection<String> studentIds) {
+        if (!loaded || studentIds == null || studentIds.isEmpty()) {
+            return;
+        }
+        Set<String> cleared = new HashSet<>(studentIds);
+        try {
+            for (int attempt = 0; attempt < REFRESH_ATTEMPTS; attempt++) {
+                long readAt = currentVersion();
+                List<GradeRow> grades = new ArrayList<>();
+                for (Map<String, Object> row : store.loadStudentGradeRows(cleared)) {
+                    grades.add(GradeRow.of(row));
+                }
+                if (applyIfUnchangedSince(new Change(cleared, grades), readAt)) {
+                    return;
+                }
+            }
+            log.warn("刷新期间学生成绩汇总持续变更，等待下次重建: {}", cleared);
+        } catch (RuntimeException e) {
+            log.warn("刷新学生成绩汇总失败，等待下次重建: {}", studentIds, e);
+        }
+    }
+
+    private synchronized long currentVersion() {
+        return version;
+    }
+
+    private synchronized boolean applyIfUnchangedSince(Change change, long readAt) {
+        if (rebuiltAt > readAt) {
+            return false;
+        }
+        for (String studentId : change.cleared) {
+            if (lastChanged.getOrDefault(studentId, 0L) > readAt) {
+                return false;
+            }
+        }
+        apply(change);
+        return true;
+    }
+
+    private synchronized void apply(Change change) {
+        change.applyTo(book);
+        if (journal != null) {
+            journal.add(change);
+        }
+        ranking = null;
+        version++;
+        for (String studentId : change.cleared) {
+            lastChanged.put(studentId, version);
+        }
+        for (GradeRow row : change.rows) {
+            lastChanged.put(row.studentId, version);
+        }
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 学生成绩统计，字段同原 getStudentGradeStatistics：
+     * totalCount、totalScore、totalCredits、avgScore、totalGPA、avgGPA
+     */
+    public Map<String, Object> statistics(String cardNum) {
+        Summary summary = summaryOf(cardNum == null ? null : book.byCardNum.get(cardNum));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalCount", summary.count);
+        result.put("totalScore", scale(summary.scoreSum, 2));
+        result.put("totalCredits", scale(summary.credits, 0));
+        result.put("avgScore", scale(summary.avgScore(), 4));
+        result.put("totalGPA", scale(summary.gpaSum, 2));
+        result.put("avgGPA", scale(summary.avgGpa(), 4));
+        return result;
+    }
+
+    /**
+     * 学生平均成绩：avgScore、avgGPA、courseCount
+     */
+    public Map<String, Object> averages(String studentId) {
+        Summary summary = summaryOf(studentId == null ? null : book.byStudentId.get(studentId));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("avgScore", scale(summary.avgScore(), 4));
+        result.put("avgGPA", scale(summary.avgGpa(), 4));
+        result.put("courseCount", summary.count);
+        return result;
+    }
+
+    /**
+     * 按加权平均分从高到低排列的全部有成绩的学生，
+     * 元素包含 studentId、name、avgScore、avgGPA、courseCount、rank（并列时名次相同）
+     */
+    public List<Map<String, Object>> ranking() {
+        List<Map<String, Object>> current = ranking;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (ranking == null) {
+                ranking = buildRanking();
+            }
+            return ranking;
+        }
+    }
+
+    private List<Map<String, Object>> buildRanking() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (StudentGrades grades : book.byStudentId.values()) {
+            Summary summary = grades.summary;
+            if (summary.count == 0) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("studentId", grades.studentId);
+            row.put("name", grades.name);
+            row.put("avgScore", scale(summary.avgScore(), 4));
+            row.put("avgGPA", scale(summary.avgGpa(), 4));
+            row.put("courseCount", summary.count);
+            rows.add(row);
+        }
+        rows.sort(Comparator.comparing((Map<String, Object> row) -> (BigDecimal) row.get("avgScore")).reversed()
+                .thenComparing(row -> (String) row.get("studentId")));
+
+        List<Map<String, Object>> ranked = new ArrayList<>(rows.size());
+        int rank = 0;
+        Object previous = null;
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = rows.get(i);
+            if (previous == null || ((BigDecimal) previous).compareTo((BigDecimal) row.get("avgScore")) != 0) {
+                rank = i + 1;
+            }
+            previous = row.get("avgScore");
+            row.put("rank", rank);
+            ranked.add(Collections.unmodifiableMap(row));
+        }
+        return Collections.unmodifiableList(ranked);
+    }
+
+    private static Summary summaryOf(StudentGrades grades) {
+        return grades == null ? Summary.EMPTY : grades.summary;
+    }
+
+    private static BigDecimal scale(double value, int digits) {
+        return BigDecimal.valueOf(value).setScale(digits, RoundingMode.HALF_UP);
+    }
+
+    // ==================== 内部结构 ====================
+
+    /**
+     * 一份完整的汇总，按学号与一卡通号索引
+     */
+    private static final class Book {
+        final Map<String, StudentGrades> byStudentId = new ConcurrentHashMap<>();
+        final Map<String, StudentGrades> byCardNum = new ConcurrentHashMap<>();
+
+        void add(StudentGrades grades) {
+            byStudentId.put(grades.studentId, grades);
+            if (grades.cardNum != null) {
+                byCardNum.put(grades.cardNum, grades);
+            }
+        }
+
+        void remove(String studentId) {
+            StudentGrades grades = byStudentId.remove(studentId);
+            if (grades != null && grades.cardNum != null) {
+                byCardNum.remove(grades.cardNum, grades);
+            }
+        }
+
+        void apply(GradeRow row) {
+            StudentGrades grades = byStudentId.get(row.studentId);
+            if (!row.isGraded()) {
+                if (grades != null) {
+                    grades.remove(row.sectionId);
+                }
+                return;
+            }
+            if (grades == null) {
+                grades = new StudentGrades(row);
+                add(grades);
+            }
+            grades.put(row);
+        }
+
+        int countMismatched(Book other) {
+            Set<String> studentIds = new HashSet<>(byStudentId.keySet());
+            studentIds.addAll(other.byStudentId.keySet());
+            int mismatched = 0;
+            for (String studentId : studentIds) {
+                if (!summaryOf(byStudentId.get(studentId)).matches(summaryOf(other.byStudentId.get(studentId)))) {
+                    mismatched++;
+                }
+            }
+            return mismatched;
+        }
+    }
+
+    /**
+     * 一批变更：先清除指定学生的全部汇总，再逐条登记选课记录；重放多次结果相同
+     */
+    private static final class Change {
+        final Set<String> cleared;
+        final List<GradeRow> rows;
+
+        Change(Set<String> cleared, List<GradeRow> rows) {
+            this.cleared = cleared;
+            this.rows = rows;
+        }
+
+        void applyTo(Book book) {
+            for (String studentId : cleared) {
+                book.remove(studentId);
+            }
+            for (GradeRow row : rows) {
+                book.apply(row);
+            }
+        }
+    }
+
+    /**
+     * 单个学生的汇总；选课记录只在持有 GradeAggregator 锁（或重建时在单个分片线程内）修改，
+     * summary 随每次修改整体替换，查询时无需加锁
+     */
+    private static final class StudentGrades {
+        final String studentId;
+        final String cardNum;
+        final String name;
+        private final Map<Integer, GradeRow> rows = new HashMap<>();
+        volatile Summary summary = Summary.EMPTY;
+
+        StudentGrades(GradeRow first) {
+            this.studentId = first.studentId;
+            this.cardNum = first.cardNum;
+            this.name = first.name;
+        }
+
+        void put(GradeRow row) {
+            GradeRow old = rows.put(row.sectionId, row);
+            summary = summary.minus(old).plus(row);
+        }
+
+        void remove(int sectionId) {
+            GradeRow old = rows.remove(sectionId);
+            if (old != null) {
+                summary = summary.minus(old);
+            }
+        }
+    }
+
+    /**
+     * 不可变的汇总值
+     */
+    private static final class Summary {
+        static final Summary EMPTY = new Summary(0, 0, 0, 0);
+
+        final int count;
+        final double credits;
+        final double scoreSum;
+        final double gpaSum;
+
+        Summary(int count, double credits, double scoreSum, double gpaSum) {
+            this.count = count;
+            this.credits = credits;
+            this.scoreSum = scoreSum;
+            this.gpaSum = gpaSum;
+        }
+
+        Summary plus(GradeRow row) {
+            return row == null ? this : new Summary(count + 1, credits + row.credit,
+                    scoreSum + row.credit * row.score, gpaSum + row.credit * row.gpaOrZero());
+        }
+
+        Summary minus(GradeRow row) {
+            return row == null ? this : new Summary(count - 1, credits - row.credit,
+                    scoreSum - row.credit * row.score, gpaSum - row.credit * row.gpaOrZero());
+        }
+
+        double avgScore() {
+            return credits > EPSILON ? scoreSum / credits : 0;
+        }
+
+        double avgGpa() {
+            return credits > EPSILON ? gpaSum / credits : 0;
+        }
+
+        boolean matches(Summary other) {
+            return count == other.count
+                    && Math.abs(credits - other.credits) < EPSILON
+                    && Math.abs(scoreSum - other.scoreSum) < EPSILON
+                    && Math.abs(gpaSum - other.gpaSum) < EPSILON;
+        }
+    }
+
+    /**
+     * 一条选课记录的成绩
+     */
+    private static final class GradeRow {
+        final String studentId;
+        final String cardNum;
+        final String name;
+        final int sectionId;
+        final double credit;
+        final Double score;
+        final Double gpa;
+
+        private GradeRow(String studentId, String cardNum, String name, int sectionId,
+                         double credit, Double score, Double gpa) {
+            this.studentId = studentId;
+            this.cardNum = cardNum;
+            this.name = name;
+            this.sectionId = sectionId;
+            this.credit = credit;
+            this.score = score;
+            this.gpa = gpa;
+        }
+
+        static GradeRow of(Map<String, Object> row) {
+            Object cardNum = row.get("cardNum");
+            Object name = row.get("Name");
+            Double credit = doubleValue(row.get("Credit"));
+            return new GradeRow(String.valueOf(row.get("student_Id")),
+                    cardNum == null ? null : cardNum.toString(),
+                    name == null ? null : name.toString(),
+                    ((Number) row.get("section_Id")).intValue(),
+                    credit == null ? 0 : credit,
+                    doubleValue(row.get("Score")),
+                    doubleValue(row.get("GPA")));
+        }
+
+        boolean isGraded() {
+            return score != null && score >= 0;
+        }
+
+        double gpaOrZero() {
+            return gpa != null && gpa >= 0 ? gpa : 0;
+        }
+
+        private static Double doubleValue(Object value) {
+            if (value == null) {
+                return null;
+            }
+            return value instanceof Number ? ((Number) value).doubleValue() : Double.valueOf(value.toString());
+        }
+    }
+}
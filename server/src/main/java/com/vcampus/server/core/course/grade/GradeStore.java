@@ -0,0 +1,25 @@
+package com.vcampus.server.core.course.grade;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 成绩汇总使用的数据库访问
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public interface GradeStore {
+
+    /**
+     * 按学号散列分片后的第 chunk 片已有成绩的选课记录，
+     * 元素包含 student_Id、cardNum、Name、section_Id、Credit、Score、GPA
+     */
+    List<Map<String, Object>> loadGradeRows(int chunk, int chunks);
+
+    /**
+     * 指定学生的全部已有成绩的选课记录，字段同 {@link #loadGradeRows(int, int)}
+     */
+    List<Map<String, Object>> loadStudentGradeRows(Collection<String> studentIds);
+}
@@ -0,0 +1,95 @@
+package com.vcampus.server.core.course.grade;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.vcampus.common.util.GPACalculator;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 批量成绩数据解析
+ *
+ * scoresData 为 JSON 数组，每个元素形如 {"cardNum": "...", "score": 88}，score 也可以是字符串。
+ * 逐个元素流式读取，不先构造整棵 JSON 树；分数为空的行跳过，提交的 gpa 字段忽略，统一按分数计算。
+ * 校验错误逐行记录到 {@link BatchScoreResult}，不会中途停止。
+ */
+public final class ScoreBatchParser {
+
+    private ScoreBatchParser() {
+    }
+
+    /**
+     * 解析并校验批量成绩
+     *
+     * @return 通过校验的行；result 中有错误时调用方不应写入
+     */
+    public static List<ScoreEntry> parse(String scoresData, BatchScoreResult result) {
+        List<ScoreEntry> entries = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        try (JsonReader reader = new JsonReader(new StringReader(scoresData))) {
+            reader.beginArray();
+            int row = 0;
+            while (reader.hasNext()) {
+                row++;
+                result.rowRead();
+                readRow(reader, row, entries, seen, result);
+            }
+            reader.endArray();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            result.addError(0, null, "成绩数据格式错误：" + e.getMessage());
+        }
+        return entries;
+    }
+
+    private static void readRow(JsonReader reader, int row, List<ScoreEntry> entries, Set<String> seen,
+                                BatchScoreResult result) throws IOException {
+        String cardNum = null;
+        String scoreText = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            if ("cardNum".equals(name)) {
+                cardNum = reader.nextString().trim();
+            } else if ("score".equals(name)) {
+                scoreText = reader.nextString().trim();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (cardNum == null || cardNum.isEmpty()) {
+            result.addError(row, null, "学号不能为空");
+            return;
+        }
+        if (scoreText == null || scoreText.isEmpty()) {
+            result.rowSkipped();
+            return;
+        }
+        double score;
+        try {
+            score = Double.parseDouble(scoreText);
+        } catch (NumberFormatException e) {
+            result.addError(row, cardNum, "分数必须是数字");
+            return;
+        }
+        if (Double.isNaN(score) || score < 0 || score > 100) {
+            result.addError(row, cardNum, "分数必须在0-100之间");
+            return;
+        }
+        if (!seen.add(cardNum)) {
+            result.addError(row, cardNum, "学号重复");
+            return;
+        }
+        entries.add(new ScoreEntry(row, cardNum, score, GPACalculator.calculateGPA(score)));
+    }
+}
@@ -0,0 +1,38 @@
+package com.vcampus.server.core.course.grade;
+
+/**
+ * 批量成绩中的一行，GPA 由服务器按分数计算
+ */
+public final class ScoreEntry {
+
+    private final int row;
+    private final String cardNum;
+    private final double score;
+    private final double gpa;
+
+    ScoreEntry(int row, String cardNum, double score, double gpa) {
+        this.row = row;
+        this.cardNum = cardNum;
+        this.score = score;
+        this.gpa = gpa;
+    }
+
+    /**
+     * 在提交数据中的行号，从1开始
+     */
+    public int getRow() {
+        return row;
+    }
+
+    public String getCardNum() {
+        return cardNum;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public double getGpa() {
+        return gpa;
+    }
+}
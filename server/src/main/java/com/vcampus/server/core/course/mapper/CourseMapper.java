@@ -2,6 +2,7 @@ package com.vcampus.server.core.course.mapper;
 
 import com.vcampus.server.core.course.entity.Course;
 import org.apache.ibatis.annotations.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +19,14 @@ public interface CourseMapper {
     int selectCourse(@Param("cardNum") String cardNum, @Param("sectionId") int sectionId);
     int dropCourse(@Param("cardNum") String cardNum, @Param("sectionId") int sectionId);
 
+    // 选课引擎：载入与按顺序写入
+    List<Map<String, Object>> loadSectionSeats();
+    List<Map<String, Object>> loadEnrollmentKeys();
+    Map<String, Object> findSectionSeats(@Param("sectionId") int sectionId);
+    String findStudentId(@Param("cardNum") String cardNum);
+    int insertEnrollment(@Param("studentId") String studentId, @Param("sectionId") int sectionId);
+    int deleteEnrollment(@Param("studentId") String studentId, @Param("sectionId") int sectionId);
+
     // 时间冲突检测
     int checkTimeConflict(@Param("cardNum") String cardNum, @Param("sectionId") int sectionId);
     List<String> getStudentSchedules(@Param("cardNum") String cardNum);
@@ -50,6 +59,9 @@ public interface CourseMapper {
     int updateStudentScore(@Param("cardNum") String cardNum, @Param("sectionId") int sectionId,
                           @Param("score") double score, @Param("gpa") double gpa);
     Map<String, Object> getSectionDetails(@Param("sectionId") int sectionId);
+    List<Map<String, Object>> getSectionEnrollmentKeys(@Param("sectionId") int sectionId);
+    int updateScoreByStudentId(@Param("studentId") String studentId, @Param("sectionId") int sectionId,
+                               @Param("score") double score, @Param("gpa") double gpa);
     List<Map<String, Object>> getStudentGrades(@Param("sectionId") int sectionId);
 
     // 辅助查询方法
@@ -74,4 +86,10 @@ public interface CourseMapper {
     
     // 获取单个学生的平均成绩和GPA
     Map<String, Object> getStudentAverageGrades(@Param("studentId") String studentId);
+
+    // 成绩汇总：分片载入与写入后读取
+    List<Map<String, Object>> loadGradeRows(@Param("chunk") int chunk, @Param("chunks") int chunks);
+    List<Map<String, Object>> findStudentGradeRows(@Param("studentIds") Collection<String> studentIds);
+    Map<String, Object> findGradeRow(@Param("cardNum") String cardNum, @Param("sectionId") int sectionId);
+    List<Map<String, Object>> findSectionGradeRows(@Param("sectionId") int sectionId);
 }
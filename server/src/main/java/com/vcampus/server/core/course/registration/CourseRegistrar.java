@@ -0,0 +1,553 @@
+package com.vcampus.server.core.course.registration;
+
+import com.vcampus.server.core.course.dao.CourseDaoImpl;
+import com.vcampus.server.core.course.util.ScheduleConflictChecker;
+import com.vcampus.server.core.course.util.ScheduleMask;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 选课引擎
+ *
+ * 启动时从 tblSection、tblEnrollment 载入各教学班的容量与已选人数、各学生的已选教学班，
+ * 选课/退课的校验（重复选课、同课程多班、时间冲突、容量）全部在内存中完成：
+ * 每个学生、每个教学班各持一把锁，按“先学生后教学班”的顺序加锁，容量判断与占座是同一步，不会超卖。
+ * 各教学班的上课时间预先解析为 {@link ScheduleMask}，每个学生维护已选教学班的合并位图，
+ * 时间冲突检查只需一次按位与。
+ * 教学班的展示字段与已选人数一并保存在内存中，可选课程列表直接由此筛选，不再查询数据库。
+ *
+ * 通过校验的选课/退课按发生顺序进入写入队列，由单独的写线程每 {@value #BATCH_SIZE} 条一批写入数据库，
+ * 写入失败时原样放回队首重试，不会打乱顺序。数据库仍是唯一的持久状态，重启后重新载入。
+ * 查询本人选课结果前调用 {@link #awaitPersisted(String)}，保证能读到自己刚提交的选课。
+ *
+ * 教学班、课程的新增、修改、删除由 {@link CourseDaoImpl} 通知本类刷新。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class CourseRegistrar {
+
+    private static final int BATCH_SIZE = 200;
+    private static final long POLL_MILLIS = 200;
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+    private static final long READ_WAIT_MILLIS = 2_000;
+    private static final long STOP_WAIT_MILLIS = 10_000;
+
+    private static volatile CourseRegistrar instance;
+
+    private final EnrollmentStore store;
+
+    private final ConcurrentSkipListMap<Integer, SectionSeats> sections = new ConcurrentSkipListMap<>();
+    private final Map<String, StudentState> students = new ConcurrentHashMap<>();
+
+    private final LinkedBlockingDeque<EnrollmentChange> pending = new LinkedBlockingDeque<>();
+    private final Object persistMonitor = new Object();
+    private long sequence;
+    private long persistedSeq;
+
+    private volatile boolean loaded;
+    private volatile boolean running;
+    private Thread writer;
+
+    CourseRegistrar(EnrollmentStore store) {
+        this.store = store;
+    }
+
+    public static CourseRegistrar getInstance() {
+        if (instance == null) {
+            synchronized (CourseRegistrar.class) {
+                if (instance == null) {
+                    instance = new CourseRegistrar(CourseDaoImpl.getInstance());
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 载入教学班与选课记录并启动写线程；载入失败时选课退回逐条访问数据库
+     */
+    public synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.error("选课引擎载入失败，选课将直接访问数据库", e);
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "vcampus-enroll-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 停止接受选课，等待写入队列清空
+     */
+    public void stop() {
+        Thread current;
+        synchronized (this) {
+            if (writer == null) {
+                return;
+            }
+            loaded = false;
+            running = false;
+            current = writer;
+            writer = null;
+        }
+        try {
+            current.join(STOP_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!pending.isEmpty()) {
+            log.error("选课引擎停止时仍有 {} 条选课记录未写入数据库", pending.size());
+        }
+    }
+
+    /**
+     * 是否已载入；未载入时调用方应回退到数据库选课
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    synchronized void load() {
+        long begin = System.currentTimeMillis();
+        sections.clear();
+        students.clear();
+        for (Map<String, Object> row : store.loadSections()) {
+            int sectionId = intValue(row.get("section_Id"));
+            sections.put(sectionId, new SectionSeats(sectionId, row));
+        }
+        int enrollments = 0;
+        for (Map<String, Object> row : store.loadEnrollments()) {
+            String cardNum = String.valueOf(row.get("cardNum"));
+            StudentState student = students.computeIfAbsent(cardNum,
+                    k -> new StudentState(String.valueOf(row.get("student_Id"))));
+            int sectionId = intValue(row.get("section_Id"));
+            SectionSeats section = sections.get(sectionId);
+            if (section != null && student.sections.add(sectionId)) {
+                section.enrolled++;
+                enrollments++;
+            }
+        }
+        for (StudentState student : students.values()) {
+            student.occupied = occupiedBy(student.sections);
+        }
+        loaded = true;
+        log.info("选课引擎载入完成: 教学班={}, 学生={}, 选课记录={}, 耗时={}ms",
+                sections.size(), students.size(), enrollments, System.currentTimeMillis() - begin);
+    }
+
+    // ==================== 选课/退课 ====================
+
+    /**
+     * 选课，校验不通过时抛出带原因的 RuntimeException
+     */
+    public void select(String cardNum, int sectionId) {
+        StudentState student = student(cardNum);
+        if (student == null) {
+            throw new RuntimeException("学生不存在，无法选课");
+        }
+        SectionSeats section = section(sectionId);
+        if (section == null) {
+            throw new RuntimeException("教学班不存在，无法选课");
+        }
+
+        synchronized (student) {
+            if (student.sections.contains(sectionId)) {
+                throw new RuntimeException("选课失败：已选择该教学班");
+            }
+            for (Integer selectedId : student.sections) {
+                SectionSeats selected = sections.get(selectedId);
+                if (selected != null && selected.courseId == section.courseId) {
+                    throw new RuntimeException("选课失败：不能重复选择同一门课程的不同教学班");
+                }
+            }
+            if (student.occupied.conflictsWith(section.mask)) {
+                throw new RuntimeException("选课失败：与已选课程时间冲突");
+            }
+            synchronized (section) {
+                if (section.removed) {
+                    throw new RuntimeException("教学班不存在，无法选课");
+                }
+                if (section.enrolled >= section.capacity) {
+                    throw new RuntimeException("选课失败：教学班人数已满");
+                }
+                section.enrolled++;
+            }
+            student.sections.add(sectionId);
+            student.occupied = student.occupied.union(section.mask);
+            student.lastSeq = enqueue(student.studentId, sectionId, true);
+        }
+    }
+
+    /**
+     * 退课，未选该教学班时抛出 RuntimeException
+     */
+    public void drop(String cardNum, int sectionId) {
+        StudentState student = student(cardNum);
+        if (student == null) {
+            throw new RuntimeException("学生不存在，无法退课");
+        }
+
+        synchronized (student) {
+            if (!student.sections.remove(sectionId)) {
+                throw new RuntimeException("退课失败，可能未选该课");
+            }
+            SectionSeats section = sections.get(sectionId);
+            if (section != null) {
+                synchronized (section) {
+                    section.enrolled--;
+                }
+            }
+            student.occupied = occupiedBy(student.sections);
+            student.lastSeq = enqueue(student.studentId, sectionId, false);
+        }
+    }
+
+    /**
+     * 该学生可选的教学班（未选且未满），按教学班ID升序
+     *
+     * @param department 开课学院，为空时不限
+     * @param term       学期，为空时不限
+     * @return 只读的教学班信息，字段与 getAvailableCourses 查询一致
+     */
+    public List<Map<String, Object>> availableSections(String cardNum, String department, String term) {
+        StudentState student = student(cardNum);
+        Set<Integer> selected = Collections.emptySet();
+        if (student != null) {
+            synchronized (student) {
+                selected = new HashSet<>(student.sections);
+            }
+        }
+        List<Map<String, Object>> available = new ArrayList<>();
+        for (SectionSeats section : sections.values()) {
+            Map<String, Object> info = section.info;
+            if (selected.contains(section.sectionId)
+                    || !matches(department, info.get("Department")) || !matches(term, info.get("Term"))) {
+                continue;
+            }
+            synchronized (section) {
+                if (section.removed || section.enrolled >= section.capacity) {
+                    continue;
+                }
+            }
+            available.add(info);
+        }
+        return available;
+    }
+
+    /**
+     * 与该学生已选课程时间冲突的其他教学班ID，升序
+     */
+    public List<Integer> conflictingSections(String cardNum) {
+        StudentState student = student(cardNum);
+        if (student == null) {
+            return Collections.emptyList();
+        }
+        ScheduleMask occupied;
+        Set<Integer> selected;
+        synchronized (student) {
+            occupied = student.occupied;
+            selected = new HashSet<>(student.sections);
+        }
+        List<Integer> conflicting = new ArrayList<>();
+        if (occupied.isEmpty()) {
+            return conflicting;
+        }
+        for (SectionSeats section : sections.values()) {
+            if (!selected.contains(section.sectionId) && occupied.conflictsWith(section.mask)) {
+                conflicting.add(section.sectionId);
+            }
+        }
+        return conflicting;
+    }
+
+    /**
+     * 等待该学生已提交的选课/退课写入数据库，最多等待 {@value #READ_WAIT_MILLIS} 毫秒
+     */
+    public void awaitPersisted(String cardNum) {
+        if (!loaded || cardNum == null) {
+            return;
+        }
+        StudentState student = students.get(cardNum);
+        if (student == null) {
+            return;
+        }
+        long target;
+        synchronized (student) {
+            target = student.lastSeq;
+        }
+        long deadline = System.currentTimeMillis() + READ_WAIT_MILLIS;
+        synchronized (persistMonitor) {
+            while (persistedSeq < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    log.warn("等待选课记录写入超时: cardNum={}", cardNum);
+                    return;
+                }
+                try {
+                    persistMonitor.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // ==================== 教学班变更 ====================
+
+    /**
+     * 教学班修改后重新读取容量、课程、上课时间与展示字段
+     */
+    public void sectionChanged(int sectionId) {
+        if (!loaded) {
+            return;
+        }
+        Map<String, Object> row = store.findSection(sectionId);
+        if (row == null) {
+            sectionRemoved(sectionId);
+            return;
+        }
+        apply(sectionId, row);
+    }
+
+    /**
+     * 新增教学班或修改、删除课程后重新读取整个教学班目录，已选人数保持不变
+     */
+    public void reloadCatalog() {
+        if (!loaded) {
+            return;
+        }
+        Set<Integer> present = new HashSet<>();
+        for (Map<String, Object> row : store.loadSections()) {
+            int sectionId = intValue(row.get("section_Id"));
+            present.add(sectionId);
+            apply(sectionId, row);
+        }
+        for (Integer sectionId : new ArrayList<>(sections.keySet())) {
+            if (!present.contains(sectionId)) {
+                sectionRemoved(sectionId);
+            }
+        }
+    }
+
+    private void apply(int sectionId, Map<String, Object> row) {
+        SectionSeats section = sections.computeIfAbsent(sectionId, k -> new SectionSeats(k, row));
+        ScheduleMask previous;
+        synchronized (section) {
+            previous = section.mask;
+            section.update(row);
+        }
+        if (!previous.equals(section.mask)) {
+            refreshOccupied(sectionId);
+        }
+    }
+
+    /**
+     * 教学班删除后（选课记录随之级联删除）释放所有学生的占用
+     */
+    public void sectionRemoved(int sectionId) {
+        if (!loaded) {
+            return;
+        }
+        SectionSeats section = sections.remove(sectionId);
+        if (section == null) {
+            return;
+        }
+        synchronized (section) {
+            section.removed = true;
+        }
+        for (StudentState student : students.values()) {
+            synchronized (student) {
+                if (student.sections.remove(sectionId)) {
+                    student.occupied = occupiedBy(student.sections);
+                }
+            }
+        }
+    }
+
+    private void refreshOccupied(int sectionId) {
+        for (StudentState student : students.values()) {
+            synchronized (student) {
+                if (student.sections.contains(sectionId)) {
+                    student.occupied = occupiedBy(student.sections);
+                }
+            }
+        }
+    }
+
+    // ==================== 写入队列 ====================
+
+    private long enqueue(String studentId, int sectionId, boolean enroll) {
+        synchronized (pending) {
+            long seq = ++sequence;
+            pending.offerLast(new EnrollmentChange(seq, studentId, sectionId, enroll));
+            return seq;
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            try {
+                EnrollmentChange first = pending.pollFirst(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+                pending.offerFirst(first);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("停机时写入选课记录失败，放弃 {} 条", pending.size(), e);
+                    return;
+                }
+                log.error("写入选课记录失败，{}ms后重试，待写入 {} 条", RETRY_DELAY_MILLIS, pending.size(), e);
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 按顺序分批写入队列中的选课记录；某批失败时放回队首并抛出异常
+     *
+     * @return 写入的记录数
+     */
+    int flush() {
+        int written = 0;
+        List<EnrollmentChange> batch = new ArrayList<>(BATCH_SIZE);
+        while (pending.drainTo(batch, BATCH_SIZE) > 0) {
+            try {
+                store.persistEnrollmentChanges(batch);
+            } catch (RuntimeException e) {
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    pending.offerFirst(batch.get(i));
+                }
+                throw e;
+            }
+            synchronized (persistMonitor) {
+                persistedSeq = batch.get(batch.size() - 1).getSeq();
+                persistMonitor.notifyAll();
+            }
+            written += batch.size();
+            batch.clear();
+        }
+        return written;
+    }
+
+    // ==================== 内部状态 ====================
+
+    private StudentState student(String cardNum) {
+        if (cardNum == null) {
+            return null;
+        }
+        StudentState student = students.get(cardNum);
+        if (student != null) {
+            return student;
+        }
+        String studentId = store.findStudentId(cardNum);
+        return studentId == null ? null : students.computeIfAbsent(cardNum, k -> new StudentState(studentId));
+    }
+
+    private SectionSeats section(int sectionId) {
+        SectionSeats section = sections.get(sectionId);
+        if (section != null) {
+            return section;
+        }
+        // 启动后新建的教学班
+        Map<String, Object> row = store.findSection(sectionId);
+        if (row == null) {
+            return null;
+        }
+        return sections.computeIfAbsent(sectionId, k -> new SectionSeats(k, row));
+    }
+
+    private ScheduleMask occupiedBy(Set<Integer> sectionIds) {
+        ScheduleMask occupied = ScheduleMask.EMPTY;
+        for (Integer sectionId : sectionIds) {
+            SectionSeats section = sections.get(sectionId);
+            if (section != null) {
+                occupied = occupied.union(section.mask);
+            }
+        }
+        return occupied;
+    }
+
+    private static boolean matches(String filter, Object value) {
+        return filter == null || filter.trim().isEmpty() || filter.trim().equals(value);
+    }
+
+    private static int intValue(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(String.valueOf(value));
+    }
+
+    private static final String[] INFO_KEYS = {
+            "section_Id", "courseName", "Credit", "Department", "teacher", "Schedule", "Room", "Term"};
+
+    private static final class SectionSeats {
+        final int sectionId;
+        volatile int courseId;
+        volatile ScheduleMask mask;
+        volatile Map<String, Object> info;
+        int capacity;
+        int enrolled;
+        boolean removed;
+
+        SectionSeats(int sectionId, Map<String, Object> row) {
+            this.sectionId = sectionId;
+            update(row);
+        }
+
+        void update(Map<String, Object> row) {
+            courseId = intValue(row.get("course_Id"));
+            capacity = intValue(row.get("Capacity"));
+            Object schedule = row.get("Schedule");
+            mask = ScheduleConflictChecker.toMask(schedule != null ? schedule.toString() : null);
+            Map<String, Object> display = new LinkedHashMap<>();
+            for (String key : INFO_KEYS) {
+                display.put(key, row.get(key));
+            }
+            info = Collections.unmodifiableMap(display);
+        }
+    }
+
+    private static final class StudentState {
+        final String studentId;
+        final Set<Integer> sections = new HashSet<>();
+        ScheduleMask occupied = ScheduleMask.EMPTY;
+        long lastSeq;
+
+        StudentState(String studentId) {
+            this.studentId = studentId;
+        }
+    }
+}
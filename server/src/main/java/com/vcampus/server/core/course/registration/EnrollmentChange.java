@@ -0,0 +1,41 @@
+package com.vcampus.server.core.course.registration;
+
+/**
+ * 待写入数据库的一次选课或退课
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public final class EnrollmentChange {
+
+    private final long seq;
+    private final String studentId;
+    private final int sectionId;
+    private final boolean enroll;
+
+    EnrollmentChange(long seq, String studentId, int sectionId, boolean enroll) {
+        this.seq = seq;
+        this.studentId = studentId;
+        this.sectionId = sectionId;
+        this.enroll = enroll;
+    }
+
+    long getSeq() {
+        return seq;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public int getSectionId() {
+        return sectionId;
+    }
+
+    /**
+     * true 为选课，false 为退课
+     */
+    public boolean isEnroll() {
+        return enroll;
+    }
+}
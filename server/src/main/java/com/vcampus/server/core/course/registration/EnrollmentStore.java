@@ -0,0 +1,39 @@
+package com.vcampus.server.core.course.registration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 选课引擎使用的数据库访问
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public interface EnrollmentStore {
+
+    /**
+     * 所有教学班，元素包含 section_Id、course_Id、Capacity、Schedule，
+     * 以及展示用的 courseName、Credit、Department、teacher、Room、Term
+     */
+    List<Map<String, Object>> loadSections();
+
+    /**
+     * 所有选课记录，元素包含 cardNum、student_Id、section_Id
+     */
+    List<Map<String, Object>> loadEnrollments();
+
+    /**
+     * 单个教学班，字段同 {@link #loadSections()}，不存在时返回 null
+     */
+    Map<String, Object> findSection(int sectionId);
+
+    /**
+     * 一卡通号对应的学号，不是学生时返回 null
+     */
+    String findStudentId(String cardNum);
+
+    /**
+     * 按顺序在一个事务中写入一批选课/退课
+     */
+    void persistEnrollmentChanges(List<EnrollmentChange> changes);
+}
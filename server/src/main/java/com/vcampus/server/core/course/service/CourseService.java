@@ -1,7 +1,14 @@
 package com.vcampus.server.core.course.service;
+import com.vcampus.server.core.common.page.CursorPage;
+import com.vcampus.server.core.common.page.PageCursor;
 import com.vcampus.server.core.course.entity.Course;
+import com.vcampus.server.core.course.grade.BatchScoreResult;
+import com.vcampus.server.core.course.grade.GradeAggregator;
 import com.vcampus.server.core.course.dao.CourseDao;
 import com.vcampus.server.core.course.dao.CourseDaoImpl;
+import com.vcampus.server.core.course.registration.CourseRegistrar;
+import com.vcampus.server.core.course.util.ScheduleConflictChecker;
+import com.vcampus.server.core.course.util.ScheduleMask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.List;
@@ -10,21 +17,112 @@ import java.util.Map;
 public class CourseService {
     private static final Logger logger = LoggerFactory.getLogger(CourseService.class);
     private final CourseDao courseDao = new CourseDaoImpl();
+    private final CourseRegistrar registrar = CourseRegistrar.getInstance();
+    private final GradeAggregator grades = GradeAggregator.getInstance();
 
     public List<Map<String, Object>> getSelectedCourses(String cardNum) {
+        registrar.awaitPersisted(cardNum);
         return courseDao.getSelectedCourses(cardNum);
     }
 
     public List<Map<String, Object>> getAvailableCourses(String cardNum) {
-        return courseDao.getAvailableCourses(cardNum);
+        return getAvailableCourses(cardNum, null, null);
     }
 
+    /**
+     * 可选课程（未选且未满），按教学班ID升序；选课引擎已载入时直接由内存目录筛选
+     *
+     * @param department 开课学院，为空时不限
+     * @param term       学期，为空时不限
+     */
+    public List<Map<String, Object>> getAvailableCourses(String cardNum, String department, String term) {
+        if (registrar.isLoaded()) {
+            return registrar.availableSections(cardNum, department, term);
+        }
+        List<Map<String, Object>> available = courseDao.getAvailableCourses(cardNum);
+        available.removeIf(row -> !matches(department, row.get("Department")) || !matches(term, row.get("Term")));
+        return available;
+    }
+
+    /**
+     * 按教学班ID游标分页的可选课程
+     *
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @throws IllegalArgumentException 游标无效
+     */
+    public CursorPage<Map<String, Object>> getAvailableCoursesPage(String cardNum, String department, String term,
+                                                                   String cursor, int size) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        Integer afterSectionId = pageCursor != null ? pageCursor.getIntKey(0) : null;
+        List<Map<String, Object>> available = getAvailableCourses(cardNum, department, term);
+        long total = pageCursor != null ? pageCursor.getTotalCount() : available.size();
+
+        List<Map<String, Object>> rows = new java.util.ArrayList<>(size + 1);
+        for (Map<String, Object> row : available) {
+            if (afterSectionId != null && ((Number) row.get("section_Id")).intValue() <= afterSectionId) {
+                continue;
+            }
+            rows.add(row);
+            if (rows.size() > size) {
+                break;
+            }
+        }
+        return PageCursor.page(rows, size, total, row -> new String[]{String.valueOf(row.get("section_Id"))});
+    }
+
+    private static boolean matches(String filter, Object value) {
+        return filter == null || filter.trim().isEmpty() || filter.trim().equals(value);
+    }
+
+    /**
+     * 与学生已选课程时间冲突的其他教学班ID，供选课界面标记
+     */
+    public List<Integer> getConflictingSections(String cardNum) {
+        if (registrar.isLoaded()) {
+            return registrar.conflictingSections(cardNum);
+        }
+        ScheduleMask occupied = ScheduleMask.EMPTY;
+        for (Map<String, Object> selected : courseDao.getSelectedCourses(cardNum)) {
+            occupied = occupied.union(ScheduleConflictChecker.toMask((String) selected.get("Schedule")));
+        }
+        List<Integer> conflicting = new java.util.ArrayList<>();
+        if (occupied.isEmpty()) {
+            return conflicting;
+        }
+        for (Map<String, Object> section : courseDao.getAvailableCourses(cardNum)) {
+            if (occupied.conflictsWith(ScheduleConflictChecker.toMask((String) section.get("Schedule")))) {
+                conflicting.add(((Number) section.get("section_Id")).intValue());
+            }
+        }
+        return conflicting;
+    }
+
+    // 选课引擎已载入时在内存中校验并排队写库，否则逐条访问数据库
     public boolean selectCourse(String cardNum, String sectionId) {
-        return courseDao.selectCourse(cardNum, sectionId);
+        if (!registrar.isLoaded()) {
+            return courseDao.selectCourse(cardNum, sectionId);
+        }
+        registrar.select(cardNum, parseSectionId(sectionId));
+        return true;
     }
 
     public boolean dropCourse(String cardNum, String sectionId) {
-        return courseDao.dropCourse(cardNum, sectionId);
+        if (!registrar.isLoaded()) {
+            return courseDao.dropCourse(cardNum, sectionId);
+        }
+        registrar.drop(cardNum, parseSectionId(sectionId));
+        return true;
+    }
+
+    /**
+     * 兼容前端传递的 "1.0"、"2.0" 等字符串
+     */
+    private int parseSectionId(String sectionId) {
+        try {
+            return (int) Double.parseDouble(sectionId.trim());
+        } catch (RuntimeException e) {
+            throw new RuntimeException("sectionId解析失败: " + sectionId, e);
+        }
     }
 
     public boolean insertCourse(Course course) {
@@ -129,12 +227,14 @@ public class CourseService {
         }
     }
 
-    public boolean batchUpdateScores(int sectionId, String scoresData) {
+    public BatchScoreResult batchUpdateScores(int sectionId, String scoresData) {
         try {
             return courseDao.batchUpdateScores(sectionId, scoresData);
         } catch (Exception e) {
             logger.error("批量更新成绩时发生错误: {}", e.getMessage(), e);
-            return false;
+            BatchScoreResult result = new BatchScoreResult(sectionId);
+            result.addError(0, null, "批量更新成绩失败：" + e.getMessage());
+            return result;
         }
     }
 
@@ -218,6 +318,9 @@ public class CourseService {
     // 新增：获取学生成绩统计
     public Map<String, Object> getStudentGradeStatistics(String cardNum) {
         try {
+            if (grades.isLoaded()) {
+                return grades.statistics(cardNum);
+            }
             return courseDao.getStudentGradeStatistics(cardNum);
         } catch (Exception e) {
             logger.error("获取学生成绩统计时发生错误: {}", e.getMessage(), e);
@@ -250,10 +353,13 @@ public class CourseService {
     }
 
     /**
-     * 获取所有学生的成绩统计
+     * 获取所有学生的成绩统计，按加权平均分排名
      */
     public List<Map<String, Object>> getAllStudentGrades() {
         try {
+            if (grades.isLoaded()) {
+                return grades.ranking();
+            }
             return courseDao.getAllStudentGrades();
         } catch (Exception e) {
             logger.error("获取所有学生成绩时发生错误: {}", e.getMessage(), e);
@@ -278,6 +384,9 @@ public class CourseService {
      */
     public Map<String, Object> getStudentAverageGrades(String studentId) {
         try {
+            if (grades.isLoaded()) {
+                return grades.averages(studentId);
+            }
             return courseDao.getStudentAverageGrades(studentId);
         } catch (Exception e) {
             logger.error("获取学生平均成绩时发生错误: {}", e.getMessage(), e);
@@ -12,6 +12,9 @@ import java.util.regex.Pattern;
  * - "周二 3-4节, 周四 5-6节"
  * - "Monday 08:00-09:50"
  * - "周三 第1-2节"
+ *
+ * 时间安排解析为 {@link ScheduleMask} 位图后，冲突判断只需按位与；
+ * 需要反复比较时应缓存 {@link #toMask(String)} 的结果。
  */
 public class ScheduleConflictChecker {
 
@@ -19,28 +22,36 @@ public class ScheduleConflictChecker {
     private static final String[] CHINESE_WEEKDAYS = {"周日", "周一", "周二", "周三", "周四", "周五", "周六"};
     private static final String[] ENGLISH_WEEKDAYS = {"Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
 
+    // 格式1: "周一 1-2节" 或 "周一 第1-2节"
+    private static final Pattern PERIOD_PATTERN = Pattern.compile("(周[一二三四五六日])\\s*(?:第?)?(\\d+)-(\\d+)节?");
+    // 格式2: "Monday 08:00-09:50"
+    private static final Pattern TIME_PATTERN = Pattern.compile("(Monday|Tuesday|Wednesday|Thursday|Friday|Saturday|Sunday)\\s+(\\d{2}):(\\d{2})-(\\d{2}):(\\d{2})");
+    // 格式3: 简单的"周一"（假设全天）
+    private static final Pattern DAY_PATTERN = Pattern.compile("(周[一二三四五六日])");
+
     /**
      * 检查两个时间安排是否冲突
      */
     public static boolean hasConflict(String schedule1, String schedule2) {
-        if (schedule1 == null || schedule2 == null ||
-            schedule1.trim().isEmpty() || schedule2.trim().isEmpty()) {
-            return false;
-        }
-
-        List<TimeSlot> slots1 = parseSchedule(schedule1);
-        List<TimeSlot> slots2 = parseSchedule(schedule2);
+        return toMask(schedule1).conflictsWith(toMask(schedule2));
+    }
 
-        // 检查任意两个时间段是否冲突
-        for (TimeSlot slot1 : slots1) {
-            for (TimeSlot slot2 : slots2) {
-                if (slot1.conflictsWith(slot2)) {
-                    return true;
-                }
+    /**
+     * 把时间安排解析为一周的时间位图，为空或无法识别时返回 {@link ScheduleMask#EMPTY}
+     */
+    public static ScheduleMask toMask(String schedule) {
+        if (schedule == null || schedule.trim().isEmpty()) {
+            return ScheduleMask.EMPTY;
+        }
+        ScheduleMask.Builder builder = new ScheduleMask.Builder();
+        for (TimeSlot slot : parseSchedule(schedule)) {
+            if (slot.isPeriodBased) {
+                builder.addPeriods(slot.dayOfWeek, slot.startTime, slot.endTime);
+            } else {
+                builder.addMinutes(slot.dayOfWeek, slot.startTime, slot.endTime);
             }
         }
-
-        return false;
+        return builder.build();
     }
 
     /**
@@ -69,9 +80,7 @@ public class ScheduleConflictChecker {
     private static TimeSlot parseTimeSlot(String timeSlotStr) {
         timeSlotStr = timeSlotStr.trim();
 
-        // 格式1: "周一 1-2节" 或 "周一 第1-2节"
-        Pattern pattern1 = Pattern.compile("(周[一二三四五六日])\\s*(?:第?)?(\\d+)-(\\d+)节?");
-        Matcher matcher1 = pattern1.matcher(timeSlotStr);
+        Matcher matcher1 = PERIOD_PATTERN.matcher(timeSlotStr);
         if (matcher1.find()) {
             String weekday = matcher1.group(1);
             int startPeriod = Integer.parseInt(matcher1.group(2));
@@ -83,9 +92,7 @@ public class ScheduleConflictChecker {
             }
         }
 
-        // 格式2: "Monday 08:00-09:50"
-        Pattern pattern2 = Pattern.compile("(Monday|Tuesday|Wednesday|Thursday|Friday|Saturday|Sunday)\\s+(\\d{2}):(\\d{2})-(\\d{2}):(\\d{2})");
-        Matcher matcher2 = pattern2.matcher(timeSlotStr);
+        Matcher matcher2 = TIME_PATTERN.matcher(timeSlotStr);
         if (matcher2.find()) {
             String weekday = matcher2.group(1);
             int startHour = Integer.parseInt(matcher2.group(2));
@@ -101,9 +108,7 @@ public class ScheduleConflictChecker {
             }
         }
 
-        // 格式3: 简单的"周一"（假设全天）
-        Pattern pattern3 = Pattern.compile("(周[一二三四五六日])");
-        Matcher matcher3 = pattern3.matcher(timeSlotStr);
+        Matcher matcher3 = DAY_PATTERN.matcher(timeSlotStr);
         if (matcher3.find()) {
             String weekday = matcher3.group(1);
             int dayOfWeek = getDayOfWeek(weekday);
@@ -150,25 +155,6 @@ public class ScheduleConflictChecker {
             this.isPeriodBased = isPeriodBased;
         }
 
-        /**
-         * 检查与另一个时间段是否冲突
-         */
-        public boolean conflictsWith(TimeSlot other) {
-            // 不是同一天，不冲突
-            if (this.dayOfWeek != other.dayOfWeek) {
-                return false;
-            }
-
-            // 不同的时间表示方法，需要转换
-            if (this.isPeriodBased != other.isPeriodBased) {
-                // 简化处理：如果一个是节次一个是时间，认为可能冲突
-                return true;
-            }
-
-            // 检查时间重叠
-            return !(this.endTime <= other.startTime || this.startTime >= other.endTime);
-        }
-
         @Override
         public String toString() {
             return String.format("Day:%d, %d-%d (%s)",
@@ -0,0 +1,151 @@
+package com.vcampus.server.core.course.util;
+
+import java.util.Arrays;
+
+/**
+ * 一周上课时间的位图
+ *
+ * 每天一个 long 记录节次（第 n 位表示第 n 节），按分钟表示的时间另存每天 1440 位，
+ * 只有出现分钟时间时才分配。冲突判断与 {@link ScheduleConflictChecker} 的逐段比较一致：
+ * 时间段按左闭右开计算（“1-2节”与“2-3节”不冲突），同一天一方按节次、一方按分钟时视为冲突。
+ *
+ * 位图不可变；{@link #union(ScheduleMask)} 返回新位图，多个教学班合并后的位图与其中任一教学班冲突，
+ * 当且仅当与合并前的某个教学班冲突。
+ */
+public final class ScheduleMask {
+
+    static final int DAYS = 7;
+    static final int MAX_PERIOD = 63;
+    static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS_PER_DAY = (MINUTES_PER_DAY + 63) / 64;
+
+    public static final ScheduleMask EMPTY = new ScheduleMask(new long[DAYS], null, 0, 0);
+
+    private final long[] periods;
+    private final long[] minutes;
+    private final int periodDays;
+    private final int minuteDays;
+
+    private ScheduleMask(long[] periods, long[] minutes, int periodDays, int minuteDays) {
+        this.periods = periods;
+        this.minutes = minutes;
+        this.periodDays = periodDays;
+        this.minuteDays = minuteDays;
+    }
+
+    /**
+     * 是否与另一位图冲突
+     */
+    public boolean conflictsWith(ScheduleMask other) {
+        if ((periodDays & other.minuteDays) != 0 || (minuteDays & other.periodDays) != 0) {
+            return true;
+        }
+        for (int day = 0; day < DAYS; day++) {
+            if ((periods[day] & other.periods[day]) != 0) {
+                return true;
+            }
+        }
+        if (minutes != null && other.minutes != null) {
+            for (int i = 0; i < minutes.length; i++) {
+                if ((minutes[i] & other.minutes[i]) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 两个位图的并集
+     */
+    public ScheduleMask union(ScheduleMask other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        long[] mergedPeriods = new long[DAYS];
+        for (int day = 0; day < DAYS; day++) {
+            mergedPeriods[day] = periods[day] | other.periods[day];
+        }
+        long[] mergedMinutes = minutes == null ? other.minutes : minutes;
+        if (minutes != null && other.minutes != null) {
+            mergedMinutes = new long[minutes.length];
+            for (int i = 0; i < minutes.length; i++) {
+                mergedMinutes[i] = minutes[i] | other.minutes[i];
+            }
+        }
+        return new ScheduleMask(mergedPeriods, mergedMinutes,
+                periodDays | other.periodDays, minuteDays | other.minuteDays);
+    }
+
+    public boolean isEmpty() {
+        return periodDays == 0 && minuteDays == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ScheduleMask)) {
+            return false;
+        }
+        ScheduleMask that = (ScheduleMask) o;
+        return periodDays == that.periodDays && minuteDays == that.minuteDays
+                && Arrays.equals(periods, that.periods) && Arrays.equals(minutes, that.minutes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(periods) + Arrays.hashCode(minutes);
+    }
+
+    /**
+     * 逐段构建位图
+     */
+    static final class Builder {
+        private final long[] periods = new long[DAYS];
+        private long[] minutes;
+        private int periodDays;
+        private int minuteDays;
+
+        /**
+         * @param dayOfWeek 1-7（周一至周日）
+         */
+        Builder addPeriods(int dayOfWeek, int start, int end) {
+            int day = dayOfWeek - 1;
+            periodDays |= 1 << day;
+            for (int p = Math.max(start, 0); p < Math.min(end, MAX_PERIOD + 1); p++) {
+                periods[day] |= 1L << p;
+            }
+            return this;
+        }
+
+        /**
+         * @param start 当天起始分钟
+         * @param end   当天结束分钟（不含）
+         */
+        Builder addMinutes(int dayOfWeek, int start, int end) {
+            int day = dayOfWeek - 1;
+            minuteDays |= 1 << day;
+            if (minutes == null) {
+                minutes = new long[DAYS * WORDS_PER_DAY];
+            }
+            int base = day * WORDS_PER_DAY * 64;
+            for (int m = Math.max(start, 0); m < Math.min(end, MINUTES_PER_DAY); m++) {
+                int bit = base + m;
+                minutes[bit >>> 6] |= 1L << (bit & 63);
+            }
+            return this;
+        }
+
+        ScheduleMask build() {
+            if (periodDays == 0 && minuteDays == 0) {
+                return EMPTY;
+            }
+            return new ScheduleMask(periods, minutes, periodDays, minuteDays);
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.vcampus.server.core.db;
 
+import com.vcampus.common.db.impl.MysqlDataSource;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
 import java.io.IOException;
 import java.io.InputStream;
 
 /**
  * 数据库管理器 - 管理MyBatis SqlSessionFactory
+ * 映射与全局设置来自 mybatis-config.xml，数据源统一使用 common 模块的 HikariCP 连接池（与 DbHelper 共用）
  */
 public class DatabaseManager {
     
@@ -18,12 +25,11 @@ public class DatabaseManager {
     
     private static SqlSessionFactory sqlSessionFactory;
     private static final String MYBATIS_CONFIG_PATH = "mybatis-config.xml";
+    private static final String ENVIRONMENT_ID = "development";
     
     static {
         try {
-            // 加载MyBatis配置文件
-            InputStream inputStream = Resources.getResourceAsStream(MYBATIS_CONFIG_PATH);
-            sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
+            sqlSessionFactory = buildSqlSessionFactory();
             logger.info("MyBatis SqlSessionFactory 初始化成功");
         } catch (IOException e) {
             logger.error("初始化MyBatis SqlSessionFactory失败", e);
@@ -31,6 +37,21 @@ public class DatabaseManager {
         }
     }
     
+    /**
+     * 解析 MyBatis 配置并绑定共享连接池
+     */
+    private static SqlSessionFactory buildSqlSessionFactory() throws IOException {
+        DataSource dataSource = MysqlDataSource.getInstance();
+        if (dataSource == null) {
+            throw new IOException("数据库连接池未初始化");
+        }
+        try (InputStream inputStream = Resources.getResourceAsStream(MYBATIS_CONFIG_PATH)) {
+            Configuration configuration = new XMLConfigBuilder(inputStream).parse();
+            configuration.setEnvironment(new Environment(ENVIRONMENT_ID, new JdbcTransactionFactory(), dataSource));
+            return new SqlSessionFactoryBuilder().build(configuration);
+        }
+    }
+    
     /**
      * 获取SqlSessionFactory实例
      * @return SqlSessionFactory
@@ -44,11 +65,11 @@ public class DatabaseManager {
     
     /**
      * 重新加载配置（用于配置更新）
+     * 只重新解析映射与设置，连接池保持不变
      */
     public static void reload() {
         try {
-            InputStream inputStream = Resources.getResourceAsStream(MYBATIS_CONFIG_PATH);
-            sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
+            sqlSessionFactory = buildSqlSessionFactory();
             logger.info("MyBatis配置重新加载成功");
         } catch (IOException e) {
             logger.error("重新加载MyBatis配置失败", e);
@@ -0,0 +1,41 @@
+package com.vcampus.server.core.db;
+
+import com.vcampus.server.core.system.metrics.MetricsRegistry;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * MyBatis 数据库耗时拦截器
+ * 统计 Executor 上查询、更新与事务提交/回滚的耗时，累加到当前线程，
+ * 由 Router 计入所处理请求的数据库耗时指标。
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "commit", args = {boolean.class}),
+        @Signature(type = Executor.class, method = "rollback", args = {boolean.class})
+})
+public class DbTimingInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            MetricsRegistry.recordDbTime(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.vcampus.server.core.library.category;
+
+import com.vcampus.server.core.common.cache.GenerationalSnapshot;
+import com.vcampus.server.core.library.dao.BookCategoryDao;
+import com.vcampus.server.core.library.entity.core.BookCategory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * 图书分类注册表
+ *
+ * 分类只有二十余条且极少变化，搜索时的名称转代码、分类列表接口不再每次查询 tblBookCategory。
+ * 分类整体载入为不可变快照，{@link BookCategoryDao} 的写操作会调用 {@link #invalidate()}；
+ * 另设 {@value #TTL_MINUTES} 分钟过期，兜底直接改库的情况（失效规则见 {@link GenerationalSnapshot}）。
+ *
+ * 快照的版本号由内容计算，内容不变时重新载入或服务重启后版本号也不变，
+ * 客户端带上已有的版本号即可判断分类列表是否需要重新下载。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class CategoryRegistry {
+
+    private static final long TTL_MINUTES = 10;
+
+    private static volatile CategoryRegistry instance;
+
+    private final GenerationalSnapshot<Snapshot> snapshot;
+
+    CategoryRegistry(Supplier<List<BookCategory>> loader) {
+        this.snapshot = new GenerationalSnapshot<>("图书分类", () -> {
+            Snapshot loaded = new Snapshot(loader.get());
+            log.info("载入图书分类: {} 条, version={}", loaded.categories.size(), loaded.version);
+            return loaded;
+        }, TTL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public static CategoryRegistry getInstance() {
+        if (instance == null) {
+            synchronized (CategoryRegistry.class) {
+                if (instance == null) {
+                    instance = new CategoryRegistry(BookCategoryDao.getInstance()::findAll);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 当前分类快照
+     */
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * 分类名称转换为分类代码，未找到时返回 null
+     */
+    public String codeOf(String categoryName) {
+        return categoryName == null ? null : snapshot().codesByName.get(categoryName.trim());
+    }
+
+    /**
+     * 丢弃快照，下次查询时重新载入
+     */
+    public void invalidate() {
+        snapshot.invalidate();
+    }
+
+    /**
+     * 不可变的分类快照
+     */
+    public static final class Snapshot {
+        private final String version;
+        private final List<Map<String, Object>> categories;
+        private final Map<String, String> codesByName;
+
+        Snapshot(List<BookCategory> loaded) {
+            List<BookCategory> sorted = new ArrayList<>(loaded);
+            sorted.sort(Comparator.comparing(BookCategory::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(BookCategory::getCategoryCode, Comparator.nullsLast(Comparator.naturalOrder())));
+
+            List<Map<String, Object>> maps = new ArrayList<>(sorted.size());
+            Map<String, String> codes = new HashMap<>();
+            CRC32 crc = new CRC32();
+            for (BookCategory category : sorted) {
+                Map<String, Object> map = new LinkedHashMap<>();
+                map.put("categoryCode", category.getCategoryCode());
+                map.put("categoryName", category.getCategoryName());
+                map.put("description", category.getDescription());
+                map.put("sortOrder", category.getSortOrder());
+                maps.add(Collections.unmodifiableMap(map));
+                if (category.getCategoryName() != null) {
+                    codes.putIfAbsent(category.getCategoryName(), category.getCategoryCode());
+                }
+                for (Object value : map.values()) {
+                    crc.update(Objects.toString(value, "").getBytes(StandardCharsets.UTF_8));
+                    crc.update(0);
+                }
+            }
+            this.categories = Collections.unmodifiableList(maps);
+            this.codesByName = Collections.unmodifiableMap(codes);
+            this.version = sorted.size() + "-" + Long.toHexString(crc.getValue());
+        }
+
+        /**
+         * 内容版本号，分类内容不变时保持不变
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * 按排序顺序排列的分类列表，元素为只读 Map（categoryCode、categoryName、description、sortOrder）
+         */
+        public List<Map<String, Object>> getCategories() {
+            return categories;
+        }
+
+        public boolean matches(String version) {
+            return this.version.equals(version);
+        }
+    }
+}
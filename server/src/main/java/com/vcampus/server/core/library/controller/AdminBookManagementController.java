@@ -4,9 +4,12 @@ import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
 import com.vcampus.common.message.Session;
 import com.vcampus.server.core.common.annotation.RouteMapping;
+import com.vcampus.server.core.common.page.CursorPage;
 import com.vcampus.server.core.library.entity.core.Book;
 import com.vcampus.server.core.library.entity.result.BookManagementResult;
 import com.vcampus.server.core.library.enums.BookStatus;
+import com.vcampus.server.core.library.exporter.BookExportManager;
+import com.vcampus.server.core.library.importer.BookImportManager;
 import com.vcampus.server.core.library.service.BookManagementService;
 import com.vcampus.server.core.library.service.impl.BookManagementServiceImpl;
 import lombok.extern.slf4j.Slf4j;
@@ -1529,6 +1532,33 @@ public class AdminBookManagementController {
         return cleanIsbn.length() == 10 || cleanIsbn.length() == 13;
     }
     
+    /**
+     * 游标分页查询借阅记录，size 默认 20，最大 100
+     */
+    private Response borrowRecordsPage(Request request, String userSearch, String bookSearch, String status,
+                                       String borrowDate, String dueDate, String returnDate) {
+        int size = 20;
+        String sizeStr = request.getParam("size");
+        if (sizeStr != null && !sizeStr.trim().isEmpty()) {
+            try {
+                size = Integer.valueOf(sizeStr);
+                if (size < 1) size = 20;
+                if (size > 100) size = 100; // 限制最大页面大小
+            } catch (NumberFormatException e) {
+                // 使用默认值
+            }
+        }
+        
+        try {
+            CursorPage<Map<String, Object>> page = bookManagementService.searchBorrowRecordsPage(userSearch, bookSearch,
+                    status, borrowDate, dueDate, returnDate, request.getParam("cursor"), size);
+            log.info("游标分页查询借阅记录成功: size={}, count={}, total={}", size, page.getItems().size(), page.getTotalCount());
+            return Response.Builder.success("查询成功", page);
+        } catch (IllegalArgumentException e) {
+            return Response.Builder.badRequest(e.getMessage());
+        }
+    }
+    
     // ==================== Excel导入导出 ====================
     
     /**
@@ -1593,12 +1623,92 @@ public class AdminBookManagementController {
     }
     
     /**
-     * 导出图书信息到Excel
+     * 分块上传图书导入文件
+     * URI: library/admin/book/import-chunk
+     * 权限: admin
+     * 参数: importId, fileName, seq（从0开始）, data（Base64编码的块数据）, last（是否最后一块）
+     */
+    @RouteMapping(uri = "library/admin/book/import-chunk", role = "admin", description = "分块上传图书导入文件")
+    public Response uploadImportChunk(Request request) {
+        try {
+            // 1. 权限验证
+            Session session = request.getSession();
+            if (session == null || (!session.hasPermission("admin") && !session.hasPermission("manager"))) {
+                return Response.Builder.forbidden("需要管理员权限");
+            }
+            
+            // 2. 参数提取
+            String importId = request.getParam("importId");
+            String fileName = request.getParam("fileName");
+            String seqStr = request.getParam("seq");
+            String data = request.getParam("data");
+            boolean last = "true".equalsIgnoreCase(request.getParam("last"));
+            
+            if (seqStr == null || data == null) {
+                return Response.Builder.badRequest("分块序号和数据不能为空");
+            }
+            
+            int seq;
+            byte[] bytes;
+            try {
+                seq = Integer.parseInt(seqStr.trim());
+                bytes = java.util.Base64.getDecoder().decode(data);
+            } catch (IllegalArgumentException e) {
+                return Response.Builder.badRequest("分块参数格式错误");
+            }
+            
+            // 3. 追加分块，最后一块到达后开始后台导入
+            Map<String, Object> status = BookImportManager.getInstance().appendChunk(importId, fileName, seq, bytes, last);
+            if (last) {
+                log.info("图书导入文件上传完成，开始导入: importId={}, fileName={}, bytes={}", 
+                        importId, fileName, status.get("uploadedBytes"));
+            }
+            return Response.Builder.success("上传成功", status);
+            
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Response.Builder.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("处理图书导入分块上传请求异常", e);
+            return Response.Builder.internalError("系统错误: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 查询图书导入进度
+     * URI: library/admin/book/import-progress
+     * 权限: admin
+     */
+    @RouteMapping(uri = "library/admin/book/import-progress", role = "admin", description = "查询图书导入进度")
+    public Response getImportProgress(Request request) {
+        try {
+            // 1. 权限验证
+            Session session = request.getSession();
+            if (session == null || (!session.hasPermission("admin") && !session.hasPermission("manager"))) {
+                return Response.Builder.forbidden("需要管理员权限");
+            }
+            
+            // 2. 查询进度
+            Map<String, Object> status = BookImportManager.getInstance().getStatus(request.getParam("importId"));
+            if (status == null) {
+                return Response.Builder.badRequest("导入任务不存在或已过期");
+            }
+            return Response.Builder.success("查询成功", status);
+            
+        } catch (Exception e) {
+            log.error("处理查询图书导入进度请求异常", e);
+            return Response.Builder.internalError("系统错误: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 开始导出图书信息
      * URI: library/admin/book/export
      * 权限: admin
+     * 参数: fileName（.xlsx 或 .csv，可选）, category（可选）, status（可选）
      */
+    @RouteMapping(uri = "library/admin/book/export", role = "admin", description = "导出图书信息")
     public Response exportBooksToExcel(Request request) {
-        log.info("处理Excel导出图书请求: {}", request.getUri());
+        log.info("处理导出图书请求: {}", request.getUri());
         
         try {
             // 1. 权限验证
@@ -1608,51 +1718,164 @@ public class AdminBookManagementController {
             }
             
             // 2. 获取导出参数
-            String fileName = request.getParam("fileName");
-            String category = request.getParam("category");
+            String fileName = exportFileName(request.getParam("fileName"), "图书数据_");
             String status = request.getParam("status");
-            
-            if (fileName == null || fileName.trim().isEmpty()) {
-                fileName = "图书数据_" + java.time.LocalDateTime.now().format(
-                    java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx";
-            }
-            
-            // 3. 获取要导出的图书列表
-            List<Book> books;
-            if (category != null && !category.trim().isEmpty()) {
-                books = bookManagementService.getBooksByCategory(category.trim());
-            } else if (status != null && !status.trim().isEmpty()) {
+            BookStatus bookStatus = null;
+            if (status != null && !status.trim().isEmpty()) {
                 try {
-                    BookStatus bookStatus = BookStatus.valueOf(status.trim().toUpperCase());
-                    books = bookManagementService.getBooksByStatus(bookStatus);
+                    bookStatus = BookStatus.valueOf(status.trim().toUpperCase());
                 } catch (IllegalArgumentException e) {
                     return Response.Builder.badRequest("无效的图书状态: " + status);
                 }
-            } else {
-                books = bookManagementService.getAllBooks();
             }
             
-            if (books.isEmpty()) {
-                return Response.Builder.badRequest("没有找到要导出的图书数据");
+            // 3. 后台生成导出文件，客户端轮询进度后分块下载
+            Map<String, Object> exportStatus = bookManagementService.startBookExport(
+                    fileName, request.getParam("category"), bookStatus);
+            return Response.Builder.success("导出任务已开始", exportStatus);
+            
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Response.Builder.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("处理导出图书请求异常", e);
+            return Response.Builder.internalError("系统错误: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 开始导出借阅记录
+     * URI: library/admin/borrow-records/export
+     * 权限: admin
+     * 参数: fileName（.xlsx 或 .csv，可选）, userSearch, bookSearch, status, borrowDate, dueDate, returnDate（均可选）
+     */
+    @RouteMapping(uri = "library/admin/borrow-records/export", role = "admin", description = "导出借阅记录")
+    public Response exportBorrowRecords(Request request) {
+        log.info("处理导出借阅记录请求: {}", request.getUri());
+        
+        try {
+            // 1. 权限验证
+            Session session = request.getSession();
+            if (session == null || (!session.hasPermission("admin") && !session.hasPermission("manager"))) {
+                return Response.Builder.forbidden("需要管理员权限");
+            }
+            
+            // 2. 后台生成导出文件，客户端轮询进度后分块下载
+            Map<String, Object> exportStatus = bookManagementService.startBorrowHistoryExport(
+                    exportFileName(request.getParam("fileName"), "借阅记录_"),
+                    request.getParam("userSearch"), request.getParam("bookSearch"), request.getParam("status"),
+                    request.getParam("borrowDate"), request.getParam("dueDate"), request.getParam("returnDate"));
+            return Response.Builder.success("导出任务已开始", exportStatus);
+            
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Response.Builder.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("处理导出借阅记录请求异常", e);
+            return Response.Builder.internalError("系统错误: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 查询导出进度
+     * URI: library/admin/book/export-progress
+     * 权限: admin
+     */
+    @RouteMapping(uri = "library/admin/book/export-progress", role = "admin", description = "查询导出进度")
+    public Response getExportProgress(Request request) {
+        try {
+            // 1. 权限验证
+            Session session = request.getSession();
+            if (session == null || (!session.hasPermission("admin") && !session.hasPermission("manager"))) {
+                return Response.Builder.forbidden("需要管理员权限");
             }
             
-            // 4. 调用服务层导出
-            BookManagementResult result = bookManagementService.exportBooksToExcel(books, fileName);
+            // 2. 查询进度
+            Map<String, Object> status = BookExportManager.getInstance().getStatus(request.getParam("exportId"));
+            if (status == null) {
+                return Response.Builder.badRequest("导出任务不存在或已过期");
+            }
+            return Response.Builder.success("查询成功", status);
             
-            if (result.isSuccess()) {
-                log.info("Excel导出成功: fileName={}, count={}", fileName, books.size());
-                return Response.Builder.success(result.getMessage(), result);
-            } else {
-                log.warn("Excel导出失败: fileName={}, reason={}", fileName, result.getMessage());
-                return Response.Builder.badRequest(result.getMessage());
+        } catch (Exception e) {
+            log.error("处理查询导出进度请求异常", e);
+            return Response.Builder.internalError("系统错误: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 分块下载导出文件
+     * URI: library/admin/book/export-chunk
+     * 权限: admin
+     * 参数: exportId, seq（从0开始）
+     * 返回: data（Base64编码的块数据）, last（是否最后一块）
+     */
+    @RouteMapping(uri = "library/admin/book/export-chunk", role = "admin", description = "分块下载导出文件")
+    public Response downloadExportChunk(Request request) {
+        try {
+            // 1. 权限验证
+            Session session = request.getSession();
+            if (session == null || (!session.hasPermission("admin") && !session.hasPermission("manager"))) {
+                return Response.Builder.forbidden("需要管理员权限");
+            }
+            
+            // 2. 参数提取
+            String seqStr = request.getParam("seq");
+            int seq;
+            try {
+                seq = seqStr == null ? 0 : Integer.parseInt(seqStr.trim());
+            } catch (NumberFormatException e) {
+                return Response.Builder.badRequest("分块序号格式错误");
             }
             
+            // 3. 读取分块
+            return Response.Builder.success("下载成功",
+                    BookExportManager.getInstance().readChunk(request.getParam("exportId"), seq));
+            
+        } catch (IllegalArgumentException e) {
+            return Response.Builder.badRequest(e.getMessage());
         } catch (Exception e) {
-            log.error("处理Excel导出图书请求异常", e);
+            log.error("处理导出文件分块下载请求异常", e);
             return Response.Builder.internalError("系统错误: " + e.getMessage());
         }
     }
     
+    /**
+     * 结束导出任务（客户端已收齐全部分块），删除服务器上的导出文件
+     * URI: library/admin/book/export-complete
+     * 权限: admin
+     * 参数: exportId
+     */
+    @RouteMapping(uri = "library/admin/book/export-complete", role = "admin", description = "结束导出任务")
+    public Response completeExport(Request request) {
+        try {
+            // 1. 权限验证
+            Session session = request.getSession();
+            if (session == null || (!session.hasPermission("admin") && !session.hasPermission("manager"))) {
+                return Response.Builder.forbidden("需要管理员权限");
+            }
+            
+            // 2. 删除导出文件（任务已过期时视为已结束）
+            BookExportManager.getInstance().complete(request.getParam("exportId"));
+            return Response.Builder.success("导出已结束", null);
+            
+        } catch (IllegalArgumentException e) {
+            return Response.Builder.badRequest(e.getMessage());
+        } catch (Exception e) {
+            log.error("处理结束导出任务请求异常", e);
+            return Response.Builder.internalError("系统错误: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 导出文件名，未指定时按前缀和当前时间生成 .xlsx 文件名
+     */
+    private String exportFileName(String fileName, String prefix) {
+        if (fileName == null || fileName.trim().isEmpty()) {
+            return prefix + java.time.LocalDateTime.now().format(
+                java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx";
+        }
+        return fileName.trim();
+    }
+    
     /**
      * 获取所有借阅记录
      * URI: library/admin/borrow-records
@@ -1669,7 +1892,12 @@ public class AdminBookManagementController {
                 return Response.Builder.forbidden("需要管理员权限");
             }
             
-            // 2. 调用服务层获取借阅记录
+            // 2. 携带 cursor 参数时按游标分页返回
+            if (request.hasParam("cursor")) {
+                return borrowRecordsPage(request, null, null, null, null, null, null);
+            }
+            
+            // 3. 调用服务层获取借阅记录
             List<Map<String, Object>> records = bookManagementService.getAllBorrowRecords();
             
             log.info("获取借阅记录成功: count={}", records.size());
@@ -1713,7 +1941,12 @@ public class AdminBookManagementController {
             if (dueDate == null) dueDate = "";
             if (returnDate == null) returnDate = "";
             
-            // 3. 调用服务层搜索借阅记录
+            // 3. 携带 cursor 参数时按游标分页返回
+            if (request.hasParam("cursor")) {
+                return borrowRecordsPage(request, userSearch, bookSearch, status, borrowDate, dueDate, returnDate);
+            }
+            
+            // 4. 调用服务层搜索借阅记录
             List<Map<String, Object>> records = bookManagementService.searchBorrowRecords(userSearch, bookSearch, status, borrowDate, dueDate, returnDate);
             
             log.info("搜索借阅记录成功: count={}", records.size());
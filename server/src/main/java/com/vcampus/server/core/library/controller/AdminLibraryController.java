@@ -4,6 +4,7 @@ import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
 import com.vcampus.server.core.common.annotation.RouteMapping;
 import com.vcampus.server.core.library.entity.core.BookBorrow;
+import com.vcampus.server.core.library.entity.result.BorrowResult;
 import com.vcampus.server.core.library.entity.view.UserBorrowHistory;
 import com.vcampus.server.core.library.entity.view.OverdueDetails;
 import com.vcampus.server.core.library.entity.view.RecentBorrow;
@@ -13,6 +14,8 @@ import com.vcampus.server.core.library.service.impl.LibraryBorrowServiceImpl;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +30,8 @@ import java.util.Map;
 @Slf4j
 public class AdminLibraryController {
     
+    private static final int MAX_BATCH_BORROW = 20;
+    
     private final LibraryBorrowService libraryBorrowService;
     
     public AdminLibraryController() {
@@ -35,6 +40,88 @@ public class AdminLibraryController {
     
     // ==================== 管理员借阅管理 ====================
     
+    /**
+     * 前台批量借书：为同一用户一次借阅多本图书
+     * URI: library/admin/batch-borrow
+     * 权限: admin
+     * 参数: cardNum, userType, bookIds（逗号分隔，最多 {@value #MAX_BATCH_BORROW} 本）
+     */
+    @RouteMapping(uri = "library/admin/batch-borrow", role = "admin", description = "前台批量借书")
+    public Response batchBorrow(Request request) {
+        log.info("前台批量借书请求: {}", request.getUri());
+        
+        try {
+            // 1. 验证会话
+            if (request.getSession() == null || !request.getSession().hasPermission("admin")) {
+                return Response.Builder.forbidden("需要管理员权限");
+            }
+            
+            // 2. 获取参数
+            String cardNum = request.getParam("cardNum");
+            String bookIdsStr = request.getParam("bookIds");
+            if (cardNum == null || cardNum.trim().isEmpty()) {
+                return Response.Builder.badRequest("用户卡号不能为空");
+            }
+            if (bookIdsStr == null || bookIdsStr.trim().isEmpty()) {
+                return Response.Builder.badRequest("图书ID不能为空");
+            }
+            
+            UserType userType = UserType.fromCode(request.getParam("userType"));
+            if (userType == null) {
+                return Response.Builder.badRequest("用户类型格式错误");
+            }
+            
+            List<Integer> bookIds = new ArrayList<>();
+            try {
+                for (String part : bookIdsStr.split(",")) {
+                    if (!part.trim().isEmpty()) {
+                        bookIds.add(Integer.valueOf(part.trim()));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return Response.Builder.badRequest("图书ID格式错误");
+            }
+            if (bookIds.isEmpty()) {
+                return Response.Builder.badRequest("图书ID不能为空");
+            }
+            if (bookIds.size() > MAX_BATCH_BORROW) {
+                return Response.Builder.badRequest("一次最多借阅 " + MAX_BATCH_BORROW + " 本");
+            }
+            
+            // 3. 执行借阅，每本书单独返回结果
+            List<BorrowResult> results = libraryBorrowService.borrowBooks(bookIds, cardNum.trim(), userType);
+            
+            List<Map<String, Object>> items = new ArrayList<>();
+            int successCount = 0;
+            for (int i = 0; i < results.size(); i++) {
+                BorrowResult result = results.get(i);
+                Map<String, Object> item = new HashMap<>();
+                item.put("bookId", bookIds.get(i));
+                item.put("success", result.isSuccess());
+                item.put("message", result.getMessage());
+                item.put("transId", result.getTransId());
+                if (result.getBorrow() != null) {
+                    item.put("dueTime", result.getBorrow().getDueTime());
+                }
+                items.add(item);
+                if (result.isSuccess()) {
+                    successCount++;
+                }
+            }
+            
+            Map<String, Object> data = new HashMap<>();
+            data.put("results", items);
+            data.put("successCount", successCount);
+            data.put("failCount", results.size() - successCount);
+            log.info("前台批量借书完成: cardNum={}, 成功={}, 失败={}", cardNum, successCount, results.size() - successCount);
+            return Response.Builder.success("借阅完成：成功 " + successCount + " 本，失败 " + (results.size() - successCount) + " 本", data);
+            
+        } catch (Exception e) {
+            log.error("前台批量借书异常", e);
+            return Response.Builder.internalError("系统错误，请稍后重试");
+        }
+    }
+    
     // ==================== 管理员查询功能 ====================
     
     /**
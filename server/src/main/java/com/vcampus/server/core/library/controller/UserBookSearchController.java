@@ -4,11 +4,16 @@ import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
 import com.vcampus.common.message.Session;
 import com.vcampus.server.core.common.annotation.RouteMapping;
+import com.vcampus.server.core.common.page.CursorPage;
+import com.vcampus.server.core.library.category.CategoryRegistry;
+import com.vcampus.server.core.library.constant.LibraryConstant;
 import com.vcampus.server.core.library.entity.core.Book;
+import com.vcampus.server.core.library.entity.search.BookSearchResult;
 import com.vcampus.server.core.library.entity.search.PopularBook;
 import com.vcampus.server.core.library.enums.BookStatus;
 import com.vcampus.server.core.library.service.BookManagementService;
 import com.vcampus.server.core.library.service.impl.BookManagementServiceImpl;
+import com.vcampus.server.core.library.stats.BorrowRanking;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
@@ -25,10 +30,39 @@ import java.util.Map;
 @Slf4j
 public class UserBookSearchController {
     
+    /**
+     * 内置的中图法大类名称到代码的映射
+     */
+    private static final Map<String, String> DEFAULT_CATEGORY_CODES = Map.ofEntries(
+            Map.entry("马克思主义、列宁主义、毛泽东思想、邓小平理论", "A"),
+            Map.entry("哲学、宗教", "B"),
+            Map.entry("社会科学总论", "C"),
+            Map.entry("政治、法律", "D"),
+            Map.entry("军事", "E"),
+            Map.entry("经济", "F"),
+            Map.entry("文化、科学、教育、体育", "G"),
+            Map.entry("语言、文字", "H"),
+            Map.entry("文学", "I"),
+            Map.entry("艺术", "J"),
+            Map.entry("历史、地理", "K"),
+            Map.entry("自然科学总论", "N"),
+            Map.entry("数理科学和化学", "O"),
+            Map.entry("天文学、地球科学", "P"),
+            Map.entry("生物科学", "Q"),
+            Map.entry("医药、卫生", "R"),
+            Map.entry("农业科学", "S"),
+            Map.entry("工业技术", "T"),
+            Map.entry("交通运输", "U"),
+            Map.entry("航空、航天", "V"),
+            Map.entry("环境科学、安全科学", "X"),
+            Map.entry("综合性图书", "Z"));
+    
     private final BookManagementService bookManagementService;
+    private final CategoryRegistry categoryRegistry;
     
     public UserBookSearchController() {
         this.bookManagementService = new BookManagementServiceImpl();
+        this.categoryRegistry = CategoryRegistry.getInstance();
     }
     
     // ==================== 基础搜索功能 ====================
@@ -266,30 +300,52 @@ public class UserBookSearchController {
                 return Response.Builder.badRequest("搜索关键词不能为空");
             }
             
-            // 3. 调用服务层
-            List<Book> books = bookManagementService.smartSearchBooks(keyword.trim());
-            
-            // 4. 如果指定了分类，进行筛选
+            // 3. 分类名称转换为分类代码，由检索索引在打分时过滤
+            String categoryCode = null;
             if (category != null && !category.trim().isEmpty() && !"全部".equals(category.trim())) {
-                // 将分类名称转换为分类代码
-                String categoryCode = convertCategoryNameToCode(category.trim());
-                if (categoryCode != null) {
-                    books = books.stream()
-                        .filter(book -> categoryCode.equals(book.getCategory()))
-                        .collect(java.util.stream.Collectors.toList());
-                } else {
+                categoryCode = convertCategoryNameToCode(category.trim());
+                if (categoryCode == null) {
                     // 如果找不到对应的分类代码，返回空列表
-                    books = new java.util.ArrayList<>();
+                    return Response.Builder.success("搜索成功", new java.util.ArrayList<>());
                 }
             }
             
-            // 5. 转换为客户端期望的格式
-            List<Map<String, Object>> bookMaps = books.stream()
+            // 4. 调用服务层：未指定页码时返回全部结果，指定页码时返回分页结果与命中总数
+            String pageStr = params.get("page");
+            if (pageStr == null || pageStr.trim().isEmpty()) {
+                BookSearchResult result = bookManagementService.smartSearchBooks(keyword.trim(), categoryCode, 1, 0);
+                List<Map<String, Object>> bookMaps = result.getBooks().stream()
+                    .map(this::convertBookToMap)
+                    .collect(java.util.stream.Collectors.toList());
+                log.info("智能搜索图书成功: count={}, category={}", bookMaps.size(), category);
+                return Response.Builder.success("搜索成功", bookMaps);
+            }
+            
+            int page;
+            int size;
+            try {
+                page = Integer.parseInt(pageStr.trim());
+                String sizeStr = params.get("size");
+                size = sizeStr == null || sizeStr.trim().isEmpty()
+                        ? LibraryConstant.Pagination.DEFAULT_PAGE_SIZE
+                        : Math.max(LibraryConstant.Pagination.MIN_PAGE_SIZE, Integer.parseInt(sizeStr.trim()));
+            } catch (NumberFormatException e) {
+                return Response.Builder.badRequest("分页参数格式错误");
+            }
+            
+            BookSearchResult result = bookManagementService.smartSearchBooks(keyword.trim(), categoryCode, page, size);
+            List<Map<String, Object>> bookMaps = result.getBooks().stream()
                 .map(this::convertBookToMap)
                 .collect(java.util.stream.Collectors.toList());
             
-            log.info("智能搜索图书成功: count={}, category={}", books.size(), category);
-            return Response.Builder.success("搜索成功", bookMaps);
+            Map<String, Object> data = new java.util.HashMap<>();
+            data.put("books", bookMaps);
+            data.put("totalCount", result.getTotalCount());
+            data.put("page", Math.max(page, 1));
+            data.put("size", bookMaps.size());
+            
+            log.info("智能搜索图书成功: total={}, page={}, category={}", result.getTotalCount(), page, category);
+            return Response.Builder.success("搜索成功", data);
             
         } catch (Exception e) {
             log.error("处理智能搜索图书请求异常", e);
@@ -433,7 +489,17 @@ public class UserBookSearchController {
                 }
             }
             
-            // 3. 调用服务层
+            // 3. 调用服务层：携带 cursor 参数时按游标分页，否则保持页码分页
+            if (params.containsKey("cursor")) {
+                try {
+                    CursorPage<Book> bookPage = bookManagementService.getBooksPage(params.get("cursor"), size);
+                    log.info("游标分页查询图书成功: size={}, count={}, hasMore={}", size, bookPage.getItems().size(), bookPage.isHasMore());
+                    return Response.Builder.success("查询成功", bookPage);
+                } catch (IllegalArgumentException e) {
+                    return Response.Builder.badRequest(e.getMessage());
+                }
+            }
+            
             List<Book> books = bookManagementService.getBooksByPage(page, size);
             
             log.info("分页查询图书成功: page={}, size={}, count={}", page, size, books.size());
@@ -598,11 +664,26 @@ public class UserBookSearchController {
                 return Response.Builder.forbidden("需要学生或教师权限");
             }
             
-            // 2. 调用服务层获取分类列表
-            List<Map<String, Object>> categories = bookManagementService.getAllCategories();
+            // 2. 未带 ifNoneMatch 参数时保持原有的列表格式
+            String ifNoneMatch = request.getParam("ifNoneMatch");
+            if (ifNoneMatch == null) {
+                List<Map<String, Object>> categories = bookManagementService.getAllCategories();
+                log.info("获取分类列表成功: count={}", categories.size());
+                return Response.Builder.success("查询成功", categories);
+            }
             
-            log.info("获取分类列表成功: count={}", categories.size());
-            return Response.Builder.success("查询成功", categories);
+            // 3. 带版本号时，版本未变化只返回版本号，否则返回版本号和完整列表
+            CategoryRegistry.Snapshot snapshot = categoryRegistry.snapshot();
+            Map<String, Object> data = new java.util.HashMap<>();
+            data.put("version", snapshot.getVersion());
+            if (snapshot.matches(ifNoneMatch.trim())) {
+                data.put("notModified", true);
+                return Response.Builder.success("分类未变化", data);
+            }
+            data.put("notModified", false);
+            data.put("categories", snapshot.getCategories());
+            log.info("获取分类列表成功: count={}, version={}", snapshot.getCategories().size(), snapshot.getVersion());
+            return Response.Builder.success("查询成功", data);
             
         } catch (Exception e) {
             log.error("处理获取分类列表请求异常", e);
@@ -645,29 +726,24 @@ public class UserBookSearchController {
                 }
             }
             
-            // 3. 调用服务层 - 返回在库的图书作为热门图书
-            List<Book> popularBooks = bookManagementService.getBooksByStatus(BookStatus.IN_LIBRARY);
+            BorrowRanking.Period period = BorrowRanking.Period.parse(params.get("period"), BorrowRanking.Period.MONTH);
             
-            // 4. 如果指定了分类，进行筛选
+            // 3. 调用服务层 - 按借阅次数取热门图书，指定分类时取该分类的排行
+            List<Book> popularBooks;
             if (category != null && !category.trim().isEmpty() && !"全部".equals(category.trim())) {
                 // 将分类名称转换为分类代码
                 String categoryCode = convertCategoryNameToCode(category.trim());
                 if (categoryCode != null) {
-                    popularBooks = popularBooks.stream()
-                        .filter(book -> categoryCode.equals(book.getCategory()))
-                        .collect(java.util.stream.Collectors.toList());
+                    popularBooks = bookManagementService.getPopularBooks(categoryCode, period, limit);
                 } else {
                     // 如果找不到对应的分类代码，返回空列表
                     popularBooks = new java.util.ArrayList<>();
                 }
+            } else {
+                popularBooks = bookManagementService.getPopularBooks(null, period, limit);
             }
             
-            // 5. 限制数量
-            if (popularBooks.size() > limit) {
-                popularBooks = popularBooks.subList(0, limit);
-            }
-            
-            // 6. 转换为客户端期望的格式
+            // 4. 转换为客户端期望的格式
             List<Map<String, Object>> bookMaps = popularBooks.stream()
                 .map(this::convertBookToMap)
                 .collect(java.util.stream.Collectors.toList());
@@ -718,14 +794,10 @@ public class UserBookSearchController {
                 }
             }
             
-            // 3. 调用服务层 - 查询指定分类的可借阅图书
-            List<Book> books = bookManagementService.searchBooks(
-                    null, null, null, category.trim(), BookStatus.AVAILABLE
-            );
+            BorrowRanking.Period period = BorrowRanking.Period.parse(params.get("period"), BorrowRanking.Period.MONTH);
             
-            if (books.size() > limit) {
-                books = books.subList(0, limit);
-            }
+            // 3. 调用服务层 - 查询指定分类的借阅排行
+            List<Book> books = bookManagementService.getPopularBooks(category.trim(), period, limit);
             
             log.info("获取分类热门图书成功: category={}, count={}", category, books.size());
             return Response.Builder.success("查询成功", books);
@@ -754,34 +826,14 @@ public class UserBookSearchController {
     }
     
     /**
-     * 将分类名称转换为分类代码
+     * 将分类名称转换为分类代码，分类注册表不可用时使用内置的中图法大类
      */
     private String convertCategoryNameToCode(String categoryName) {
-        // 硬编码的分类名称到代码的映射
-        Map<String, String> categoryMapping = new java.util.HashMap<>();
-        categoryMapping.put("马克思主义、列宁主义、毛泽东思想、邓小平理论", "A");
-        categoryMapping.put("哲学、宗教", "B");
-        categoryMapping.put("社会科学总论", "C");
-        categoryMapping.put("政治、法律", "D");
-        categoryMapping.put("军事", "E");
-        categoryMapping.put("经济", "F");
-        categoryMapping.put("文化、科学、教育、体育", "G");
-        categoryMapping.put("语言、文字", "H");
-        categoryMapping.put("文学", "I");
-        categoryMapping.put("艺术", "J");
-        categoryMapping.put("历史、地理", "K");
-        categoryMapping.put("自然科学总论", "N");
-        categoryMapping.put("数理科学和化学", "O");
-        categoryMapping.put("天文学、地球科学", "P");
-        categoryMapping.put("生物科学", "Q");
-        categoryMapping.put("医药、卫生", "R");
-        categoryMapping.put("农业科学", "S");
-        categoryMapping.put("工业技术", "T");
-        categoryMapping.put("交通运输", "U");
-        categoryMapping.put("航空、航天", "V");
-        categoryMapping.put("环境科学、安全科学", "X");
-        categoryMapping.put("综合性图书", "Z");
-        
-        return categoryMapping.get(categoryName);
+        try {
+            return categoryRegistry.codeOf(categoryName);
+        } catch (RuntimeException e) {
+            log.warn("分类注册表不可用，使用内置分类: {}", e.getMessage());
+            return DEFAULT_CATEGORY_CODES.get(categoryName);
+        }
     }
 }
@@ -1,6 +1,8 @@
 package com.vcampus.server.core.library.dao;
 
+import com.vcampus.server.core.db.DatabaseManager;
 import com.vcampus.server.core.library.entity.core.BookBorrow;
+import com.vcampus.server.core.library.entity.core.BorrowRule;
 import com.vcampus.server.core.library.entity.view.UserBorrowHistory;
 import com.vcampus.server.core.library.entity.view.OverdueDetails;
 import com.vcampus.server.core.library.entity.view.RecentBorrow;
@@ -8,13 +10,18 @@ import com.vcampus.server.core.library.entity.result.BorrowResult;
 import com.vcampus.server.core.library.entity.result.ReturnResult;
 import com.vcampus.server.core.library.entity.result.RenewResult;
 import com.vcampus.server.core.library.entity.result.OverdueCheckResult;
+import com.vcampus.server.core.library.enums.BorrowStatus;
 import com.vcampus.server.core.library.mapper.BookBorrowMapper;
+import com.vcampus.server.core.library.overdue.OverdueTracker;
+import com.vcampus.server.core.library.rule.BorrowCandidate;
+import com.vcampus.server.core.library.rule.BorrowEligibility;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 
-import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,12 +40,8 @@ public class BookBorrowDao {
     private final SqlSessionFactory sqlSessionFactory;
     
     private BookBorrowDao() {
-        // 初始化MyBatis SqlSessionFactory
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("mybatis-config.xml")) {
-            this.sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
-        } catch (Exception e) {
-            throw new RuntimeException("初始化MyBatis失败", e);
-        }
+        // 共享全局 SqlSessionFactory 及其连接池
+        this.sqlSessionFactory = DatabaseManager.getSqlSessionFactory();
     }
     
     public static synchronized BookBorrowDao getInstance() {
@@ -83,6 +86,7 @@ public class BookBorrowDao {
                 mapper.update(borrow);
             }
             session.commit();
+            OverdueTracker.getInstance().track(borrow);
             return borrow;
         }
     }
@@ -95,6 +99,7 @@ public class BookBorrowDao {
             BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
             mapper.deleteById(transId);
             session.commit();
+            OverdueTracker.getInstance().untrack(transId);
         }
     }
     
@@ -271,6 +276,11 @@ public class BookBorrowDao {
                 throw new RuntimeException("更新状态失败：未找到ID为 " + transId + " 的借阅记录");
             }
             session.commit();
+            if (status == BorrowStatus.OVERDUE) {
+                OverdueTracker.getInstance().markedOverdue(transId);
+            } else if (status == BorrowStatus.RETURNED) {
+                OverdueTracker.getInstance().untrack(transId);
+            }
         }
     }
     
@@ -285,6 +295,7 @@ public class BookBorrowDao {
                 throw new RuntimeException("更新归还时间失败：未找到ID为 " + transId + " 的借阅记录");
             }
             session.commit();
+            OverdueTracker.getInstance().untrack(transId);
         }
     }
     
@@ -299,9 +310,126 @@ public class BookBorrowDao {
                 throw new RuntimeException("更新续借信息失败：未找到ID为 " + transId + " 的借阅记录");
             }
             session.commit();
+            OverdueTracker.getInstance().track(mapper.findById(transId));
+        }
+    }
+    
+    // ==================== 借阅事务 ====================
+    
+    /**
+     * 查询借阅资格所需数据（不加锁），用于借阅前的预检查
+     * @param bookIds 图书ID列表
+     * @param cardNum 用户卡号
+     * @return 存在的图书对应的资格数据
+     */
+    public Map<Integer, BorrowCandidate> findBorrowCandidates(List<Integer> bookIds, String cardNum) {
+        if (bookIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
+            return indexByBookId(mapper.findBorrowCandidates(bookIds, cardNum, false));
+        }
+    }
+    
+    /**
+     * 在一个事务内为同一用户借阅一本或多本图书
+     * 先用一条加锁查询取出全部资格数据并锁定图书行和用户行，判断通过的图书一次插入借阅记录、一次扣减库存后提交；
+     * 任何一步异常时整体回滚
+     * @param bookIds 图书ID列表，按顺序判断
+     * @param cardNum 用户卡号
+     * @param rule 用户类型对应的借阅规则，为空表示未配置
+     * @return 与 bookIds 一一对应的借阅结果
+     */
+    public List<BorrowResult> borrowBooks(List<Integer> bookIds, String cardNum, BorrowRule rule) {
+        if (bookIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try (SqlSession session = sqlSessionFactory.openSession(false)) {
+            BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
+            Map<Integer, BorrowCandidate> candidates = indexByBookId(
+                    mapper.findBorrowCandidates(bookIds, cardNum, true));
+            List<String> reasons = BorrowEligibility.evaluate(bookIds, candidates, rule);
+            
+            LocalDateTime now = LocalDateTime.now();
+            List<BookBorrow> borrows = new ArrayList<>();
+            List<Integer> borrowedIds = new ArrayList<>();
+            for (int i = 0; i < bookIds.size(); i++) {
+                if (reasons.get(i) == null) {
+                    borrowedIds.add(bookIds.get(i));
+                    borrows.add(BookBorrow.builder()
+                            .bookId(bookIds.get(i))
+                            .cardNum(cardNum)
+                            .borrowTime(now)
+                            .dueTime(now.plusDays(rule.getMaxBorrowDays()))
+                            .status(BorrowStatus.BORROWED)
+                            .renewCount(0)
+                            .build());
+                }
+            }
+            
+            if (!borrows.isEmpty()) {
+                mapper.insertBorrows(borrows);
+                int updated = mapper.decrementAvailQty(borrowedIds);
+                if (updated != borrowedIds.size()) {
+                    session.rollback();
+                    throw new IllegalStateException("扣减库存失败: 期望 " + borrowedIds.size() + "，实际 " + updated);
+                }
+                session.commit();
+                for (BookBorrow borrow : borrows) {
+                    OverdueTracker.getInstance().track(borrow);
+                }
+            } else {
+                session.rollback();
+            }
+            
+            List<BorrowResult> results = new ArrayList<>(bookIds.size());
+            Iterator<BookBorrow> borrowed = borrows.iterator();
+            for (String reason : reasons) {
+                results.add(reason == null ? BorrowResult.success("借阅成功", borrowed.next()) : BorrowResult.failure(reason));
+            }
+            return results;
+        }
+    }
+    
+    // ==================== 逾期跟踪 ====================
+    
+    /**
+     * 查询所有未归还的借阅记录，供逾期跟踪启动时载入
+     */
+    public List<BookBorrow> findActiveBorrows() {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
+            return mapper.findActiveBorrows();
+        }
+    }
+    
+    /**
+     * 将已到期且仍在借阅中的记录标记为逾期
+     * @param transIds 借阅记录ID
+     * @param now 判断到期的时间点
+     * @return 实际标记的记录数
+     */
+    public int markOverdue(List<Integer> transIds, LocalDateTime now) {
+        if (transIds.isEmpty()) {
+            return 0;
+        }
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
+            int updated = mapper.markOverdue(transIds, now);
+            session.commit();
+            return updated;
         }
     }
     
+    private static Map<Integer, BorrowCandidate> indexByBookId(List<BorrowCandidate> candidates) {
+        Map<Integer, BorrowCandidate> indexed = new HashMap<>();
+        for (BorrowCandidate candidate : candidates) {
+            indexed.put(candidate.getBookId(), candidate);
+        }
+        return indexed;
+    }
+    
     // ==================== 存储过程调用方法 ====================
     
     /**
@@ -326,7 +454,11 @@ public class BookBorrowDao {
     public ReturnResult returnBook(Integer transId) {
         try (SqlSession session = sqlSessionFactory.openSession()) {
             BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
-            return mapper.returnBook(transId);
+            ReturnResult result = mapper.returnBook(transId);
+            if (result != null && result.isSuccess()) {
+                OverdueTracker.getInstance().untrack(transId);
+            }
+            return result;
         }
     }
     
@@ -339,7 +471,12 @@ public class BookBorrowDao {
     public RenewResult renewBook(Integer transId, Integer extendDays) {
         try (SqlSession session = sqlSessionFactory.openSession()) {
             BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
-            return mapper.renewBook(transId, extendDays);
+            RenewResult result = mapper.renewBook(transId, extendDays);
+            if (result != null && result.isSuccess()) {
+                // 存储过程不返回新的应还时间，重新读取后更新逾期队列
+                OverdueTracker.getInstance().track(mapper.findById(transId));
+            }
+            return result;
         }
     }
     
@@ -379,6 +516,34 @@ public class BookBorrowDao {
         }
     }
     
+    /**
+     * 按条件查询借阅历史，按 trans_Id 倒序键集分页 - 使用视图 v_user_borrow_history
+     * @param beforeTransId 上一页最后一条记录的ID，为空时从最新记录开始
+     * @param limit 最多返回条数，为空时返回全部
+     * @return 借阅历史列表
+     */
+    public List<UserBorrowHistory> findBorrowHistoryPage(Integer beforeTransId, String userSearch, String bookSearch,
+                                                         String status, String borrowDate, String dueDate,
+                                                         String returnDate, Integer limit) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
+            return mapper.findBorrowHistoryPage(beforeTransId, userSearch, bookSearch, status,
+                    borrowDate, dueDate, returnDate, limit);
+        }
+    }
+    
+    /**
+     * 按条件统计借阅历史条数 - 使用视图 v_user_borrow_history
+     * @return 符合条件的记录数
+     */
+    public long countBorrowHistory(String userSearch, String bookSearch, String status,
+                                   String borrowDate, String dueDate, String returnDate) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
+            return mapper.countBorrowHistory(userSearch, bookSearch, status, borrowDate, dueDate, returnDate);
+        }
+    }
+    
     /**
      * 查询逾期详情 - 使用视图 v_overdue_details
      * @return 逾期详情列表
@@ -390,6 +555,19 @@ public class BookBorrowDao {
         }
     }
     
+    /**
+     * 按借阅记录ID查询逾期详情 - 使用视图 v_overdue_details，按逾期天数降序
+     */
+    public List<OverdueDetails> getOverdueDetails(List<Integer> transIds) {
+        if (transIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
+            return mapper.getOverdueDetailsByTransIds(transIds);
+        }
+    }
+    
     /**
      * 查询最近借阅记录 - 使用视图 v_recent_borrows
      * @param limit 限制数量
@@ -450,6 +628,32 @@ public class BookBorrowDao {
         }
     }
     
+    /**
+     * 按天统计时间范围内的借阅与归还数量
+     * @param start 开始时间（含）
+     * @param end 结束时间（不含）
+     * @return 每行包含 kind（borrow/return）、day（yyyy-MM-dd）、cnt
+     */
+    public List<Map<String, Object>> getDailyTransCounts(LocalDateTime start, LocalDateTime end) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
+            return mapper.getDailyTransCounts(start, end);
+        }
+    }
+    
+    /**
+     * 按图书、用户、天汇总时间范围内的借阅次数
+     * @param start 开始时间（含）
+     * @param end 结束时间（不含）
+     * @return 每行包含 bookId、title、author、category、cardNum、userName、day（yyyy-MM-dd）、cnt、lastBorrow
+     */
+    public List<Map<String, Object>> getDailyBorrowPairs(LocalDateTime start, LocalDateTime end) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            BookBorrowMapper mapper = session.getMapper(BookBorrowMapper.class);
+            return mapper.getDailyBorrowPairs(start, end);
+        }
+    }
+    
     /**
      * 获取最近7天的借阅趋势数据
      * @return 最近7天的借阅趋势数据
@@ -1,18 +1,18 @@
 package com.vcampus.server.core.library.dao;
 
+import com.vcampus.server.core.db.DatabaseManager;
+import com.vcampus.server.core.library.category.CategoryRegistry;
 import com.vcampus.server.core.library.entity.core.BookCategory;
 import com.vcampus.server.core.library.mapper.BookCategoryMapper;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 
-import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * 图书分类数据访问对象 - 使用MyBatis
- * 提供图书分类的CRUD操作和业务查询方法
+ * 提供图书分类的CRUD操作和业务查询方法，写操作提交后使 {@link CategoryRegistry} 失效
  * 
  * @author VCampus Team
  * @version 1.0
@@ -23,12 +23,8 @@ public class BookCategoryDao {
     private final SqlSessionFactory sqlSessionFactory;
     
     private BookCategoryDao() {
-        // 初始化MyBatis SqlSessionFactory
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("mybatis-config.xml")) {
-            this.sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
-        } catch (Exception e) {
-            throw new RuntimeException("初始化MyBatis失败", e);
-        }
+        // 共享全局 SqlSessionFactory 及其连接池
+        this.sqlSessionFactory = DatabaseManager.getSqlSessionFactory();
     }
     
     public static synchronized BookCategoryDao getInstance() {
@@ -73,6 +69,7 @@ public class BookCategoryDao {
                 mapper.update(category);
             }
             session.commit();
+            CategoryRegistry.getInstance().invalidate();
             return category;
         }
     }
@@ -85,6 +82,7 @@ public class BookCategoryDao {
             BookCategoryMapper mapper = session.getMapper(BookCategoryMapper.class);
             mapper.deleteById(categoryId);
             session.commit();
+            CategoryRegistry.getInstance().invalidate();
         }
     }
     
@@ -223,6 +221,7 @@ public class BookCategoryDao {
                 throw new RuntimeException("更新排序顺序失败：未找到ID为 " + categoryId + " 的分类");
             }
             session.commit();
+            CategoryRegistry.getInstance().invalidate();
         }
     }
 }
\ No newline at end of file
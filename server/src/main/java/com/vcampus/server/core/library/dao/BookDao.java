@@ -1,5 +1,6 @@
 package com.vcampus.server.core.library.dao;
 
+import com.vcampus.server.core.db.DatabaseManager;
 import com.vcampus.server.core.library.entity.core.Book;
 import com.vcampus.server.core.library.entity.view.BookBorrowStatus;
 import com.vcampus.server.core.library.entity.view.BookBorrowStatistics;
@@ -9,15 +10,17 @@ import com.vcampus.server.core.library.entity.search.PopularBook;
 import com.vcampus.server.core.library.entity.result.AddBookResult;
 import com.vcampus.server.core.library.entity.result.UpdateBookResult;
 import com.vcampus.server.core.library.mapper.BookMapper;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 
-import java.io.InputStream;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 
 /**
@@ -33,12 +36,8 @@ public class BookDao {
     private final SqlSessionFactory sqlSessionFactory;
     
     private BookDao() {
-        // 初始化MyBatis SqlSessionFactory
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("mybatis-config.xml")) {
-            this.sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
-        } catch (Exception e) {
-            throw new RuntimeException("初始化MyBatis失败", e);
-        }
+        // 共享全局 SqlSessionFactory 及其连接池
+        this.sqlSessionFactory = DatabaseManager.getSqlSessionFactory();
     }
     
     public static synchronized BookDao getInstance() {
@@ -230,6 +229,36 @@ public class BookDao {
         return findByIsbn(isbn).isPresent();
     }
     
+    /**
+     * 一次查询给定ISBN中已存在的ISBN
+     */
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        if (isbns == null || isbns.isEmpty()) {
+            return new HashSet<>();
+        }
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            BookMapper mapper = session.getMapper(BookMapper.class);
+            return new HashSet<>(mapper.findExistingIsbns(isbns));
+        }
+    }
+    
+    /**
+     * 以 JDBC 批处理插入一组图书，整组在一个事务内提交，失败时整组回滚
+     */
+    public void insertBatch(List<Book> books) {
+        if (books == null || books.isEmpty()) {
+            return;
+        }
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            BookMapper mapper = session.getMapper(BookMapper.class);
+            for (Book book : books) {
+                mapper.insert(book);
+            }
+            session.flushStatements();
+            session.commit();
+        }
+    }
+    
     /**
      * 更新图书库存
      */
@@ -387,6 +416,32 @@ public class BookDao {
         }
     }
     
+    /**
+     * 按图书ID键集分页查询
+     *
+     * @param afterId 上一页最后一本图书的ID，为空时从头开始
+     * @param limit 最多返回条数
+     */
+    public List<Book> findAfterId(Integer afterId, int limit) {
+        return findAfterId(afterId, null, null, limit);
+    }
+    
+    /**
+     * 按图书ID键集分页查询，可按分类和状态过滤
+     *
+     * @param afterId 上一页最后一本图书的ID，为空时从头开始
+     * @param category 分类，为空时不过滤
+     * @param status 状态，为空时不过滤
+     * @param limit 最多返回条数
+     */
+    public List<Book> findAfterId(Integer afterId, String category,
+                                  com.vcampus.server.core.library.enums.BookStatus status, int limit) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            BookMapper mapper = session.getMapper(BookMapper.class);
+            return mapper.findAfterId(afterId, category, status, limit);
+        }
+    }
+    
     /**
      * 根据状态查询图书
      */
@@ -1,14 +1,13 @@
 package com.vcampus.server.core.library.dao;
 
+import com.vcampus.server.core.db.DatabaseManager;
 import com.vcampus.server.core.library.entity.core.BookRecommendation;
 import com.vcampus.server.core.library.entity.view.RecommendationHistory;
 import com.vcampus.server.core.library.enums.RecommendStatus;
 import com.vcampus.server.core.library.mapper.BookRecommendationMapper;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 
-import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,12 +24,8 @@ public class BookRecommendationDao {
     private final SqlSessionFactory sqlSessionFactory;
     
     private BookRecommendationDao() {
-        // 初始化MyBatis SqlSessionFactory
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("mybatis-config.xml")) {
-            this.sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
-        } catch (Exception e) {
-            throw new RuntimeException("初始化MyBatis失败", e);
-        }
+        // 共享全局 SqlSessionFactory 及其连接池
+        this.sqlSessionFactory = DatabaseManager.getSqlSessionFactory();
     }
     
     public static synchronized BookRecommendationDao getInstance() {
@@ -1,19 +1,19 @@
 package com.vcampus.server.core.library.dao;
 
+import com.vcampus.server.core.db.DatabaseManager;
 import com.vcampus.server.core.library.entity.core.BorrowRule;
 import com.vcampus.server.core.library.mapper.BorrowRuleMapper;
+import com.vcampus.server.core.library.rule.BorrowRuleCache;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 
-import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * 借阅规则数据访问对象 - 使用MyBatis
- * 提供借阅规则的CRUD操作和业务查询方法
+ * 提供借阅规则的CRUD操作和业务查询方法，写操作提交后使 {@link BorrowRuleCache} 失效
  * 
  * @author VCampus Team
  * @version 1.0
@@ -24,12 +24,8 @@ public class BorrowRuleDao {
     private final SqlSessionFactory sqlSessionFactory;
     
     private BorrowRuleDao() {
-        // 初始化MyBatis SqlSessionFactory
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("mybatis-config.xml")) {
-            this.sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
-        } catch (Exception e) {
-            throw new RuntimeException("初始化MyBatis失败", e);
-        }
+        // 共享全局 SqlSessionFactory 及其连接池
+        this.sqlSessionFactory = DatabaseManager.getSqlSessionFactory();
     }
     
     public static synchronized BorrowRuleDao getInstance() {
@@ -74,6 +70,7 @@ public class BorrowRuleDao {
                 mapper.update(rule);
             }
             session.commit();
+            BorrowRuleCache.getInstance().invalidate();
             return rule;
         }
     }
@@ -86,6 +83,7 @@ public class BorrowRuleDao {
             BorrowRuleMapper mapper = session.getMapper(BorrowRuleMapper.class);
             mapper.deleteById(ruleId);
             session.commit();
+            BorrowRuleCache.getInstance().invalidate();
         }
     }
     
@@ -217,6 +215,7 @@ public class BorrowRuleDao {
                 throw new RuntimeException("更新规则状态失败：未找到ID为 " + ruleId + " 的规则");
             }
             session.commit();
+            BorrowRuleCache.getInstance().invalidate();
         }
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.vcampus.server.core.library.dao;
 
+import com.vcampus.server.core.db.DatabaseManager;
 import com.vcampus.server.core.library.entity.search.UserStatistics;
 import com.vcampus.server.core.library.entity.view.UserBorrowStatistics;
 import com.vcampus.server.core.library.entity.view.CategoryStatistics;
@@ -7,10 +8,10 @@ import com.vcampus.server.core.library.entity.view.OverdueStatistics;
 import com.vcampus.server.core.library.mapper.LibraryStatisticsMapper;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 
-import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -26,12 +27,8 @@ public class LibraryStatisticsDao {
     private final SqlSessionFactory sqlSessionFactory;
     
     private LibraryStatisticsDao() {
-        // 初始化MyBatis SqlSessionFactory
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("mybatis-config.xml")) {
-            this.sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
-        } catch (Exception e) {
-            throw new RuntimeException("初始化MyBatis失败", e);
-        }
+        // 共享全局 SqlSessionFactory 及其连接池
+        this.sqlSessionFactory = DatabaseManager.getSqlSessionFactory();
     }
     
     public static synchronized LibraryStatisticsDao getInstance() {
@@ -90,5 +87,40 @@ public class LibraryStatisticsDao {
         }
     }
     
-
+    // ==================== 聚合统计方法 ====================
+    
+    /**
+     * 按分类、状态统计图书
+     * @return 每行包含 category、status、bookCount、totalQty
+     */
+    public List<Map<String, Object>> getBookStatusCounts() {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            LibraryStatisticsMapper mapper = session.getMapper(LibraryStatisticsMapper.class);
+            return mapper.getBookStatusCounts();
+        }
+    }
+    
+    /**
+     * 统计借阅记录状态
+     * @return 包含 total、borrowed、returned、overdue、renewed、borrowers
+     */
+    public Map<String, Object> getBorrowStatusCounts() {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            LibraryStatisticsMapper mapper = session.getMapper(LibraryStatisticsMapper.class);
+            return mapper.getBorrowStatusCounts();
+        }
+    }
+    
+    /**
+     * 按天统计有借阅或归还记录的不重复用户数
+     * @param start 开始时间（含）
+     * @param end 结束时间（不含）
+     * @return 每行包含 day（yyyy-MM-dd）、activeUsers
+     */
+    public List<Map<String, Object>> getDailyActiveUsers(LocalDateTime start, LocalDateTime end) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            LibraryStatisticsMapper mapper = session.getMapper(LibraryStatisticsMapper.class);
+            return mapper.getDailyActiveUsers(start, end);
+        }
+    }
 }
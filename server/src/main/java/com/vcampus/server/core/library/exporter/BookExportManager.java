@@ -0,0 +1,281 @@
+package com.vcampus.server.core.library.exporter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * 图书分块导出管理
+ *
+ * 导出请求只登记任务并立即返回 exportId，后台虚拟线程按窗口读取数据写入临时文件；
+ * 客户端轮询进度，完成后按块序号依次下载（每块一个请求，Base64 编码），
+ * 单个响应和服务器内存都只承载一块数据。任一块（包括最后一块）都可重复下载，
+ * 客户端收齐后调用 {@link #complete(String)} 删除临时文件，未调用时在过期后清理。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class BookExportManager {
+
+    public static final String STATE_RUNNING = "RUNNING";
+    public static final String STATE_DONE = "DONE";
+    public static final String STATE_FAILED = "FAILED";
+
+    /**
+     * 每块下载的字节数
+     */
+    public static final int CHUNK_BYTES = 256 * 1024;
+
+    private static final int MAX_SESSIONS = 8;
+    private static final long SESSION_TTL_MS = 30 * 60 * 1000L;
+
+    private static volatile BookExportManager instance;
+
+    private final Map<String, ExportSession> sessions = new ConcurrentHashMap<>();
+
+    BookExportManager() {
+    }
+
+    public static BookExportManager getInstance() {
+        if (instance == null) {
+            synchronized (BookExportManager.class) {
+                if (instance == null) {
+                    instance = new BookExportManager();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 写出一份导出文件的任务
+     */
+    @FunctionalInterface
+    public interface ExportTask {
+
+        /**
+         * @param out 写出器
+         * @param progress 已导出条数回调
+         * @return 导出条数
+         */
+        long write(SheetWriter out, LongConsumer progress) throws Exception;
+    }
+
+    /**
+     * 登记一个导出任务并在后台开始生成文件
+     *
+     * @param fileName 导出文件名，后缀决定格式
+     * @param sheetName 工作表名称
+     * @param task 写出任务
+     * @return 导出状态
+     * @throws IllegalArgumentException 不支持的导出格式
+     * @throws IllegalStateException 同时进行的导出任务过多
+     */
+    public Map<String, Object> start(String fileName, String sheetName, ExportTask task) throws IOException {
+        if (!SheetWriter.isSupported(fileName)) {
+            throw new IllegalArgumentException("不支持的导出格式，请使用.xlsx或.csv文件");
+        }
+        removeExpired();
+        if (sessions.size() >= MAX_SESSIONS) {
+            throw new IllegalStateException("当前导出任务过多，请稍后再试");
+        }
+
+        String exportId = UUID.randomUUID().toString().replace("-", "");
+        ExportSession session = new ExportSession(exportId, fileName, Files.createTempFile("book-export-", ".tmp"));
+        sessions.put(exportId, session);
+        Thread.ofVirtual().name("book-export-" + exportId).start(() -> run(session, sheetName, task));
+        synchronized (session) {
+            return session.status();
+        }
+    }
+
+    /**
+     * 查询导出状态
+     *
+     * @return 导出状态，任务不存在时返回 null
+     */
+    public Map<String, Object> getStatus(String exportId) {
+        ExportSession session = exportId == null ? null : sessions.get(exportId);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            session.touch();
+            return session.status();
+        }
+    }
+
+    /**
+     * 读取导出文件的一块
+     *
+     * @param exportId 导出任务ID
+     * @param seq 块序号，从0开始
+     * @return 块数据（data 为 Base64 编码）及是否最后一块
+     * @throws IllegalArgumentException 任务不存在、尚未完成或块序号越界
+     */
+    public Map<String, Object> readChunk(String exportId, int seq) throws IOException {
+        ExportSession session = exportId == null ? null : sessions.get(exportId);
+        if (session == null) {
+            throw new IllegalArgumentException("导出任务不存在或已过期");
+        }
+
+        byte[] bytes;
+        boolean last;
+        synchronized (session) {
+            if (!STATE_DONE.equals(session.state)) {
+                throw new IllegalArgumentException("导出文件尚未生成完成");
+            }
+            long offset = (long) seq * CHUNK_BYTES;
+            if (seq < 0 || (offset >= session.fileBytes && !(seq == 0 && session.fileBytes == 0))) {
+                throw new IllegalArgumentException("分块序号超出范围: " + seq);
+            }
+            int length = (int) Math.min(CHUNK_BYTES, session.fileBytes - offset);
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            try (FileChannel channel = FileChannel.open(session.file, StandardOpenOption.READ)) {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+            }
+            bytes = buffer.array();
+            last = offset + length >= session.fileBytes;
+            session.touch();
+        }
+
+        Map<String, Object> chunk = new HashMap<>();
+        chunk.put("exportId", exportId);
+        chunk.put("seq", seq);
+        chunk.put("data", Base64.getEncoder().encodeToString(bytes));
+        chunk.put("last", last);
+        return chunk;
+    }
+
+    /**
+     * 客户端已收齐全部分块，删除导出任务及其临时文件
+     *
+     * @param exportId 导出任务ID
+     * @return 任务是否存在
+     * @throws IllegalArgumentException 任务仍在生成中
+     */
+    public boolean complete(String exportId) {
+        ExportSession session = exportId == null ? null : sessions.get(exportId);
+        if (session == null) {
+            return false;
+        }
+        synchronized (session) {
+            if (STATE_RUNNING.equals(session.state)) {
+                throw new IllegalArgumentException("导出文件尚未生成完成");
+            }
+            discard(session);
+        }
+        return true;
+    }
+
+    private void run(ExportSession session, String sheetName, ExportTask task) {
+        long begin = System.currentTimeMillis();
+        String state = STATE_DONE;
+        String message = null;
+        long fileBytes = 0;
+        try {
+            try (SheetWriter out = SheetWriter.open(session.file, session.fileName, sheetName)) {
+                task.write(out, count -> session.exportedCount = count);
+            }
+            fileBytes = Files.size(session.file);
+            log.info("图书导出完成: exportId={}, fileName={}, 条数={}, 字节数={}, 耗时={}ms",
+                    session.exportId, session.fileName, session.exportedCount, fileBytes,
+                    System.currentTimeMillis() - begin);
+        } catch (Exception e) {
+            log.error("图书导出失败: exportId={}, fileName={}", session.exportId, session.fileName, e);
+            state = STATE_FAILED;
+            message = "生成导出文件失败: " + e.getMessage();
+            session.deleteFile();
+        }
+        synchronized (session) {
+            session.state = state;
+            session.message = message;
+            session.fileBytes = fileBytes;
+            session.touch();
+        }
+    }
+
+    private void removeExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<ExportSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            ExportSession session = iterator.next();
+            if (!STATE_RUNNING.equals(session.state) && now - session.lastAccess > SESSION_TTL_MS) {
+                iterator.remove();
+                session.deleteFile();
+            }
+        }
+    }
+
+    private void discard(ExportSession session) {
+        sessions.remove(session.exportId, session);
+        session.deleteFile();
+    }
+
+    /**
+     * 一次导出任务
+     */
+    private static final class ExportSession {
+        private final String exportId;
+        private final String fileName;
+        private final Path file;
+        private volatile String state = STATE_RUNNING;
+        private volatile long exportedCount;
+        private long fileBytes;
+        private String message;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        ExportSession(String exportId, String fileName, Path file) {
+            this.exportId = exportId;
+            this.fileName = fileName;
+            this.file = file;
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        void deleteFile() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("删除导出临时文件失败: {}", file, e);
+            }
+        }
+
+        Map<String, Object> status() {
+            Map<String, Object> status = new HashMap<>();
+            status.put("exportId", exportId);
+            status.put("fileName", fileName);
+            status.put("state", state);
+            status.put("exportedCount", exportedCount);
+            status.put("done", STATE_DONE.equals(state) || STATE_FAILED.equals(state));
+            if (STATE_DONE.equals(state)) {
+                status.put("fileBytes", fileBytes);
+                status.put("chunkBytes", CHUNK_BYTES);
+                status.put("chunkCount", Math.max(1, (fileBytes + CHUNK_BYTES - 1) / CHUNK_BYTES));
+            }
+            if (message != null) {
+                status.put("message", message);
+            }
+            return status;
+        }
+    }
+}
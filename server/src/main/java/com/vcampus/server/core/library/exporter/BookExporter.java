@@ -0,0 +1,99 @@
+package com.vcampus.server.core.library.exporter;
+
+import com.vcampus.server.core.library.entity.core.Book;
+import com.vcampus.server.core.library.entity.view.UserBorrowHistory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * 图书与借阅记录导出
+ *
+ * 按主键键集分页，每次只从数据库取一个窗口的数据写出后即丢弃，
+ * 导出全部馆藏或全部借阅流水时内存占用与数据量无关。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public final class BookExporter {
+
+    /**
+     * 每次从数据库读取的行数
+     */
+    public static final int WINDOW_SIZE = 1000;
+
+    static final List<String> BOOK_HEADERS = Arrays.asList(
+            "图书ID", "ISBN", "书名", "作者", "出版社", "出版日期", "分类", "馆藏位置", "总数量", "可借数量", "状态", "添加时间");
+
+    static final List<String> BORROW_HEADERS = Arrays.asList(
+            "借阅ID", "用户卡号", "用户姓名", "用户类型", "书名", "作者", "分类", "借阅时间", "应还时间", "归还时间", "状态", "续借次数");
+
+    private BookExporter() {
+    }
+
+    /**
+     * 按一个键之后（或之前）取一个窗口的数据
+     */
+    @FunctionalInterface
+    public interface WindowLoader<T> {
+
+        /**
+         * @param afterKey 上一窗口最后一行的键，为空时从头开始
+         * @param limit 最多返回条数
+         */
+        List<T> load(Integer afterKey, int limit);
+    }
+
+    /**
+     * 导出图书，按图书ID升序
+     *
+     * @return 导出条数
+     */
+    public static long writeBooks(SheetWriter out, WindowLoader<Book> loader, int windowSize,
+                                  LongConsumer progress) throws IOException {
+        out.writeHeader(BOOK_HEADERS);
+        return writeAll(out, loader, windowSize, Book::getBookId, book -> Arrays.asList(
+                book.getBookId(), book.getIsbn(), book.getTitle(), book.getAuthor(), book.getPublisher(),
+                book.getPublishDate(), book.getCategory(), book.getLocation(), book.getTotalQty(),
+                book.getAvailQty(), book.getStatus() != null ? book.getStatus().getDescription() : null,
+                book.getAddTime()), progress);
+    }
+
+    /**
+     * 导出借阅记录，按借阅ID倒序
+     *
+     * @return 导出条数
+     */
+    public static long writeBorrowHistory(SheetWriter out, WindowLoader<UserBorrowHistory> loader, int windowSize,
+                                          LongConsumer progress) throws IOException {
+        out.writeHeader(BORROW_HEADERS);
+        return writeAll(out, loader, windowSize, UserBorrowHistory::getTransId, history -> Arrays.asList(
+                history.getTransId(), history.getCardNum(), history.getUserName(), history.getUserType(),
+                history.getBookTitle(), history.getBookAuthor(),
+                history.getBookCategoryName() != null ? history.getBookCategoryName() : history.getBookCategory(),
+                history.getBorrowTime(), history.getDueTime(), history.getReturnTime(),
+                history.getDisplayStatus() != null ? history.getDisplayStatus() : history.getBorrowStatus(),
+                history.getRenewCount()), progress);
+    }
+
+    static <T> long writeAll(SheetWriter out, WindowLoader<T> loader, int windowSize, Function<T, Integer> keyOf,
+                             Function<T, List<?>> toRow, LongConsumer progress) throws IOException {
+        long count = 0;
+        Integer key = null;
+        while (true) {
+            List<T> window = loader.load(key, windowSize);
+            for (T item : window) {
+                out.writeRow(toRow.apply(item));
+            }
+            count += window.size();
+            progress.accept(count);
+            if (window.size() < windowSize) {
+                return count;
+            }
+            key = keyOf.apply(window.get(window.size() - 1));
+        }
+    }
+}
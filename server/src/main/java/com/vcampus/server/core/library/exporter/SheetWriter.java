@@ -0,0 +1,194 @@
+package com.vcampus.server.core.library.exporter;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 表格流式写出
+ *
+ * 行写出后即交给底层输出，调用方不需要也不应该缓存整张表：
+ * <ul>
+ *     <li>.xlsx：SXSSF 工作簿，内存中只保留最近 {@link #ROW_WINDOW} 行，更早的行刷到压缩临时文件</li>
+ *     <li>.csv：UTF-8 带 BOM（便于 Excel 直接打开），含逗号、引号或换行的字段用双引号包裹</li>
+ * </ul>
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public abstract class SheetWriter implements AutoCloseable {
+
+    /**
+     * SXSSF 内存中保留的行数
+     */
+    static final int ROW_WINDOW = 100;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 是否支持该导出格式
+     */
+    public static boolean isSupported(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase();
+        return name.endsWith(".xlsx") || name.endsWith(".csv");
+    }
+
+    /**
+     * 按文件名后缀创建写出器
+     *
+     * @param file 目标文件
+     * @param fileName 导出文件名，用于判断格式
+     * @param sheetName 工作表名称，CSV 忽略
+     * @throws IllegalArgumentException 不支持的导出格式
+     */
+    public static SheetWriter open(Path file, String fileName, String sheetName) throws IOException {
+        String name = fileName == null ? "" : fileName.toLowerCase();
+        if (name.endsWith(".xlsx")) {
+            return new XlsxWriter(file, sheetName);
+        } else if (name.endsWith(".csv")) {
+            return new CsvWriter(file);
+        }
+        throw new IllegalArgumentException("不支持的导出格式，请使用.xlsx或.csv文件");
+    }
+
+    /**
+     * 写出表头行
+     */
+    public abstract void writeHeader(List<String> headers) throws IOException;
+
+    /**
+     * 写出一行数据，数字保留为数值，日期时间格式化为文本，null 写为空单元格
+     */
+    public abstract void writeRow(List<?> values) throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+
+    static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).format(DATE_TIME_FORMAT);
+        }
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).format(DATE_FORMAT);
+        }
+        return value.toString();
+    }
+
+    /**
+     * 转义一个 CSV 字段
+     */
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static final class CsvWriter extends SheetWriter {
+
+        private final BufferedWriter writer;
+
+        CsvWriter(Path file) throws IOException {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            writer.write("\uFEFF");
+        }
+
+        @Override
+        public void writeHeader(List<String> headers) throws IOException {
+            writeRow(headers);
+        }
+
+        @Override
+        public void writeRow(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escapeCsv(format(values.get(i))));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static final class XlsxWriter extends SheetWriter {
+
+        private final Path file;
+        private final SXSSFWorkbook workbook;
+        private final SXSSFSheet sheet;
+        private int nextRow;
+
+        XlsxWriter(Path file, String sheetName) {
+            this.file = file;
+            this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+            workbook.setCompressTempFiles(true);
+            this.sheet = workbook.createSheet(sheetName);
+        }
+
+        @Override
+        public void writeHeader(List<String> headers) {
+            CellStyle style = workbook.createCellStyle();
+            Font font = workbook.createFont();
+            font.setBold(true);
+            style.setFont(font);
+
+            Row row = sheet.createRow(nextRow++);
+            for (int i = 0; i < headers.size(); i++) {
+                Cell cell = row.createCell(i);
+                cell.setCellValue(headers.get(i));
+                cell.setCellStyle(style);
+                sheet.setColumnWidth(i, Math.max(10, headers.get(i).length() * 2 + 4) * 256);
+            }
+            sheet.createFreezePane(0, 1);
+        }
+
+        @Override
+        public void writeRow(List<?> values) {
+            Row row = sheet.createRow(nextRow++);
+            for (int i = 0; i < values.size(); i++) {
+                Object value = values.get(i);
+                if (value == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(i);
+                if (value instanceof Number) {
+                    cell.setCellValue(((Number) value).doubleValue());
+                } else {
+                    cell.setCellValue(format(value));
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            } finally {
+                workbook.dispose();
+                workbook.close();
+            }
+        }
+    }
+}
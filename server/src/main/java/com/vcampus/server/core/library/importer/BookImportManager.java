@@ -0,0 +1,287 @@
+package com.vcampus.server.core.library.importer;
+
+import com.vcampus.server.core.library.dao.BookDao;
+import com.vcampus.server.core.library.entity.result.ExcelImportResult;
+import com.vcampus.server.core.library.index.BookSearchIndex;
+import com.vcampus.server.core.library.stats.StatisticsEngine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 图书分块导入管理
+ *
+ * 客户端把文件切成若干块依次上传（每块一个请求，块序号从0开始），服务器把各块追加到临时文件；
+ * 最后一块到达后在后台虚拟线程中流式解析并分批写入，客户端通过 importId 轮询进度。
+ * 单个请求和服务器内存都只承载一块数据，不再需要一次性把整个文件编码进一条消息。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class BookImportManager {
+
+    public static final String STATE_UPLOADING = "UPLOADING";
+    public static final String STATE_RUNNING = "RUNNING";
+    public static final String STATE_DONE = "DONE";
+    public static final String STATE_FAILED = "FAILED";
+
+    private static final long MAX_FILE_BYTES = 200L * 1024 * 1024;
+    // 同时上传或导入中的任务数上限；已结束的任务保留到过期以便查询结果，不占名额
+    private static final int MAX_SESSIONS = 8;
+    private static final long SESSION_TTL_MS = 30 * 60 * 1000L;
+
+    private static volatile BookImportManager instance;
+
+    private final Supplier<BookImportPipeline> pipelineFactory;
+    private final Runnable onImported;
+    private final Map<String, ImportSession> sessions = new ConcurrentHashMap<>();
+
+    BookImportManager(Supplier<BookImportPipeline> pipelineFactory, Runnable onImported) {
+        this.pipelineFactory = pipelineFactory;
+        this.onImported = onImported;
+    }
+
+    public static BookImportManager getInstance() {
+        if (instance == null) {
+            synchronized (BookImportManager.class) {
+                if (instance == null) {
+                    BookDao bookDao = BookDao.getInstance();
+                    instance = new BookImportManager(
+                            () -> new BookImportPipeline(bookDao::findExistingIsbns, bookDao::insertBatch,
+                                    BookImportPipeline.DEFAULT_CHUNK_SIZE),
+                            () -> {
+                                BookSearchIndex.getInstance().rebuild();
+                                StatisticsEngine.getInstance().invalidate();
+                            });
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 接收一块文件数据，最后一块到达后开始后台导入
+     *
+     * @param importId 导入任务ID，由客户端生成
+     * @param fileName 原始文件名
+     * @param seq 块序号，从0开始连续递增
+     * @param data 块数据
+     * @param last 是否最后一块
+     * @return 导入状态
+     * @throws IllegalArgumentException 参数无效、导入任务ID已存在、块序号不连续或文件过大
+     * @throws IllegalStateException 同时进行的导入任务过多
+     */
+    public Map<String, Object> appendChunk(String importId, String fileName, int seq, byte[] data, boolean last)
+            throws IOException {
+        if (importId == null || importId.trim().isEmpty()) {
+            throw new IllegalArgumentException("导入任务ID不能为空");
+        }
+        if (!BookSheetReader.isSupported(fileName)) {
+            throw new IllegalArgumentException("不支持的文件格式，请使用.xlsx、.xls或.csv文件");
+        }
+        removeExpired();
+
+        ImportSession session;
+        if (seq == 0) {
+            if (activeSessionCount() >= MAX_SESSIONS) {
+                throw new IllegalStateException("当前导入任务过多，请稍后再试");
+            }
+            session = new ImportSession(importId, fileName, Files.createTempFile("book-import-", ".tmp"));
+            // 同一ID的任务可能仍在上传或导入，不能覆盖它（及删除它的临时文件）
+            if (sessions.putIfAbsent(importId, session) != null) {
+                session.deleteFile();
+                throw new IllegalArgumentException("导入任务ID已存在: " + importId);
+            }
+        } else {
+            session = sessions.get(importId);
+            if (session == null) {
+                throw new IllegalArgumentException("导入任务不存在或已过期: " + importId);
+            }
+        }
+
+        synchronized (session) {
+            if (!STATE_UPLOADING.equals(session.state)) {
+                throw new IllegalArgumentException("导入任务已开始处理，不能继续上传");
+            }
+            if (seq != session.nextSeq) {
+                throw new IllegalArgumentException("分块序号不连续: 期望 " + session.nextSeq + "，实际 " + seq);
+            }
+            if (session.uploadedBytes + data.length > MAX_FILE_BYTES) {
+                discard(session);
+                throw new IllegalArgumentException("文件过大，最大支持 " + MAX_FILE_BYTES / 1024 / 1024 + "MB");
+            }
+            try (OutputStream out = Files.newOutputStream(session.file, StandardOpenOption.APPEND)) {
+                out.write(data);
+            }
+            session.nextSeq++;
+            session.uploadedBytes += data.length;
+            session.touch();
+
+            if (last) {
+                session.state = STATE_RUNNING;
+                session.pipeline = pipelineFactory.get();
+                Thread.ofVirtual().name("book-import-" + importId).start(() -> run(session));
+            }
+            return session.status();
+        }
+    }
+
+    /**
+     * 查询导入状态
+     *
+     * @return 导入状态，任务不存在时返回 null
+     */
+    public Map<String, Object> getStatus(String importId) {
+        ImportSession session = importId == null ? null : sessions.get(importId);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            session.touch();
+            return session.status();
+        }
+    }
+
+    /**
+     * 同步导入一个文件
+     *
+     * @param file 文件
+     * @param fileName 原始文件名，用于判断格式
+     * @return 导入结果
+     */
+    public ExcelImportResult importFile(Path file, String fileName) throws Exception {
+        BookImportPipeline pipeline = pipelineFactory.get();
+        try {
+            BookSheetReader.read(file, fileName, (cells, rowNumber) -> pipeline.acceptRow(rowNumber, cells));
+            pipeline.finish();
+        } finally {
+            if (pipeline.getSuccessCount() > 0) {
+                onImported.run();
+            }
+        }
+        return pipeline.toResult(fileName);
+    }
+
+    private void run(ImportSession session) {
+        long begin = System.currentTimeMillis();
+        BookImportPipeline pipeline = session.pipeline;
+        String state = STATE_DONE;
+        String message = null;
+        try {
+            BookSheetReader.read(session.file, session.fileName, (cells, rowNumber) -> pipeline.acceptRow(rowNumber, cells));
+            pipeline.finish();
+            log.info("图书导入完成: importId={}, fileName={}, 成功={}, 失败={}, 跳过={}, 耗时={}ms",
+                    session.importId, session.fileName, pipeline.getSuccessCount(), pipeline.getFailCount(),
+                    pipeline.getSkipCount(), System.currentTimeMillis() - begin);
+        } catch (Exception e) {
+            log.error("图书导入失败: importId={}, fileName={}", session.importId, session.fileName, e);
+            state = STATE_FAILED;
+            message = "解析文件失败: " + e.getMessage();
+        } finally {
+            session.deleteFile();
+            if (pipeline.getSuccessCount() > 0) {
+                try {
+                    onImported.run();
+                } catch (Exception e) {
+                    log.warn("导入后刷新图书索引失败: importId={}", session.importId, e);
+                }
+            }
+        }
+        synchronized (session) {
+            session.state = state;
+            session.message = message;
+            session.touch();
+        }
+    }
+
+    private long activeSessionCount() {
+        return sessions.values().stream().filter(ImportSession::isActive).count();
+    }
+
+    private void removeExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<ImportSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            ImportSession session = iterator.next();
+            if (!STATE_RUNNING.equals(session.state) && now - session.lastAccess > SESSION_TTL_MS) {
+                iterator.remove();
+                session.deleteFile();
+            }
+        }
+    }
+
+    private void discard(ImportSession session) {
+        sessions.remove(session.importId, session);
+        session.deleteFile();
+    }
+
+    /**
+     * 一次导入任务
+     */
+    private static final class ImportSession {
+        private final String importId;
+        private final String fileName;
+        private final Path file;
+        private int nextSeq;
+        private long uploadedBytes;
+        private volatile String state = STATE_UPLOADING;
+        private String message;
+        private BookImportPipeline pipeline;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        ImportSession(String importId, String fileName, Path file) {
+            this.importId = importId;
+            this.fileName = fileName;
+            this.file = file;
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        boolean isActive() {
+            return STATE_UPLOADING.equals(state) || STATE_RUNNING.equals(state);
+        }
+
+        void deleteFile() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("删除导入临时文件失败: {}", file, e);
+            }
+        }
+
+        Map<String, Object> status() {
+            Map<String, Object> status = new HashMap<>();
+            status.put("importId", importId);
+            status.put("fileName", fileName);
+            status.put("state", state);
+            status.put("uploadedBytes", uploadedBytes);
+            status.put("done", STATE_DONE.equals(state) || STATE_FAILED.equals(state));
+            if (pipeline != null) {
+                status.put("processedCount", pipeline.getTotalCount());
+                status.put("successCount", pipeline.getSuccessCount());
+                status.put("failCount", pipeline.getFailCount());
+                status.put("skipCount", pipeline.getSkipCount());
+                if (!STATE_RUNNING.equals(state)) {
+                    status.put("errors", pipeline.getErrors());
+                    status.put("warnings", pipeline.getWarnings());
+                }
+            }
+            if (message != null) {
+                status.put("message", message);
+            }
+            return status;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.vcampus.server.core.library.importer;
+
+import com.vcampus.server.core.library.entity.core.Book;
+import com.vcampus.server.core.library.entity.result.ExcelImportResult;
+import com.vcampus.server.core.library.enums.BookStatus;
+import com.vcampus.server.core.library.service.BookValidator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 图书导入流水线
+ *
+ * 逐行接收表格数据：第一行为表头，按列名（中文或英文）定位字段，无法识别时按默认列顺序
+ * （书名、作者、ISBN、出版社、出版日期、分类、位置、总数量）解析；每行校验后放入当前批次，
+ * 批次满 chunkSize 行时用一次 IN 查询找出已存在的 ISBN，其余图书以 JDBC 批处理在一个事务内插入。
+ * 内存中只保留一个批次，导入规模不受堆大小限制；计数器可在导入过程中被其他线程读取用于进度显示。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class BookImportPipeline {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final int MAX_MESSAGES = 100;
+
+    private static final String[] DEFAULT_COLUMNS = {
+            "title", "author", "isbn", "publisher", "publishDate", "category", "location", "totalQty"
+    };
+    private static final Map<String, String> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        alias("title", "书名", "title");
+        alias("author", "作者", "author");
+        alias("isbn", "isbn");
+        alias("publisher", "出版社", "publisher");
+        alias("publishDate", "出版日期", "publishdate", "publish_date");
+        alias("category", "分类", "category");
+        alias("location", "位置", "馆藏位置", "location");
+        alias("totalQty", "总数量", "数量", "totalqty", "total_qty");
+        alias("availQty", "可借数量", "availqty", "avail_qty");
+        alias("status", "状态", "status");
+    }
+
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+            DateTimeFormatter.ofPattern("yyyy-M-d"),
+            DateTimeFormatter.ofPattern("yyyy/M/d"),
+            DateTimeFormatter.ofPattern("yyyy年M月d日"),
+            DateTimeFormatter.ofPattern("yyyy.M.d"),
+            DateTimeFormatter.ofPattern("M/d/yy"),
+            DateTimeFormatter.ofPattern("M/d/yyyy")
+    };
+
+    private final Function<Collection<String>, Set<String>> existingIsbnFinder;
+    private final Consumer<List<Book>> batchInserter;
+    private final int chunkSize;
+
+    private Map<String, Integer> columns;
+    private final Map<String, Book> chunk = new LinkedHashMap<>();
+    private final Map<String, Integer> chunkRows = new HashMap<>();
+    private final List<String> errors = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
+
+    private volatile int totalCount;
+    private volatile int successCount;
+    private volatile int failCount;
+    private volatile int skipCount;
+
+    /**
+     * @param existingIsbnFinder 返回给定ISBN中已存在的ISBN
+     * @param batchInserter 在一个事务内批量插入一组图书，失败时抛出异常并整组回滚
+     * @param chunkSize 每批行数
+     */
+    public BookImportPipeline(Function<Collection<String>, Set<String>> existingIsbnFinder,
+                              Consumer<List<Book>> batchInserter, int chunkSize) {
+        this.existingIsbnFinder = existingIsbnFinder;
+        this.batchInserter = batchInserter;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    private static void alias(String field, String... names) {
+        for (String name : names) {
+            HEADER_ALIASES.put(name.toLowerCase(), field);
+        }
+    }
+
+    /**
+     * 接收一行表格数据
+     *
+     * @param rowNumber 行号（从1开始，用于错误提示）
+     * @param cells 单元格文本，缺失的单元格为 null
+     */
+    public void acceptRow(int rowNumber, List<String> cells) {
+        if (columns == null) {
+            columns = resolveColumns(cells);
+            return;
+        }
+        if (isBlank(cells)) {
+            return;
+        }
+
+        Book book;
+        try {
+            book = toBook(rowNumber, cells);
+        } catch (IllegalArgumentException e) {
+            totalCount++;
+            fail(e.getMessage());
+            return;
+        }
+        acceptBook(rowNumber, book);
+    }
+
+    /**
+     * 接收一本已构建的图书
+     *
+     * @param rowNumber 行号（用于错误提示）
+     * @param book 图书
+     */
+    public void acceptBook(int rowNumber, Book book) {
+        totalCount++;
+        String error = BookValidator.check(book);
+        if (error != null) {
+            fail("第" + rowNumber + "行：" + error);
+            return;
+        }
+        applyDefaults(book);
+
+        String isbn = book.getIsbn();
+        if (chunk.containsKey(isbn)) {
+            skip("第" + rowNumber + "行：ISBN与第" + chunkRows.get(isbn) + "行重复: " + isbn);
+            return;
+        }
+        chunk.put(isbn, book);
+        chunkRows.put(isbn, rowNumber);
+        if (chunk.size() >= chunkSize) {
+            flush();
+        }
+    }
+
+    /**
+     * 提交最后一个不满的批次
+     */
+    public void finish() {
+        flush();
+    }
+
+    private void flush() {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // 尚未计入跳过的行，写入失败时只有这些行计为失败
+        Collection<String> pending = chunk.keySet();
+        try {
+            Set<String> existing = existingIsbnFinder.apply(chunk.keySet());
+            List<Book> books = new ArrayList<>(chunk.size());
+            List<String> inserting = new ArrayList<>(chunk.size());
+            for (Map.Entry<String, Book> entry : chunk.entrySet()) {
+                if (existing.contains(entry.getKey())) {
+                    skip("第" + chunkRows.get(entry.getKey()) + "行：ISBN已存在: " + entry.getKey());
+                } else {
+                    books.add(entry.getValue());
+                    inserting.add(entry.getKey());
+                }
+            }
+            pending = inserting;
+            if (!books.isEmpty()) {
+                batchInserter.accept(books);
+                successCount += books.size();
+            }
+        } catch (RuntimeException e) {
+            log.error("图书批量写入失败: rows={}", pending.size(), e);
+            int firstRow = Integer.MAX_VALUE;
+            int lastRow = Integer.MIN_VALUE;
+            for (String isbn : pending) {
+                firstRow = Math.min(firstRow, chunkRows.get(isbn));
+                lastRow = Math.max(lastRow, chunkRows.get(isbn));
+            }
+            failCount += pending.size();
+            addMessage(errors, "第" + firstRow + "-" + lastRow + "行写入失败: " + e.getMessage());
+        } finally {
+            chunk.clear();
+            chunkRows.clear();
+        }
+    }
+
+    private Map<String, Integer> resolveColumns(List<String> header) {
+        Map<String, Integer> resolved = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i);
+            String field = name == null ? null : HEADER_ALIASES.get(name.trim().toLowerCase());
+            if (field != null && !resolved.containsKey(field)) {
+                resolved.put(field, i);
+            }
+        }
+        if (!resolved.containsKey("title")) {
+            resolved.clear();
+            for (int i = 0; i < DEFAULT_COLUMNS.length; i++) {
+                resolved.put(DEFAULT_COLUMNS[i], i);
+            }
+        }
+        return resolved;
+    }
+
+    private Book toBook(int rowNumber, List<String> cells) {
+        Integer totalQty = parseQuantity(rowNumber, "总数量", cell(cells, "totalQty"));
+        Integer availQty = parseQuantity(rowNumber, "可借数量", cell(cells, "availQty"));
+
+        Book book = Book.builder()
+                .title(cell(cells, "title"))
+                .author(cell(cells, "author"))
+                .isbn(cell(cells, "isbn"))
+                .publisher(cell(cells, "publisher"))
+                .category(cell(cells, "category"))
+                .location(cell(cells, "location"))
+                .totalQty(totalQty)
+                .availQty(availQty)
+                .status(parseStatus(rowNumber, cell(cells, "status")))
+                .build();
+
+        String publishDate = cell(cells, "publishDate");
+        if (publishDate != null) {
+            LocalDate date = parseDate(publishDate);
+            if (date != null) {
+                book.setPublishDate(date);
+            } else {
+                addMessage(warnings, "第" + rowNumber + "行：出版日期格式错误，已忽略: " + publishDate);
+            }
+        }
+        return book;
+    }
+
+    private String cell(List<String> cells, String field) {
+        Integer index = columns.get(field);
+        if (index == null || index >= cells.size() || cells.get(index) == null) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer parseQuantity(int rowNumber, String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            double number = Double.parseDouble(value);
+            if (number != Math.floor(number)) {
+                throw new NumberFormatException();
+            }
+            return (int) number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("第" + rowNumber + "行：" + name + "不是整数: " + value);
+        }
+    }
+
+    private BookStatus parseStatus(int rowNumber, String value) {
+        if (value == null) {
+            return null;
+        }
+        for (BookStatus status : BookStatus.values()) {
+            if (status.getCode().equalsIgnoreCase(value) || status.getDescription().equals(value)) {
+                return status;
+            }
+        }
+        addMessage(warnings, "第" + rowNumber + "行：无效的图书状态，使用默认状态: " + value);
+        return null;
+    }
+
+    static LocalDate parseDate(String value) {
+        String text = value.trim();
+        int space = text.indexOf(' ');
+        if (space > 0) {
+            text = text.substring(0, space);
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(text, format);
+            } catch (RuntimeException ignored) {
+                // 继续尝试下一个格式
+            }
+        }
+        return null;
+    }
+
+    private static void applyDefaults(Book book) {
+        book.setIsbn(book.getIsbn().trim());
+        if (book.getTotalQty() == null) {
+            book.setTotalQty(book.getAvailQty() != null ? book.getAvailQty() : 1);
+        }
+        if (book.getAvailQty() == null) {
+            book.setAvailQty(book.getTotalQty());
+        }
+        if (book.getStatus() == null) {
+            book.setStatus(BookStatus.IN_LIBRARY);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (book.getAddTime() == null) {
+            book.setAddTime(now);
+        }
+        if (book.getUpdateTime() == null) {
+            book.setUpdateTime(now);
+        }
+    }
+
+    private static boolean isBlank(List<String> cells) {
+        for (String cell : cells) {
+            if (cell != null && !cell.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void fail(String message) {
+        failCount++;
+        addMessage(errors, message);
+    }
+
+    private void skip(String message) {
+        skipCount++;
+        addMessage(warnings, message);
+    }
+
+    private synchronized void addMessage(List<String> messages, String message) {
+        if (messages.size() < MAX_MESSAGES) {
+            messages.add(message);
+        }
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public int getFailCount() {
+        return failCount;
+    }
+
+    public int getSkipCount() {
+        return skipCount;
+    }
+
+    /**
+     * 错误信息（最多 MAX_MESSAGES 条）
+     */
+    public synchronized List<String> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    /**
+     * 警告信息，包括跳过的重复ISBN（最多 MAX_MESSAGES 条）
+     */
+    public synchronized List<String> getWarnings() {
+        return new ArrayList<>(warnings);
+    }
+
+    /**
+     * 生成导入结果
+     */
+    public ExcelImportResult toResult(String fileName) {
+        String message = String.format("导入完成，成功: %d, 失败: %d, 跳过: %d", successCount, failCount, skipCount);
+        return ExcelImportResult.builder()
+                .success(successCount > 0 || (failCount == 0 && totalCount > 0))
+                .message(totalCount == 0 ? "文件中没有有效的图书数据" : message)
+                .totalCount(totalCount)
+                .successCount(successCount)
+                .failCount(failCount)
+                .skipCount(skipCount)
+                .errors(getErrors())
+                .warnings(getWarnings())
+                .fileName(fileName)
+                .importTime(LocalDateTime.now().toString())
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package com.vcampus.server.core.library.importer;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * 图书表格流式读取
+ *
+ * 把第一个工作表（或 CSV 文件）逐行交给回调，单元格统一转为显示文本：
+ * <ul>
+ *     <li>.xlsx：XSSFReader + SAX 事件模型逐行解析，内存只保留共享字符串表和当前行</li>
+ *     <li>.csv：按行读取，支持双引号包裹的字段，可带 UTF-8 BOM</li>
+ *     <li>.xls：HSSF 没有流式的用户模型，仍整体载入，只用于兼容旧格式的小文件</li>
+ * </ul>
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public final class BookSheetReader {
+
+    private BookSheetReader() {
+    }
+
+    /**
+     * 是否支持该文件格式
+     */
+    public static boolean isSupported(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase();
+        return name.endsWith(".xlsx") || name.endsWith(".xls") || name.endsWith(".csv");
+    }
+
+    /**
+     * 逐行读取文件
+     *
+     * @param file 文件
+     * @param fileName 原始文件名，用于判断格式
+     * @param rowHandler 行回调，参数为单元格文本列表和行号（从1开始）
+     * @throws IllegalArgumentException 不支持的文件格式或文件中没有工作表
+     */
+    public static void read(Path file, String fileName, ObjIntConsumer<List<String>> rowHandler) throws Exception {
+        String name = fileName.toLowerCase();
+        if (name.endsWith(".xlsx")) {
+            readXlsx(file, rowHandler);
+        } else if (name.endsWith(".csv")) {
+            readCsv(file, rowHandler);
+        } else if (name.endsWith(".xls")) {
+            readXls(file, rowHandler);
+        } else {
+            throw new IllegalArgumentException("不支持的文件格式，请使用.xlsx、.xls或.csv文件");
+        }
+    }
+
+    private static void readXlsx(Path file, ObjIntConsumer<List<String>> rowHandler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IllegalArgumentException("Excel文件中没有工作表");
+            }
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, strings,
+                        new RowCollector(rowHandler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        }
+    }
+
+    private static void readCsv(Path file, ObjIntConsumer<List<String>> rowHandler) throws Exception {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int rowNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                if (rowNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                rowHandler.accept(parseCsvLine(line), rowNumber);
+            }
+        }
+    }
+
+    private static void readXls(Path file, ObjIntConsumer<List<String>> rowHandler) throws Exception {
+        try (InputStream in = Files.newInputStream(file);
+             Workbook workbook = new HSSFWorkbook(in)) {
+            if (workbook.getNumberOfSheets() == 0) {
+                throw new IllegalArgumentException("Excel文件中没有工作表");
+            }
+            Sheet sheet = workbook.getSheetAt(0);
+            DataFormatter formatter = new DataFormatter();
+            for (Row row : sheet) {
+                List<String> cells = new ArrayList<>();
+                for (int i = 0; i < row.getLastCellNum(); i++) {
+                    Cell cell = row.getCell(i);
+                    cells.add(cell == null ? null : formatter.formatCellValue(cell));
+                }
+                rowHandler.accept(cells, row.getRowNum() + 1);
+            }
+        }
+    }
+
+    /**
+     * 解析一行 CSV，双引号内的逗号不分隔字段，连续两个双引号表示一个双引号
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (c == ',' && !inQuotes) {
+                cells.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cells.add(current.toString());
+        return cells;
+    }
+
+    /**
+     * 把 SAX 单元格事件组装成行，空缺的单元格补 null
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ObjIntConsumer<List<String>> rowHandler;
+        private List<String> cells = new ArrayList<>();
+
+        RowCollector(ObjIntConsumer<List<String>> rowHandler) {
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            rowHandler.accept(cells, rowNum + 1);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? cells.size() : new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+        }
+    }
+}
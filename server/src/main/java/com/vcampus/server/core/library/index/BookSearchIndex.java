@@ -0,0 +1,444 @@
+package com.vcampus.server.core.library.index;
+
+import com.vcampus.server.core.library.dao.BookDao;
+import com.vcampus.server.core.library.entity.core.Book;
+import com.vcampus.server.core.library.entity.search.BookSearchResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 图书全文检索索引（内存倒排索引）
+ *
+ * 索引书名、作者、出版社与 ISBN，检索时不访问数据库：
+ * - 分词见 {@link BookTokenizer}，中文按二字组匹配，字母/数字词支持前缀匹配
+ * - 按字段加权的 BM25 打分，书名权重最高；所有查询词都命中的图书优先，
+ *   没有全部命中的结果时退化为任一词命中
+ * - 分类在打分阶段过滤，不再由调用方事后筛选
+ *
+ * 首次检索时从数据库全量加载，之后由图书增删改、借还等写操作增量维护。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class BookSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float AUTHOR_WEIGHT = 2.0f;
+    private static final float PUBLISHER_WEIGHT = 1.0f;
+    private static final float ISBN_WEIGHT = 1.0f;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * 前缀匹配得分折扣，完整命中的词排在前缀命中之前
+     */
+    private static final double PREFIX_FACTOR = 0.6;
+
+    /**
+     * 单个查询词最多展开的前缀匹配词数
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    /**
+     * 单本图书更新使用的分段锁数量
+     */
+    private static final int BOOK_LOCK_STRIPES = 64;
+
+    private static volatile BookSearchIndex instance;
+
+    private final Supplier<List<Book>> loader;
+    private final Function<Integer, Optional<Book>> finder;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object[] bookLocks = new Object[BOOK_LOCK_STRIPES];
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    private final NavigableMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+    private final Map<String, Integer> isbnIndex = new HashMap<>();
+    private double totalLength;
+    private volatile boolean loaded;
+
+    BookSearchIndex(Supplier<List<Book>> loader, Function<Integer, Optional<Book>> finder) {
+        this.loader = loader;
+        this.finder = finder;
+        for (int i = 0; i < bookLocks.length; i++) {
+            bookLocks[i] = new Object();
+        }
+    }
+
+    public static BookSearchIndex getInstance() {
+        if (instance == null) {
+            synchronized (BookSearchIndex.class) {
+                if (instance == null) {
+                    BookDao bookDao = BookDao.getInstance();
+                    instance = new BookSearchIndex(bookDao::findAll, bookDao::findById);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ==================== 检索 ====================
+
+    /**
+     * 检索图书
+     *
+     * @param keyword 关键词（书名/作者/出版社/ISBN）
+     * @param category 分类代码，为空时不过滤
+     * @param offset 结果起始位置
+     * @param limit 最多返回条数
+     * @return 按相关度排序的结果，totalCount 为命中总数
+     */
+    public BookSearchResult search(String keyword, String category, int offset, int limit) {
+        ensureLoaded();
+        String categoryFilter = category == null || category.trim().isEmpty() ? null : category.trim();
+
+        lock.readLock().lock();
+        try {
+            List<Doc> ranked = rank(keyword, categoryFilter);
+            int from = Math.min(Math.max(offset, 0), ranked.size());
+            int to = (int) Math.min((long) from + Math.max(limit, 0), ranked.size());
+            List<Book> books = new ArrayList<>(to - from);
+            for (Doc doc : ranked.subList(from, to)) {
+                books.add(copyOf(doc.book));
+            }
+            return BookSearchResult.builder()
+                    .books(books)
+                    .totalCount(ranked.size())
+                    .searchTime(LocalDateTime.now())
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按给定顺序取出已索引的图书副本，不存在的ID被跳过
+     *
+     * @param bookIds 图书ID列表
+     * @return 图书副本，顺序与 bookIds 一致
+     */
+    public List<Book> getBooks(List<Integer> bookIds) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<Book> books = new ArrayList<>(bookIds.size());
+            for (Integer bookId : bookIds) {
+                Doc doc = docs.get(bookId);
+                if (doc != null) {
+                    books.add(copyOf(doc.book));
+                }
+            }
+            return books;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Doc> rank(String keyword, String category) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // ISBN 精确命中
+        String isbn = BookTokenizer.normalizeIsbn(keyword);
+        if (isbn != null && (isbn.length() == 10 || isbn.length() == 13)
+                && isbn.length() == keyword.replaceAll("[\\s-]", "").length()) {
+            Integer bookId = isbnIndex.get(isbn);
+            Doc doc = bookId == null ? null : docs.get(bookId);
+            if (doc != null && matchesCategory(doc, category)) {
+                return Collections.singletonList(doc);
+            }
+        }
+
+        List<String> terms = BookTokenizer.tokenizeQuery(keyword);
+        if (terms.isEmpty() || docs.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        double avgLength = totalLength / docs.size();
+        Map<Doc, double[]> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Doc, Double> termScores = new HashMap<>();
+            Map<Integer, Float> exact = postings.get(term);
+            if (exact != null) {
+                scoreTerm(exact, 1.0, category, avgLength, termScores);
+            }
+            if (BookTokenizer.isAlphanumeric(term)) {
+                int expansions = 0;
+                for (Map.Entry<String, Map<Integer, Float>> entry
+                        : postings.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+                    if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    scoreTerm(entry.getValue(), PREFIX_FACTOR, category, avgLength, termScores);
+                }
+            }
+            termScores.forEach((doc, score) -> {
+                double[] acc = scores.computeIfAbsent(doc, k -> new double[2]);
+                acc[0] += score;
+                acc[1] += 1;
+            });
+        }
+
+        List<Map.Entry<Doc, double[]>> matched = new ArrayList<>();
+        for (Map.Entry<Doc, double[]> entry : scores.entrySet()) {
+            if (entry.getValue()[1] >= terms.size()) {
+                matched.add(entry);
+            }
+        }
+        if (matched.isEmpty()) {
+            matched.addAll(scores.entrySet());
+        }
+        matched.sort((a, b) -> {
+            int cmp = Double.compare(b.getValue()[0], a.getValue()[0]);
+            return cmp != 0 ? cmp : Integer.compare(a.getKey().bookId, b.getKey().bookId);
+        });
+
+        List<Doc> result = new ArrayList<>(matched.size());
+        for (Map.Entry<Doc, double[]> entry : matched) {
+            result.add(entry.getKey());
+        }
+        return result;
+    }
+
+    /**
+     * 单个索引词的 BM25 得分，同一查询词展开出的多个索引词对同一本书取最高分
+     */
+    private void scoreTerm(Map<Integer, Float> posting, double factor, String category,
+                           double avgLength, Map<Doc, Double> target) {
+        int n = docs.size();
+        int df = posting.size();
+        double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        for (Map.Entry<Integer, Float> entry : posting.entrySet()) {
+            Doc doc = docs.get(entry.getKey());
+            if (doc == null || !matchesCategory(doc, category)) {
+                continue;
+            }
+            double tf = entry.getValue();
+            double norm = K1 * (1 - B + B * doc.length / avgLength);
+            double score = factor * idf * tf * (K1 + 1) / (tf + norm);
+            target.merge(doc, score, Math::max);
+        }
+    }
+
+    private static boolean matchesCategory(Doc doc, String category) {
+        return category == null || category.equalsIgnoreCase(doc.book.getCategory());
+    }
+
+    // ==================== 索引维护 ====================
+
+    /**
+     * 从数据库全量重建索引
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            long start = System.currentTimeMillis();
+            List<Book> books = loader.get();
+            docs.clear();
+            postings.clear();
+            isbnIndex.clear();
+            totalLength = 0;
+            for (Book book : books) {
+                if (book != null && book.getBookId() != null) {
+                    addDoc(book);
+                }
+            }
+            loaded = true;
+            log.info("图书检索索引构建完成: books={}, terms={}, 耗时={}ms",
+                    docs.size(), postings.size(), System.currentTimeMillis() - start);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或替换一本图书的索引
+     */
+    public void index(Book book) {
+        if (book == null || book.getBookId() == null) {
+            return;
+        }
+        synchronized (bookLock(book.getBookId())) {
+            lock.writeLock().lock();
+            try {
+                // 尚未加载时无需维护，首次检索会全量加载；在锁内判断，避免与全量加载交错时丢失更新
+                if (!loaded) {
+                    return;
+                }
+                removeDoc(book.getBookId());
+                addDoc(book);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 移除一本图书的索引
+     */
+    public void remove(Integer bookId) {
+        if (bookId == null) {
+            return;
+        }
+        synchronized (bookLock(bookId)) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    return;
+                }
+                removeDoc(bookId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 从数据库重新读取一本图书并更新索引，用于存储过程等无法直接拿到完整图书信息的写操作
+     *
+     * 读取与更新在该书的分段锁内完成，同一本书的并发刷新按顺序执行，
+     * 先读到的旧数据不会覆盖后读到的新数据；检索只受写锁影响，不等待数据库读取。
+     */
+    public void refresh(Integer bookId) {
+        if (bookId == null) {
+            return;
+        }
+        synchronized (bookLock(bookId)) {
+            try {
+                Optional<Book> book = finder.apply(bookId);
+                if (book.isPresent()) {
+                    index(book.get());
+                } else {
+                    remove(bookId);
+                }
+            } catch (Exception e) {
+                log.warn("刷新图书检索索引失败: bookId={}", bookId, e);
+            }
+        }
+    }
+
+    private Object bookLock(Integer bookId) {
+        return bookLocks[Math.floorMod(bookId, BOOK_LOCK_STRIPES)];
+    }
+
+    /**
+     * 已索引的图书数量
+     */
+    public int size() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private void addDoc(Book book) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, book.getTitle(), TITLE_WEIGHT);
+        addField(weights, book.getAuthor(), AUTHOR_WEIGHT);
+        addField(weights, book.getPublisher(), PUBLISHER_WEIGHT);
+        String isbn = BookTokenizer.normalizeIsbn(book.getIsbn());
+        if (isbn != null) {
+            weights.merge(isbn, ISBN_WEIGHT, Float::sum);
+            isbnIndex.put(isbn, book.getBookId());
+        }
+
+        float length = 0;
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(book.getBookId(), entry.getValue());
+            length += entry.getValue();
+        }
+        docs.put(book.getBookId(), new Doc(book.getBookId(), copyOf(book), weights, length, isbn));
+        totalLength += length;
+    }
+
+    private void removeDoc(Integer bookId) {
+        Doc doc = docs.remove(bookId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.weights.keySet()) {
+            Map<Integer, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(bookId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        if (doc.isbn != null) {
+            isbnIndex.remove(doc.isbn, bookId);
+        }
+        totalLength -= doc.length;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        for (String token : BookTokenizer.tokenizeDocument(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static Book copyOf(Book book) {
+        return Book.builder()
+                .bookId(book.getBookId())
+                .isbn(book.getIsbn())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .publisher(book.getPublisher())
+                .publishDate(book.getPublishDate())
+                .category(book.getCategory())
+                .location(book.getLocation())
+                .totalQty(book.getTotalQty())
+                .availQty(book.getAvailQty())
+                .status(book.getStatus())
+                .addTime(book.getAddTime())
+                .updateTime(book.getUpdateTime())
+                .build();
+    }
+
+    /**
+     * 已索引的图书
+     */
+    private static final class Doc {
+        final int bookId;
+        final Book book;
+        final Map<String, Float> weights;
+        final float length;
+        final String isbn;
+
+        Doc(int bookId, Book book, Map<String, Float> weights, float length, String isbn) {
+            this.bookId = bookId;
+            this.book = book;
+            this.weights = weights;
+            this.length = length;
+            this.isbn = isbn;
+        }
+    }
+}
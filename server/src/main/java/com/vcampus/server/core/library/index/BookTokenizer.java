@@ -0,0 +1,124 @@
+package com.vcampus.server.core.library.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 图书检索分词器
+ *
+ * 文本先做 NFKC 归一化（全角转半角）并转小写，然后切分为连续的片段：
+ * - 中日韩文字片段：建索引时输出单字与相邻二字组（bigram），查询时长度不小于 2 的片段只输出二字组，
+ *   单字查询输出单字，从而无需词典即可匹配中文书名中的任意子串
+ * - 字母/数字片段：整体作为一个词，查询时支持前缀匹配
+ * 其余字符（空格、标点、连字符等）作为分隔符。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public final class BookTokenizer {
+
+    private BookTokenizer() {
+        // 工具类，禁止实例化
+    }
+
+    /**
+     * 文档分词（建索引用），结果可能含重复词，调用方据此统计词频
+     */
+    public static List<String> tokenizeDocument(String text) {
+        List<String> tokens = new ArrayList<>();
+        split(text, tokens, true);
+        return tokens;
+    }
+
+    /**
+     * 查询分词，结果去重并保持原有顺序
+     */
+    public static List<String> tokenizeQuery(String text) {
+        List<String> tokens = new ArrayList<>();
+        split(text, tokens, false);
+        return new ArrayList<>(new LinkedHashSet<>(tokens));
+    }
+
+    /**
+     * 归一化 ISBN：只保留数字与校验位 X
+     */
+    public static String normalizeIsbn(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(isbn.length());
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append(c);
+            } else if (c == 'x' || c == 'X') {
+                sb.append('x');
+            }
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    /**
+     * 判断词是否由字母/数字组成（可做前缀匹配）
+     */
+    public static boolean isAlphanumeric(String token) {
+        return !token.isEmpty() && !isCjk(token.codePointAt(0));
+    }
+
+    private static void split(String text, List<String> out, boolean document) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder latin = new StringBuilder();
+        List<String> cjk = new ArrayList<>();
+        int i = 0;
+        while (i < normalized.length()) {
+            int cp = normalized.codePointAt(i);
+            i += Character.charCount(cp);
+            if (isCjk(cp)) {
+                flushLatin(latin, out);
+                cjk.add(new String(Character.toChars(cp)));
+            } else if (Character.isLetterOrDigit(cp)) {
+                flushCjk(cjk, out, document);
+                latin.appendCodePoint(cp);
+            } else {
+                flushLatin(latin, out);
+                flushCjk(cjk, out, document);
+            }
+        }
+        flushLatin(latin, out);
+        flushCjk(cjk, out, document);
+    }
+
+    private static void flushLatin(StringBuilder latin, List<String> out) {
+        if (latin.length() > 0) {
+            out.add(latin.toString());
+            latin.setLength(0);
+        }
+    }
+
+    private static void flushCjk(List<String> chars, List<String> out, boolean document) {
+        if (chars.isEmpty()) {
+            return;
+        }
+        if (document || chars.size() == 1) {
+            out.addAll(chars);
+        }
+        for (int i = 0; i + 1 < chars.size(); i++) {
+            out.add(chars.get(i) + chars.get(i + 1));
+        }
+        chars.clear();
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -14,6 +14,7 @@ import com.vcampus.server.core.library.entity.result.ReturnResult;
 import com.vcampus.server.core.library.entity.view.OverdueDetails;
 import com.vcampus.server.core.library.entity.view.RecentBorrow;
 import com.vcampus.server.core.library.entity.view.UserBorrowHistory;
+import com.vcampus.server.core.library.rule.BorrowCandidate;
 
 /**
  * 图书借阅记录数据访问接口 - 使用MyBatis
@@ -173,6 +174,37 @@ public interface BookBorrowMapper {
                        @Param("newDueTime") LocalDateTime newDueTime, 
                        @Param("newRenewCount") int newRenewCount);
     
+    // ==================== 借阅事务 ====================
+    
+    /**
+     * 查询借阅资格所需数据，forUpdate 为 true 时锁定图书行和用户行
+     */
+    List<BorrowCandidate> findBorrowCandidates(@Param("bookIds") List<Integer> bookIds,
+                                               @Param("cardNum") String cardNum,
+                                               @Param("forUpdate") boolean forUpdate);
+    
+    /**
+     * 批量插入借阅记录，回填 transId
+     */
+    int insertBorrows(@Param("borrows") List<BookBorrow> borrows);
+    
+    /**
+     * 可借数量减一
+     */
+    int decrementAvailQty(@Param("bookIds") List<Integer> bookIds);
+    
+    // ==================== 逾期跟踪 ====================
+    
+    /**
+     * 查询所有未归还的借阅记录（借阅中或已逾期）
+     */
+    List<BookBorrow> findActiveBorrows();
+    
+    /**
+     * 将已到期且仍在借阅中的记录标记为逾期
+     */
+    int markOverdue(@Param("transIds") List<Integer> transIds, @Param("now") LocalDateTime now);
+    
     // ==================== 存储过程调用方法 ====================
     
     /**
@@ -210,11 +242,39 @@ public interface BookBorrowMapper {
      */
     List<UserBorrowHistory> getAllUserBorrowHistory();
     
+    /**
+     * 按条件查询借阅历史，按 trans_Id 倒序键集分页 - 使用视图 v_user_borrow_history
+     * beforeTransId 为空时从最新记录开始，limit 为空时返回全部
+     */
+    List<UserBorrowHistory> findBorrowHistoryPage(@Param("beforeTransId") Integer beforeTransId,
+                                                  @Param("userSearch") String userSearch,
+                                                  @Param("bookSearch") String bookSearch,
+                                                  @Param("status") String status,
+                                                  @Param("borrowDate") String borrowDate,
+                                                  @Param("dueDate") String dueDate,
+                                                  @Param("returnDate") String returnDate,
+                                                  @Param("limit") Integer limit);
+    
+    /**
+     * 按条件统计借阅历史条数 - 使用视图 v_user_borrow_history
+     */
+    long countBorrowHistory(@Param("userSearch") String userSearch,
+                            @Param("bookSearch") String bookSearch,
+                            @Param("status") String status,
+                            @Param("borrowDate") String borrowDate,
+                            @Param("dueDate") String dueDate,
+                            @Param("returnDate") String returnDate);
+    
     /**
      * 查询逾期详情 - 使用视图 v_overdue_details
      */
     List<OverdueDetails> getOverdueDetails();
     
+    /**
+     * 按借阅记录ID查询逾期详情 - 使用视图 v_overdue_details
+     */
+    List<OverdueDetails> getOverdueDetailsByTransIds(@Param("transIds") List<Integer> transIds);
+    
     /**
      * 查询最近借阅记录 - 使用视图 v_recent_borrows
      */
@@ -240,6 +300,18 @@ public interface BookBorrowMapper {
      */
     int getTodayOverdueCount(@Param("today") String today);
     
+    /**
+     * 按天统计时间范围内的借阅与归还数量
+     * 每行包含 kind（borrow/return）、day（yyyy-MM-dd）、cnt
+     */
+    List<Map<String, Object>> getDailyTransCounts(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
+    /**
+     * 按图书、用户、天汇总时间范围内的借阅次数
+     * 每行包含 bookId、title、author、category、cardNum、userName、day（yyyy-MM-dd）、cnt、lastBorrow
+     */
+    List<Map<String, Object>> getDailyBorrowPairs(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    
     /**
      * 获取最近7天的借阅趋势数据
      */
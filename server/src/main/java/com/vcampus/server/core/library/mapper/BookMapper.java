@@ -40,6 +40,11 @@ public interface BookMapper {
      */
     Book findByIsbn(@Param("isbn") String isbn);
     
+    /**
+     * 查询给定ISBN中已存在的ISBN
+     */
+    List<String> findExistingIsbns(@Param("isbns") java.util.Collection<String> isbns);
+    
     /**
      * 根据书名模糊查询
      */
@@ -189,6 +194,14 @@ public interface BookMapper {
      */
     List<Book> findByPage(@Param("offset") int offset, @Param("size") int size);
     
+    /**
+     * 按图书ID键集分页查询，afterId 为空时从头开始，分类和状态为空时不过滤
+     */
+    List<Book> findAfterId(@Param("afterId") Integer afterId,
+                           @Param("category") String category,
+                           @Param("status") com.vcampus.server.core.library.enums.BookStatus status,
+                           @Param("limit") int limit);
+    
     /**
      * 根据状态查询图书
      */
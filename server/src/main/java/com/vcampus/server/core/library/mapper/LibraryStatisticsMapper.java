@@ -5,7 +5,10 @@ import com.vcampus.server.core.library.entity.view.UserBorrowStatistics;
 import com.vcampus.server.core.library.entity.view.CategoryStatistics;
 import com.vcampus.server.core.library.entity.view.OverdueStatistics;
 import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 图书馆统计信息数据访问接口 - 使用MyBatis
@@ -38,4 +41,24 @@ public interface LibraryStatisticsMapper {
      * 查询逾期统计 - 使用视图 v_overdue_statistics
      */
     List<OverdueStatistics> getOverdueStatistics();
+    
+    // ==================== 聚合统计方法 ====================
+    
+    /**
+     * 按分类、状态统计图书
+     * 每行包含 category、status、bookCount、totalQty
+     */
+    List<Map<String, Object>> getBookStatusCounts();
+    
+    /**
+     * 统计借阅记录状态
+     * 包含 total、borrowed、returned、overdue、renewed、borrowers
+     */
+    Map<String, Object> getBorrowStatusCounts();
+    
+    /**
+     * 按天统计有借阅或归还记录的不重复用户数
+     * 每行包含 day（yyyy-MM-dd）、activeUsers
+     */
+    List<Map<String, Object>> getDailyActiveUsers(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
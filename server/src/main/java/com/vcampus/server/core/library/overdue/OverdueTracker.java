@@ -0,0 +1,347 @@
+package com.vcampus.server.core.library.overdue;
+
+import com.vcampus.server.core.library.dao.BookBorrowDao;
+import com.vcampus.server.core.library.entity.core.BookBorrow;
+import com.vcampus.server.core.library.enums.BorrowStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * 逾期跟踪
+ *
+ * 启动时一次载入所有未归还的借阅记录，借阅中的记录按应还时间放入优先队列，
+ * 定时任务只在队首到期时醒来，把到期的记录每 {@value #BATCH_SIZE} 条一批标记为 OVERDUE，
+ * 不再定期扫描整张借阅表。借阅、续借、归还成功后由 {@link BookBorrowDao} 通知本类更新队列。
+ * 当前逾期的记录数与涉及用户数同时在内存中维护，供逾期统计直接读取。
+ *
+ * 队列中被续借或归还替换掉的旧项不主动删除，出队时与当前记录比对后丢弃。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class OverdueTracker {
+
+    private static final int BATCH_SIZE = 200;
+    private static final long RETRY_DELAY_MILLIS = 30_000;
+    private static final long MAX_SLEEP_MILLIS = 60 * 60_000L;
+
+    private static volatile OverdueTracker instance;
+
+    private final Supplier<List<BookBorrow>> activeLoader;
+    private final BiFunction<List<Integer>, LocalDateTime, Integer> overdueMarker;
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+            Comparator.comparing((Entry e) -> e.dueTime).thenComparing(e -> e.transId));
+    private final Map<Integer, Entry> borrowed = new HashMap<>();
+    private final Map<Integer, Entry> overdue = new HashMap<>();
+    private final Map<String, Integer> overdueByUser = new HashMap<>();
+
+    private volatile boolean loaded;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> wakeup;
+    private long wakeupAt;
+
+    OverdueTracker(Supplier<List<BookBorrow>> activeLoader,
+                   BiFunction<List<Integer>, LocalDateTime, Integer> overdueMarker) {
+        this.activeLoader = activeLoader;
+        this.overdueMarker = overdueMarker;
+    }
+
+    public static OverdueTracker getInstance() {
+        if (instance == null) {
+            synchronized (OverdueTracker.class) {
+                if (instance == null) {
+                    BookBorrowDao dao = BookBorrowDao.getInstance();
+                    instance = new OverdueTracker(dao::findActiveBorrows, dao::markOverdue);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ==================== 生命周期 ====================
+
+    /**
+     * 载入未归还的借阅记录并启动定时标记；停机期间已到期的记录立即标记
+     */
+    public void start() {
+        synchronized (this) {
+            if (scheduler != null) {
+                return;
+            }
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.error("逾期跟踪载入失败，逾期查询将直接访问数据库", e);
+                return;
+            }
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "vcampus-overdue");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        scheduler.execute(this::runFlush);
+    }
+
+    /**
+     * 停止定时标记
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        wakeup = null;
+    }
+
+    /**
+     * 是否已载入；未载入时调用方应回退到数据库查询
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    synchronized void load() {
+        long begin = System.currentTimeMillis();
+        queue.clear();
+        borrowed.clear();
+        overdue.clear();
+        overdueByUser.clear();
+        for (BookBorrow borrow : activeLoader.get()) {
+            put(borrow);
+        }
+        loaded = true;
+        log.info("逾期跟踪载入完成: 借阅中={}, 已逾期={}, 耗时={}ms",
+                borrowed.size(), overdue.size(), System.currentTimeMillis() - begin);
+    }
+
+    // ==================== 增量维护 ====================
+
+    /**
+     * 借阅或续借成功后登记（覆盖）借阅记录的应还时间
+     */
+    public void track(BookBorrow borrow) {
+        if (!loaded || borrow == null || borrow.getTransId() == null) {
+            return;
+        }
+        synchronized (this) {
+            remove(borrow.getTransId());
+            put(borrow);
+        }
+        scheduleNext(0);
+    }
+
+    /**
+     * 归还或删除后移除借阅记录
+     */
+    public void untrack(Integer transId) {
+        if (!loaded || transId == null) {
+            return;
+        }
+        synchronized (this) {
+            remove(transId);
+        }
+    }
+
+    /**
+     * 借阅记录被直接标记为逾期（如管理员手动处理）
+     */
+    public void markedOverdue(Integer transId) {
+        if (!loaded || transId == null) {
+            return;
+        }
+        synchronized (this) {
+            Entry entry = borrowed.remove(transId);
+            if (entry != null) {
+                addOverdue(entry);
+            }
+        }
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 当前逾期未还的记录数
+     */
+    public synchronized int overdueCount() {
+        return overdue.size();
+    }
+
+    /**
+     * 当前有逾期未还图书的用户数
+     */
+    public synchronized int overdueUserCount() {
+        return overdueByUser.size();
+    }
+
+    /**
+     * 当前逾期未还的记录ID，按应还时间升序（逾期最久的在前）
+     *
+     * @param limit 最多返回条数
+     */
+    public synchronized List<Integer> overdueTransIds(int limit) {
+        List<Entry> entries = new ArrayList<>(overdue.values());
+        entries.sort(queue.comparator());
+        List<Integer> ids = new ArrayList<>(Math.min(limit, entries.size()));
+        for (Entry entry : entries) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(entry.transId);
+        }
+        return ids;
+    }
+
+    // ==================== 到期标记 ====================
+
+    private void runFlush() {
+        synchronized (this) {
+            wakeup = null;
+        }
+        long retryDelay = 0;
+        try {
+            flushExpired(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("标记逾期借阅记录失败，{}秒后重试", RETRY_DELAY_MILLIS / 1000, e);
+            retryDelay = RETRY_DELAY_MILLIS;
+        }
+        scheduleNext(retryDelay);
+    }
+
+    /**
+     * 把应还时间不晚于 now 的借阅记录分批标记为逾期
+     *
+     * @return 标记的记录数
+     */
+    int flushExpired(LocalDateTime now) {
+        List<Entry> expired = new ArrayList<>();
+        synchronized (this) {
+            while (!queue.isEmpty() && !queue.peek().dueTime.isAfter(now)) {
+                Entry entry = queue.poll();
+                if (borrowed.get(entry.transId) == entry) {
+                    expired.add(entry);
+                }
+            }
+        }
+
+        int marked = 0;
+        for (int from = 0; from < expired.size(); from += BATCH_SIZE) {
+            List<Entry> batch = expired.subList(from, Math.min(from + BATCH_SIZE, expired.size()));
+            List<Integer> transIds = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                transIds.add(entry.transId);
+            }
+            try {
+                overdueMarker.apply(transIds, now);
+            } catch (RuntimeException e) {
+                requeue(expired.subList(from, expired.size()));
+                throw e;
+            }
+            // 更新条数少于批大小时，差额是刚被归还或续借的记录，由对应的通知修正
+            synchronized (this) {
+                for (Entry entry : batch) {
+                    if (borrowed.remove(entry.transId, entry)) {
+                        addOverdue(entry);
+                        marked++;
+                    }
+                }
+            }
+        }
+        if (marked > 0) {
+            log.info("标记逾期借阅记录: {} 条", marked);
+        }
+        return marked;
+    }
+
+    private synchronized void requeue(List<Entry> entries) {
+        for (Entry entry : entries) {
+            if (borrowed.get(entry.transId) == entry) {
+                queue.add(entry);
+            }
+        }
+    }
+
+    /**
+     * 按队首的应还时间安排下一次唤醒；已有更早的唤醒时不重复安排
+     */
+    private synchronized void scheduleNext(long minDelayMillis) {
+        if (scheduler == null) {
+            return;
+        }
+        while (!queue.isEmpty() && borrowed.get(queue.peek().transId) != queue.peek()) {
+            queue.poll();
+        }
+        if (queue.isEmpty()) {
+            return;
+        }
+        long untilDue = Duration.between(LocalDateTime.now(), queue.peek().dueTime).toMillis();
+        long delay = Math.min(Math.max(minDelayMillis, untilDue), MAX_SLEEP_MILLIS);
+        long at = System.currentTimeMillis() + delay;
+        if (wakeup != null) {
+            if (wakeupAt <= at) {
+                return;
+            }
+            wakeup.cancel(false);
+        }
+        wakeup = scheduler.schedule(this::runFlush, delay, TimeUnit.MILLISECONDS);
+        wakeupAt = at;
+    }
+
+    // ==================== 内部状态 ====================
+
+    private void put(BookBorrow borrow) {
+        if (borrow.getDueTime() == null || borrow.getReturnTime() != null) {
+            return;
+        }
+        Entry entry = new Entry(borrow.getTransId(), borrow.getCardNum(), borrow.getDueTime());
+        if (borrow.getStatus() == BorrowStatus.OVERDUE) {
+            addOverdue(entry);
+        } else if (borrow.getStatus() == BorrowStatus.BORROWED) {
+            borrowed.put(entry.transId, entry);
+            queue.add(entry);
+        }
+    }
+
+    private void remove(Integer transId) {
+        borrowed.remove(transId);
+        Entry entry = overdue.remove(transId);
+        if (entry != null) {
+            overdueByUser.computeIfPresent(entry.cardNum, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void addOverdue(Entry entry) {
+        if (overdue.put(entry.transId, entry) == null) {
+            overdueByUser.merge(entry.cardNum, 1, Integer::sum);
+        }
+    }
+
+    private static final class Entry {
+        final Integer transId;
+        final String cardNum;
+        final LocalDateTime dueTime;
+
+        Entry(Integer transId, String cardNum, LocalDateTime dueTime) {
+            this.transId = transId;
+            this.cardNum = cardNum;
+            this.dueTime = dueTime;
+        }
+    }
+}
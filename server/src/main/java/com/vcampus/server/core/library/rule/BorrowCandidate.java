@@ -0,0 +1,23 @@
+package com.vcampus.server.core.library.rule;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 借阅资格判断所需的数据 - 一条查询同时取出图书库存与用户当前借阅情况
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BorrowCandidate {
+    private Integer bookId; // 图书ID
+    private Integer availQty; // 当前可借数量
+    private boolean userExists; // 借阅用户是否存在
+    private int currentBorrowCount; // 用户当前借阅中的数量
+    private boolean alreadyBorrowed; // 用户是否正在借阅该图书
+}
@@ -0,0 +1,76 @@
+package com.vcampus.server.core.library.rule;
+
+import com.vcampus.server.core.library.entity.core.BorrowRule;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 借阅资格判断
+ *
+ * 输入一次查询得到的 {@link BorrowCandidate} 和缓存中的借阅规则，不再访问数据库。
+ * 一次借多本时按请求顺序依次判断，前面已通过的图书计入借阅数量上限。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public final class BorrowEligibility {
+
+    private BorrowEligibility() {
+    }
+
+    /**
+     * 判断每本图书能否借阅
+     *
+     * @param bookIds 请求借阅的图书ID，按顺序判断
+     * @param candidates 按图书ID索引的查询结果，不存在的图书没有对应项
+     * @param rule 用户类型对应的借阅规则，为空表示未配置
+     * @return 与 bookIds 一一对应的拒绝原因，可以借阅的位置为 null
+     */
+    public static List<String> evaluate(List<Integer> bookIds, Map<Integer, BorrowCandidate> candidates,
+                                        BorrowRule rule) {
+        List<String> reasons = new ArrayList<>(bookIds.size());
+        Set<Integer> seen = new HashSet<>();
+        int accepted = 0;
+        for (Integer bookId : bookIds) {
+            String reason = reject(bookId, candidates.get(bookId), rule, accepted, seen);
+            if (reason == null) {
+                accepted++;
+            }
+            reasons.add(reason);
+        }
+        return reasons;
+    }
+
+    private static String reject(Integer bookId, BorrowCandidate candidate, BorrowRule rule, int accepted,
+                                 Set<Integer> seen) {
+        if (rule == null) {
+            return "未找到用户类型的借阅规则";
+        }
+        if (!Boolean.TRUE.equals(rule.getIsActive())) {
+            return "借阅规则未启用";
+        }
+        if (bookId == null || !seen.add(bookId)) {
+            return "重复的图书";
+        }
+        if (candidate == null) {
+            return "图书不存在";
+        }
+        if (!candidate.isUserExists()) {
+            return "用户不存在";
+        }
+        if (candidate.getAvailQty() == null || candidate.getAvailQty() <= 0) {
+            return "图书库存不足";
+        }
+        if (candidate.isAlreadyBorrowed()) {
+            return "已借阅该图书";
+        }
+        if (!rule.canBorrow(candidate.getCurrentBorrowCount() + accepted)) {
+            return "已达个人最大借书量（" + rule.getMaxBorrowCount() + "本）";
+        }
+        return null;
+    }
+}
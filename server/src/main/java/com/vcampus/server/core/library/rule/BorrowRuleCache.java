@@ -0,0 +1,81 @@
+package com.vcampus.server.core.library.rule;
+
+import com.vcampus.server.core.common.cache.GenerationalSnapshot;
+import com.vcampus.server.core.library.dao.BorrowRuleDao;
+import com.vcampus.server.core.library.entity.core.BorrowRule;
+import com.vcampus.server.core.library.enums.UserType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 借阅规则缓存
+ *
+ * 规则只有几条且极少变化，借阅、续借每次都查一遍规则表没有必要。
+ * 启用的规则按用户类型整体载入内存，{@link BorrowRuleDao} 的写操作会调用 {@link #invalidate()}；
+ * 另设 {@value #TTL_SECONDS} 秒过期，兜底直接改库的情况（失效规则见 {@link GenerationalSnapshot}）。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class BorrowRuleCache {
+
+    private static final long TTL_SECONDS = 300;
+
+    private static volatile BorrowRuleCache instance;
+
+    private final Supplier<List<BorrowRule>> activeRulesLoader;
+
+    private final GenerationalSnapshot<Map<UserType, BorrowRule>> rules;
+
+    BorrowRuleCache(Supplier<List<BorrowRule>> activeRulesLoader) {
+        this.activeRulesLoader = activeRulesLoader;
+        this.rules = new GenerationalSnapshot<>("借阅规则", this::load, TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static BorrowRuleCache getInstance() {
+        if (instance == null) {
+            synchronized (BorrowRuleCache.class) {
+                if (instance == null) {
+                    instance = new BorrowRuleCache(BorrowRuleDao.getInstance()::findAllActiveRules);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 获取用户类型对应的启用规则，返回的对象为共享实例，调用方不应修改
+     */
+    public Optional<BorrowRule> get(UserType userType) {
+        if (userType == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(rules.get().get(userType));
+    }
+
+    /**
+     * 丢弃缓存，下次查询时重新载入
+     */
+    public void invalidate() {
+        rules.invalidate();
+    }
+
+    private Map<UserType, BorrowRule> load() {
+        Map<UserType, BorrowRule> loaded = new EnumMap<>(UserType.class);
+        for (BorrowRule rule : activeRulesLoader.get()) {
+            if (rule.getUserType() != null) {
+                loaded.putIfAbsent(rule.getUserType(), rule);
+            }
+        }
+        log.info("载入借阅规则: {} 条", loaded.size());
+        return Collections.unmodifiableMap(loaded);
+    }
+}
@@ -1,12 +1,16 @@
 package com.vcampus.server.core.library.service;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 
+import com.vcampus.server.core.common.page.CursorPage;
 import com.vcampus.server.core.library.entity.core.Book;
 import com.vcampus.server.core.library.entity.result.BookManagementResult;
 import com.vcampus.server.core.library.entity.result.ExcelImportResult;
+import com.vcampus.server.core.library.entity.search.BookSearchResult;
 import com.vcampus.server.core.library.entity.search.PopularBook;
+import com.vcampus.server.core.library.stats.BorrowRanking;
 import com.vcampus.server.core.library.enums.BookStatus;
 
 /**
@@ -77,6 +81,16 @@ public interface BookManagementService {
      */
     List<Book> getBooksByPage(int page, int size);
     
+    /**
+     * 按图书ID游标分页查询图书
+     * 
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param size 每页大小
+     * @return 分页结果，总数取自检索索引
+     * @throws IllegalArgumentException 游标无效
+     */
+    CursorPage<Book> getBooksPage(String cursor, int size);
+    
     /**
      * 根据书名模糊查询
      * 
@@ -131,13 +145,24 @@ public interface BookManagementService {
     
     /**
      * 智能搜索图书
-     * 根据关键词自动判断搜索类型：ISBN精确搜索、分类精确搜索、或书名/作者/出版社模糊搜索
+     * 基于内存检索索引匹配ISBN、书名、作者、出版社，结果按相关度排序
      * 
      * @param keyword 搜索关键词
      * @return 图书列表
      */
     List<Book> smartSearchBooks(String keyword);
     
+    /**
+     * 智能搜索图书（分类过滤与分页）
+     * 
+     * @param keyword 搜索关键词
+     * @param category 分类代码（可选）
+     * @param page 页码，从1开始
+     * @param size 每页数量，小于等于0时返回全部结果
+     * @return 当前页图书与命中总数
+     */
+    BookSearchResult smartSearchBooks(String keyword, String category, int page, int size);
+    
     /**
      * 获取热门图书
      * 
@@ -146,6 +171,16 @@ public interface BookManagementService {
      */
     List<PopularBook> getPopularBooks(int limit);
     
+    /**
+     * 按统计窗口与分类获取热门图书
+     * 
+     * @param category 分类代码，为空时不限分类
+     * @param period 统计窗口（近7天/30天/365天）
+     * @param limit 限制数量
+     * @return 按借阅次数降序排列的图书
+     */
+    List<Book> getPopularBooks(String category, BorrowRanking.Period period, int limit);
+    
     // ==================== 批量操作 ====================
     
     /**
@@ -193,13 +228,27 @@ public interface BookManagementService {
     ExcelImportResult importBooksFromExcel(InputStream inputStream, String fileName);
     
     /**
-     * 导出图书信息到Excel
+     * 开始导出图书，后台按窗口读取数据并写入导出文件
      * 
-     * @param books 图书列表
-     * @param fileName 文件名
-     * @return 导出结果
+     * @param fileName 导出文件名，.xlsx 或 .csv
+     * @param category 分类，为空时不过滤
+     * @param status 图书状态，为空时不过滤
+     * @return 导出状态，包含 exportId
+     * @throws IllegalArgumentException 不支持的导出格式
+     * @throws IllegalStateException 同时进行的导出任务过多
+     */
+    java.util.Map<String, Object> startBookExport(String fileName, String category, BookStatus status) throws IOException;
+    
+    /**
+     * 开始导出借阅记录，过滤条件与借阅记录搜索相同
+     * 
+     * @param fileName 导出文件名，.xlsx 或 .csv
+     * @return 导出状态，包含 exportId
+     * @throws IllegalArgumentException 不支持的导出格式
+     * @throws IllegalStateException 同时进行的导出任务过多
      */
-    BookManagementResult exportBooksToExcel(List<Book> books, String fileName);
+    java.util.Map<String, Object> startBorrowHistoryExport(String fileName, String userSearch, String bookSearch, String status,
+                                                           String borrowDate, String dueDate, String returnDate) throws IOException;
     
     // ==================== 统计功能 ====================
     
@@ -272,6 +321,22 @@ public interface BookManagementService {
      */
     List<java.util.Map<String, Object>> searchBorrowRecords(String userSearch, String bookSearch, String status, String borrowDate, String dueDate, String returnDate);
     
+    /**
+     * 游标分页搜索借阅记录，按借阅记录ID倒序
+     * 
+     * @param userSearch 用户搜索关键词
+     * @param bookSearch 图书搜索关键词
+     * @param status 借阅状态
+     * @param borrowDate 借阅日期
+     * @param dueDate 应还日期
+     * @param returnDate 归还日期
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param size 每页大小
+     * @return 分页结果
+     * @throws IllegalArgumentException 游标无效
+     */
+    CursorPage<java.util.Map<String, Object>> searchBorrowRecordsPage(String userSearch, String bookSearch, String status, String borrowDate, String dueDate, String returnDate, String cursor, int size);
+    
     /**
      * 减少图书副本
      * 
@@ -354,14 +419,14 @@ public interface BookManagementService {
     /**
      * 获取用户借阅排名
      * 
-     * @return 用户借阅排名列表，最多返回前10名
+     * @return 近一年用户借阅排名列表，最多返回前10名
      */
     List<java.util.Map<String, Object>> getUserBorrowRanking();
     
     /**
      * 获取所有分类列表
      * 
-     * @return 分类列表，包含分类代码和名称
+     * @return 只读的分类列表，包含分类代码和名称
      */
     List<java.util.Map<String, Object>> getAllCategories();
 }
@@ -0,0 +1,56 @@
+package com.vcampus.server.core.library.service;
+
+import com.vcampus.server.core.library.entity.core.Book;
+
+/**
+ * 图书字段校验
+ *
+ * 图书管理的新增/修改与批量导入共用同一套规则。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public final class BookValidator {
+
+    private BookValidator() {
+        // 工具类，禁止实例化
+    }
+
+    /**
+     * 校验图书的必填字段与副本数
+     *
+     * @param book 图书
+     * @return 第一条不通过的原因，全部通过时返回 null
+     */
+    public static String check(Book book) {
+        if (book == null) {
+            return "图书信息不能为空";
+        }
+        if (isBlank(book.getTitle())) {
+            return "书名不能为空";
+        }
+        if (isBlank(book.getAuthor())) {
+            return "作者不能为空";
+        }
+        if (isBlank(book.getIsbn())) {
+            return "ISBN不能为空";
+        }
+        if (isBlank(book.getPublisher())) {
+            return "出版社不能为空";
+        }
+        if (book.getTotalQty() != null && book.getTotalQty() < 0) {
+            return "总副本数不能小于0";
+        }
+        if (book.getAvailQty() != null && book.getAvailQty() < 0) {
+            return "可借副本数不能小于0";
+        }
+        if (book.getTotalQty() != null && book.getAvailQty() != null && book.getAvailQty() > book.getTotalQty()) {
+            return "可借副本数不能大于总副本数";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
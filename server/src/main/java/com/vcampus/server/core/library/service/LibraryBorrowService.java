@@ -33,6 +33,16 @@ public interface LibraryBorrowService {
      */
     BorrowResult borrowBook(Integer bookId, String cardNum, UserType userType);
     
+    /**
+     * 为同一用户一次借阅多本图书（前台批量借书）
+     * 每本书单独判断资格，可借的图书在同一事务内完成借阅
+     * @param bookIds 图书ID列表
+     * @param cardNum 用户卡号
+     * @param userType 用户类型
+     * @return 与 bookIds 一一对应的借阅结果
+     */
+    List<BorrowResult> borrowBooks(List<Integer> bookIds, String cardNum, UserType userType);
+    
     /**
      * 归还图书
      * @param transId 借阅记录ID
@@ -1,25 +1,40 @@
 package com.vcampus.server.core.library.service.impl;
 
+import com.vcampus.server.core.common.page.CursorPage;
+import com.vcampus.server.core.common.page.PageCursor;
+import com.vcampus.server.core.library.category.CategoryRegistry;
+import com.vcampus.server.core.library.constant.LibraryConstant;
 import com.vcampus.server.core.library.dao.BookDao;
 import com.vcampus.server.core.library.dao.BookBorrowDao;
 import com.vcampus.server.core.library.entity.core.Book;
+import com.vcampus.server.core.library.entity.view.UserBorrowHistory;
 import com.vcampus.server.core.library.entity.result.BookManagementResult;
 import com.vcampus.server.core.library.entity.result.ExcelImportResult;
+import com.vcampus.server.core.library.entity.search.BookSearchResult;
 import com.vcampus.server.core.library.entity.search.PopularBook;
 import com.vcampus.server.core.library.enums.BookStatus;
+import com.vcampus.server.core.library.exporter.BookExportManager;
+import com.vcampus.server.core.library.exporter.BookExporter;
+import com.vcampus.server.core.library.importer.BookImportManager;
+import com.vcampus.server.core.library.importer.BookImportPipeline;
+import com.vcampus.server.core.library.importer.BookSheetReader;
+import com.vcampus.server.core.library.index.BookSearchIndex;
+import com.vcampus.server.core.library.overdue.OverdueTracker;
 import com.vcampus.server.core.library.service.BookManagementService;
+import com.vcampus.server.core.library.service.BookValidator;
+import com.vcampus.server.core.library.stats.BorrowRanking;
+import com.vcampus.server.core.library.stats.BorrowRollup;
+import com.vcampus.server.core.library.stats.StatisticsEngine;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.time.LocalDate;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-
 /**
  * 图书管理服务实现类
  * 
@@ -31,10 +46,12 @@ public class BookManagementServiceImpl implements BookManagementService {
     
     private final BookDao bookDao;
     private final BookBorrowDao bookBorrowDao;
+    private final BookSearchIndex searchIndex;
     
     public BookManagementServiceImpl() {
         this.bookDao = BookDao.getInstance();
         this.bookBorrowDao = BookBorrowDao.getInstance();
+        this.searchIndex = BookSearchIndex.getInstance();
     }
     
     // ==================== 基础CRUD操作 ====================
@@ -71,6 +88,7 @@ public class BookManagementServiceImpl implements BookManagementService {
             
             // 4. 保存图书
             Book savedBook = bookDao.save(book);
+            searchIndex.refresh(savedBook.getBookId());
             
             log.info("图书添加成功: bookId={}, title={}", savedBook.getBookId(), savedBook.getTitle());
             return BookManagementResult.success("图书添加成功", savedBook);
@@ -113,6 +131,7 @@ public class BookManagementServiceImpl implements BookManagementService {
             
             // 6. 更新图书
             Book updatedBook = bookDao.save(book);
+            searchIndex.refresh(updatedBook.getBookId());
             
             log.info("图书更新成功: bookId={}, title={}", updatedBook.getBookId(), updatedBook.getTitle());
             return BookManagementResult.success("图书更新成功", updatedBook);
@@ -146,6 +165,7 @@ public class BookManagementServiceImpl implements BookManagementService {
             
             // 4. 删除图书
             bookDao.deleteById(bookId);
+            searchIndex.remove(bookId);
             
             log.info("图书删除成功: bookId={}", bookId);
             return BookManagementResult.success("图书删除成功", bookId);
@@ -243,6 +263,19 @@ public class BookManagementServiceImpl implements BookManagementService {
         }
     }
     
+    @Override
+    public CursorPage<Book> getBooksPage(String cursor, int size) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        Integer afterId = pageCursor != null ? pageCursor.getIntKey(0) : null;
+        if (size < 1) size = 10;
+        log.info("游标分页查询图书: afterId={}, size={}", afterId, size);
+        
+        // 总数取自检索索引，索引随图书增删增量维护，不必每页 COUNT
+        long total = pageCursor != null ? pageCursor.getTotalCount() : searchIndex.size();
+        List<Book> rows = bookDao.findAfterId(afterId, size + 1);
+        return PageCursor.page(rows, size, total, book -> new String[]{String.valueOf(book.getBookId())});
+    }
+    
     @Override
     public List<Book> searchBooksByTitle(String title) {
         log.info("根据书名搜索图书: title={}", title);
@@ -369,27 +402,7 @@ public class BookManagementServiceImpl implements BookManagementService {
                 return new ArrayList<>();
             }
             
-            String trimmedKeyword = keyword.trim();
-            List<Book> books = new ArrayList<>();
-            
-            // 1. 判断是否为ISBN格式（精确搜索）
-            if (isISBN(trimmedKeyword)) {
-                log.info("检测到ISBN格式，进行精确搜索");
-                Optional<Book> bookOpt = bookDao.findByIsbn(trimmedKeyword);
-                if (bookOpt.isPresent()) {
-                    books.add(bookOpt.get());
-                }
-            }
-            // 2. 判断是否为分类（精确搜索）
-            else if (isCategory(trimmedKeyword)) {
-                log.info("检测到分类格式，进行精确搜索");
-                books = bookDao.findByCategory(trimmedKeyword);
-            }
-            // 3. 否则进行模糊搜索（书名、作者、出版社）
-            else {
-                log.info("进行模糊搜索: {}", trimmedKeyword);
-                books = bookDao.searchBooks(trimmedKeyword);
-            }
+            List<Book> books = searchIndex.search(keyword.trim(), null, 0, Integer.MAX_VALUE).getBooks();
             
             log.info("智能搜索图书成功: count={}", books.size());
             return books;
@@ -400,6 +413,32 @@ public class BookManagementServiceImpl implements BookManagementService {
         }
     }
     
+    @Override
+    public BookSearchResult smartSearchBooks(String keyword, String category, int page, int size) {
+        log.info("智能搜索图书: keyword={}, category={}, page={}, size={}", keyword, category, page, size);
+        
+        if (keyword == null || keyword.trim().isEmpty()) {
+            log.warn("搜索关键词为空");
+            return BookSearchResult.builder()
+                    .books(new ArrayList<>())
+                    .totalCount(0)
+                    .searchTime(LocalDateTime.now())
+                    .build();
+        }
+        
+        BookSearchResult result;
+        if (size <= 0) {
+            result = searchIndex.search(keyword.trim(), category, 0, Integer.MAX_VALUE);
+        } else {
+            int pageSize = Math.min(size, LibraryConstant.Pagination.MAX_PAGE_SIZE);
+            int offset = (Math.max(page, 1) - 1) * pageSize;
+            result = searchIndex.search(keyword.trim(), category, offset, pageSize);
+        }
+        
+        log.info("智能搜索图书成功: total={}, count={}", result.getTotalCount(), result.getBooks().size());
+        return result;
+    }
+    
     @Override
     public List<PopularBook> getPopularBooks(int limit) {
         log.info("获取热门图书: limit={}", limit);
@@ -410,9 +449,25 @@ public class BookManagementServiceImpl implements BookManagementService {
                 return new ArrayList<>();
             }
             
-            List<PopularBook> popularBooks = bookDao.getPopularBooks();
-            if (popularBooks.size() > limit) {
-                popularBooks = popularBooks.subList(0, limit);
+            List<BorrowRanking.BookRank> ranks = BorrowRanking.getInstance().topBooks(BorrowRanking.Period.YEAR, null, limit);
+            Map<Integer, Book> books = new HashMap<>();
+            for (Book book : searchIndex.getBooks(rankedBookIds(ranks))) {
+                books.put(book.getBookId(), book);
+            }
+            
+            List<PopularBook> popularBooks = new ArrayList<>(ranks.size());
+            for (BorrowRanking.BookRank rank : ranks) {
+                Book book = books.get(rank.getBookId());
+                popularBooks.add(PopularBook.builder()
+                    .bookId(rank.getBookId())
+                    .title(rank.getTitle())
+                    .author(rank.getAuthor())
+                    .category(rank.getCategory())
+                    .totalQty(book != null ? book.getTotalQty() : null)
+                    .availQty(book != null ? book.getAvailQty() : null)
+                    .borrowCount(rank.getBorrowCount())
+                    .popularityRank(popularBooks.size() + 1)
+                    .build());
             }
             
             log.info("获取热门图书成功: count={}", popularBooks.size());
@@ -424,62 +479,54 @@ public class BookManagementServiceImpl implements BookManagementService {
         }
     }
     
-    /**
-     * 判断是否为ISBN格式
-     */
-    private boolean isISBN(String keyword) {
-        if (keyword == null || keyword.trim().isEmpty()) {
-            return false;
+    @Override
+    public List<Book> getPopularBooks(String category, BorrowRanking.Period period, int limit) {
+        log.info("获取热门图书: category={}, period={}, limit={}", category, period, limit);
+        
+        try {
+            List<BorrowRanking.BookRank> ranks = BorrowRanking.getInstance().topBooks(period, category, limit);
+            List<Book> books = searchIndex.getBooks(rankedBookIds(ranks));
+            
+            log.info("获取热门图书成功: count={}", books.size());
+            return books;
+            
+        } catch (Exception e) {
+            log.error("获取热门图书异常: category={}", category, e);
+            return new ArrayList<>();
         }
-        // ISBN格式：13位数字或10位数字，可能包含连字符和空格
-        String cleanKeyword = keyword.replaceAll("[\\s-]", "");
-        return cleanKeyword.matches("\\d{10}|\\d{13}");
     }
     
-    /**
-     * 判断是否为分类
-     */
-    private boolean isCategory(String keyword) {
-        if (keyword == null || keyword.trim().isEmpty()) {
-            return false;
+    private static List<Integer> rankedBookIds(List<BorrowRanking.BookRank> ranks) {
+        List<Integer> bookIds = new ArrayList<>(ranks.size());
+        for (BorrowRanking.BookRank rank : ranks) {
+            bookIds.add(rank.getBookId());
         }
-        String[] categories = {"文学", "科技", "历史", "艺术", "教育", "其他"};
-        for (String category : categories) {
-            if (category.equals(keyword.trim())) {
-                return true;
-            }
-        }
-        return false;
+        return bookIds;
     }
     
     // ==================== 批量操作 ====================
     
     @Override
     public BookManagementResult batchAddBooks(List<Book> books) {
-        log.info("批量添加图书: count={}", books.size());
+        log.info("批量添加图书: count={}", books != null ? books.size() : 0);
         
         try {
             if (books == null || books.isEmpty()) {
                 return BookManagementResult.failure("图书列表不能为空");
             }
             
-            int successCount = 0;
-            int failCount = 0;
-            List<String> errors = new ArrayList<>();
+            // 按批次校验、一次查询ISBN重复并批量插入
+            BookImportPipeline pipeline = new BookImportPipeline(bookDao::findExistingIsbns, bookDao::insertBatch,
+                BookImportPipeline.DEFAULT_CHUNK_SIZE);
+            for (int i = 0; i < books.size(); i++) {
+                pipeline.acceptBook(i + 1, books.get(i));
+            }
+            pipeline.finish();
             
-            for (Book book : books) {
-                try {
-                    BookManagementResult result = addBook(book);
-                    if (result.isSuccess()) {
-                        successCount++;
-                    } else {
-                        failCount++;
-                        errors.add("图书 " + book.getTitle() + ": " + result.getMessage());
-                    }
-                } catch (Exception e) {
-                    failCount++;
-                    errors.add("图书 " + book.getTitle() + ": " + e.getMessage());
-                }
+            int successCount = pipeline.getSuccessCount();
+            int failCount = pipeline.getFailCount() + pipeline.getSkipCount();
+            if (successCount > 0) {
+                searchIndex.rebuild();
             }
             
             String message = String.format("批量添加完成，成功: %d, 失败: %d", successCount, failCount);
@@ -488,6 +535,8 @@ public class BookManagementServiceImpl implements BookManagementService {
             if (failCount == 0) {
                 return BookManagementResult.success(message, successCount, failCount);
             } else {
+                List<String> errors = pipeline.getErrors();
+                errors.addAll(pipeline.getWarnings());
                 return BookManagementResult.failure(message, successCount, failCount, errors);
             }
             
@@ -644,261 +693,60 @@ public class BookManagementServiceImpl implements BookManagementService {
     public ExcelImportResult importBooksFromExcel(InputStream inputStream, String fileName) {
         log.info("开始从Excel导入图书: fileName={}", fileName);
         
+        Path tempFile = null;
         try {
-            // 1. 解析Excel文件
-            List<Book> books = parseExcelToBooks(inputStream, fileName);
-            
-            if (books.isEmpty()) {
-                return ExcelImportResult.failure("Excel文件中没有有效的图书数据");
-            }
-            
-            // 2. 调用批量添加功能（对接点）
-            BookManagementResult batchResult = batchAddBooks(books);
-            
-            // 3. 转换结果格式
-            int totalCount = books.size();
-            int successCount = batchResult.getSuccessCount() != null ? batchResult.getSuccessCount() : 0;
-            int failCount = batchResult.getFailCount() != null ? batchResult.getFailCount() : 0;
-            
-            if (batchResult.isSuccess()) {
-                log.info("Excel导入成功: fileName={}, 成功: {}, 失败: {}", 
-                        fileName, successCount, failCount);
-                return ExcelImportResult.success(
-                    "Excel导入完成，成功: " + successCount + ", 失败: " + failCount,
-                    totalCount,
-                    successCount,
-                    failCount,
-                    0 // skipCount
-                );
-            } else {
-                log.warn("Excel导入失败: fileName={}, reason={}", fileName, batchResult.getMessage());
-                return ExcelImportResult.partialSuccess(
-                    batchResult.getMessage(),
-                    totalCount,
-                    successCount,
-                    failCount,
-                    0, // skipCount
-                    batchResult.getErrors(),
-                    null // warnings
-                );
+            if (!BookSheetReader.isSupported(fileName)) {
+                return ExcelImportResult.failure("不支持的文件格式，请使用.xlsx、.xls或.csv文件");
             }
             
-        } catch (Exception e) {
-            log.error("从Excel导入图书异常: fileName={}", fileName, e);
-            return ExcelImportResult.failure("系统错误: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * 解析Excel文件为图书列表
-     * 这是Excel导入的核心解析逻辑
-     */
-    private List<Book> parseExcelToBooks(InputStream inputStream, String fileName) throws Exception {
-        List<Book> books = new ArrayList<>();
-        
-        try {
-            // 根据文件扩展名选择工作簿类型
-            Workbook workbook;
-            if (fileName.toLowerCase().endsWith(".xlsx")) {
-                workbook = new XSSFWorkbook(inputStream);
-            } else if (fileName.toLowerCase().endsWith(".xls")) {
-                workbook = new HSSFWorkbook(inputStream);
-            } else {
-                throw new IllegalArgumentException("不支持的文件格式，请使用.xlsx或.xls文件");
-            }
-            
-            // 获取第一个工作表
-            Sheet sheet = workbook.getSheetAt(0);
-            if (sheet == null) {
-                throw new IllegalArgumentException("Excel文件中没有工作表");
-            }
-            
-            // 解析数据行（跳过标题行）
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-                
-                try {
-                    Book book = parseRowToBook(row, i + 1);
-                    if (book != null) {
-                        books.add(book);
-                    }
-                } catch (Exception e) {
-                    log.warn("解析第{}行数据失败: {}", i + 1, e.getMessage());
-                    // 继续处理下一行，不中断整个导入过程
-                }
-            }
+            // 先落盘再流式解析，避免整个工作簿载入内存
+            tempFile = Files.createTempFile("book-import-", ".tmp");
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            ExcelImportResult result = BookImportManager.getInstance().importFile(tempFile, fileName);
             
-            workbook.close();
+            log.info("Excel导入完成: fileName={}, 成功: {}, 失败: {}, 跳过: {}", 
+                    fileName, result.getSuccessCount(), result.getFailCount(), result.getSkipCount());
+            return result;
             
         } catch (Exception e) {
-            log.error("解析Excel文件异常: fileName={}", fileName, e);
-            throw new Exception("解析Excel文件失败: " + e.getMessage());
-        }
-        
-        return books;
-    }
-    
-    /**
-     * 将Excel行数据解析为图书对象
-     */
-    private Book parseRowToBook(Row row, int rowNumber) throws Exception {
-        try {
-            // Excel列定义：
-            // A列：书名, B列：作者, C列：ISBN, D列：出版社, E列：出版日期, F列：分类, G列：位置, H列：总数量
-            
-            String title = getCellStringValue(row.getCell(0));
-            String author = getCellStringValue(row.getCell(1));
-            String isbn = getCellStringValue(row.getCell(2));
-            String publisher = getCellStringValue(row.getCell(3));
-            String publishDateStr = getCellStringValue(row.getCell(4));
-            String category = getCellStringValue(row.getCell(5));
-            String location = getCellStringValue(row.getCell(6));
-            Integer totalQty = getCellIntegerValue(row.getCell(7));
-            
-            // 基本字段验证
-            if (title == null || title.trim().isEmpty()) {
-                throw new Exception("第" + rowNumber + "行：书名不能为空");
-            }
-            if (author == null || author.trim().isEmpty()) {
-                throw new Exception("第" + rowNumber + "行：作者不能为空");
-            }
-            if (isbn == null || isbn.trim().isEmpty()) {
-                throw new Exception("第" + rowNumber + "行：ISBN不能为空");
-            }
-            if (publisher == null || publisher.trim().isEmpty()) {
-                throw new Exception("第" + rowNumber + "行：出版社不能为空");
-            }
-            
-            // 构建图书对象
-            Book book = Book.builder()
-                    .title(title.trim())
-                    .author(author.trim())
-                    .isbn(isbn.trim())
-                    .publisher(publisher.trim())
-                    .category(category != null ? category.trim() : null)
-                    .location(location != null ? location.trim() : null)
-                    .totalQty(totalQty != null ? totalQty : 1)
-                    .availQty(totalQty != null ? totalQty : 1)
-                    .status(BookStatus.IN_LIBRARY)
-                    .build();
-            
-            // 解析出版日期
-            if (publishDateStr != null && !publishDateStr.trim().isEmpty()) {
+            log.error("从Excel导入图书异常: fileName={}", fileName, e);
+            return ExcelImportResult.failure("系统错误: " + e.getMessage());
+        } finally {
+            if (tempFile != null) {
                 try {
-                    // 支持多种日期格式
-                    LocalDate publishDate = parseDate(publishDateStr.trim());
-                    book.setPublishDate(publishDate);
+                    Files.deleteIfExists(tempFile);
                 } catch (Exception e) {
-                    log.warn("第{}行：出版日期格式错误，忽略: {}", rowNumber, publishDateStr);
-                }
-            }
-            
-            return book;
-            
-        } catch (Exception e) {
-            log.error("解析第{}行数据异常: {}", rowNumber, e.getMessage());
-            throw e;
-        }
-    }
-    
-    /**
-     * 获取单元格字符串值
-     */
-    private String getCellStringValue(Cell cell) {
-        if (cell == null) return null;
-        
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-                         case NUMERIC:
-                 // 检查是否为日期格式
-                 if (cell.getCellStyle().getDataFormatString().contains("m") || 
-                     cell.getCellStyle().getDataFormatString().contains("d") ||
-                     cell.getCellStyle().getDataFormatString().contains("y")) {
-                     return cell.getDateCellValue().toString();
-                 } else {
-                    // 数字转字符串，避免科学计数法
-                    double numericValue = cell.getNumericCellValue();
-                    if (numericValue == (long) numericValue) {
-                        return String.valueOf((long) numericValue);
-                    } else {
-                        return String.valueOf(numericValue);
-                    }
+                    log.warn("删除导入临时文件失败: {}", tempFile, e);
                 }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return null;
-        }
-    }
-    
-    /**
-     * 获取单元格整数值
-     */
-    private Integer getCellIntegerValue(Cell cell) {
-        if (cell == null) return null;
-        
-        try {
-            switch (cell.getCellType()) {
-                case NUMERIC:
-                    return (int) cell.getNumericCellValue();
-                case STRING:
-                    String stringValue = cell.getStringCellValue().trim();
-                    if (stringValue.isEmpty()) return null;
-                    return Integer.parseInt(stringValue);
-                default:
-                    return null;
             }
-        } catch (Exception e) {
-            log.warn("解析单元格整数值失败: {}", e.getMessage());
-            return null;
         }
     }
     
-    /**
-     * 解析日期字符串
-     */
-    private LocalDate parseDate(String dateStr) throws Exception {
-        // 支持多种日期格式
-        String[] patterns = {
-            "yyyy-MM-dd",
-            "yyyy/MM/dd", 
-            "yyyy年MM月dd日",
-            "MM/dd/yyyy",
-            "dd/MM/yyyy"
-        };
-        
-        for (String pattern : patterns) {
-            try {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
-                return LocalDate.parse(dateStr, formatter);
-            } catch (Exception ignored) {
-                // 继续尝试下一个格式
-            }
-        }
-        
-        throw new Exception("不支持的日期格式: " + dateStr);
+    @Override
+    public Map<String, Object> startBookExport(String fileName, String category, BookStatus status) throws IOException {
+        String filterCategory = trimToNull(category);
+        log.info("开始导出图书: fileName={}, category={}, status={}", fileName, filterCategory, status);
+        return BookExportManager.getInstance().start(fileName, "图书数据", (out, progress) ->
+            BookExporter.writeBooks(out, (afterId, limit) -> bookDao.findAfterId(afterId, filterCategory, status, limit),
+                BookExporter.WINDOW_SIZE, progress));
     }
     
     @Override
-    public BookManagementResult exportBooksToExcel(List<Book> books, String fileName) {
-        log.info("开始导出图书到Excel: fileName={}, count={}", fileName, books.size());
-        
-        try {
-            // TODO: 实现Excel导出逻辑
-            // 这里需要添加Apache POI依赖来处理Excel文件
-            // 暂时返回一个模拟结果
-            
-            log.warn("Excel导出功能暂未实现，需要添加Apache POI依赖");
-            return BookManagementResult.failure("Excel导出功能暂未实现，需要添加Apache POI依赖");
-            
-        } catch (Exception e) {
-            log.error("导出图书到Excel异常: fileName={}", fileName, e);
-            return BookManagementResult.failure("系统错误: " + e.getMessage());
-        }
+    public Map<String, Object> startBorrowHistoryExport(String fileName, String userSearch, String bookSearch, String status,
+                                                        String borrowDate, String dueDate, String returnDate) throws IOException {
+        String filterUser = trimToNull(userSearch);
+        String filterBook = trimToNull(bookSearch);
+        String filterStatus = convertFrontendToBackendStatus(status);
+        String filterBorrowDate = trimToNull(borrowDate);
+        String filterDueDate = trimToNull(dueDate);
+        String filterReturnDate = trimToNull(returnDate);
+        log.info("开始导出借阅记录: fileName={}, userSearch={}, bookSearch={}, status={}",
+            fileName, filterUser, filterBook, filterStatus);
+        return BookExportManager.getInstance().start(fileName, "借阅记录", (out, progress) ->
+            BookExporter.writeBorrowHistory(out, (beforeTransId, limit) -> bookBorrowDao.findBorrowHistoryPage(
+                    beforeTransId, filterUser, filterBook, filterStatus,
+                    filterBorrowDate, filterDueDate, filterReturnDate, limit),
+                BookExporter.WINDOW_SIZE, progress));
     }
     
     // ==================== 统计功能 ====================
@@ -1066,39 +914,10 @@ public class BookManagementServiceImpl implements BookManagementService {
     
     @Override
     public BookManagementResult validateBook(Book book) {
-        if (book == null) {
-            return BookManagementResult.failure("图书信息不能为空");
-        }
-        
-        if (book.getTitle() == null || book.getTitle().trim().isEmpty()) {
-            return BookManagementResult.failure("书名不能为空");
-        }
-        
-        if (book.getAuthor() == null || book.getAuthor().trim().isEmpty()) {
-            return BookManagementResult.failure("作者不能为空");
+        String error = BookValidator.check(book);
+        if (error != null) {
+            return BookManagementResult.failure(error);
         }
-        
-        if (book.getIsbn() == null || book.getIsbn().trim().isEmpty()) {
-            return BookManagementResult.failure("ISBN不能为空");
-        }
-        
-        if (book.getPublisher() == null || book.getPublisher().trim().isEmpty()) {
-            return BookManagementResult.failure("出版社不能为空");
-        }
-        
-        if (book.getTotalQty() != null && book.getTotalQty() < 0) {
-            return BookManagementResult.failure("总副本数不能小于0");
-        }
-        
-        if (book.getAvailQty() != null && book.getAvailQty() < 0) {
-            return BookManagementResult.failure("可借副本数不能小于0");
-        }
-        
-        if (book.getTotalQty() != null && book.getAvailQty() != null && 
-            book.getAvailQty() > book.getTotalQty()) {
-            return BookManagementResult.failure("可借副本数不能大于总副本数");
-        }
-        
         return BookManagementResult.success("验证通过", book);
     }
     
@@ -1158,30 +977,7 @@ public class BookManagementServiceImpl implements BookManagementService {
         log.info("获取所有借阅记录");
         
         try {
-            // 调用借阅记录DAO获取真实数据
-            com.vcampus.server.core.library.dao.BookBorrowDao borrowDao = 
-                com.vcampus.server.core.library.dao.BookBorrowDao.getInstance();
-            List<com.vcampus.server.core.library.entity.view.UserBorrowHistory> borrowHistoryList = 
-                borrowDao.getAllUserBorrowHistory();
-            
-            // 转换为前端需要的格式
-            List<Map<String, Object>> records = new ArrayList<>();
-            for (com.vcampus.server.core.library.entity.view.UserBorrowHistory history : borrowHistoryList) {
-                Map<String, Object> record = new HashMap<>();
-                record.put("transId", history.getTransId());
-                record.put("userId", history.getCardNum());
-                record.put("userName", history.getUserName());
-                record.put("bookTitle", history.getBookTitle());
-                record.put("borrowDate", history.getBorrowTime() != null ? 
-                    history.getBorrowTime().toLocalDate().toString() : "");
-                record.put("dueDate", history.getDueTime() != null ? 
-                    history.getDueTime().toLocalDate().toString() : "");
-                record.put("returnDate", history.getReturnTime() != null ? 
-                    history.getReturnTime().toLocalDate().toString() : null); // 归还日期，未归还是null
-                record.put("status", formatBorrowStatus(history.getBorrowStatus()));
-                record.put("remark", ""); // 备注字段暂时为空
-                records.add(record);
-            }
+            List<Map<String, Object>> records = toBorrowRecords(bookBorrowDao.getAllUserBorrowHistory());
             
             log.info("获取借阅记录成功: count={}", records.size());
             return records;
@@ -1192,6 +988,30 @@ public class BookManagementServiceImpl implements BookManagementService {
         }
     }
     
+    /**
+     * 转换为前端需要的借阅记录格式
+     */
+    private List<Map<String, Object>> toBorrowRecords(List<UserBorrowHistory> borrowHistoryList) {
+        List<Map<String, Object>> records = new ArrayList<>(borrowHistoryList.size());
+        for (UserBorrowHistory history : borrowHistoryList) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("transId", history.getTransId());
+            record.put("userId", history.getCardNum());
+            record.put("userName", history.getUserName());
+            record.put("bookTitle", history.getBookTitle());
+            record.put("borrowDate", history.getBorrowTime() != null ? 
+                history.getBorrowTime().toLocalDate().toString() : "");
+            record.put("dueDate", history.getDueTime() != null ? 
+                history.getDueTime().toLocalDate().toString() : "");
+            record.put("returnDate", history.getReturnTime() != null ? 
+                history.getReturnTime().toLocalDate().toString() : null); // 归还日期，未归还是null
+            record.put("status", formatBorrowStatus(history.getBorrowStatus()));
+            record.put("remark", ""); // 备注字段暂时为空
+            records.add(record);
+        }
+        return records;
+    }
+    
     /**
      * 格式化借阅状态显示
      */
@@ -1206,90 +1026,32 @@ public class BookManagementServiceImpl implements BookManagementService {
     }
     
     /**
-     * 将后端状态转换为前端显示状态
+     * 将前端状态转换为后端状态，"全部"或空表示不按状态过滤
      */
-    private String convertBackendToFrontendStatus(String backendStatus) {
-        if (backendStatus == null) return "未知";
-        switch (backendStatus) {
-            case "RETURNED": return "已归还";
-            case "OVERDUE": return "逾期";
-            case "RENEWED": return "续借";
-            case "BORROWED": return "已借出";
-            default: return backendStatus;
+    private String convertFrontendToBackendStatus(String status) {
+        if (status == null || status.trim().isEmpty() || "全部".equals(status)) return null;
+        switch (status.trim()) {
+            case "已借出": return "BORROWED";
+            case "已归还": return "RETURNED";
+            case "逾期": return "OVERDUE";
+            case "续借": return "RENEWED";
+            default: return status.trim();
         }
     }
     
+    private static String trimToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+    
     @Override
     public List<Map<String, Object>> searchBorrowRecords(String userSearch, String bookSearch, String status, String borrowDate, String dueDate, String returnDate) {
         log.info("搜索借阅记录: userSearch={}, bookSearch={}, status={}, borrowDate={}, dueDate={}, returnDate={}", userSearch, bookSearch, status, borrowDate, dueDate, returnDate);
         
         try {
-            // 获取所有借阅记录
-            List<Map<String, Object>> allRecords = getAllBorrowRecords();
-            List<Map<String, Object>> filteredRecords = new ArrayList<>();
-            
-            // 根据搜索条件过滤
-            for (Map<String, Object> record : allRecords) {
-                boolean matches = true;
-                
-                // 用户搜索
-                if (userSearch != null && !userSearch.trim().isEmpty()) {
-                    String userId = (String) record.get("userId");
-                    String userName = (String) record.get("userName");
-                    String searchTerm = userSearch.toLowerCase();
-                    boolean userMatches = (userId != null && userId.toLowerCase().contains(searchTerm)) ||
-                                       (userName != null && userName.toLowerCase().contains(searchTerm));
-                    if (!userMatches) {
-                        matches = false;
-                    }
-                }
-                
-                // 图书搜索
-                if (bookSearch != null && !bookSearch.trim().isEmpty()) {
-                    String bookTitle = (String) record.get("bookTitle");
-                    if (bookTitle == null || !bookTitle.toLowerCase().contains(bookSearch.toLowerCase())) {
-                        matches = false;
-                    }
-                }
-                
-                // 状态搜索
-                if (status != null && !status.trim().isEmpty() && !"全部".equals(status)) {
-                    String recordStatus = (String) record.get("status");
-                    // 将后端状态转换为前端状态进行比较
-                    String frontendStatus = convertBackendToFrontendStatus(status);
-                    if (recordStatus == null || !recordStatus.equals(frontendStatus)) {
-                        matches = false;
-                    }
-                }
-                
-                // 借阅日期搜索
-                if (borrowDate != null && !borrowDate.trim().isEmpty()) {
-                    String recordBorrowDate = (String) record.get("borrowDate");
-                    if (recordBorrowDate == null || !recordBorrowDate.startsWith(borrowDate)) {
-                        matches = false;
-                    }
-                }
-                
-                // 应还日期搜索
-                if (dueDate != null && !dueDate.trim().isEmpty()) {
-                    String recordDueDate = (String) record.get("dueDate");
-                    if (recordDueDate == null || !recordDueDate.startsWith(dueDate)) {
-                        matches = false;
-                    }
-                }
-                
-                // 归还日期搜索
-                if (returnDate != null && !returnDate.trim().isEmpty()) {
-                    String recordReturnDate = (String) record.get("returnDate");
-                    if (recordReturnDate == null || !recordReturnDate.startsWith(returnDate)) {
-                        matches = false;
-                    }
-                }
-                
-                if (matches) {
-                    filteredRecords.add(record);
-                }
-            }
+            // 过滤条件下推到视图查询
+            List<Map<String, Object>> filteredRecords = toBorrowRecords(bookBorrowDao.findBorrowHistoryPage(null,
+                trimToNull(userSearch), trimToNull(bookSearch), convertFrontendToBackendStatus(status),
+                trimToNull(borrowDate), trimToNull(dueDate), trimToNull(returnDate), null));
             
             log.info("搜索借阅记录成功: count={}", filteredRecords.size());
             return filteredRecords;
@@ -1300,6 +1062,45 @@ public class BookManagementServiceImpl implements BookManagementService {
         }
     }
     
+    @Override
+    public CursorPage<Map<String, Object>> searchBorrowRecordsPage(String userSearch, String bookSearch, String status, String borrowDate, String dueDate, String returnDate, String cursor, int size) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        Integer beforeTransId = pageCursor != null ? pageCursor.getIntKey(0) : null;
+        if (size < 1) size = 20;
+        
+        userSearch = trimToNull(userSearch);
+        bookSearch = trimToNull(bookSearch);
+        status = convertFrontendToBackendStatus(status);
+        borrowDate = trimToNull(borrowDate);
+        dueDate = trimToNull(dueDate);
+        returnDate = trimToNull(returnDate);
+        log.info("游标分页搜索借阅记录: beforeTransId={}, size={}, userSearch={}, bookSearch={}, status={}",
+            beforeTransId, size, userSearch, bookSearch, status);
+        
+        long total;
+        if (pageCursor != null) {
+            total = pageCursor.getTotalCount();
+        } else if (userSearch == null && bookSearch == null && status == null
+                && borrowDate == null && dueDate == null && returnDate == null) {
+            // 无过滤条件时总数取自统计快照
+            total = StatisticsEngine.getInstance().snapshot().getTotalBorrows();
+        } else {
+            total = bookBorrowDao.countBorrowHistory(userSearch, bookSearch, status, borrowDate, dueDate, returnDate);
+        }
+        
+        List<UserBorrowHistory> rows = bookBorrowDao.findBorrowHistoryPage(beforeTransId, userSearch, bookSearch,
+            status, borrowDate, dueDate, returnDate, size + 1);
+        CursorPage<UserBorrowHistory> page = PageCursor.page(rows, size, total,
+            history -> new String[]{String.valueOf(history.getTransId())});
+        return CursorPage.<Map<String, Object>>builder()
+            .items(toBorrowRecords(page.getItems()))
+            .nextCursor(page.getNextCursor())
+            .hasMore(page.isHasMore())
+            .totalCount(page.getTotalCount())
+            .size(page.getSize())
+            .build();
+    }
+    
     @Override
     public BookManagementResult forceReturnBook(Integer transId) {
         log.info("强制归还图书: transId={}", transId);
@@ -1310,7 +1111,8 @@ public class BookManagementServiceImpl implements BookManagementService {
                 com.vcampus.server.core.library.dao.BookBorrowDao.getInstance();
             
             // 检查借阅记录是否存在
-            if (!borrowDao.existsById(transId)) {
+            Optional<com.vcampus.server.core.library.entity.core.BookBorrow> borrowOpt = borrowDao.findById(transId);
+            if (!borrowOpt.isPresent()) {
                 return BookManagementResult.builder()
                     .success(false)
                     .message("借阅记录不存在")
@@ -1322,6 +1124,8 @@ public class BookManagementServiceImpl implements BookManagementService {
                 borrowDao.returnBook(transId);
             
             if (returnResult.isSuccess()) {
+                searchIndex.refresh(borrowOpt.get().getBookId());
+                BorrowRollup.getInstance().recordReturn();
                 log.info("强制归还图书成功: transId={}", transId);
                 return BookManagementResult.builder()
                     .success(true)
@@ -1431,8 +1235,11 @@ public class BookManagementServiceImpl implements BookManagementService {
             // 调用借阅记录DAO获取逾期记录
             com.vcampus.server.core.library.dao.BookBorrowDao borrowDao = 
                 com.vcampus.server.core.library.dao.BookBorrowDao.getInstance();
-            List<com.vcampus.server.core.library.entity.view.OverdueDetails> overdueList = 
-                borrowDao.getOverdueDetails();
+            // 逾期跟踪已载入时只按当前逾期未还的记录ID查询
+            OverdueTracker overdueTracker = OverdueTracker.getInstance();
+            List<com.vcampus.server.core.library.entity.view.OverdueDetails> overdueList = overdueTracker.isLoaded()
+                ? borrowDao.getOverdueDetails(overdueTracker.overdueTransIds(Integer.MAX_VALUE))
+                : borrowDao.getOverdueDetails();
             
             // 转换为前端需要的格式
             List<Map<String, Object>> records = new ArrayList<>();
@@ -1491,6 +1298,7 @@ public class BookManagementServiceImpl implements BookManagementService {
             // 更新图书信息
             bookDao.updateBook(bookId, book.getTitle(), book.getAuthor(), book.getPublisher(), 
                 book.getPublishDate(), book.getCategory(), book.getLocation(), newTotalQty);
+            searchIndex.refresh(bookId);
             
             log.info("增加图书副本成功: bookId={}, copies={}, newTotalQty={}, newAvailQty={}", 
                 bookId, copies, newTotalQty, newAvailQty);
@@ -1514,8 +1322,15 @@ public class BookManagementServiceImpl implements BookManagementService {
         try {
             log.info("获取用户借阅排名");
             
-            // 调用DAO层获取用户借阅统计数据
-            List<Map<String, Object>> rankingData = bookBorrowDao.getUserBorrowRanking();
+            // 取自内存维护的近一年活跃用户排行
+            List<Map<String, Object>> rankingData = new ArrayList<>();
+            for (BorrowRanking.UserRank rank : BorrowRanking.getInstance().topUsers(BorrowRanking.Period.YEAR, 10)) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("cardNum", rank.getCardNum());
+                row.put("userName", rank.getUserName() != null ? rank.getUserName() : rank.getCardNum());
+                row.put("borrowCount", rank.getBorrowCount());
+                rankingData.add(row);
+            }
             
             log.info("获取用户借阅排名成功: count={}", rankingData.size());
             return rankingData;
@@ -1531,20 +1346,8 @@ public class BookManagementServiceImpl implements BookManagementService {
         log.info("获取所有分类列表");
         
         try {
-            // 从数据库获取所有分类
-            List<com.vcampus.server.core.library.entity.core.BookCategory> categories = 
-                com.vcampus.server.core.library.dao.BookCategoryDao.getInstance().findAll();
-            
-            // 转换为Map格式
-            List<Map<String, Object>> categoryMaps = new ArrayList<>();
-            for (com.vcampus.server.core.library.entity.core.BookCategory category : categories) {
-                Map<String, Object> categoryMap = new HashMap<>();
-                categoryMap.put("categoryCode", category.getCategoryCode());
-                categoryMap.put("categoryName", category.getCategoryName());
-                categoryMap.put("description", category.getDescription());
-                categoryMap.put("sortOrder", category.getSortOrder());
-                categoryMaps.add(categoryMap);
-            }
+            // 分类取自分类注册表的快照，分类变更时才重新查询数据库
+            List<Map<String, Object>> categoryMaps = CategoryRegistry.getInstance().snapshot().getCategories();
             
             log.info("获取所有分类列表成功: count={}", categoryMaps.size());
             return categoryMaps;
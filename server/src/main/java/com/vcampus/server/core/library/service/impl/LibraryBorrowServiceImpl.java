@@ -2,7 +2,6 @@ package com.vcampus.server.core.library.service.impl;
 
 import com.vcampus.server.core.library.dao.BookDao;
 import com.vcampus.server.core.library.dao.BookBorrowDao;
-import com.vcampus.server.core.library.dao.BorrowRuleDao;
 import com.vcampus.server.core.library.entity.core.Book;
 import com.vcampus.server.core.library.entity.core.BookBorrow;
 import com.vcampus.server.core.library.entity.core.BorrowRule;
@@ -14,11 +13,20 @@ import com.vcampus.server.core.library.entity.view.OverdueDetails;
 import com.vcampus.server.core.library.entity.view.RecentBorrow;
 import com.vcampus.server.core.library.enums.BorrowStatus;
 import com.vcampus.server.core.library.enums.UserType;
+import com.vcampus.server.core.library.index.BookSearchIndex;
+import com.vcampus.server.core.library.overdue.OverdueTracker;
+import com.vcampus.server.core.library.rule.BorrowCandidate;
+import com.vcampus.server.core.library.rule.BorrowEligibility;
+import com.vcampus.server.core.library.rule.BorrowRuleCache;
 import com.vcampus.server.core.library.service.LibraryBorrowService;
+import com.vcampus.server.core.library.stats.BorrowRanking;
+import com.vcampus.server.core.library.stats.BorrowRollup;
 
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -35,12 +43,20 @@ public class LibraryBorrowServiceImpl implements LibraryBorrowService {
     
     private final BookDao bookDao;
     private final BookBorrowDao bookBorrowDao;
-    private final BorrowRuleDao borrowRuleDao;
+    private final BorrowRuleCache ruleCache;
+    private final BookSearchIndex searchIndex;
+    private final BorrowRollup borrowRollup;
+    private final BorrowRanking borrowRanking;
+    private final OverdueTracker overdueTracker;
     
     public LibraryBorrowServiceImpl() {
         this.bookDao = BookDao.getInstance();
         this.bookBorrowDao = BookBorrowDao.getInstance();
-        this.borrowRuleDao = BorrowRuleDao.getInstance();
+        this.ruleCache = BorrowRuleCache.getInstance();
+        this.searchIndex = BookSearchIndex.getInstance();
+        this.borrowRollup = BorrowRollup.getInstance();
+        this.borrowRanking = BorrowRanking.getInstance();
+        this.overdueTracker = OverdueTracker.getInstance();
     }
     
     // ==================== 借阅管理 ====================
@@ -49,35 +65,42 @@ public class LibraryBorrowServiceImpl implements LibraryBorrowService {
     public BorrowResult borrowBook(Integer bookId, String cardNum, UserType userType) {
         log.info("开始处理借阅请求: bookId={}, cardNum={}, userType={}", bookId, cardNum, userType);
         
+        BorrowResult result = borrowBooks(Collections.singletonList(bookId), cardNum, userType).get(0);
+        if (result.isSuccess()) {
+            log.info("借阅成功: bookId={}, cardNum={}, transId={}", 
+                    bookId, cardNum, result.getTransId());
+        } else {
+            log.warn("借阅失败: bookId={}, cardNum={}, reason={}", 
+                    bookId, cardNum, result.getMessage());
+        }
+        return result;
+    }
+    
+    @Override
+    public List<BorrowResult> borrowBooks(List<Integer> bookIds, String cardNum, UserType userType) {
         try {
-            // 1. 验证借阅权限
-            if (!canBorrowBook(cardNum, userType, bookId)) {
-                return BorrowResult.failure("借阅权限验证失败");
-            }
-            
-            // 2. 获取借阅规则
-            Optional<BorrowRule> ruleOpt = borrowRuleDao.findByUserType(userType);
-            if (!ruleOpt.isPresent()) {
-                return BorrowResult.failure("未找到用户类型的借阅规则");
-            }
-            BorrowRule rule = ruleOpt.get();
-            
-            // 3. 调用DAO层执行借阅操作
-            BorrowResult result = bookBorrowDao.borrowBook(bookId, cardNum, rule.getMaxBorrowDays());
-            
-            if (result.isSuccess()) {
-                log.info("借阅成功: bookId={}, cardNum={}, transId={}", 
-                        bookId, cardNum, result.getTransId());
-            } else {
-                log.warn("借阅失败: bookId={}, cardNum={}, reason={}", 
-                        bookId, cardNum, result.getMessage());
+            // 1. 规则取自缓存，资格判断、写借阅记录和扣减库存在同一事务内完成
+            BorrowRule rule = ruleCache.get(userType).orElse(null);
+            List<BorrowResult> results = bookBorrowDao.borrowBooks(bookIds, cardNum, rule);
+            
+            // 2. 刷新内存中的检索索引与统计
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i).isSuccess()) {
+                    Integer bookId = bookIds.get(i);
+                    searchIndex.refresh(bookId);
+                    borrowRollup.recordBorrow();
+                    borrowRanking.recordBorrow(bookId, cardNum);
+                }
             }
-            
-            return result;
+            return results;
             
         } catch (Exception e) {
-            log.error("借阅图书异常: bookId={}, cardNum={}", bookId, cardNum, e);
-            return BorrowResult.failure("系统错误: " + e.getMessage());
+            log.error("借阅图书异常: bookIds={}, cardNum={}", bookIds, cardNum, e);
+            List<BorrowResult> failures = new ArrayList<>(bookIds.size());
+            for (int i = 0; i < bookIds.size(); i++) {
+                failures.add(BorrowResult.failure("系统错误: " + e.getMessage()));
+            }
+            return failures;
         }
     }
     
@@ -95,6 +118,8 @@ public class LibraryBorrowServiceImpl implements LibraryBorrowService {
             ReturnResult result = bookBorrowDao.returnBook(transId);
             
             if (result.isSuccess()) {
+                refreshIndexAfterReturn(transId, result);
+                borrowRollup.recordReturn();
                 log.info("归还成功: transId={}, cardNum={}", transId, cardNum);
             } else {
                 log.warn("归还失败: transId={}, cardNum={}, reason={}", 
@@ -147,7 +172,7 @@ public class LibraryBorrowServiceImpl implements LibraryBorrowService {
             UserType userType = UserType.STUDENT; // TODO: 从用户服务获取实际用户类型
             
             // 7. 获取借阅规则
-            Optional<BorrowRule> ruleOpt = borrowRuleDao.findByUserType(userType);
+            Optional<BorrowRule> ruleOpt = ruleCache.get(userType);
             if (!ruleOpt.isPresent()) {
                 return RenewResult.failure("未找到用户类型的借阅规则");
             }
@@ -177,6 +202,17 @@ public class LibraryBorrowServiceImpl implements LibraryBorrowService {
         }
     }
     
+    /**
+     * 归还后刷新检索索引中的库存与状态
+     */
+    private void refreshIndexAfterReturn(Integer transId, ReturnResult result) {
+        Integer bookId = result.getBorrow() != null ? result.getBorrow().getBookId() : null;
+        if (bookId == null) {
+            bookId = bookBorrowDao.findById(transId).map(BookBorrow::getBookId).orElse(null);
+        }
+        searchIndex.refresh(bookId);
+    }
+    
     // ==================== 查询功能 ====================
     
     @Override
@@ -241,6 +277,9 @@ public class LibraryBorrowServiceImpl implements LibraryBorrowService {
     @Override
     public List<OverdueDetails> getAllOverdueDetails() {
         log.debug("查询所有逾期详情");
+        if (overdueTracker.isLoaded()) {
+            return bookBorrowDao.getOverdueDetails(overdueTracker.overdueTransIds(Integer.MAX_VALUE));
+        }
         return bookBorrowDao.getOverdueDetails();
     }
     
@@ -249,46 +288,13 @@ public class LibraryBorrowServiceImpl implements LibraryBorrowService {
     @Override
     public boolean canBorrowBook(String cardNum, UserType userType, Integer bookId) {
         try {
-            // 1. 检查图书是否存在且可借
-            Optional<Book> bookOpt = bookDao.findById(bookId);
-            if (!bookOpt.isPresent()) {
-                log.warn("图书不存在: bookId={}", bookId);
-                return false;
-            }
-            
-            Book book = bookOpt.get();
-            if (!book.isAvailable()) {
-                log.warn("图书不可借: bookId={}, availQty={}", bookId, book.getAvailQty());
+            List<Integer> bookIds = Collections.singletonList(bookId);
+            Map<Integer, BorrowCandidate> candidates = bookBorrowDao.findBorrowCandidates(bookIds, cardNum);
+            String reason = BorrowEligibility.evaluate(bookIds, candidates, ruleCache.get(userType).orElse(null)).get(0);
+            if (reason != null) {
+                log.warn("不能借阅: cardNum={}, bookId={}, reason={}", cardNum, bookId, reason);
                 return false;
             }
-            
-            // 2. 检查用户是否已借阅该图书
-            if (bookBorrowDao.isBookBorrowedByUser(bookId, cardNum)) {
-                log.warn("用户已借阅该图书: bookId={}, cardNum={}", bookId, cardNum);
-                return false;
-            }
-            
-            // 3. 检查用户借阅规则
-            Optional<BorrowRule> ruleOpt = borrowRuleDao.findByUserType(userType);
-            if (!ruleOpt.isPresent()) {
-                log.warn("未找到用户类型借阅规则: userType={}", userType);
-                return false;
-            }
-            
-            BorrowRule rule = ruleOpt.get();
-                         if (!rule.getIsActive()) {
-                 log.warn("借阅规则未启用: userType={}", userType);
-                 return false;
-             }
-            
-            // 4. 检查用户当前借阅数量
-            long currentBorrowCount = bookBorrowDao.countCurrentBorrowsByCardNum(cardNum);
-            if (!rule.canBorrow((int) currentBorrowCount)) {
-                log.warn("用户借阅数量已达上限: cardNum={}, current={}, max={}", 
-                        cardNum, currentBorrowCount, rule.getMaxBorrowCount());
-                return false;
-            }
-            
             return true;
             
         } catch (Exception e) {
@@ -333,7 +339,7 @@ public class LibraryBorrowServiceImpl implements LibraryBorrowService {
             // 5. 检查续借次数限制
             // 这里需要获取用户类型和借阅规则，暂时使用默认值
             UserType userType = UserType.STUDENT; // TODO: 从用户服务获取实际用户类型
-            Optional<BorrowRule> ruleOpt = borrowRuleDao.findByUserType(userType);
+            Optional<BorrowRule> ruleOpt = ruleCache.get(userType);
             if (!ruleOpt.isPresent()) {
                 log.warn("未找到用户类型借阅规则: userType={}", userType);
                 return false;
@@ -2,13 +2,19 @@ package com.vcampus.server.core.library.service.impl;
 
 import com.vcampus.server.core.library.dao.BookDao;
 import com.vcampus.server.core.library.dao.BookBorrowDao;
-import com.vcampus.server.core.library.entity.view.UserBorrowHistory;
+import com.vcampus.server.core.library.dao.LibraryStatisticsDao;
+import com.vcampus.server.core.library.entity.view.OverdueDetails;
 import com.vcampus.server.core.library.enums.BookStatus;
+import com.vcampus.server.core.library.overdue.OverdueTracker;
 import com.vcampus.server.core.library.service.StatisticsService;
+import com.vcampus.server.core.library.stats.BorrowRanking;
+import com.vcampus.server.core.library.stats.BorrowRollup;
+import com.vcampus.server.core.library.stats.StatisticsEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
@@ -25,13 +31,24 @@ public class StatisticsServiceImpl implements StatisticsService {
     
     private BookDao bookDao;
     private BookBorrowDao bookBorrowDao;
+    private final LibraryStatisticsDao statisticsDao;
+    private final BorrowRollup borrowRollup;
+    private final BorrowRanking borrowRanking;
+    private final StatisticsEngine statisticsEngine;
+    private final OverdueTracker overdueTracker;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final int OVERDUE_LIST_LIMIT = 20;
     
     public StatisticsServiceImpl(BookDao bookDao) {
         this.bookDao = bookDao;
         this.bookBorrowDao = BookBorrowDao.getInstance();
+        this.statisticsDao = LibraryStatisticsDao.getInstance();
+        this.borrowRollup = BorrowRollup.getInstance();
+        this.borrowRanking = BorrowRanking.getInstance();
+        this.statisticsEngine = StatisticsEngine.getInstance();
+        this.overdueTracker = OverdueTracker.getInstance();
     }
     
     // ==================== 仪表板统计 ====================
@@ -40,26 +57,15 @@ public class StatisticsServiceImpl implements StatisticsService {
     public Map<String, Object> getDashboardStatistics() {
         Map<String, Object> result = new HashMap<>();
         try {
-            // 获取所有图书
-            List<com.vcampus.server.core.library.entity.core.Book> allBooks = bookDao.findAll();
-            int totalBooks = allBooks.size();
+            StatisticsEngine.Snapshot snapshot = statisticsEngine.snapshot();
+            long totalBooks = snapshot.getTotalBooks();
             
-            // 计算在馆图书数量（状态为"在馆"的图书）
-            long availableBooks = allBooks.stream()
-                .filter(book -> book.getStatus() != null && book.getStatus().toString().equals("IN_LIBRARY"))
-                .count();
+            // 在馆、已借阅、维护中图书数量
+            long availableBooks = snapshot.getBookCount("IN_LIBRARY");
+            long borrowedBooks = snapshot.getBookCount("BORROWED");
+            long maintenanceBooks = snapshot.getBookCount("MAINTENANCE");
             
-            // 计算已借阅图书数量（状态为"已借阅"的图书）
-            long borrowedBooks = allBooks.stream()
-                .filter(book -> book.getStatus() != null && book.getStatus().toString().equals("BORROWED"))
-                .count();
-            
-            // 计算维护中图书数量（状态为"维护中"的图书）
-            long maintenanceBooks = allBooks.stream()
-                .filter(book -> book.getStatus() != null && book.getStatus().toString().equals("MAINTENANCE"))
-                .count();
-            
-            result.put("totalBooks", totalBooks);
+            result.put("totalBooks", (int) totalBooks);
             result.put("availableBooks", (int) availableBooks);
             result.put("borrowedBooks", (int) borrowedBooks);
             result.put("maintenanceBooks", (int) maintenanceBooks);
@@ -83,8 +89,9 @@ public class StatisticsServiceImpl implements StatisticsService {
             String today = LocalDate.now().format(DATE_FORMATTER);
             
             // 查询今日真实数据
-            int todayBorrows = bookBorrowDao.getTodayBorrowCount(today);
-            int todayReturns = bookBorrowDao.getTodayReturnCount(today);
+            long[] todayTotals = borrowRollup.totals(LocalDate.now(), LocalDate.now().plusDays(1));
+            int todayBorrows = (int) todayTotals[0];
+            int todayReturns = (int) todayTotals[1];
             int todayNewUsers = 0; // 需要用户表支持，暂时设为0
             int todayOverdue = bookBorrowDao.getTodayOverdueCount(today);
             
@@ -107,33 +114,13 @@ public class StatisticsServiceImpl implements StatisticsService {
     public Map<String, Object> getBookStatistics() {
         Map<String, Object> result = new HashMap<>();
         try {
-            // 从数据库获取所有图书
-            List<com.vcampus.server.core.library.entity.core.Book> allBooks = bookDao.findAll();
-            
-            // 统计各状态图书数量
-            int totalBooks = allBooks.size();
-            int availableBooks = 0;
-            int borrowedBooks = 0;
-            int maintenanceBooks = 0;
-            
-            for (com.vcampus.server.core.library.entity.core.Book book : allBooks) {
-                if (book.getStatus() != null) {
-                    switch (book.getStatus().toString()) {
-                        case "AVAILABLE":
-                            availableBooks++;
-                            break;
-                        case "BORROWED":
-                            borrowedBooks++;
-                            break;
-                        case "MAINTENANCE":
-                            maintenanceBooks++;
-                            break;
-                    }
-                } else {
-                    // 如果状态为空，默认为可用
-                    availableBooks++;
-                }
-            }
+            StatisticsEngine.Snapshot snapshot = statisticsEngine.snapshot();
+            
+            // 统计各状态图书数量，状态为空的图书按可用计
+            int totalBooks = (int) snapshot.getTotalBooks();
+            int availableBooks = (int) (snapshot.getBookCount("AVAILABLE") + snapshot.getBookCount(""));
+            int borrowedBooks = (int) snapshot.getBookCount("BORROWED");
+            int maintenanceBooks = (int) snapshot.getBookCount("MAINTENANCE");
             
             result.put("totalBooks", totalBooks);
             result.put("availableBooks", availableBooks);
@@ -159,35 +146,15 @@ public class StatisticsServiceImpl implements StatisticsService {
     @Override
     public List<Map<String, Object>> getCategoryStatistics() {
         try {
-            // 获取所有图书
-            List<com.vcampus.server.core.library.entity.core.Book> allBooks = bookDao.findAll();
-            
-            // 按分类统计
-            Map<String, Integer> categoryBookCount = new HashMap<>();
-            Map<String, Integer> categoryBorrowCount = new HashMap<>();
-            
-            for (com.vcampus.server.core.library.entity.core.Book book : allBooks) {
-                String category = book.getCategory();
-                if (category != null) {
-                    // 统计图书数量
-                    categoryBookCount.put(category, categoryBookCount.getOrDefault(category, 0) + 1);
-                    
-                    // 统计借阅数量（如果状态是"已借阅"）
-                    if (book.getStatus() != null && book.getStatus().toString().equals("BORROWED")) {
-                        categoryBorrowCount.put(category, categoryBorrowCount.getOrDefault(category, 0) + 1);
-                    }
-                }
-            }
-            
-            // 构建结果
+            // 按分类统计的图书数量与已借出数量
             List<Map<String, Object>> result = new ArrayList<>();
-            for (String category : categoryBookCount.keySet()) {
+            statisticsEngine.snapshot().getCategories().forEach((category, counts) -> {
                 Map<String, Object> categoryData = new HashMap<>();
                 categoryData.put("category", category);
-                categoryData.put("bookCount", categoryBookCount.get(category));
-                categoryData.put("borrowCount", categoryBorrowCount.getOrDefault(category, 0));
+                categoryData.put("bookCount", (int) counts.getBookCount());
+                categoryData.put("borrowCount", (int) counts.getBorrowedBooks());
                 result.add(categoryData);
-            }
+            });
             
             // 按图书数量排序
             result.sort((a, b) -> Integer.compare((Integer) b.get("bookCount"), (Integer) a.get("bookCount")));
@@ -203,26 +170,16 @@ public class StatisticsServiceImpl implements StatisticsService {
     @Override
     public List<Map<String, Object>> getPopularBooks(int limit) {
         try {
-            // 模拟热门图书数据
             List<Map<String, Object>> result = new ArrayList<>();
-            
-            Map<String, Object> book1 = new HashMap<>();
-            book1.put("title", "Java编程思想");
-            book1.put("author", "Bruce Eckel");
-            book1.put("borrowCount", 156);
-            result.add(book1);
-            
-            Map<String, Object> book2 = new HashMap<>();
-            book2.put("title", "算法导论");
-            book2.put("author", "Thomas H. Cormen");
-            book2.put("borrowCount", 134);
-            result.add(book2);
-            
-            Map<String, Object> book3 = new HashMap<>();
-            book3.put("title", "红楼梦");
-            book3.put("author", "曹雪芹");
-            book3.put("borrowCount", 98);
-            result.add(book3);
+            for (BorrowRanking.BookRank rank : borrowRanking.topBooks(BorrowRanking.Period.YEAR, null, limit)) {
+                Map<String, Object> book = new HashMap<>();
+                book.put("bookId", rank.getBookId());
+                book.put("title", rank.getTitle());
+                book.put("author", rank.getAuthor());
+                book.put("category", rank.getCategory());
+                book.put("borrowCount", rank.getBorrowCount());
+                result.add(book);
+            }
             
             log.info("获取热门图书数据成功，共{}本", result.size());
             return result;
@@ -268,27 +225,12 @@ public class StatisticsServiceImpl implements StatisticsService {
     public Map<String, Object> getBorrowStatistics() {
         Map<String, Object> result = new HashMap<>();
         try {
-            // 获取所有借阅记录
-            List<com.vcampus.server.core.library.entity.core.BookBorrow> allBorrows = bookBorrowDao.findAll();
-            long totalBorrows = allBorrows.size();
-            
-            // 计算当前借阅中的记录（状态为"借阅中"）
-            long currentBorrows = allBorrows.stream()
-                .filter(borrow -> borrow.getStatus() != null && borrow.getStatus().toString().equals("BORROWED"))
-                .count();
-            
-            // 计算已归还的记录（状态为"已归还"）
-            long returnedBorrows = allBorrows.stream()
-                .filter(borrow -> borrow.getStatus() != null && borrow.getStatus().toString().equals("RETURNED"))
-                .count();
-            
-            // 计算逾期的记录
-            long overdueBorrows = bookBorrowDao.findAllOverdueBorrows().size();
-            
-            // 计算续借的记录（续借次数大于0）
-            long renewedBorrows = allBorrows.stream()
-                .filter(borrow -> borrow.getRenewCount() != null && borrow.getRenewCount() > 0)
-                .count();
+            StatisticsEngine.Snapshot snapshot = statisticsEngine.snapshot();
+            long totalBorrows = snapshot.getTotalBorrows();
+            long currentBorrows = snapshot.getCurrentBorrows();
+            long returnedBorrows = snapshot.getReturnedBorrows();
+            long overdueBorrows = snapshot.getOverdueBorrows();
+            long renewedBorrows = snapshot.getRenewedBorrows();
             
             result.put("totalBorrows", (int) totalBorrows);
             result.put("currentBorrows", (int) currentBorrows);
@@ -312,67 +254,50 @@ public class StatisticsServiceImpl implements StatisticsService {
     @Override
     public List<Map<String, Object>> getBorrowTrend(String period, int days) {
         try {
-            List<Map<String, Object>> result = new ArrayList<>();
+            LocalDate today = LocalDate.now();
+            LocalDate tomorrow = today.plusDays(1);
+            List<Map<String, Object>> result;
             
-            // 根据周期获取真实数据
+            // 所有周期都由日汇总合并得出，不再逐日查询数据库
             switch (period) {
                 case "4days":
-                    // 近4天：今天和前3天，索引3是今天
-                    for (int i = 0; i < 4; i++) {
-                        Map<String, Object> dayData = new HashMap<>();
-                        LocalDate date = LocalDate.now().minusDays(3 - i);
-                        dayData.put("date", date.format(DateTimeFormatter.ofPattern("M-d")));
-                        
-                        // 获取真实借阅和归还数据
-                        String queryDate = date.format(DATE_FORMATTER);
-                        log.info("查询日期: {}, 借阅数量查询", queryDate);
-                        int borrowCount = bookBorrowDao.getTodayBorrowCount(queryDate);
-                        int returnCount = bookBorrowDao.getTodayReturnCount(queryDate);
-                        log.info("查询结果: 借阅={}, 归还={}", borrowCount, returnCount);
-                        
-                        dayData.put("borrowCount", borrowCount);
-                        dayData.put("returnCount", returnCount);
-                        result.add(dayData);
-                    }
+                    // 近4天：今天和前3天，最后一项是今天
+                    result = toTrend(borrowRollup.buckets(today.minusDays(3), tomorrow, BorrowRollup.Unit.DAY),
+                            DateTimeFormatter.ofPattern("M-d"));
                     break;
                     
                 case "3months":
-                    // 近3个月：本月、上月、上上月
-                    for (int i = 2; i >= 0; i--) {
-                        Map<String, Object> monthData = new HashMap<>();
-                        LocalDate month = LocalDate.now().minusMonths(i);
-                        monthData.put("date", month.format(DateTimeFormatter.ofPattern("M月")));
-                        
-                        // 获取该月的借阅和归还数据
-                        int borrowCount = getMonthBorrowCount(month);
-                        int returnCount = getMonthReturnCount(month);
-                        
-                        monthData.put("borrowCount", borrowCount);
-                        monthData.put("returnCount", returnCount);
-                        result.add(monthData);
-                    }
+                    // 近3个月：上上月、上月、本月
+                    result = toTrend(borrowRollup.buckets(today.minusMonths(2).withDayOfMonth(1), tomorrow,
+                            BorrowRollup.Unit.MONTH), DateTimeFormatter.ofPattern("M月"));
                     break;
                     
                 case "1year":
                     // 近1年：今年到目前为止的所有月份
-                    LocalDate currentDate = LocalDate.now();
-                    LocalDate startOfYear = LocalDate.of(currentDate.getYear(), 1, 1);
+                    result = toTrend(borrowRollup.buckets(today.withDayOfYear(1), tomorrow, BorrowRollup.Unit.MONTH),
+                            DateTimeFormatter.ofPattern("M月"));
+                    break;
+                    
+                case "day":
+                    // 最近 days 天，按天
+                    result = toTrend(borrowRollup.buckets(today.minusDays(Math.max(days, 1) - 1), tomorrow,
+                            BorrowRollup.Unit.DAY), DateTimeFormatter.ofPattern("M-d"));
+                    break;
+                    
+                case "week":
+                    // 最近 days 周，按周（周一开始）
+                    result = toTrend(borrowRollup.buckets(today.minusWeeks(Math.max(days, 1) - 1), tomorrow,
+                            BorrowRollup.Unit.WEEK), DateTimeFormatter.ofPattern("M-d"));
+                    break;
+                    
+                case "month":
+                    // 最近 days 个月，按月
+                    result = toTrend(borrowRollup.buckets(today.minusMonths(Math.max(days, 1) - 1).withDayOfMonth(1),
+                            tomorrow, BorrowRollup.Unit.MONTH), MONTH_FORMATTER);
+                    break;
                     
-                    LocalDate month = startOfYear;
-                    while (!month.isAfter(currentDate)) {
-                        Map<String, Object> monthData = new HashMap<>();
-                        monthData.put("date", month.getMonthValue() + "月");
-                        
-                        // 获取该月的借阅和归还数据
-                        int borrowCount = getMonthBorrowCount(month);
-                        int returnCount = getMonthReturnCount(month);
-                        
-                        monthData.put("borrowCount", borrowCount);
-                        monthData.put("returnCount", returnCount);
-                        result.add(monthData);
-                        
-                        month = month.plusMonths(1);
-                    }
+                default:
+                    result = new ArrayList<>();
                     break;
             }
             
@@ -385,79 +310,64 @@ public class StatisticsServiceImpl implements StatisticsService {
     }
     
     /**
-     * 获取指定月份的借阅数量
+     * 将汇总桶转换为趋势数据
      */
-    private int getMonthBorrowCount(LocalDate month) {
-        try {
-            // 直接查询数据库，不通过DAO
-            String monthStr = month.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            log.info("查询月度借阅数据: {}", monthStr);
-            
-            // 使用现有的DAO方法查询该月每天的借阅数据
-            int totalCount = 0;
-            int daysInMonth = month.lengthOfMonth();
-            
-            for (int day = 1; day <= daysInMonth; day++) {
-                LocalDate dayDate = LocalDate.of(month.getYear(), month.getMonthValue(), day);
-                String dayStr = dayDate.format(DATE_FORMATTER);
-                int dayCount = bookBorrowDao.getTodayBorrowCount(dayStr);
-                totalCount += dayCount;
-            }
-            
-            log.info("月度借阅数据查询结果: {} = {}", monthStr, totalCount);
-            return totalCount;
-        } catch (Exception e) {
-            log.error("获取月度借阅数据失败: {}", month, e);
-            return 0;
-        }
+    private List<Map<String, Object>> toTrend(Map<LocalDate, long[]> buckets, DateTimeFormatter labelFormatter) {
+        List<Map<String, Object>> result = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, counts) -> {
+            Map<String, Object> data = new HashMap<>();
+            data.put("date", bucket.format(labelFormatter));
+            data.put("borrowCount", (int) counts[0]);
+            data.put("returnCount", (int) counts[1]);
+            result.add(data);
+        });
+        return result;
     }
     
-    /**
-     * 获取指定月份的归还数量
-     */
-    private int getMonthReturnCount(LocalDate month) {
-        try {
-            // 直接查询数据库，不通过DAO
-            String monthStr = month.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            log.info("查询月度归还数据: {}", monthStr);
-            
-            // 使用现有的DAO方法查询该月每天的归还数据
-            int totalCount = 0;
-            int daysInMonth = month.lengthOfMonth();
-            
-            for (int day = 1; day <= daysInMonth; day++) {
-                LocalDate dayDate = LocalDate.of(month.getYear(), month.getMonthValue(), day);
-                String dayStr = dayDate.format(DATE_FORMATTER);
-                int dayCount = bookBorrowDao.getTodayReturnCount(dayStr);
-                totalCount += dayCount;
-            }
-            
-            log.info("月度归还数据查询结果: {} = {}", monthStr, totalCount);
-            return totalCount;
-        } catch (Exception e) {
-            log.error("获取月度归还数据失败: {}", month, e);
-            return 0;
+    private static long[] sum(Map<LocalDate, long[]> buckets) {
+        long[] totals = new long[2];
+        for (long[] counts : buckets.values()) {
+            totals[0] += counts[0];
+            totals[1] += counts[1];
         }
+        return totals;
     }
     
     @Override
     public Map<String, Object> getOverdueStatistics() {
         Map<String, Object> result = new HashMap<>();
         try {
-            // 模拟逾期统计数据
-            result.put("overdueCount", 12);
-            result.put("overdueUsers", 8);
+            // 逾期数与逾期用户数取自逾期跟踪的实时计数，只为逾期最久的几条记录查询详情
+            List<OverdueDetails> details;
+            if (overdueTracker.isLoaded()) {
+                result.put("overdueCount", overdueTracker.overdueCount());
+                result.put("overdueUsers", overdueTracker.overdueUserCount());
+                details = bookBorrowDao.getOverdueDetails(overdueTracker.overdueTransIds(OVERDUE_LIST_LIMIT));
+            } else {
+                details = bookBorrowDao.getOverdueDetails();
+                Set<String> users = new HashSet<>();
+                details.forEach(d -> users.add(d.getCardNum()));
+                result.put("overdueCount", details.size());
+                result.put("overdueUsers", users.size());
+            }
             
             List<Map<String, Object>> overdueBooks = new ArrayList<>();
-            Map<String, Object> book1 = new HashMap<>();
-            book1.put("title", "数据结构");
-            book1.put("borrower", "张三");
-            book1.put("overdueDays", 5);
-            overdueBooks.add(book1);
-            
+            for (OverdueDetails detail : details) {
+                if (overdueBooks.size() >= OVERDUE_LIST_LIMIT) {
+                    break;
+                }
+                Map<String, Object> book = new HashMap<>();
+                book.put("title", detail.getBookTitle());
+                book.put("borrower", detail.getUserName());
+                book.put("borrowerName", detail.getUserName());
+                book.put("borrowDate", detail.getBorrowTime() != null ? detail.getBorrowTime().format(DATE_FORMATTER) : "");
+                book.put("dueDate", detail.getDueTime() != null ? detail.getDueTime().format(DATE_FORMATTER) : "");
+                book.put("overdueDays", detail.getOverdueDays());
+                overdueBooks.add(book);
+            }
             result.put("overdueBooks", overdueBooks);
             
-            log.info("获取逾期统计数据成功");
+            log.info("获取逾期统计数据成功: 逾期={}, 逾期用户={}", result.get("overdueCount"), result.get("overdueUsers"));
             return result;
         } catch (Exception e) {
             log.error("获取逾期统计数据失败", e);
@@ -468,24 +378,14 @@ public class StatisticsServiceImpl implements StatisticsService {
     @Override
     public List<Map<String, Object>> getBorrowStatusDistribution() {
         try {
-            // 从数据库获取真实借阅状态分布数据
+            // 借阅状态分布取自统计快照
             List<Map<String, Object>> result = new ArrayList<>();
             
-            // 获取所有借阅记录
-            List<com.vcampus.server.core.library.entity.core.BookBorrow> allBorrows = bookBorrowDao.findAll();
-            
-            // 统计各状态数量
-            long totalBorrows = allBorrows.size();
-            long returnedBorrows = allBorrows.stream()
-                .filter(borrow -> borrow.getStatus() != null && borrow.getStatus().toString().equals("RETURNED"))
-                .count();
-            long currentBorrows = allBorrows.stream()
-                .filter(borrow -> borrow.getStatus() != null && borrow.getStatus().toString().equals("BORROWED"))
-                .count();
-            long overdueBorrows = bookBorrowDao.findAllOverdueBorrows().size();
-            long renewedBorrows = allBorrows.stream()
-                .filter(borrow -> borrow.getRenewCount() != null && borrow.getRenewCount() > 0)
-                .count();
+            StatisticsEngine.Snapshot snapshot = statisticsEngine.snapshot();
+            long returnedBorrows = snapshot.getReturnedBorrows();
+            long currentBorrows = snapshot.getCurrentBorrows();
+            long overdueBorrows = snapshot.getOverdueBorrows();
+            long renewedBorrows = snapshot.getRenewedBorrows();
             
             Map<String, Object> status1 = new HashMap<>();
             status1.put("status", "已归还");
@@ -539,26 +439,15 @@ public class StatisticsServiceImpl implements StatisticsService {
     @Override
     public List<Map<String, Object>> getActiveUsers(int limit) {
         try {
-            // 模拟活跃用户数据
             List<Map<String, Object>> result = new ArrayList<>();
-            
-            Map<String, Object> user1 = new HashMap<>();
-            user1.put("username", "张三");
-            user1.put("borrowCount", 45);
-            user1.put("lastBorrowDate", "2024-01-15");
-            result.add(user1);
-            
-            Map<String, Object> user2 = new HashMap<>();
-            user2.put("username", "李四");
-            user2.put("borrowCount", 38);
-            user2.put("lastBorrowDate", "2024-01-14");
-            result.add(user2);
-            
-            Map<String, Object> user3 = new HashMap<>();
-            user3.put("username", "王五");
-            user3.put("borrowCount", 32);
-            user3.put("lastBorrowDate", "2024-01-13");
-            result.add(user3);
+            for (BorrowRanking.UserRank rank : borrowRanking.topUsers(BorrowRanking.Period.YEAR, limit)) {
+                Map<String, Object> user = new HashMap<>();
+                user.put("cardNum", rank.getCardNum());
+                user.put("username", rank.getUserName() != null ? rank.getUserName() : rank.getCardNum());
+                user.put("borrowCount", rank.getBorrowCount());
+                user.put("lastBorrowDate", rank.getLastBorrow() != null ? rank.getLastBorrow().format(DATE_FORMATTER) : null);
+                result.add(user);
+            }
             
             log.info("获取活跃用户数据成功，共{}个用户", result.size());
             return result;
@@ -574,11 +463,13 @@ public class StatisticsServiceImpl implements StatisticsService {
     public Map<String, Object> generateDailyReport(String date) {
         Map<String, Object> result = new HashMap<>();
         try {
+            LocalDate day = LocalDate.parse(date, DATE_FORMATTER);
+            long[] totals = borrowRollup.totals(day, day.plusDays(1));
             result.put("reportDate", date);
-            result.put("borrows", 25);
-            result.put("returns", 18);
+            result.put("borrows", totals[0]);
+            result.put("returns", totals[1]);
             result.put("newUsers", 3);
-            result.put("overdue", 2);
+            result.put("overdue", bookBorrowDao.getTodayOverdueCount(date));
             result.put("categoryStats", getCategoryStatistics());
             
             log.info("生成日报数据成功，日期：{}", date);
@@ -593,9 +484,11 @@ public class StatisticsServiceImpl implements StatisticsService {
     public Map<String, Object> generateWeeklyReport(String weekStart) {
         Map<String, Object> result = new HashMap<>();
         try {
+            LocalDate start = LocalDate.parse(weekStart, DATE_FORMATTER);
+            long[] totals = borrowRollup.totals(start, start.plusWeeks(1));
             result.put("weekStart", weekStart);
-            result.put("totalBorrows", 156);
-            result.put("totalReturns", 142);
+            result.put("totalBorrows", totals[0]);
+            result.put("totalReturns", totals[1]);
             result.put("newUsers", 18);
             result.put("popularBooks", getPopularBooks(10));
             result.put("categoryStats", getCategoryStatistics());
@@ -612,13 +505,17 @@ public class StatisticsServiceImpl implements StatisticsService {
     public Map<String, Object> generateMonthlyReport(String month) {
         Map<String, Object> result = new HashMap<>();
         try {
+            LocalDate start = YearMonth.parse(month, MONTH_FORMATTER).atDay(1);
+            LocalDate end = start.plusMonths(1);
+            Map<LocalDate, long[]> daily = borrowRollup.buckets(start, end, BorrowRollup.Unit.DAY);
+            long[] totals = sum(daily);
             result.put("month", month);
-            result.put("totalBorrows", 624);
-            result.put("totalReturns", 598);
+            result.put("totalBorrows", totals[0]);
+            result.put("totalReturns", totals[1]);
             result.put("newUsers", 72);
             result.put("popularBooks", getPopularBooks(10));
             result.put("categoryStats", getCategoryStatistics());
-            result.put("trendData", getBorrowTrend("day", 30));
+            result.put("trendData", toTrend(daily, DateTimeFormatter.ofPattern("M-d")));
             
             log.info("生成月报数据成功，月份：{}", month);
             return result;
@@ -632,13 +529,16 @@ public class StatisticsServiceImpl implements StatisticsService {
     public Map<String, Object> generateYearlyReport(String year) {
         Map<String, Object> result = new HashMap<>();
         try {
+            LocalDate start = LocalDate.of(Integer.parseInt(year.trim()), 1, 1);
+            Map<LocalDate, long[]> monthly = borrowRollup.buckets(start, start.plusYears(1), BorrowRollup.Unit.MONTH);
+            long[] totals = sum(monthly);
             result.put("year", year);
-            result.put("totalBorrows", 7488);
-            result.put("totalReturns", 7176);
+            result.put("totalBorrows", totals[0]);
+            result.put("totalReturns", totals[1]);
             result.put("newUsers", 864);
             result.put("popularBooks", getPopularBooks(20));
             result.put("categoryStats", getCategoryStatistics());
-            result.put("monthlyTrend", getBorrowTrend("month", 12));
+            result.put("monthlyTrend", toTrend(monthly, DateTimeFormatter.ofPattern("M月")));
             
             log.info("生成年报数据成功，年份：{}", year);
             return result;
@@ -726,32 +626,21 @@ public class StatisticsServiceImpl implements StatisticsService {
     public Map<String, Object> getBorrowRateStatistics() {
         Map<String, Object> result = new HashMap<>();
         try {
-            // 获取所有图书
-            List<com.vcampus.server.core.library.entity.core.Book> allBooks = bookDao.findAll();
+            StatisticsEngine.Snapshot snapshot = statisticsEngine.snapshot();
             
             // 统计各分类借阅率
             Map<String, Integer> categoryBorrowedCounts = new HashMap<>(); // 历史总借阅次数
             Map<String, Integer> categoryTotalCounts = new HashMap<>(); // 图书总数量
             
-            // 初始化分类统计
-            for (com.vcampus.server.core.library.entity.core.Book book : allBooks) {
-                String category = book.getCategory();
-                if (category != null && !category.trim().isEmpty()) {
-                    // 使用图书总数量（包括副本）
-                    int totalQty = book.getTotalQty() != null ? book.getTotalQty() : 1;
-                    categoryTotalCounts.put(category, categoryTotalCounts.getOrDefault(category, 0) + totalQty);
+            // 图书总数量（包括副本）
+            snapshot.getCategories().forEach((category, counts) -> {
+                if (!category.trim().isEmpty()) {
+                    categoryTotalCounts.put(category, (int) counts.getTotalQty());
                 }
-            }
+            });
             
-            // 通过借阅记录表统计各分类的历史总借阅次数
-            List<Map<String, Object>> borrowStats = bookBorrowDao.getCategoryBorrowStatistics();
-            for (Map<String, Object> stat : borrowStats) {
-                String category = (String) stat.get("category");
-                Integer borrowCount = ((Number) stat.get("borrowCount")).intValue();
-                if (category != null) {
-                    categoryBorrowedCounts.put(category, borrowCount);
-                }
-            }
+            // 各分类的历史总借阅次数
+            snapshot.getCategoryBorrowCounts().forEach((category, count) -> categoryBorrowedCounts.put(category, count.intValue()));
             
             // 计算借阅率并排序
             // 借阅率 = (该分类历史总借阅次数 / 该分类的图书总数) * 100
@@ -853,21 +742,29 @@ public class StatisticsServiceImpl implements StatisticsService {
         List<Map<String, Object>> result = new ArrayList<>();
         
         try {
-            for (int i = days - 1; i >= 0; i--) {
-                LocalDate date = LocalDate.now().minusDays(i);
-                String dateStr = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                
-                // 获取该天有借阅或归还记录的用户数量
-                int activeUsers = getActiveUsersCount(dateStr);
+            // 一次聚合查询取回 N 天内每天有借阅或归还记录的不重复用户数
+            LocalDate today = LocalDate.now();
+            LocalDate start = today.minusDays(days - 1);
+            Map<String, Integer> activeUsersByDay = new HashMap<>();
+            for (Map<String, Object> row : statisticsDao.getDailyActiveUsers(start.atStartOfDay(), today.plusDays(1).atStartOfDay())) {
+                Object day = row.get("day");
+                Object activeUsers = row.get("activeUsers");
+                if (day != null && activeUsers instanceof Number) {
+                    activeUsersByDay.put(day.toString(), ((Number) activeUsers).intValue());
+                }
+            }
+            
+            for (LocalDate date = start; !date.isAfter(today); date = date.plusDays(1)) {
+                String dateStr = date.format(DATE_FORMATTER);
+                int activeUsers = activeUsersByDay.getOrDefault(dateStr, 0);
                 
                 Map<String, Object> dayData = new HashMap<>();
                 dayData.put("date", date.format(DateTimeFormatter.ofPattern("M-d")));
                 dayData.put("activeUsers", activeUsers);
                 result.add(dayData);
-                
-                log.info("日期: {}, 活跃用户数: {}", dateStr, activeUsers);
             }
             
+            log.info("获取活跃用户趋势数据成功: days={}, 活跃用户数={}", days, activeUsersByDay);
             return result;
         } catch (Exception e) {
             log.error("获取活跃用户趋势数据失败", e);
@@ -875,36 +772,6 @@ public class StatisticsServiceImpl implements StatisticsService {
         }
     }
     
-    /**
-     * 获取指定日期的活跃用户数量
-     */
-    private int getActiveUsersCount(String date) {
-        try {
-            // 查询该天有借阅或归还记录的不重复用户数量
-            List<UserBorrowHistory> borrowHistory = bookBorrowDao.getAllUserBorrowHistory();
-            
-            Set<String> activeUsers = new HashSet<>();
-            
-            for (UserBorrowHistory history : borrowHistory) {
-                // 检查借阅时间
-                if (history.getBorrowTime() != null && 
-                    history.getBorrowTime().toLocalDate().toString().equals(date)) {
-                    activeUsers.add(history.getCardNum());
-                }
-                // 检查归还时间
-                if (history.getReturnTime() != null && 
-                    history.getReturnTime().toLocalDate().toString().equals(date)) {
-                    activeUsers.add(history.getCardNum());
-                }
-            }
-            
-            return activeUsers.size();
-        } catch (Exception e) {
-            log.error("获取活跃用户数量失败: {}", date, e);
-            return 0;
-        }
-    }
-    
     /**
      * 获取今日借阅数量
      */
@@ -971,7 +838,7 @@ public class StatisticsServiceImpl implements StatisticsService {
      */
     public long getOverdueBooksCount() {
         try {
-            return bookBorrowDao.findAllOverdueBorrows().size();
+            return statisticsEngine.snapshot().getOverdueBorrows();
         } catch (Exception e) {
             log.error("获取逾期图书数量失败", e);
             return 0;
@@ -983,12 +850,7 @@ public class StatisticsServiceImpl implements StatisticsService {
      */
     public int getAllActiveUsersCount() {
         try {
-            List<UserBorrowHistory> borrowHistory = bookBorrowDao.getAllUserBorrowHistory();
-            Set<String> activeUsers = new HashSet<>();
-            for (UserBorrowHistory history : borrowHistory) {
-                activeUsers.add(history.getCardNum());
-            }
-            return activeUsers.size();
+            return (int) statisticsEngine.snapshot().getBorrowers();
         } catch (Exception e) {
             log.error("获取所有活跃用户数量失败", e);
             return 0;
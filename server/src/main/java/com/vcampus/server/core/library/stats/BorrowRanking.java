@@ -0,0 +1,548 @@
+package com.vcampus.server.core.library.stats;
+
+import com.vcampus.common.entity.base.User;
+import com.vcampus.server.core.auth.dao.UserDao;
+import com.vcampus.server.core.library.dao.BookBorrowDao;
+import com.vcampus.server.core.library.dao.BookDao;
+import com.vcampus.server.core.library.entity.core.Book;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 热门图书与活跃用户排行（内存滑动窗口 Top-K）
+ *
+ * 最近一年内按图书、用户、天汇总的借阅次数一次性由 GROUP BY 查询加载，
+ * 按 7/30/365 天三个滑动窗口分别维护精确计数，并为全馆及每个分类维护前 {@value #MAX_K} 名的有序列表。
+ * 借阅成功时只有一本书和一个用户的计数加一，排行列表按新计数原地调整，读取时直接截取列表前 K 项，不再扫描或排序。
+ * 跨天时从各窗口减去滑出窗口那一天的计数并重建排行；
+ * 为纠正其它途径（如直接修改数据库）造成的偏差，每隔 {@value #RELOAD_INTERVAL_MINUTES} 分钟与数据库重新对齐一次。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class BorrowRanking {
+
+    /**
+     * 排行统计窗口
+     */
+    public enum Period {
+        WEEK(7), MONTH(30), YEAR(365);
+
+        private final int days;
+
+        Period(int days) {
+            this.days = days;
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        /**
+         * 解析窗口名称（week/month/year，不区分大小写），无法识别时返回默认值
+         */
+        public static Period parse(String value, Period defaultPeriod) {
+            if (value != null) {
+                for (Period period : values()) {
+                    if (period.name().equalsIgnoreCase(value.trim())) {
+                        return period;
+                    }
+                }
+            }
+            return defaultPeriod;
+        }
+    }
+
+    /**
+     * 每个排行保留的最大条数
+     */
+    public static final int MAX_K = 50;
+
+    private static final long RELOAD_INTERVAL_MINUTES = 60;
+    private static final String GLOBAL = "";
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // 小顶堆顺序：计数少的在前，计数相同时 ID 大的在前，使最终排行按计数降序、ID 升序
+    private static final Comparator<BookRank> BOOK_ASCENDING = Comparator.comparingLong(BookRank::getBorrowCount)
+            .thenComparing(BookRank::getBookId, Comparator.reverseOrder());
+    private static final Comparator<UserRank> USER_ASCENDING = Comparator.comparingLong(UserRank::getBorrowCount)
+            .thenComparing(UserRank::getCardNum, Comparator.reverseOrder());
+
+    private static volatile BorrowRanking instance;
+
+    private final BiFunction<LocalDateTime, LocalDateTime, List<Map<String, Object>>> loader;
+    private final Function<Integer, Optional<Book>> bookFinder;
+    private final Function<String, Optional<String>> userNameFinder;
+
+    private volatile State state;
+
+    BorrowRanking(BiFunction<LocalDateTime, LocalDateTime, List<Map<String, Object>>> loader,
+                  Function<Integer, Optional<Book>> bookFinder,
+                  Function<String, Optional<String>> userNameFinder) {
+        this.loader = loader;
+        this.bookFinder = bookFinder;
+        this.userNameFinder = userNameFinder;
+    }
+
+    public static BorrowRanking getInstance() {
+        if (instance == null) {
+            synchronized (BorrowRanking.class) {
+                if (instance == null) {
+                    instance = new BorrowRanking(BookBorrowDao.getInstance()::getDailyBorrowPairs,
+                            BookDao.getInstance()::findById,
+                            cardNum -> UserDao.getInstance().findById(cardNum).map(User::getName));
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ==================== 增量维护 ====================
+
+    /**
+     * 记录一次成功的借阅（当天）
+     *
+     * @param bookId 图书ID
+     * @param cardNum 借阅人卡号
+     */
+    public void recordBorrow(Integer bookId, String cardNum) {
+        State current = state;
+        if (current == null || bookId == null || cardNum == null) {
+            // 尚未加载时无需记录，首次读取时会从数据库加载
+            return;
+        }
+
+        // 首次出现的图书/用户在锁外补齐展示信息，避免持锁访问数据库
+        if (!current.books.containsKey(bookId)) {
+            current.books.putIfAbsent(bookId, resolveBook(bookId));
+        }
+        if (!current.users.containsKey(cardNum)) {
+            current.users.putIfAbsent(cardNum, new UserInfo(resolveUserName(cardNum)));
+        }
+
+        synchronized (this) {
+            if (state != current) {
+                // 期间已重新加载，新数据已包含本次借阅
+                return;
+            }
+            LocalDate today = LocalDate.now();
+            advance(current, today);
+
+            BookInfo book = current.books.get(bookId);
+            UserInfo user = current.users.get(cardNum);
+            user.lastBorrow = LocalDateTime.now();
+            current.bookDays.computeIfAbsent(today, k -> new HashMap<>()).merge(bookId, 1L, Long::sum);
+            current.userDays.computeIfAbsent(today, k -> new HashMap<>()).merge(cardNum, 1L, Long::sum);
+
+            for (Period period : Period.values()) {
+                long bookCount = current.bookTotals.get(period).merge(bookId, 1L, Long::sum);
+                BookRank bookRank = new BookRank(bookId, book.title, book.author, book.category, bookCount);
+                Map<String, List<BookRank>> bookTops = current.bookTops.get(period);
+                bookTops.put(GLOBAL, offer(bookTops.get(GLOBAL), bookRank,
+                        r -> r.bookId.equals(bookId), BOOK_ASCENDING));
+                if (book.category != null) {
+                    bookTops.put(book.category, offer(bookTops.get(book.category), bookRank,
+                            r -> r.bookId.equals(bookId), BOOK_ASCENDING));
+                }
+
+                long userCount = current.userTotals.get(period).merge(cardNum, 1L, Long::sum);
+                UserRank userRank = new UserRank(cardNum, user.name, userCount, user.lastBorrow);
+                current.userTops.put(period, offer(current.userTops.get(period), userRank,
+                        r -> r.cardNum.equals(cardNum), USER_ASCENDING));
+            }
+        }
+    }
+
+    /**
+     * 丢弃排行数据，下次查询时重新加载
+     */
+    public void invalidate() {
+        state = null;
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 热门图书排行
+     *
+     * @param period 统计窗口
+     * @param category 分类代码，为空时返回全馆排行
+     * @param limit 最多返回条数，不超过 {@value #MAX_K}
+     * @return 按借阅次数降序排列的图书
+     */
+    public List<BookRank> topBooks(Period period, String category, int limit) {
+        State current = ensureFresh();
+        String scope = category == null || category.trim().isEmpty() ? GLOBAL : category.trim();
+        return head(current.bookTops.get(period).get(scope), limit);
+    }
+
+    /**
+     * 活跃用户排行
+     *
+     * @param period 统计窗口
+     * @param limit 最多返回条数，不超过 {@value #MAX_K}
+     * @return 按借阅次数降序排列的用户
+     */
+    public List<UserRank> topUsers(Period period, int limit) {
+        State current = ensureFresh();
+        return head(current.userTops.get(period), limit);
+    }
+
+    private static <T> List<T> head(List<T> top, int limit) {
+        if (top == null || limit <= 0) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(top.subList(0, Math.min(limit, top.size())));
+    }
+
+    private State ensureFresh() {
+        State current = state;
+        LocalDate today = LocalDate.now();
+        if (current != null && !current.isExpired() && current.today.equals(today)) {
+            return current;
+        }
+        synchronized (this) {
+            current = state;
+            if (current == null || current.isExpired()) {
+                current = load(today);
+                state = current;
+            } else {
+                advance(current, today);
+            }
+            return current;
+        }
+    }
+
+    // ==================== 加载与滑动 ====================
+
+    private State load(LocalDate today) {
+        long begin = System.currentTimeMillis();
+        LocalDate start = today.minusDays(Period.YEAR.days - 1);
+        State loaded = new State(today);
+
+        List<Map<String, Object>> rows = loader.apply(start.atStartOfDay(), today.plusDays(1).atStartOfDay());
+        if (rows != null) {
+            for (Map<String, Object> row : rows) {
+                Object bookIdValue = row.get("bookId");
+                Object cardNumValue = row.get("cardNum");
+                Object dayValue = row.get("day");
+                Object countValue = row.get("cnt");
+                if (bookIdValue == null || cardNumValue == null || dayValue == null || countValue == null) {
+                    continue;
+                }
+                Integer bookId = ((Number) bookIdValue).intValue();
+                String cardNum = cardNumValue.toString();
+                LocalDate day = LocalDate.parse(dayValue.toString());
+                long count = ((Number) countValue).longValue();
+
+                loaded.books.computeIfAbsent(bookId, k -> new BookInfo(
+                        asString(row.get("title")), asString(row.get("author")), asString(row.get("category"))));
+                UserInfo user = loaded.users.computeIfAbsent(cardNum, k -> new UserInfo(asString(row.get("userName"))));
+                LocalDateTime lastBorrow = asDateTime(row.get("lastBorrow"));
+                if (lastBorrow != null && (user.lastBorrow == null || lastBorrow.isAfter(user.lastBorrow))) {
+                    user.lastBorrow = lastBorrow;
+                }
+
+                loaded.bookDays.computeIfAbsent(day, k -> new HashMap<>()).merge(bookId, count, Long::sum);
+                loaded.userDays.computeIfAbsent(day, k -> new HashMap<>()).merge(cardNum, count, Long::sum);
+                long age = ChronoUnit.DAYS.between(day, today);
+                for (Period period : Period.values()) {
+                    if (age < period.days) {
+                        loaded.bookTotals.get(period).merge(bookId, count, Long::sum);
+                        loaded.userTotals.get(period).merge(cardNum, count, Long::sum);
+                    }
+                }
+            }
+        }
+
+        rebuildTops(loaded);
+        log.info("借阅排行加载完成: from={}, books={}, users={}, 耗时={}ms",
+                start, loaded.books.size(), loaded.users.size(), System.currentTimeMillis() - begin);
+        return loaded;
+    }
+
+    /**
+     * 把窗口推进到指定日期：减去滑出各窗口的那几天的计数并重建排行，须持有锁调用
+     */
+    private void advance(State current, LocalDate today) {
+        if (!today.isAfter(current.today)) {
+            return;
+        }
+        for (LocalDate day = current.today.plusDays(1); !day.isAfter(today); day = day.plusDays(1)) {
+            for (Period period : Period.values()) {
+                LocalDate expired = day.minusDays(period.days);
+                subtract(current.bookTotals.get(period), current.bookDays.get(expired));
+                subtract(current.userTotals.get(period), current.userDays.get(expired));
+            }
+        }
+        LocalDate oldest = today.minusDays(Period.YEAR.days - 1);
+        current.bookDays.keySet().removeIf(day -> day.isBefore(oldest));
+        current.userDays.keySet().removeIf(day -> day.isBefore(oldest));
+        current.today = today;
+        rebuildTops(current);
+        log.info("借阅排行窗口已推进到 {}", today);
+    }
+
+    private static <K> void subtract(Map<K, Long> totals, Map<K, Long> day) {
+        if (day == null) {
+            return;
+        }
+        day.forEach((key, count) -> totals.computeIfPresent(key, (k, total) -> total - count > 0 ? total - count : null));
+    }
+
+    private static void rebuildTops(State current) {
+        for (Period period : Period.values()) {
+            Map<String, PriorityQueue<BookRank>> bookHeaps = new HashMap<>();
+            current.bookTotals.get(period).forEach((bookId, count) -> {
+                BookInfo book = current.books.get(bookId);
+                BookRank rank = new BookRank(bookId, book.title, book.author, book.category, count);
+                push(bookHeaps.computeIfAbsent(GLOBAL, k -> new PriorityQueue<>(BOOK_ASCENDING)), rank);
+                if (book.category != null) {
+                    push(bookHeaps.computeIfAbsent(book.category, k -> new PriorityQueue<>(BOOK_ASCENDING)), rank);
+                }
+            });
+            Map<String, List<BookRank>> bookTops = new ConcurrentHashMap<>();
+            bookHeaps.forEach((scope, heap) -> bookTops.put(scope, drain(heap)));
+            current.bookTops.put(period, bookTops);
+
+            PriorityQueue<UserRank> userHeap = new PriorityQueue<>(USER_ASCENDING);
+            current.userTotals.get(period).forEach((cardNum, count) -> {
+                UserInfo user = current.users.get(cardNum);
+                push(userHeap, new UserRank(cardNum, user.name, count, user.lastBorrow));
+            });
+            current.userTops.put(period, drain(userHeap));
+        }
+    }
+
+    /**
+     * 维护大小不超过 K 的小顶堆
+     */
+    private static <T> void push(PriorityQueue<T> heap, T item) {
+        heap.offer(item);
+        if (heap.size() > MAX_K) {
+            heap.poll();
+        }
+    }
+
+    private static <T> List<T> drain(PriorityQueue<T> heap) {
+        List<T> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll());
+        }
+        Collections.reverse(result);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * 某一项计数加一后调整有序排行：移除旧位置，按新计数插入，超出 K 时丢弃末尾
+     * 计数只增不减，因此其余项的相对顺序不变，结果仍是精确的前 K 名；
+     * 插入位置与重新载入时使用同一比较器，计数相同的项同样按 ID 升序排列
+     */
+    private static <T> List<T> offer(List<T> top, T item, Predicate<T> sameKey, Comparator<T> ascending) {
+        List<T> next = new ArrayList<>(top == null ? 1 : top.size() + 1);
+        boolean placed = false;
+        if (top != null) {
+            for (T existing : top) {
+                if (sameKey.test(existing)) {
+                    continue;
+                }
+                if (!placed && ascending.compare(item, existing) > 0) {
+                    next.add(item);
+                    placed = true;
+                }
+                next.add(existing);
+            }
+        }
+        if (!placed) {
+            next.add(item);
+        }
+        if (next.size() > MAX_K) {
+            next.remove(next.size() - 1);
+        }
+        return Collections.unmodifiableList(next);
+    }
+
+    private BookInfo resolveBook(Integer bookId) {
+        try {
+            return bookFinder.apply(bookId)
+                    .map(book -> new BookInfo(book.getTitle(), book.getAuthor(), book.getCategory()))
+                    .orElseGet(() -> new BookInfo(null, null, null));
+        } catch (Exception e) {
+            log.warn("读取排行图书信息失败: bookId={}", bookId, e);
+            return new BookInfo(null, null, null);
+        }
+    }
+
+    private String resolveUserName(String cardNum) {
+        try {
+            return userNameFinder.apply(cardNum).orElse(null);
+        } catch (Exception e) {
+            log.warn("读取排行用户信息失败: cardNum={}", cardNum, e);
+            return null;
+        }
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static LocalDateTime asDateTime(Object value) {
+        if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        }
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime();
+        }
+        if (value != null) {
+            try {
+                return LocalDateTime.parse(value.toString(), DATE_TIME_FORMATTER);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // ==================== 排行项 ====================
+
+    /**
+     * 热门图书排行项
+     */
+    public static final class BookRank {
+        private final Integer bookId;
+        private final String title;
+        private final String author;
+        private final String category;
+        private final long borrowCount;
+
+        BookRank(Integer bookId, String title, String author, String category, long borrowCount) {
+            this.bookId = bookId;
+            this.title = title;
+            this.author = author;
+            this.category = category;
+            this.borrowCount = borrowCount;
+        }
+
+        public Integer getBookId() {
+            return bookId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+    }
+
+    /**
+     * 活跃用户排行项
+     */
+    public static final class UserRank {
+        private final String cardNum;
+        private final String userName;
+        private final long borrowCount;
+        private final LocalDateTime lastBorrow;
+
+        UserRank(String cardNum, String userName, long borrowCount, LocalDateTime lastBorrow) {
+            this.cardNum = cardNum;
+            this.userName = userName;
+            this.borrowCount = borrowCount;
+            this.lastBorrow = lastBorrow;
+        }
+
+        public String getCardNum() {
+            return cardNum;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public LocalDateTime getLastBorrow() {
+            return lastBorrow;
+        }
+    }
+
+    // ==================== 内部状态 ====================
+
+    private static final class BookInfo {
+        final String title;
+        final String author;
+        final String category;
+
+        BookInfo(String title, String author, String category) {
+            this.title = title;
+            this.author = author;
+            this.category = category;
+        }
+    }
+
+    private static final class UserInfo {
+        final String name;
+        volatile LocalDateTime lastBorrow;
+
+        UserInfo(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * 已加载的排行数据；计数与按天明细只在持锁时修改，排行列表为不可变快照，读取无需加锁
+     */
+    private static final class State {
+        volatile LocalDate today;
+        final long loadedAt = System.currentTimeMillis();
+        final Map<Integer, BookInfo> books = new ConcurrentHashMap<>();
+        final Map<String, UserInfo> users = new ConcurrentHashMap<>();
+        final Map<LocalDate, Map<Integer, Long>> bookDays = new HashMap<>();
+        final Map<LocalDate, Map<String, Long>> userDays = new HashMap<>();
+        final Map<Period, Map<Integer, Long>> bookTotals = new EnumMap<>(Period.class);
+        final Map<Period, Map<String, Long>> userTotals = new EnumMap<>(Period.class);
+        final Map<Period, Map<String, List<BookRank>>> bookTops = new ConcurrentHashMap<>();
+        final Map<Period, List<UserRank>> userTops = new ConcurrentHashMap<>();
+
+        State(LocalDate today) {
+            this.today = today;
+            for (Period period : Period.values()) {
+                bookTotals.put(period, new HashMap<>());
+                userTotals.put(period, new HashMap<>());
+            }
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - loadedAt > RELOAD_INTERVAL_MINUTES * 60_000L;
+        }
+    }
+}
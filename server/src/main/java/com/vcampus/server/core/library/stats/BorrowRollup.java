@@ -0,0 +1,287 @@
+package com.vcampus.server.core.library.stats;
+
+import com.vcampus.server.core.library.dao.BookBorrowDao;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * 借阅/归还按天汇总（内存日汇总）
+ *
+ * 最近 {@value #WINDOW_DAYS} 天的每日借阅数与归还数一次性由 GROUP BY 查询加载，
+ * 之后由借阅、归还成功时增量累加；按天/周/月的趋势与报表直接由日汇总合并得出，不再逐日查询数据库。
+ * 窗口之外的日期按需用同一条聚合查询补齐。
+ * 为纠正其它途径（如直接修改数据库）造成的偏差，日汇总每隔 {@value #RELOAD_INTERVAL_MINUTES} 分钟与数据库重新对齐一次。
+ * 加载期间发生的借阅、归还另外记下，加载完成后补记到新窗口，不会因聚合查询未读到而丢失；
+ * 聚合查询已读到的这部分会被重复计入，由下次对齐纠正。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class BorrowRollup {
+
+    /**
+     * 汇总粒度
+     */
+    public enum Unit {
+        DAY, WEEK, MONTH
+    }
+
+    private static final int WINDOW_DAYS = 400;
+    private static final long RELOAD_INTERVAL_MINUTES = 60;
+    private static final String KIND_BORROW = "borrow";
+    private static final String KIND_RETURN = "return";
+
+    private static volatile BorrowRollup instance;
+
+    private final BiFunction<LocalDateTime, LocalDateTime, List<Map<String, Object>>> loader;
+
+    private volatile Window window;
+
+    /**
+     * 加载期间发生的增量，未在加载时为 null；与窗口的替换一起由 countLock 保护
+     */
+    private Map<LocalDate, DayCounts> loading;
+    private final Object countLock = new Object();
+
+    BorrowRollup(BiFunction<LocalDateTime, LocalDateTime, List<Map<String, Object>>> loader) {
+        this.loader = loader;
+    }
+
+    public static BorrowRollup getInstance() {
+        if (instance == null) {
+            synchronized (BorrowRollup.class) {
+                if (instance == null) {
+                    instance = new BorrowRollup(BookBorrowDao.getInstance()::getDailyTransCounts);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ==================== 增量维护 ====================
+
+    /**
+     * 记录一次借阅（当天）
+     */
+    public void recordBorrow() {
+        record(true);
+    }
+
+    /**
+     * 记录一次归还（当天）
+     */
+    public void recordReturn() {
+        record(false);
+    }
+
+    private void record(boolean borrow) {
+        LocalDate today = LocalDate.now();
+        synchronized (countLock) {
+            Window current = window;
+            if (current != null) {
+                current.counts(today).add(borrow);
+            }
+            if (loading != null) {
+                loading.computeIfAbsent(today, k -> new DayCounts()).add(borrow);
+            }
+        }
+    }
+
+    /**
+     * 丢弃日汇总，下次查询时重新加载
+     */
+    public void invalidate() {
+        window = null;
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 时间范围内的借阅与归还总数
+     *
+     * @param start 开始日期（含）
+     * @param end 结束日期（不含）
+     * @return [借阅数, 归还数]
+     */
+    public long[] totals(LocalDate start, LocalDate end) {
+        long[] totals = new long[2];
+        daily(start, end).values().forEach(counts -> {
+            totals[0] += counts[0];
+            totals[1] += counts[1];
+        });
+        return totals;
+    }
+
+    /**
+     * 按粒度汇总时间范围内的借阅与归还数
+     *
+     * @param start 开始日期（含）
+     * @param end 结束日期（不含）
+     * @param unit 汇总粒度；按周时以周一为一周的开始
+     * @return 以桶起始日期为键、[借阅数, 归还数] 为值的有序映射，包含没有数据的桶
+     */
+    public Map<LocalDate, long[]> buckets(LocalDate start, LocalDate end, Unit unit) {
+        Map<LocalDate, long[]> result = new LinkedHashMap<>();
+        for (LocalDate bucket = bucketOf(start, unit); bucket.isBefore(end); bucket = next(bucket, unit)) {
+            result.put(bucket, new long[2]);
+        }
+        daily(start, end).forEach((day, counts) -> {
+            long[] bucket = result.get(bucketOf(day, unit));
+            if (bucket != null) {
+                bucket[0] += counts[0];
+                bucket[1] += counts[1];
+            }
+        });
+        return result;
+    }
+
+    private Map<LocalDate, long[]> daily(LocalDate start, LocalDate end) {
+        Map<LocalDate, long[]> result = new HashMap<>();
+        if (!start.isBefore(end)) {
+            return result;
+        }
+        Window current = ensureLoaded();
+
+        // 窗口之前的部分直接聚合查询
+        if (start.isBefore(current.start)) {
+            LocalDate until = end.isBefore(current.start) ? end : current.start;
+            result.putAll(query(start, until));
+        }
+        LocalDate from = start.isBefore(current.start) ? current.start : start;
+        for (LocalDate day = from; day.isBefore(end); day = day.plusDays(1)) {
+            DayCounts counts = current.days.get(day);
+            if (counts != null) {
+                result.put(day, new long[]{counts.borrows.get(), counts.returns.get()});
+            }
+        }
+        return result;
+    }
+
+    private Window ensureLoaded() {
+        Window current = window;
+        if (current != null && !current.isExpired()) {
+            return current;
+        }
+        synchronized (this) {
+            current = window;
+            if (current == null || current.isExpired()) {
+                long begin = System.currentTimeMillis();
+                LocalDate start = LocalDate.now().minusDays(WINDOW_DAYS);
+                Window loaded = new Window(start);
+                synchronized (countLock) {
+                    loading = new HashMap<>();
+                }
+                try {
+                    query(start, LocalDate.now().plusDays(1)).forEach((day, counts) -> {
+                        DayCounts dayCounts = loaded.counts(day);
+                        dayCounts.borrows.set(counts[0]);
+                        dayCounts.returns.set(counts[1]);
+                    });
+                } catch (RuntimeException e) {
+                    synchronized (countLock) {
+                        loading = null;
+                    }
+                    throw e;
+                }
+                synchronized (countLock) {
+                    loading.forEach((day, counts) -> {
+                        DayCounts dayCounts = loaded.counts(day);
+                        dayCounts.borrows.addAndGet(counts.borrows.get());
+                        dayCounts.returns.addAndGet(counts.returns.get());
+                    });
+                    loading = null;
+                    window = loaded;
+                }
+                current = loaded;
+                log.info("借阅日汇总加载完成: from={}, days={}, 耗时={}ms",
+                        start, loaded.days.size(), System.currentTimeMillis() - begin);
+            }
+            return current;
+        }
+    }
+
+    private Map<LocalDate, long[]> query(LocalDate start, LocalDate end) {
+        Map<LocalDate, long[]> result = new HashMap<>();
+        List<Map<String, Object>> rows = loader.apply(start.atStartOfDay(), end.atStartOfDay());
+        if (rows == null) {
+            return result;
+        }
+        for (Map<String, Object> row : rows) {
+            Object day = row.get("day");
+            Object count = row.get("cnt");
+            if (day == null || count == null) {
+                continue;
+            }
+            long[] counts = result.computeIfAbsent(LocalDate.parse(day.toString()), k -> new long[2]);
+            if (KIND_BORROW.equals(row.get("kind"))) {
+                counts[0] += ((Number) count).longValue();
+            } else if (KIND_RETURN.equals(row.get("kind"))) {
+                counts[1] += ((Number) count).longValue();
+            }
+        }
+        return result;
+    }
+
+    static LocalDate bucketOf(LocalDate day, Unit unit) {
+        switch (unit) {
+            case WEEK:
+                return day.with(DayOfWeek.MONDAY);
+            case MONTH:
+                return day.withDayOfMonth(1);
+            default:
+                return day;
+        }
+    }
+
+    private static LocalDate next(LocalDate bucket, Unit unit) {
+        switch (unit) {
+            case WEEK:
+                return bucket.plusWeeks(1);
+            case MONTH:
+                return bucket.plusMonths(1);
+            default:
+                return bucket.plusDays(1);
+        }
+    }
+
+    /**
+     * 已加载的日汇总窗口
+     */
+    private static final class Window {
+        final LocalDate start;
+        final long loadedAt = System.currentTimeMillis();
+        final Map<LocalDate, DayCounts> days = new ConcurrentHashMap<>();
+
+        Window(LocalDate start) {
+            this.start = start;
+        }
+
+        DayCounts counts(LocalDate day) {
+            return days.computeIfAbsent(day, k -> new DayCounts());
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - loadedAt > RELOAD_INTERVAL_MINUTES * 60_000L;
+        }
+    }
+
+    private static final class DayCounts {
+        final AtomicLong borrows = new AtomicLong();
+        final AtomicLong returns = new AtomicLong();
+
+        void add(boolean borrow) {
+            (borrow ? borrows : returns).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.vcampus.server.core.library.stats;
+
+import com.vcampus.server.core.library.dao.BookBorrowDao;
+import com.vcampus.server.core.library.dao.LibraryStatisticsDao;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 图书馆统计快照
+ *
+ * 仪表板、图书、分类、借阅状态、借阅率等统计全部由三条聚合查询得出
+ * （按分类与状态统计图书、按状态统计借阅记录、按分类统计历史借阅次数），
+ * 查询结果合成一个不可变快照并缓存 {@value #SNAPSHOT_TTL_SECONDS} 秒，
+ * 同一时间段内的多次仪表板刷新共用一次数据库往返，且内存与耗时不随借阅记录数量增长。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class StatisticsEngine {
+
+    private static final long SNAPSHOT_TTL_SECONDS = 30;
+
+    private static volatile StatisticsEngine instance;
+
+    private final Supplier<List<Map<String, Object>>> bookCountsLoader;
+    private final Supplier<Map<String, Object>> borrowCountsLoader;
+    private final Supplier<List<Map<String, Object>>> categoryBorrowLoader;
+
+    private volatile Snapshot snapshot;
+
+    StatisticsEngine(Supplier<List<Map<String, Object>>> bookCountsLoader,
+                     Supplier<Map<String, Object>> borrowCountsLoader,
+                     Supplier<List<Map<String, Object>>> categoryBorrowLoader) {
+        this.bookCountsLoader = bookCountsLoader;
+        this.borrowCountsLoader = borrowCountsLoader;
+        this.categoryBorrowLoader = categoryBorrowLoader;
+    }
+
+    public static StatisticsEngine getInstance() {
+        if (instance == null) {
+            synchronized (StatisticsEngine.class) {
+                if (instance == null) {
+                    LibraryStatisticsDao statisticsDao = LibraryStatisticsDao.getInstance();
+                    instance = new StatisticsEngine(statisticsDao::getBookStatusCounts,
+                            statisticsDao::getBorrowStatusCounts,
+                            BookBorrowDao.getInstance()::getCategoryBorrowStatistics);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 获取统计快照，过期时重新聚合；并发请求只触发一次查询
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired()) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.isExpired()) {
+                current = load();
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * 丢弃快照，下次查询时重新聚合
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot load() {
+        long begin = System.currentTimeMillis();
+        Snapshot loaded = new Snapshot();
+
+        List<Map<String, Object>> bookRows = bookCountsLoader.get();
+        if (bookRows != null) {
+            for (Map<String, Object> row : bookRows) {
+                long bookCount = asLong(row.get("bookCount"));
+                long totalQty = asLong(row.get("totalQty"));
+                Object status = row.get("status");
+                Object category = row.get("category");
+
+                loaded.totalBooks += bookCount;
+                loaded.booksByStatus.merge(status == null ? "" : status.toString(), bookCount, Long::sum);
+                if (category != null) {
+                    CategoryCounts counts = loaded.categories.computeIfAbsent(category.toString(), k -> new CategoryCounts());
+                    counts.bookCount += bookCount;
+                    counts.totalQty += totalQty;
+                    if ("BORROWED".equals(status)) {
+                        counts.borrowedBooks += bookCount;
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> borrowRow = borrowCountsLoader.get();
+        if (borrowRow != null) {
+            loaded.totalBorrows = asLong(borrowRow.get("total"));
+            loaded.currentBorrows = asLong(borrowRow.get("borrowed"));
+            loaded.returnedBorrows = asLong(borrowRow.get("returned"));
+            loaded.overdueBorrows = asLong(borrowRow.get("overdue"));
+            loaded.renewedBorrows = asLong(borrowRow.get("renewed"));
+            loaded.borrowers = asLong(borrowRow.get("borrowers"));
+        }
+
+        List<Map<String, Object>> categoryRows = categoryBorrowLoader.get();
+        if (categoryRows != null) {
+            for (Map<String, Object> row : categoryRows) {
+                Object category = row.get("category");
+                if (category != null) {
+                    loaded.categoryBorrowCounts.merge(category.toString(), asLong(row.get("borrowCount")), Long::sum);
+                }
+            }
+        }
+
+        log.info("统计快照生成完成: books={}, borrows={}, categories={}, 耗时={}ms",
+                loaded.totalBooks, loaded.totalBorrows, loaded.categories.size(), System.currentTimeMillis() - begin);
+        return loaded;
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * 分类图书计数
+     */
+    public static final class CategoryCounts {
+        private long bookCount;
+        private long borrowedBooks;
+        private long totalQty;
+
+        /**
+         * 图书种数
+         */
+        public long getBookCount() {
+            return bookCount;
+        }
+
+        /**
+         * 状态为已借出的图书种数
+         */
+        public long getBorrowedBooks() {
+            return borrowedBooks;
+        }
+
+        /**
+         * 图书总册数（含副本）
+         */
+        public long getTotalQty() {
+            return totalQty;
+        }
+    }
+
+    /**
+     * 统计快照，生成后只读
+     */
+    public static final class Snapshot {
+        private final LocalDateTime generatedAt = LocalDateTime.now();
+        private final long loadedAt = System.currentTimeMillis();
+        private final Map<String, Long> booksByStatus = new HashMap<>();
+        private final Map<String, CategoryCounts> categories = new LinkedHashMap<>();
+        private final Map<String, Long> categoryBorrowCounts = new HashMap<>();
+        private long totalBooks;
+        private long totalBorrows;
+        private long currentBorrows;
+        private long returnedBorrows;
+        private long overdueBorrows;
+        private long renewedBorrows;
+        private long borrowers;
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - loadedAt > SNAPSHOT_TTL_SECONDS * 1000L;
+        }
+
+        public LocalDateTime getGeneratedAt() {
+            return generatedAt;
+        }
+
+        public long getTotalBooks() {
+            return totalBooks;
+        }
+
+        /**
+         * 指定状态的图书种数；状态为空的图书以空字符串计
+         */
+        public long getBookCount(String status) {
+            return booksByStatus.getOrDefault(status, 0L);
+        }
+
+        /**
+         * 各分类的图书计数
+         */
+        public Map<String, CategoryCounts> getCategories() {
+            return Collections.unmodifiableMap(categories);
+        }
+
+        /**
+         * 各分类的历史借阅次数
+         */
+        public Map<String, Long> getCategoryBorrowCounts() {
+            return Collections.unmodifiableMap(categoryBorrowCounts);
+        }
+
+        public long getTotalBorrows() {
+            return totalBorrows;
+        }
+
+        public long getCurrentBorrows() {
+            return currentBorrows;
+        }
+
+        public long getReturnedBorrows() {
+            return returnedBorrows;
+        }
+
+        public long getOverdueBorrows() {
+            return overdueBorrows;
+        }
+
+        public long getRenewedBorrows() {
+            return renewedBorrows;
+        }
+
+        /**
+         * 借阅过图书的不重复用户数
+         */
+        public long getBorrowers() {
+            return borrowers;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.vcampus.server.core.net;
+
+import com.vcampus.server.core.system.constant.SystemConstant;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 业务线程池
+ * 承载 Router.route() 等可能阻塞（MyBatis/JDBC）的业务调用，避免占用 Netty 的 I/O 线程。
+ * 支持两种模式：
+ * <ul>
+ *     <li>bounded：固定大小的平台线程池 + 有界队列</li>
+ *     <li>virtual：每个请求一个虚拟线程，用信号量限制同时在途的请求数</li>
+ * </ul>
+ * 两种模式下任务数超过上限时 {@link #tryExecute(Runnable)} 返回 false，由调用方返回"服务器繁忙"。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class BusinessExecutor {
+
+    private final String mode;
+    private final int threads;
+    private final int queueCapacity;
+    private final ExecutorService executor;
+
+    /**
+     * virtual 模式下限制在途任务数的信号量（bounded 模式为 null）
+     */
+    private final Semaphore inFlightPermits;
+
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    public BusinessExecutor(String mode, int threads, int queueCapacity) {
+        this.mode = SystemConstant.EXECUTOR_MODE_VIRTUAL.equalsIgnoreCase(mode)
+                ? SystemConstant.EXECUTOR_MODE_VIRTUAL
+                : SystemConstant.EXECUTOR_MODE_BOUNDED;
+        this.threads = Math.max(1, threads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+
+        if (SystemConstant.EXECUTOR_MODE_VIRTUAL.equals(this.mode)) {
+            ThreadFactory factory = Thread.ofVirtual().name("vcampus-biz-v-", 0).factory();
+            this.executor = Executors.newThreadPerTaskExecutor(factory);
+            this.inFlightPermits = new Semaphore(this.threads + this.queueCapacity);
+        } else {
+            this.executor = new ThreadPoolExecutor(this.threads, this.threads,
+                    60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(this.queueCapacity),
+                    new NamedThreadFactory("vcampus-biz-"),
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.inFlightPermits = null;
+        }
+
+        log.info("Business executor created: mode={}, threads={}, queue={}", this.mode, this.threads, this.queueCapacity);
+    }
+
+    /**
+     * 根据系统属性创建业务线程池
+     *
+     * @return 业务线程池
+     */
+    public static BusinessExecutor fromSystemProperties() {
+        String mode = System.getProperty(SystemConstant.CONFIG_EXECUTOR_MODE, SystemConstant.DEFAULT_EXECUTOR_MODE);
+        int threads = Integer.getInteger(SystemConstant.CONFIG_EXECUTOR_THREADS, SystemConstant.DEFAULT_EXECUTOR_THREADS);
+        int queue = Integer.getInteger(SystemConstant.CONFIG_EXECUTOR_QUEUE, SystemConstant.DEFAULT_EXECUTOR_QUEUE);
+        return new BusinessExecutor(mode, threads, queue);
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param task 任务
+     * @return 是否已接受；线程池已满或已关闭时返回 false
+     */
+    public boolean tryExecute(Runnable task) {
+        if (inFlightPermits != null) {
+            if (!inFlightPermits.tryAcquire()) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        inFlightPermits.release();
+                    }
+                });
+                return true;
+            } catch (RejectedExecutionException e) {
+                inFlightPermits.release();
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+        }
+
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * 关闭线程池，等待在途任务完成
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Business executor shutdown completed");
+    }
+
+    /**
+     * 当前在途（执行中 + 排队中）的任务数
+     */
+    public int getInFlightCount() {
+        if (inFlightPermits != null) {
+            return threads + queueCapacity - inFlightPermits.availablePermits();
+        }
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+        return pool.getActiveCount() + pool.getQueue().size();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * 带名称前缀的平台线程工厂
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger index = new AtomicInteger(0);
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + index.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.vcampus.server.core.net;
 
 import com.vcampus.server.core.common.router.Router;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
@@ -9,10 +10,6 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.LineBasedFrameDecoder;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
-import io.netty.util.CharsetUtil;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -26,6 +23,7 @@ public class NettyServer {
     
     private final int port;
     private final Router router;
+    private final RequestDispatcher dispatcher;
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
     private ChannelFuture channelFuture;
@@ -33,6 +31,7 @@ public class NettyServer {
     public NettyServer(int port, Router router) {
         this.port = port;
         this.router = router;
+        this.dispatcher = new RequestDispatcher(router, BusinessExecutor.fromSystemProperties());
     }
     
     /**
@@ -48,15 +47,14 @@ public class NettyServer {
                     .channel(NioServerSocketChannel.class)
                     .option(ChannelOption.SO_BACKLOG, 128)
                     .childOption(ChannelOption.SO_KEEPALIVE, true)
+                    .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
                     .childHandler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         protected void initChannel(SocketChannel ch) throws Exception {
                             ch.pipeline()
-                                    // 按行分割，服务器发送每条响应以换行结尾
-                                    .addLast(new LineBasedFrameDecoder(10 * 1024 * 1024))
-                                    .addLast(new StringDecoder(CharsetUtil.UTF_8))
-                                    .addLast(new StringEncoder(CharsetUtil.UTF_8))
-                                    .addLast(new ServerHandler(router));
+                                    // 根据首批字节选择 JSON 行协议或二进制帧协议，编解码器由其动态安装
+                                    .addLast("protocolSelector", new ProtocolSelector())
+                                    .addLast("handler", new ServerHandler(dispatcher));
                         }
                     });
             
@@ -100,6 +98,7 @@ public class NettyServer {
         if (bossGroup != null) {
             bossGroup.shutdownGracefully();
         }
+        dispatcher.shutdown();
         log.info("VCampus server shutdown completed");
     }
     
@@ -120,4 +119,13 @@ public class NettyServer {
     public int getPort() {
         return port;
     }
+    
+    /**
+     * 获取业务线程池
+     * 
+     * @return 业务线程池
+     */
+    public BusinessExecutor getBusinessExecutor() {
+        return dispatcher.getExecutor();
+    }
 }
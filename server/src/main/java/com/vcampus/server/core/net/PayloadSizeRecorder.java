@@ -0,0 +1,68 @@
+package com.vcampus.server.core.net;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.AttributeKey;
+
+/**
+ * 消息大小记录器
+ * 安装在帧解码器与消息编解码器之间：入站时看到的是一个完整帧，出站时看到的是编码后的字节，
+ * 分别把字节数记到通道属性上，供 {@link ServerHandler} 在同一次调用链中取出计入路由指标。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@ChannelHandler.Sharable
+public class PayloadSizeRecorder extends ChannelDuplexHandler {
+
+    /**
+     * 最近一个入站帧的字节数
+     */
+    static final AttributeKey<Integer> INBOUND_SIZE = AttributeKey.valueOf("vcampus.inboundSize");
+
+    /**
+     * 最近一次出站写入的字节数
+     */
+    static final AttributeKey<Integer> OUTBOUND_SIZE = AttributeKey.valueOf("vcampus.outboundSize");
+
+    static final PayloadSizeRecorder INSTANCE = new PayloadSizeRecorder();
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof ByteBuf) {
+            ctx.channel().attr(INBOUND_SIZE).set(((ByteBuf) msg).readableBytes());
+        }
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof ByteBuf) {
+            ctx.channel().attr(OUTBOUND_SIZE).set(((ByteBuf) msg).readableBytes());
+        }
+        super.write(ctx, msg, promise);
+    }
+
+    /**
+     * 取出并清除入站帧大小
+     *
+     * @return 字节数，未知时为 -1
+     */
+    static int takeInboundSize(ChannelHandlerContext ctx) {
+        Integer size = ctx.channel().attr(INBOUND_SIZE).getAndSet(null);
+        return size == null ? -1 : size;
+    }
+
+    /**
+     * 取出并清除出站写入大小
+     *
+     * @return 字节数，未知时为 -1
+     */
+    static int takeOutboundSize(ChannelHandlerContext ctx) {
+        Integer size = ctx.channel().attr(OUTBOUND_SIZE).getAndSet(null);
+        return size == null ? -1 : size;
+    }
+}
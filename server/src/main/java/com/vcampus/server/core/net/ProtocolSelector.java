@@ -0,0 +1,86 @@
+package com.vcampus.server.core.net;
+
+import com.vcampus.common.message.codec.BinaryMessageDecoder;
+import com.vcampus.common.message.codec.BinaryMessageEncoder;
+import com.vcampus.common.message.codec.JsonLineEncoder;
+import com.vcampus.common.message.codec.MessageProtocol;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.json.JsonObjectDecoder;
+import io.netty.handler.codec.string.StringDecoder;
+import io.netty.util.CharsetUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * 协议识别器
+ * 根据连接上收到的首批字节选择 JSON 行协议或二进制帧协议，安装对应的编解码器后将自身移出管道。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class ProtocolSelector extends ByteToMessageDecoder {
+
+    private static final BinaryMessageEncoder BINARY_ENCODER = new BinaryMessageEncoder();
+    private static final BinaryMessageDecoder BINARY_DECODER = new BinaryMessageDecoder();
+    private static final JsonLineEncoder JSON_LINE_ENCODER = new JsonLineEncoder();
+
+    /**
+     * 帧切分器在管道中的名称
+     */
+    static final String FRAME_DECODER = "frameDecoder";
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        byte[] magic = MessageProtocol.BINARY_MAGIC;
+        int readable = Math.min(in.readableBytes(), magic.length);
+        boolean binary = true;
+        for (int i = 0; i < readable; i++) {
+            if (in.getByte(in.readerIndex() + i) != magic[i]) {
+                binary = false;
+                break;
+            }
+        }
+        if (binary && readable < magic.length) {
+            // 前导字节尚未收全，等待更多数据
+            return;
+        }
+
+        ChannelPipeline pipeline = ctx.pipeline();
+        String name = ctx.name();
+        // addAfter 总是插入到本处理器之后，因此按逆序添加
+        if (binary) {
+            in.skipBytes(magic.length);
+            pipeline.addAfter(name, "binaryEncoder", BINARY_ENCODER);
+            pipeline.addAfter(name, "binaryDecoder", BINARY_DECODER);
+            pipeline.addAfter(name, "payloadSize", PayloadSizeRecorder.INSTANCE);
+            pipeline.addAfter(name, FRAME_DECODER, BinaryMessageDecoder.newFrameDecoder());
+        } else {
+            pipeline.addAfter(name, "jsonEncoder", JSON_LINE_ENCODER);
+            pipeline.addAfter(name, "stringDecoder", new StringDecoder(CharsetUtil.UTF_8));
+            // 位于帧解码器与编解码器之间，记录每个请求帧与响应的字节数
+            pipeline.addAfter(name, "payloadSize", PayloadSizeRecorder.INSTANCE);
+            pipeline.addAfter(name, FRAME_DECODER, newJsonFrameDecoder());
+        }
+        log.debug("🔀 连接 {} 使用{}协议", ctx.channel().remoteAddress(),
+                binary ? MessageProtocol.PROTOCOL_BINARY : MessageProtocol.PROTOCOL_JSON);
+
+        // 移除自身，剩余已缓冲的字节会转交给新安装的解码器
+        pipeline.remove(this);
+    }
+
+    /**
+     * 创建 JSON 对象帧切分器（有状态，每个连接一个实例）
+     * 增量跟踪括号深度与字符串状态切分完整的 JSON 对象，
+     * 兼容单行紧凑 JSON 与多行/漂亮打印的 JSON，每个对象只扫描一次。
+     *
+     * @return 帧切分器
+     */
+    static JsonObjectDecoder newJsonFrameDecoder() {
+        return new JsonObjectDecoder(MessageProtocol.MAX_FRAME_LENGTH);
+    }
+}
@@ -0,0 +1,104 @@
+package com.vcampus.server.core.net;
+
+import com.vcampus.common.message.Request;
+import com.vcampus.common.message.Response;
+import com.vcampus.server.core.common.router.BatchRequest;
+import com.vcampus.server.core.common.router.Router;
+import io.netty.channel.ChannelHandlerContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Consumer;
+
+/**
+ * 请求分发器
+ * 将已解码的请求交给业务线程池执行 Router.route()，
+ * 执行完成后切回该连接所属的 EventLoop 回调，保证 Netty I/O 线程不被阻塞。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class RequestDispatcher {
+
+    private final Router router;
+    private final BusinessExecutor executor;
+
+    public RequestDispatcher(Router router, BusinessExecutor executor) {
+        this.router = router;
+        this.executor = executor;
+    }
+
+    /**
+     * 分发请求
+     * 回调总是在 ctx 所属的 EventLoop 上执行；线程池已满时直接以"服务器繁忙"响应回调。
+     *
+     * @param ctx 通道上下文
+     * @param request 请求对象
+     * @param onComplete 响应回调
+     */
+    public void dispatch(ChannelHandlerContext ctx, Request request, Consumer<Response> onComplete) {
+        boolean accepted = executor.tryExecute(() -> {
+            Response response;
+            try {
+                response = router.route(request);
+            } catch (Exception e) {
+                log.error("💥 业务处理异常: {}", request.getUri(), e);
+                response = Response.Builder.internalError("服务器内部错误: " + e.getMessage())
+                        .withId(request.getId());
+            }
+            Response result = response;
+            ctx.executor().execute(() -> onComplete.accept(result));
+        });
+
+        if (!accepted) {
+            log.warn("🚦 业务线程池已满，拒绝请求: {}", request.getUri());
+            onComplete.accept(Response.Builder.busy("服务器繁忙，请稍后重试").withId(request.getId()));
+        }
+    }
+
+    /**
+     * 在业务线程池中解析批量请求的子请求并确定其顺序键
+     * 回调总是在 ctx 所属的 EventLoop 上执行：解析成功时回调 onPrepared，
+     * 子请求顺序键冲突或线程池已满时以错误响应回调 onRejected。
+     *
+     * @param ctx 通道上下文
+     * @param request 批量请求
+     * @param onPrepared 已解析的批量请求回调
+     * @param onRejected 错误响应回调
+     */
+    public void prepareBatch(ChannelHandlerContext ctx, Request request,
+                             Consumer<BatchRequest> onPrepared, Consumer<Response> onRejected) {
+        boolean accepted = executor.tryExecute(() -> {
+            BatchRequest batch;
+            try {
+                batch = BatchRequest.prepare(request);
+            } catch (IllegalArgumentException e) {
+                Response rejection = Response.Builder.badRequest(e.getMessage()).withId(request.getId());
+                ctx.executor().execute(() -> onRejected.accept(rejection));
+                return;
+            }
+            ctx.executor().execute(() -> onPrepared.accept(batch));
+        });
+
+        if (!accepted) {
+            log.warn("🚦 业务线程池已满，拒绝请求: {}", request.getUri());
+            onRejected.accept(Response.Builder.busy("服务器繁忙，请稍后重试").withId(request.getId()));
+        }
+    }
+
+    /**
+     * 关闭业务线程池及路由器的批量请求执行器
+     */
+    public void shutdown() {
+        executor.shutdown();
+        router.shutdown();
+    }
+
+    public Router getRouter() {
+        return router;
+    }
+
+    public BusinessExecutor getExecutor() {
+        return executor;
+    }
+}
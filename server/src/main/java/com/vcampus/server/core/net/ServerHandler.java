@@ -4,34 +4,68 @@ import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
 import com.vcampus.common.message.Session;
 import com.vcampus.common.util.JsonUtils;
+import com.vcampus.server.core.common.router.BatchRequest;
+import com.vcampus.server.core.common.router.RequestOrdering;
 import com.vcampus.server.core.common.router.Router;
+import com.vcampus.server.core.system.metrics.MetricsRegistry;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.json.JsonObjectDecoder;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 服务器请求处理器
  * 
+ * 同一连接上的请求以流水线方式处理：未指定顺序键的请求并发执行，完成即返回（客户端按 id 匹配响应）；
+ * 顺序键相同的请求按到达顺序依次执行（规则见 {@link RequestOrdering}）；
+ * 批量请求按其子请求的顺序键整体排队，子请求在业务线程上解析，解析期间后到的请求暂缓调度以保持到达顺序。
+ * 
  * @author VCampus Team
  * @version 1.0
  */
 @Slf4j
 public class ServerHandler extends ChannelInboundHandlerAdapter {
     
-    private final Router router;
+    /**
+     * 单个连接允许排队等待处理的最大请求数
+     */
+    private static final int MAX_PENDING_PER_CHANNEL = 256;
+
+    /**
+     * 单个连接同时在业务线程池中执行的最大请求数
+     */
+    private static final int MAX_IN_FLIGHT_PER_CHANNEL = 16;
+
+    private final RequestDispatcher dispatcher;
     private Session clientSession;
-    // 临时缓冲，保存来自同一连接的分片 JSON（如果客户端发送了多行/格式化的 JSON）
-    private final StringBuilder partialJsonBuffer = new StringBuilder();
+    // 以下调度状态只在该连接的 EventLoop 上访问
+    // 顺序键 -> 等待执行的同键请求；键存在表示已有同键请求在执行或等待
+    private final Map<String, ArrayDeque<Request>> orderedQueues = new HashMap<>();
+    // 因在途请求数已达上限而等待的请求
+    private final ArrayDeque<Request> waitingRequests = new ArrayDeque<>();
+    // 批量请求在业务线程上解析期间到达的请求，解析完成后按到达顺序重新调度，保证同键请求不越过该批量请求
+    private final ArrayDeque<Request> heldRequests = new ArrayDeque<>();
+    private boolean preparingBatch;
+    private int inFlight;
+    private int pendingCount;
 
     // 统计信息
     private static final AtomicLong totalRequests = new AtomicLong(0);
     private static final ConcurrentHashMap<String, AtomicLong> uriStats = new ConcurrentHashMap<>();
     
-    public ServerHandler(Router router) {
-        this.router = router;
+    public ServerHandler(RequestDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
     }
     
     @Override
@@ -55,12 +89,25 @@ public class ServerHandler extends ChannelInboundHandlerAdapter {
         if (clientSession != null) {
             clientSession.invalidate();
         }
+        orderedQueues.clear();
+        waitingRequests.clear();
+        heldRequests.clear();
+        pendingCount = 0;
         
         super.channelInactive(ctx);
     }
     
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        // 二进制协议：解码器已直接产出 Request 对象
+        if (msg instanceof Request) {
+            totalRequests.incrementAndGet();
+            Request request = (Request) msg;
+            recordRequestSize(ctx, request);
+            enqueueRequest(ctx, request);
+            return;
+        }
+
         String jsonMessage = (String) msg;
         String clientAddress = ctx.channel().remoteAddress().toString();
         
@@ -71,101 +118,217 @@ public class ServerHandler extends ChannelInboundHandlerAdapter {
             log.debug("📨 收到请求 [{}]: {}", clientAddress, jsonMessage);
             
             // 解析请求
-            // 支持客户端发送多行/漂亮打印的 JSON：先尝试用当前行和之前缓冲拼接解析
-            String candidate;
-            if (partialJsonBuffer.length() > 0) {
-                candidate = partialJsonBuffer.toString() + '\n' + jsonMessage;
-            } else {
-                candidate = jsonMessage;
-            }
-            Request request = JsonUtils.fromJson(candidate, Request.class);
+            // JsonObjectDecoder 已保证收到的是一个完整的 JSON 对象（可跨多行），此处只需解析一次
+            Request request = JsonUtils.fromJson(jsonMessage, Request.class);
             if (request == null) {
-                // 如果当前拼接内容仍不是有效 JSON，且未超过大小限制，则缓存并等待下一片段
-                if (!JsonUtils.isValidJson(candidate) && candidate.length() < 1024 * 1024) {
-                    partialJsonBuffer.setLength(0);
-                    partialJsonBuffer.append(candidate);
-                    log.debug("📨 当前请求为不完整 JSON，已缓存等待后续片段（长度={}）", candidate.length());
-                    return; // 等待更多数据
-                } else {
-                    // 超出大小或格式确定非法，清空缓存并返回错误
-                    partialJsonBuffer.setLength(0);
-                    log.warn("⚠️ 无效的JSON请求: {}", candidate);
-                    sendErrorResponse(ctx, "无效的JSON格式");
-                    return;
-                }
-            }
-            // 成功解析，清空缓存（如果有）并记录
-            if (partialJsonBuffer.length() > 0) {
-                log.debug("📨 解析成功，清空之前缓存的片段（长度={}）", partialJsonBuffer.length());
+                log.warn("⚠️ 无效的JSON请求: {}", jsonMessage);
+                sendErrorResponse(ctx, "无效的JSON格式");
+                return;
             }
-            partialJsonBuffer.setLength(0);
+            // 请求参数已由 MessageTypeAdapterFactory 直接解码为字符串，无需再归一化
 
-            // 如果请求中携带了会话并且为激活状态，使用该会话（允许测试脚本模拟登录）
-            if (request.getSession() != null && request.getSession().isActive()) {
-                clientSession = request.getSession();
-                log.debug("🔐 使用请求中传入的会话: {}", clientSession);
+            recordRequestSize(ctx, request);
+            enqueueRequest(ctx, request);
+            
+        } catch (Exception e) {
+            log.error("💥 处理请求异常 [{}]: {}", clientAddress, jsonMessage, e);
+            sendErrorResponse(ctx, "服务器内部错误: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 调度已解码的请求：同键请求已在执行时排入该键队列，在途请求数已满时排入等待队列，否则立即执行
+     *
+     * @param ctx 通道上下文
+     * @param request 请求对象
+     */
+    private void enqueueRequest(ChannelHandlerContext ctx, Request request) {
+        if (preparingBatch) {
+            if (pendingCount >= MAX_PENDING_PER_CHANNEL) {
+                log.warn("🚦 连接待处理请求过多，拒绝请求: {} [{}]", request.getUri(), ctx.channel().remoteAddress());
+                sendResponse(ctx, Response.Builder.busy("服务器繁忙，请稍后重试").withId(request.getId()));
+                return;
             }
+            pendingCount++;
+            heldRequests.addLast(request);
+            return;
+        }
+        if (Router.BATCH_URI.equals(request.getUri()) && !(request instanceof BatchRequest)) {
+            // 批量请求整体占用子请求的顺序键，避免与同键的顶层请求并发执行；
+            // 子请求可能很大，在业务线程上解析一次，解析结果随请求排队并交给路由
+            preparingBatch = true;
+            dispatcher.prepareBatch(ctx, request,
+                    batch -> onBatchPrepared(ctx, batch),
+                    rejection -> onBatchRejected(ctx, rejection));
+            return;
+        }
+        String orderKey = RequestOrdering.resolveOrderKey(request);
+        boolean keyBusy = orderKey != null && orderedQueues.containsKey(orderKey);
 
-            // Normalize params: ensure all values are strings to avoid numeric types from Gson
-            try {
-                if (request.getParams() != null) {
-                    java.util.Map<String, String> normalized = new java.util.HashMap<>();
-                    request.getParams().forEach((k, v) -> {
-                        // Some Gson deserialization may produce non-string map values; coerce to string
-                        if (v == null) {
-                            normalized.put(k, null);
-                        } else {
-                            String stringValue = String.valueOf(v);
-                            // 避免将"null"字符串作为有效值
-                            if (!"null".equals(stringValue)) {
-                                normalized.put(k, stringValue);
-                            } else {
-                                normalized.put(k, null);
-                            }
-                        }
-                    });
-                    // Replace params map
-                    request.setParams(normalized);
-                    log.debug("🔎 请求参数类型已归一化: {}", normalized);
+        if (keyBusy || inFlight >= MAX_IN_FLIGHT_PER_CHANNEL) {
+            if (pendingCount >= MAX_PENDING_PER_CHANNEL) {
+                log.warn("🚦 连接待处理请求过多，拒绝请求: {} [{}]", request.getUri(), ctx.channel().remoteAddress());
+                sendResponse(ctx, Response.Builder.busy("服务器繁忙，请稍后重试").withId(request.getId()));
+                return;
+            }
+            pendingCount++;
+            if (keyBusy) {
+                orderedQueues.get(orderKey).addLast(request);
+            } else {
+                if (orderKey != null) {
+                    // 占用该键，后续同键请求排在它之后
+                    orderedQueues.put(orderKey, new ArrayDeque<>());
                 }
-            } catch (Exception ex) {
-                log.warn("🔎 归一化请求参数失败", ex);
+                waitingRequests.addLast(request);
             }
+            return;
+        }
 
-            // 设置会话信息
-            request.setSession(clientSession);
+        processRequest(ctx, request);
+    }
 
-            // 更新会话最后访问时间
-            if (clientSession != null) {
-                clientSession.updateLastAccessTime();
-            }
-            
-            // 更新URI统计
-            String uri = request.getUri();
-            uriStats.computeIfAbsent(uri, k -> new AtomicLong(0)).incrementAndGet();
-            
-            log.info("🎯 处理请求: {} [{}]", uri, clientAddress);
-            
-            // 路由处理
-            Response response = router.route(request);
-            
-            // 更新会话（如果有变化）
-            if (response.getSession() != null) {
-                clientSession = response.getSession();
-                log.debug("🔄 会话已更新: {}", clientSession);
+    /**
+     * 批量请求解析完成回调（在 EventLoop 上调用）：按顺序键调度该批量请求及其解析期间暂存的请求
+     *
+     * @param ctx 通道上下文
+     * @param batch 已解析的批量请求
+     */
+    private void onBatchPrepared(ChannelHandlerContext ctx, BatchRequest batch) {
+        preparingBatch = false;
+        if (!ctx.channel().isActive()) {
+            return;
+        }
+        enqueueRequest(ctx, batch);
+        releaseHeldRequests(ctx);
+    }
+
+    /**
+     * 批量请求被拒绝回调（在 EventLoop 上调用）：发送错误响应并调度解析期间暂存的请求
+     *
+     * @param ctx 通道上下文
+     * @param rejection 错误响应
+     */
+    private void onBatchRejected(ChannelHandlerContext ctx, Response rejection) {
+        preparingBatch = false;
+        if (!ctx.channel().isActive()) {
+            return;
+        }
+        sendResponse(ctx, rejection);
+        releaseHeldRequests(ctx);
+    }
+
+    /**
+     * 按到达顺序调度暂存的请求；其中若还有批量请求，将再次开始解析并继续暂存其后的请求
+     */
+    private void releaseHeldRequests(ChannelHandlerContext ctx) {
+        while (!preparingBatch && !heldRequests.isEmpty()) {
+            pendingCount--;
+            enqueueRequest(ctx, heldRequests.pollFirst());
+        }
+    }
+
+    /**
+     * 将请求交给业务线程池处理（在 EventLoop 上调用）
+     *
+     * @param ctx 通道上下文
+     * @param request 请求对象
+     */
+    private void processRequest(ChannelHandlerContext ctx, Request request) {
+        inFlight++;
+        String orderKey = RequestOrdering.resolveOrderKey(request);
+        if (orderKey != null) {
+            orderedQueues.putIfAbsent(orderKey, new ArrayDeque<>());
+        }
+
+        // 如果请求中携带了会话并且为激活状态，使用该会话（允许测试脚本模拟登录）
+        if (request.getSession() != null && request.getSession().isActive()) {
+            clientSession = request.getSession();
+            log.debug("🔐 使用请求中传入的会话: {}", clientSession);
+        }
+
+        // 设置会话信息
+        request.setSession(clientSession);
+
+        // 更新会话最后访问时间
+        if (clientSession != null) {
+            clientSession.updateLastAccessTime();
+        }
+
+        // 更新URI统计
+        String uri = request.getUri();
+        uriStats.computeIfAbsent(uri, k -> new AtomicLong(0)).incrementAndGet();
+
+        log.info("🎯 处理请求: {} [{}]", uri, ctx.channel().remoteAddress());
+
+        // 路由处理（业务线程池），完成后在 EventLoop 上回调
+        dispatcher.dispatch(ctx, request, response -> onRequestComplete(ctx, request, response));
+    }
+
+    /**
+     * 请求处理完成回调（在 EventLoop 上调用）
+     *
+     * @param ctx 通道上下文
+     * @param request 请求对象
+     * @param response 响应对象
+     */
+    private void onRequestComplete(ChannelHandlerContext ctx, Request request, Response response) {
+        // 更新会话（如果有变化）
+        if (response.getSession() != null) {
+            clientSession = response.getSession();
+            log.debug("🔄 会话已更新: {}", clientSession);
+        }
+
+        // 发送响应
+        sendResponse(ctx, response);
+        recordResponseSize(ctx, request);
+
+        log.debug("✅ 请求处理完成: {} -> {}", request.getUri(), response.getStatus());
+
+        inFlight--;
+        if (!ctx.channel().isActive()) {
+            return;
+        }
+
+        // 同键的下一个请求接替本请求的执行名额
+        String orderKey = RequestOrdering.resolveOrderKey(request);
+        if (orderKey != null) {
+            ArrayDeque<Request> queue = orderedQueues.get(orderKey);
+            Request next = queue != null ? queue.pollFirst() : null;
+            if (next != null) {
+                pendingCount--;
+                processRequest(ctx, next);
+            } else {
+                orderedQueues.remove(orderKey);
             }
-            
-            // 发送响应
-            sendResponse(ctx, response);
-            
-            log.debug("✅ 请求处理完成: {} -> {}", uri, response.getStatus());
-            
-        } catch (Exception e) {
-            log.error("💥 处理请求异常 [{}]: {}", clientAddress, jsonMessage, e);
-            sendErrorResponse(ctx, "服务器内部错误: " + e.getMessage());
+        }
+
+        // 在途名额空出后启动等待中的请求
+        while (inFlight < MAX_IN_FLIGHT_PER_CHANNEL && !waitingRequests.isEmpty()) {
+            pendingCount--;
+            processRequest(ctx, waitingRequests.pollFirst());
         }
     }
     
+    /**
+     * 将请求帧大小计入路由指标（须在解码后立即调用）
+     */
+    private void recordRequestSize(ChannelHandlerContext ctx, Request request) {
+        int size = PayloadSizeRecorder.takeInboundSize(ctx);
+        if (size >= 0) {
+            MetricsRegistry.getInstance().recordPayload(request.getUri(), request.getParam("action"), size, -1);
+        }
+    }
+
+    /**
+     * 将刚写出的响应大小计入路由指标（须紧跟在同步写出之后调用）
+     */
+    private void recordResponseSize(ChannelHandlerContext ctx, Request request) {
+        int size = PayloadSizeRecorder.takeOutboundSize(ctx);
+        if (size >= 0) {
+            MetricsRegistry.getInstance().recordPayload(request.getUri(), request.getParam("action"), -1, size);
+        }
+    }
+
     /**
      * 发送响应
      * 
@@ -174,12 +337,9 @@ public class ServerHandler extends ChannelInboundHandlerAdapter {
      */
     private void sendResponse(ChannelHandlerContext ctx, Response response) {
         try {
-            // Use compact JSON (single-line) for network transmission to avoid newline-induced fragmentation
-            String jsonResponse = com.vcampus.common.util.JsonUtils.toCompactJson(response);
-            // 确保发送完整的JSON字符串，添加换行符以便客户端正确读取
-            String completeResponse = jsonResponse + "\n";
-            ctx.writeAndFlush(completeResponse);
-            log.debug("📤 发送响应: {}", jsonResponse);
+            // 由管道中协议对应的编码器（JSON 行 / 二进制帧）负责序列化
+            ctx.writeAndFlush(response);
+            log.debug("📤 发送响应: {} -> {}", response.getId(), response.getStatus());
         } catch (Exception e) {
             log.error("💥 发送响应失败", e);
         }
@@ -199,6 +359,10 @@ public class ServerHandler extends ChannelInboundHandlerAdapter {
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
         String clientAddress = ctx.channel().remoteAddress().toString();
+        if (cause instanceof CorruptedFrameException || cause instanceof TooLongFrameException) {
+            handleBadFrame(ctx, (DecoderException) cause);
+            return;
+        }
         log.error("🚨 连接异常 [{}]", clientAddress, cause);
         
         // 发送错误响应
@@ -208,6 +372,46 @@ public class ServerHandler extends ChannelInboundHandlerAdapter {
         ctx.close();
     }
     
+    /**
+     * 处理帧切分失败：先以"请求格式错误"响应，帧切分器能与后续字节重新同步时保持连接，否则关闭连接
+     *
+     * @param ctx 通道上下文
+     * @param cause 帧切分器抛出的异常
+     */
+    private void handleBadFrame(ChannelHandlerContext ctx, DecoderException cause) {
+        boolean recovered = resetFrameDecoder(ctx, cause);
+        log.warn("⚠️ 无效的请求帧 [{}]: {}{}", ctx.channel().remoteAddress(), cause.getMessage(),
+                recovered ? "" : "，关闭连接");
+        Response response = Response.Builder.badRequest(cause instanceof TooLongFrameException
+                ? "请求过大" : "无效的请求格式");
+        if (recovered) {
+            sendResponse(ctx, response);
+        } else {
+            ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /**
+     * 使帧切分器与后续字节重新同步
+     * JSON 对象切分器遇到非法字节后永久停在损坏状态，换上新的实例即可从下一个对象继续；
+     * 但超长对象的剩余部分仍会陆续到达，无法找到下一个对象的起点。
+     * 长度前缀切分器自行丢弃超长帧后仍保持同步，长度字段损坏时则无法再同步。
+     *
+     * @return 是否可以继续使用该连接
+     */
+    private boolean resetFrameDecoder(ChannelHandlerContext ctx, DecoderException cause) {
+        ChannelHandler frameDecoder = ctx.pipeline().get(ProtocolSelector.FRAME_DECODER);
+        if (frameDecoder instanceof JsonObjectDecoder) {
+            if (cause instanceof TooLongFrameException) {
+                return false;
+            }
+            ctx.pipeline().replace(frameDecoder, ProtocolSelector.FRAME_DECODER,
+                    ProtocolSelector.newJsonFrameDecoder());
+            return true;
+        }
+        return frameDecoder != null && cause instanceof TooLongFrameException;
+    }
+    
     /**
      * 获取服务器统计信息
      * 
@@ -4,6 +4,7 @@ import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
 import com.vcampus.common.message.Session;
 import com.vcampus.common.util.JsonUtils;
+import com.vcampus.server.core.common.annotation.ActionMapping;
 import com.vcampus.server.core.common.annotation.RouteMapping;
 import com.vcampus.server.core.shop.entity.Product;
 import com.vcampus.server.core.shop.entity.ProductCategory;
@@ -39,126 +40,50 @@ public class ShopController {
         this.transService = ProductTransServiceImpl.getInstance();
     }
 
-    // 管理端入口（admin 角色别名，复用 manager 逻辑）
+    // 管理端入口（admin 角色别名，复用 manager 的操作）
+    // 各 action 由 @ActionMapping 方法直接处理，此处仅处理未注册的 action
     @RouteMapping(uri = "shop/adminManager", role = "admin", description = "商城管理入口-管理员别名")
     public Response handleAdminManager(Request request) {
-        // 直接复用 manager 分发逻辑
-        return handleManager(request);
+        return unsupportedAction(request);
     }
 
     // 管理端入口：商品、分类、交易管理
     @RouteMapping(uri = "shop/manager", role = "manager", description = "商城管理入口")
     public Response handleManager(Request request) {
-        String action = request.getParam("action");
-        if (action == null) return Response.Builder.badRequest("缺少action参数");
-        try {
-            switch (action) {
-                // 商品管理
-                case "PRODUCT_CREATE":
-                    return productCreate(request);
-                case "PRODUCT_UPDATE":
-                    return productUpdate(request);
-                case "PRODUCT_DELETE":
-                    return productDelete(request);
-                case "PRODUCT_LIST":
-                    return Response.Builder.success(productService.listAll());
-                case "PRODUCT_AVAILABLE_LIST":
-                    return Response.Builder.success(productService.findAvailableProducts());
-                case "PRODUCT_GET_BY_ID":
-                    return productGetById(request);
-                case "PRODUCT_CHANGE_STOCK":
-                    return productChangeStock(request);
-                case "PRODUCT_CHANGE_STATUS":
-                    return productChangeStatus(request);
-                case "PRODUCT_SEARCH_BY_NAME":
-                    return productSearchByName(request);
-                case "PRODUCT_SEARCH_BY_CATEGORY":
-                    return productSearchByCategory(request);
-
-                // 分类管理
-                case "CATEGORY_CREATE":
-                    return categoryCreate(request);
-                case "CATEGORY_UPDATE":
-                    return categoryUpdate(request);
-                case "CATEGORY_DELETE":
-                    return categoryDelete(request);
-                case "CATEGORY_LIST":
-                    return Response.Builder.success(categoryService.listAll());
-
-                // 交易管理
-                case "TRANS_LIST_ALL":
-                    return Response.Builder.success(transService.listAll());
-                case "TRANS_GET_BY_ID":
-                    return transGetById(request);
-                case "TRANS_CHANGE_STATUS":
-                    return transChangeStatus(request);
-
-                default:
-                    return Response.Builder.badRequest("不支持的操作: " + action);
-            }
-        } catch (Exception e) {
-            log.error("shop/manager 处理失败, action={}", action, e);
-            return Response.Builder.error("处理失败: " + e.getMessage());
-        }
+        return unsupportedAction(request);
     }
 
     // 学生入口：商品浏览、下单、我的订单
     @RouteMapping(uri = "shop/student", role = "student", description = "商城-学生入口")
     public Response handleStudent(Request request) {
-        return handleUserCommon(request);
+        return unsupportedAction(request);
     }
 
     // 教职工入口：商品浏览、下单、我的订单
     @RouteMapping(uri = "shop/staff", role = "staff", description = "商城-教职工入口")
     public Response handleStaff(Request request) {
-        return handleUserCommon(request);
+        return unsupportedAction(request);
     }
 
-    // 普通用户（学生/教职工）共用逻辑
-    private Response handleUserCommon(Request request) {
+    private Response unsupportedAction(Request request) {
         String action = request.getParam("action");
-        try { log.info("shop user action={} params={}", action, request.getParams()); } catch (Exception ignore) {}
         if (action == null) return Response.Builder.badRequest("缺少action参数");
-        try {
-            switch (action) {
-                case "PRODUCT_LIST":
-                    return Response.Builder.success(productService.listAll());
-                case "PRODUCT_AVAILABLE_LIST":
-                    return Response.Builder.success(productService.findAvailableProducts());
-                case "PRODUCT_GET_BY_ID":
-                    return productGetById(request);
-                case "BUY":
-                case "BUY_NOW":
-                    return buyProduct(request);
-                case "MY_ORDERS":
-                    return myOrders(request);
-                case "PRODUCT_SEARCH_BY_NAME":
-                    return productSearchByName(request);
-                case "PRODUCT_SEARCH_BY_CATEGORY":
-                    return productSearchByCategory(request);
-                // ===== 购物车动作 =====
-                case "ADD_TO_CART":
-                    return cartAdd(request);
-                case "SET_CART_ITEM":
-                    return cartSetItem(request);
-                case "REMOVE_FROM_CART":
-                    return cartRemove(request);
-                case "CLEAR_CART":
-                    return cartClear(request);
-                case "GET_CART":
-                    return cartGet(request);
-                case "CHECKOUT_CART":
-                    return cartCheckout(request);
-                default:
-                    return Response.Builder.badRequest("不支持的操作: " + action);
-            }
-        } catch (Exception e) {
-            log.error("shop 用户入口处理失败, action={}", action, e);
-            return Response.Builder.error("处理失败: " + e.getMessage());
-        }
+        return Response.Builder.badRequest("不支持的操作: " + action);
+    }
+
+    // ================== 商品浏览（管理端与用户端共用） ==================
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager", "shop/student", "shop/staff"}, action = "PRODUCT_LIST")
+    private Response productList(Request request) {
+        return Response.Builder.success(productService.listAll());
+    }
+
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager", "shop/student", "shop/staff"}, action = "PRODUCT_AVAILABLE_LIST")
+    private Response productAvailableList(Request request) {
+        return Response.Builder.success(productService.findAvailableProducts());
     }
 
     // ================== 商品管理实现 ==================
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "PRODUCT_CREATE")
     private Response productCreate(Request request) {
         String json = request.getParam("product");
         Product product = JsonUtils.fromJson(json, Product.class);
@@ -167,6 +92,7 @@ public class ShopController {
         return Response.Builder.success("创建成功", saved);
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "PRODUCT_UPDATE")
     private Response productUpdate(Request request) {
         String json = request.getParam("product");
         Product product = JsonUtils.fromJson(json, Product.class);
@@ -175,6 +101,7 @@ public class ShopController {
         return Response.Builder.success("更新成功", saved);
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "PRODUCT_DELETE")
     private Response productDelete(Request request) {
         String idStr = request.getParam("productId");
         if (idStr == null) return Response.Builder.badRequest("缺少productId");
@@ -183,6 +110,7 @@ public class ShopController {
         return Response.Builder.success("删除成功", null);
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager", "shop/student", "shop/staff"}, action = "PRODUCT_GET_BY_ID")
     private Response productGetById(Request request) {
         String idStr = request.getParam("productId");
         if (idStr == null) return Response.Builder.badRequest("缺少productId");
@@ -192,6 +120,7 @@ public class ShopController {
                 .orElseGet(() -> Response.Builder.notFound("商品不存在: " + id));
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "PRODUCT_CHANGE_STOCK")
     private Response productChangeStock(Request request) {
         String idStr = request.getParam("productId");
         String deltaStr = request.getParam("delta");
@@ -202,6 +131,7 @@ public class ShopController {
         return Response.Builder.success("库存变更成功", Map.of("productId", id, "delta", delta));
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "PRODUCT_CHANGE_STATUS")
     private Response productChangeStatus(Request request) {
         String idStr = request.getParam("productId");
         String statusStr = request.getParam("status");
@@ -212,6 +142,7 @@ public class ShopController {
         return Response.Builder.success("状态更新成功", Map.of("productId", id, "status", status.name()));
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager", "shop/student", "shop/staff"}, action = "PRODUCT_SEARCH_BY_NAME")
     private Response productSearchByName(Request request) {
         String name = request.getParam("name");
         if (name == null || name.isEmpty()) return Response.Builder.badRequest("缺少name");
@@ -219,6 +150,7 @@ public class ShopController {
         return Response.Builder.success(list);
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager", "shop/student", "shop/staff"}, action = "PRODUCT_SEARCH_BY_CATEGORY")
     private Response productSearchByCategory(Request request) {
         String category = request.getParam("category");
         if (category == null || category.isEmpty()) return Response.Builder.badRequest("缺少category");
@@ -227,6 +159,7 @@ public class ShopController {
     }
 
     // ================== 分类管理实现 ==================
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "CATEGORY_CREATE")
     private Response categoryCreate(Request request) {
         String json = request.getParam("category");
         ProductCategory c = JsonUtils.fromJson(json, ProductCategory.class);
@@ -235,6 +168,7 @@ public class ShopController {
         return Response.Builder.success("创建成功", saved);
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "CATEGORY_UPDATE")
     private Response categoryUpdate(Request request) {
         String json = request.getParam("category");
         ProductCategory c = JsonUtils.fromJson(json, ProductCategory.class);
@@ -243,6 +177,7 @@ public class ShopController {
         return Response.Builder.success("更新成功", saved);
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "CATEGORY_DELETE")
     private Response categoryDelete(Request request) {
         String idStr = request.getParam("categoryId");
         if (idStr == null) return Response.Builder.badRequest("缺少categoryId");
@@ -251,7 +186,18 @@ public class ShopController {
         return Response.Builder.success("删除成功", null);
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "CATEGORY_LIST")
+    private Response categoryList(Request request) {
+        return Response.Builder.success(categoryService.listAll());
+    }
+
     // ================== 交易相关实现 ==================
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "TRANS_LIST_ALL")
+    private Response transListAll(Request request) {
+        return Response.Builder.success(transService.listAll());
+    }
+
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "TRANS_GET_BY_ID")
     private Response transGetById(Request request) {
         String idStr = request.getParam("transId");
         if (idStr == null) return Response.Builder.badRequest("缺少transId");
@@ -261,6 +207,7 @@ public class ShopController {
                 .orElseGet(() -> Response.Builder.notFound("交易不存在: " + id));
     }
 
+    @ActionMapping(uri = {"shop/manager", "shop/adminManager"}, action = "TRANS_CHANGE_STATUS")
     private Response transChangeStatus(Request request) {
         String idStr = request.getParam("transId");
         String statusStr = request.getParam("status");
@@ -271,6 +218,8 @@ public class ShopController {
         return Response.Builder.success("状态更新成功", Map.of("transId", id, "status", status.name()));
     }
 
+    // 下单受 shop-order 通道并发上限约束，高峰期最多占用该上限数的业务线程，其余直接返回繁忙
+    @ActionMapping(uri = {"shop/student", "shop/staff"}, action = {"BUY", "BUY_NOW"}, executor = "shop-order")
     private Response buyProduct(Request request) {
         String productIdStr = request.getParam("productId");
         String qtyStr = request.getParam("qty");
@@ -329,6 +278,7 @@ public class ShopController {
 
 
     // 查询当前用户或指定 cardNum 的订单列表
+    @ActionMapping(uri = {"shop/student", "shop/staff"}, action = "MY_ORDERS")
     private Response myOrders(Request request) {
         String cardNum = request.getParam("cardNum");
         if (cardNum == null || cardNum.isBlank()) {
@@ -378,6 +328,7 @@ public class ShopController {
         return uid;
     }
 
+    @ActionMapping(uri = {"shop/student", "shop/staff"}, action = "ADD_TO_CART")
     private Response cartAdd(Request request) {
         String uid = currentUser(request);
         if (uid == null || uid.isBlank()) return Response.Builder.forbidden("未登录");
@@ -403,6 +354,7 @@ public class ShopController {
         ));
     }
 
+    @ActionMapping(uri = {"shop/student", "shop/staff"}, action = "SET_CART_ITEM")
     private Response cartSetItem(Request request) {
         String uid = currentUser(request);
         if (uid == null) return Response.Builder.forbidden("未登录");
@@ -428,6 +380,7 @@ public class ShopController {
         ));
     }
 
+    @ActionMapping(uri = {"shop/student", "shop/staff"}, action = "REMOVE_FROM_CART")
     private Response cartRemove(Request request) {
         String uid = currentUser(request);
         if (uid == null) return Response.Builder.forbidden("未登录");
@@ -445,6 +398,7 @@ public class ShopController {
         return Response.Builder.success("已移除", Map.of("cartCount", CartStore.getInstance().totalCount(uid)));
     }
 
+    @ActionMapping(uri = {"shop/student", "shop/staff"}, action = "CLEAR_CART")
     private Response cartClear(Request request) {
         String uid = currentUser(request);
         if (uid == null) return Response.Builder.forbidden("未登录");
@@ -454,6 +408,7 @@ public class ShopController {
         return Response.Builder.success("已清空", Map.of("cartCount",0));
     }
 
+    @ActionMapping(uri = {"shop/student", "shop/staff"}, action = "GET_CART")
     private Response cartGet(Request request) {
         String uid = currentUser(request);
         if (uid == null) return Response.Builder.forbidden("未登录");
@@ -494,6 +449,7 @@ public class ShopController {
         );
     }
 
+    @ActionMapping(uri = {"shop/student", "shop/staff"}, action = "CHECKOUT_CART", executor = "shop-order")
     private Response cartCheckout(Request request) {
         String uid = currentUser(request);
         if (uid == null) return Response.Builder.forbidden("未登录");
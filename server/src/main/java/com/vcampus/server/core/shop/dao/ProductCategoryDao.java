@@ -1,12 +1,11 @@
 package com.vcampus.server.core.shop.dao;
 
+import com.vcampus.server.core.db.DatabaseManager;
 import com.vcampus.server.core.shop.entity.ProductCategory;
 import com.vcampus.server.core.shop.mapper.ProductCategoryMapper;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 
-import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,11 +17,8 @@ public class ProductCategoryDao {
     private final SqlSessionFactory sqlSessionFactory;
 
     private ProductCategoryDao() {
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("mybatis-config.xml")) {
-            this.sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
-        } catch (Exception e) {
-            throw new RuntimeException("初始化MyBatis失败", e);
-        }
+        // 共享全局 SqlSessionFactory 及其连接池
+        this.sqlSessionFactory = DatabaseManager.getSqlSessionFactory();
     }
 
     public static synchronized ProductCategoryDao getInstance() {
@@ -1,13 +1,12 @@
 package com.vcampus.server.core.shop.dao;
 
+import com.vcampus.server.core.db.DatabaseManager;
 import com.vcampus.server.core.shop.entity.ProductTrans;
 import com.vcampus.server.core.shop.mapper.ProductTransMapper;
 import com.vcampus.server.core.shop.enums.OrderStatus;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
-import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 
-import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +19,7 @@ public class ProductTransDao {
 
     private ProductTransDao() {
         // 统一使用全局 DatabaseManager 提供的 SqlSessionFactory，避免多个连接池/配置不一致
-        this.sqlSessionFactory = com.vcampus.server.core.db.DatabaseManager.getSqlSessionFactory();
+        this.sqlSessionFactory = DatabaseManager.getSqlSessionFactory();
     }
 
     public static synchronized ProductTransDao getInstance() {
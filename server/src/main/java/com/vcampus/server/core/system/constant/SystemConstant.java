@@ -23,11 +23,30 @@ public class SystemConstant {
     public static final String CONFIG_DATABASE_URL = "database.url";
     public static final String CONFIG_MAX_CONNECTIONS = "database.maxConnections";
     public static final String CONFIG_SESSION_TIMEOUT = "session.timeout";
-    
+
+    // 业务线程池配置键（通过 -D 系统属性指定）
+    public static final String CONFIG_EXECUTOR_MODE = "vcampus.executor.mode";
+    public static final String CONFIG_EXECUTOR_THREADS = "vcampus.executor.threads";
+    public static final String CONFIG_EXECUTOR_QUEUE = "vcampus.executor.queue";
+    // 操作专用执行通道并发上限配置键前缀，完整键为前缀 + 通道名，如 vcampus.executor.lane.shop-order
+    public static final String CONFIG_EXECUTOR_LANE_PREFIX = "vcampus.executor.lane.";
+    // 指标定时输出间隔（秒），0 表示不输出
+    public static final String CONFIG_METRICS_DUMP_INTERVAL = "vcampus.metrics.dumpInterval";
+
     // 系统默认值
     public static final int DEFAULT_SERVER_PORT = 8080;
     public static final int DEFAULT_MAX_CONNECTIONS = 20;
     public static final long DEFAULT_SESSION_TIMEOUT = 3600000L;
+
+    // 业务线程池默认值
+    public static final String EXECUTOR_MODE_VIRTUAL = "virtual";
+    public static final String EXECUTOR_MODE_BOUNDED = "bounded";
+    public static final String DEFAULT_EXECUTOR_MODE = EXECUTOR_MODE_BOUNDED;
+    public static final int DEFAULT_EXECUTOR_THREADS = 32;
+    public static final int DEFAULT_EXECUTOR_QUEUE = 1024;
+    public static final int DEFAULT_EXECUTOR_LANE_CONCURRENCY = 16;
+    public static final long DEFAULT_METRICS_DUMP_INTERVAL = 60L;
+    public static final int DB_POOL_SIZE_CAP = 64;
     
     // 操作类型常量
     public static final String OPERATION_CREATE = "CREATE";
@@ -3,6 +3,7 @@ package com.vcampus.server.core.system.controller;
 import com.vcampus.common.message.Request;
 import com.vcampus.common.message.Response;
 import com.vcampus.server.core.common.annotation.RouteMapping;
+import com.vcampus.server.core.system.metrics.MetricsRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
@@ -100,4 +101,21 @@ public class SystemController {
         
         return Response.Builder.success("回显成功", data);
     }
+    
+    /**
+     * 获取各路由/操作的运行指标（耗时分位值、数据库耗时、在途数、报文大小等）
+     * 参数 reset=true 时在返回快照后清空计数
+     */
+    @RouteMapping(uri = "system/metrics", role = "manager", description = "获取路由运行指标")
+    public Response getMetrics(Request request) {
+        log.debug("📈 获取运行指标");
+        
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        Map<String, Object> data = registry.snapshot();
+        if ("true".equalsIgnoreCase(request.getParam("reset"))) {
+            registry.reset();
+        }
+        
+        return Response.Builder.success("运行指标获取成功", data);
+    }
 }
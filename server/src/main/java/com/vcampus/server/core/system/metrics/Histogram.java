@@ -0,0 +1,142 @@
+package com.vcampus.server.core.system.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的对数-线性分桶直方图
+ *
+ * 与 HdrHistogram 的分桶方式相同：每个 2 的幂区间再均分为 16 个子桶，
+ * 相对误差不超过 1/16（约 6%），桶数固定，记录时只做一次原子自增。
+ * 取值范围为 [0, 2^32)，超出部分计入最高桶；读取为近似快照。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_VALUE = (1L << 32) - 1;
+    private static final int BUCKET_COUNT = (32 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalSum = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * 记录一个取值
+     *
+     * @param value 取值，负数按 0 处理
+     */
+    public void record(long value) {
+        long v = Math.min(Math.max(value, 0L), MAX_VALUE);
+        counts.incrementAndGet(indexOf(v));
+        totalCount.increment();
+        totalSum.add(v);
+        if (v > maxValue.get()) {
+            maxValue.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getSum() {
+        return totalSum.sum();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0.0 : (double) totalSum.sum() / count;
+    }
+
+    /**
+     * 计算分位值（返回所在桶的上界，不超过最大值）
+     *
+     * @param percentile 百分位，如 99.0
+     * @return 分位值，无数据时为 0
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0L;
+        }
+        long target = Math.max(1L, (long) Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * 清空所有计数
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0L);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        maxValue.set(0L);
+    }
+
+    /**
+     * 转换为便于序列化的快照
+     *
+     * @param scale 输出时的除数（如记录微秒、输出毫秒时为 1000）
+     * @return 计数、均值、常用分位值与最大值
+     */
+    public Map<String, Object> snapshot(double scale) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", getCount());
+        map.put("mean", round(getMean() / scale));
+        map.put("p50", round(getValueAtPercentile(50.0) / scale));
+        map.put("p90", round(getValueAtPercentile(90.0) / scale));
+        map.put("p99", round(getValueAtPercentile(99.0) / scale));
+        map.put("p999", round(getValueAtPercentile(99.9) / scale));
+        map.put("max", round(getMax() / scale));
+        return map;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int bucket = msb - SUB_BUCKET_BITS + 1;
+        int sub = (int) ((value >>> (bucket - 1)) & (SUB_BUCKET_COUNT - 1));
+        return bucket * SUB_BUCKET_COUNT + sub;
+    }
+
+    static long upperBoundOf(int index) {
+        int bucket = index / SUB_BUCKET_COUNT;
+        int sub = index % SUB_BUCKET_COUNT;
+        if (bucket == 0) {
+            return sub;
+        }
+        return ((long) (SUB_BUCKET_COUNT + sub + 1) << (bucket - 1)) - 1;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
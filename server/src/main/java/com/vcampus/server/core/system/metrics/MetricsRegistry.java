@@ -0,0 +1,145 @@
+package com.vcampus.server.core.system.metrics;
+
+import com.vcampus.common.db.impl.MysqlDataSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 服务器运行指标注册表
+ *
+ * 路由与操作的指标在 Router 注册路由时创建，运行时只查找、不新建，
+ * 避免客户端传入任意 URI/action 导致指标无限增长。
+ * 数据库耗时按线程累计：数据访问层调用 {@link #recordDbTime(long)}，
+ * 请求处理方在开始时取 {@link #dbTimeMark()}，结束时用 {@link #dbTimeSince(long)} 求差。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    /**
+     * 每个线程累计的数据库耗时（纳秒），只增不减
+     */
+    private static final ThreadLocal<long[]> DB_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Map<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final Map<String, RouteMetrics> actions = new ConcurrentHashMap<>();
+    private volatile long startTime = System.currentTimeMillis();
+
+    private MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 注册路由指标（已存在时返回原实例）
+     */
+    public RouteMetrics registerRoute(String uri) {
+        return routes.computeIfAbsent(uri, k -> new RouteMetrics());
+    }
+
+    /**
+     * 注册操作指标（已存在时返回原实例）
+     */
+    public RouteMetrics registerAction(String uri, String action) {
+        return actions.computeIfAbsent(actionKey(uri, action), k -> new RouteMetrics());
+    }
+
+    /**
+     * 查找路由指标
+     *
+     * @return 未注册时为 null
+     */
+    public RouteMetrics findRoute(String uri) {
+        return uri == null ? null : routes.get(uri);
+    }
+
+    /**
+     * 查找操作指标
+     *
+     * @return 未注册时为 null
+     */
+    public RouteMetrics findAction(String uri, String action) {
+        return uri == null || action == null ? null : actions.get(actionKey(uri, action));
+    }
+
+    /**
+     * 记录请求/响应大小到路由及（若已注册）对应操作
+     */
+    public void recordPayload(String uri, String action, long requestSize, long responseSize) {
+        RouteMetrics route = findRoute(uri);
+        if (route != null) {
+            route.recordPayload(requestSize, responseSize);
+        }
+        RouteMetrics actionMetrics = findAction(uri, action);
+        if (actionMetrics != null) {
+            actionMetrics.recordPayload(requestSize, responseSize);
+        }
+    }
+
+    /**
+     * 累加当前线程的数据库耗时
+     *
+     * @param nanos 本次数据库调用耗时（纳秒）
+     */
+    public static void recordDbTime(long nanos) {
+        DB_NANOS.get()[0] += nanos;
+    }
+
+    /**
+     * 当前线程已累计的数据库耗时，作为计时起点
+     */
+    public static long dbTimeMark() {
+        return DB_NANOS.get()[0];
+    }
+
+    /**
+     * 自起点以来当前线程的数据库耗时
+     */
+    public static long dbTimeSince(long mark) {
+        return DB_NANOS.get()[0] - mark;
+    }
+
+    /**
+     * 清空所有计数
+     */
+    public void reset() {
+        routes.values().forEach(RouteMetrics::reset);
+        actions.values().forEach(RouteMetrics::reset);
+        startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 全部指标快照（只包含有过请求或当前在途的条目），附带数据库连接池状态
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("since", startTime);
+        result.put("uptimeMillis", System.currentTimeMillis() - startTime);
+        result.put("routes", snapshotOf(routes));
+        result.put("actions", snapshotOf(actions));
+        result.put("dbPool", MysqlDataSource.getPoolStats());
+        return result;
+    }
+
+    private static Map<String, Object> snapshotOf(Map<String, RouteMetrics> metrics) {
+        Map<String, Object> result = new TreeMap<>();
+        metrics.forEach((key, value) -> {
+            if (value.getRequests() > 0 || value.getInFlight() > 0) {
+                result.put(key, value.snapshot());
+            }
+        });
+        return result;
+    }
+
+    private static String actionKey(String uri, String action) {
+        return uri + "#" + action;
+    }
+}
@@ -0,0 +1,85 @@
+package com.vcampus.server.core.system.metrics;
+
+import com.vcampus.common.util.JsonUtils;
+import com.vcampus.server.core.system.constant.SystemConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指标定时输出
+ * 按固定间隔将 {@link MetricsRegistry} 快照以单行 JSON 写入 vcampus.metrics 日志
+ * （logback 中配置为独立的 logs/vcampus-metrics.log）。
+ * 间隔通过系统属性 vcampus.metrics.dumpInterval（秒）配置，0 表示不输出。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+@Slf4j
+public class MetricsReporter {
+
+    private static final Logger METRICS_LOG = LoggerFactory.getLogger("vcampus.metrics");
+
+    private final MetricsRegistry registry;
+    private final long intervalSeconds;
+    private ScheduledExecutorService scheduler;
+
+    public MetricsReporter(MetricsRegistry registry, long intervalSeconds) {
+        this.registry = registry;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * 根据系统属性创建
+     */
+    public static MetricsReporter fromSystemProperties() {
+        long interval = Long.getLong(SystemConstant.CONFIG_METRICS_DUMP_INTERVAL,
+                SystemConstant.DEFAULT_METRICS_DUMP_INTERVAL);
+        return new MetricsReporter(MetricsRegistry.getInstance(), interval);
+    }
+
+    /**
+     * 启动定时输出
+     */
+    public synchronized void start() {
+        if (intervalSeconds <= 0 || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vcampus-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::dump, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        log.info("Metrics reporter started, dump interval: {}s", intervalSeconds);
+    }
+
+    /**
+     * 立即输出一次快照
+     */
+    public void dump() {
+        try {
+            Map<String, Object> snapshot = registry.snapshot();
+            METRICS_LOG.info(JsonUtils.toCompactJson(snapshot));
+        } catch (Exception e) {
+            log.warn("Failed to dump metrics", e);
+        }
+    }
+
+    /**
+     * 停止定时输出，并在停止前输出最后一次快照
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        dump();
+    }
+}
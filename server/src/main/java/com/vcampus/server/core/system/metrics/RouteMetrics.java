@@ -0,0 +1,119 @@
+package com.vcampus.server.core.system.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个路由（或 uri#action 操作）的运行指标
+ * 包括耗时/数据库耗时直方图（微秒）、请求与响应大小直方图（字节）、在途数与各类计数。
+ *
+ * @author VCampus Team
+ * @version 1.0
+ */
+public class RouteMetrics {
+
+    private final Histogram latency = new Histogram();
+    private final Histogram dbTime = new Histogram();
+    private final Histogram requestBytes = new Histogram();
+    private final Histogram responseBytes = new Histogram();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * 请求开始执行
+     */
+    public void begin() {
+        inFlight.increment();
+    }
+
+    /**
+     * 请求执行结束
+     *
+     * @param elapsedNanos 总耗时
+     * @param dbNanos 其中的数据库耗时
+     * @param error 是否为非成功响应
+     */
+    public void end(long elapsedNanos, long dbNanos, boolean error) {
+        inFlight.decrement();
+        requests.increment();
+        if (error) {
+            errors.increment();
+        }
+        latency.record(elapsedNanos / 1000L);
+        dbTime.record(dbNanos / 1000L);
+    }
+
+    /**
+     * 记录请求/响应在线路上的大小，未知时传负数
+     */
+    public void recordPayload(long requestSize, long responseSize) {
+        if (requestSize >= 0) {
+            requestBytes.record(requestSize);
+        }
+        if (responseSize >= 0) {
+            responseBytes.record(responseSize);
+        }
+    }
+
+    public void recordRejection() {
+        rejections.increment();
+    }
+
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    /**
+     * 清空计数（在途数为实时量，不清空）
+     */
+    public void reset() {
+        latency.reset();
+        dbTime.reset();
+        requestBytes.reset();
+        responseBytes.reset();
+        requests.reset();
+        errors.reset();
+        rejections.reset();
+        timeouts.reset();
+    }
+
+    /**
+     * 转换为便于序列化的快照，耗时单位为毫秒
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("requests", getRequests());
+        map.put("errors", getErrors());
+        map.put("rejections", rejections.sum());
+        map.put("timeouts", timeouts.sum());
+        map.put("inFlight", getInFlight());
+        map.put("latencyMs", latency.snapshot(1000.0));
+        map.put("dbMs", dbTime.snapshot(1000.0));
+        long totalLatency = latency.getSum();
+        map.put("dbRatio", totalLatency == 0 ? 0.0
+                : Math.round(dbTime.getSum() * 1000.0 / totalLatency) / 1000.0);
+        map.put("requestBytes", requestBytes.snapshot(1.0));
+        map.put("responseBytes", responseBytes.snapshot(1.0));
+        return map;
+    }
+}
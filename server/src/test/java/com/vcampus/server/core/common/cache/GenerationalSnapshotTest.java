@@ -0,0 +1,61 @@
+package com.vcampus.server.core.common.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class GenerationalSnapshotTest {
+
+    @Test
+    public void testLoadsOnceUntilInvalidatedOrExpired() {
+        AtomicInteger loads = new AtomicInteger();
+        long[] now = {0};
+        GenerationalSnapshot<Integer> snapshot = new GenerationalSnapshot<>("test", loads::incrementAndGet,
+                1000, () -> now[0]);
+
+        assertEquals(Integer.valueOf(1), snapshot.get());
+        assertEquals(Integer.valueOf(1), snapshot.get());
+        snapshot.invalidate();
+        assertEquals(Integer.valueOf(2), snapshot.get());
+
+        now[0] = 1000;
+        assertEquals(Integer.valueOf(2), snapshot.get());
+        now[0] = 1001;
+        assertEquals(Integer.valueOf(3), snapshot.get());
+    }
+
+    @Test
+    public void testInvalidationDuringLoadIsNotLost() {
+        AtomicInteger loads = new AtomicInteger();
+        AtomicReference<GenerationalSnapshot<Integer>> snapshot = new AtomicReference<>();
+        snapshot.set(new GenerationalSnapshot<>("test", () -> {
+            int load = loads.incrementAndGet();
+            if (load == 1) {
+                // 读完数据后、发布前，另一线程提交了修改
+                snapshot.get().invalidate();
+            }
+            return load;
+        }, 1000, () -> 0));
+
+        assertEquals(Integer.valueOf(2), snapshot.get().get());
+        assertEquals(Integer.valueOf(2), snapshot.get().get());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testSustainedInvalidationIsBounded() {
+        AtomicInteger loads = new AtomicInteger();
+        AtomicReference<GenerationalSnapshot<Integer>> snapshot = new AtomicReference<>();
+        snapshot.set(new GenerationalSnapshot<>("test", () -> {
+            snapshot.get().invalidate();
+            return loads.incrementAndGet();
+        }, 1000, () -> 0));
+
+        assertEquals(Integer.valueOf(GenerationalSnapshot.MAX_LOAD_ATTEMPTS), snapshot.get().get());
+        // 最后一次载入的结果不缓存
+        assertEquals(Integer.valueOf(GenerationalSnapshot.MAX_LOAD_ATTEMPTS * 2), snapshot.get().get());
+    }
+}
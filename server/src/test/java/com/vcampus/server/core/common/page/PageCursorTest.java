@@ -0,0 +1,68 @@
+package com.vcampus.server.core.common.page;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PageCursorTest {
+
+    @Test
+    public void testEncodeDecode() {
+        PageCursor cursor = PageCursor.decode(PageCursor.encode(123, "42", "借阅", null));
+        assertEquals(123, cursor.getTotalCount());
+        assertEquals(Integer.valueOf(42), cursor.getIntKey(0));
+        assertEquals("借阅", cursor.getKey(1));
+        assertNull(cursor.getKey(2));
+        assertNull(cursor.getKey(3));
+    }
+
+    @Test
+    public void testBlankCursorIsFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCursor() {
+        PageCursor.decode("not a cursor!");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonNumericKey() {
+        PageCursor.decode(PageCursor.encode(1, "abc")).getIntKey(0);
+    }
+
+    @Test
+    public void testPageWalksAllRows() {
+        List<Integer> all = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            all.add(i);
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        do {
+            PageCursor cursor = PageCursor.decode(token);
+            int after = cursor != null ? cursor.getIntKey(0) : 0;
+            List<Integer> rows = new ArrayList<>();
+            for (Integer id : all) {
+                if (id > after && rows.size() < 4) {
+                    rows.add(id);
+                }
+            }
+            CursorPage<Integer> page = PageCursor.page(rows, 3, all.size(), id -> new String[]{String.valueOf(id)});
+            assertEquals(7, page.getTotalCount());
+            seen.addAll(page.getItems());
+            assertEquals(page.getNextCursor() != null, page.isHasMore());
+            token = page.getNextCursor();
+            pages++;
+        } while (token != null);
+
+        assertEquals(all, seen);
+        assertEquals(3, pages);
+    }
+}
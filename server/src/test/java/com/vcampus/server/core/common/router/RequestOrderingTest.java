@@ -0,0 +1,61 @@
+package com.vcampus.server.core.common.router;
+
+import com.vcampus.common.message.Request;
+import com.vcampus.common.util.JsonUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RequestOrderingTest {
+
+    @Test
+    public void testBatchTakesItsSubRequestKey() {
+        Request[] subRequests = {
+                new Request("shop/product").addParam("action", "LIST"),
+                new Request("shop/order").addParam("action", "BUY"),
+                new Request("card/account").addParam("action", "RECHARGE")
+        };
+        assertEquals(RequestOrdering.ORDER_KEY_WRITE,
+                RequestOrdering.resolveBatchOrderKey(new Request(Router.BATCH_URI), subRequests));
+    }
+
+    @Test
+    public void testBatchWithoutKeysRunsConcurrently() {
+        Request[] subRequests = {new Request("shop/product").addParam("action", "LIST"), null};
+        assertNull(RequestOrdering.resolveBatchOrderKey(new Request(Router.BATCH_URI), subRequests));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchWithDifferentKeysIsRejected() {
+        Request[] subRequests = {
+                new Request("shop/order").addParam("action", "BUY"),
+                new Request("shop/cart").withOrderKey("cart")
+        };
+        RequestOrdering.resolveBatchOrderKey(new Request(Router.BATCH_URI), subRequests);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchKeyMustMatchSubRequestKeys() {
+        Request[] subRequests = {new Request("shop/order").addParam("action", "BUY")};
+        RequestOrdering.resolveBatchOrderKey(new Request(Router.BATCH_URI).withOrderKey("cart"), subRequests);
+    }
+
+    @Test
+    public void testPreparedBatchKeepsParsedSubRequests() {
+        Request[] subRequests = {new Request("shop/order").addParam("action", "BUY")};
+        Request request = new Request(Router.BATCH_URI).addParam("requests", JsonUtils.toCompactJson(subRequests));
+        BatchRequest batch = BatchRequest.prepare(request);
+        assertEquals(request.getId(), batch.getId());
+        assertEquals(RequestOrdering.ORDER_KEY_WRITE, batch.getOrderKey());
+        assertEquals(1, batch.getSubRequests().length);
+        assertEquals("BUY", batch.getSubRequests()[0].getParam("action"));
+        assertSame(batch, BatchRequest.parse(batch));
+    }
+
+    @Test
+    public void testMalformedBatchHasNoSubRequests() {
+        BatchRequest batch = BatchRequest.prepare(new Request(Router.BATCH_URI).addParam("requests", "[{\"uri\""));
+        assertNull(batch.getSubRequests());
+        assertNull(batch.getOrderKey());
+    }
+}
@@ -0,0 +1,67 @@
+package com.vcampus.server.core.common.router;
+
+import com.vcampus.common.message.Request;
+import com.vcampus.common.message.Response;
+import com.vcampus.common.message.Session;
+import com.vcampus.server.core.system.controller.SystemController;
+
+import java.lang.reflect.Method;
+
+/**
+ * Router.route 性能对比（system/heartbeat）
+ * 非单元测试，手动运行 main 方法：
+ * - reflective：旧实现的调用路径（Method.invoke + 每次 split/规范化角色字符串）
+ * - router：当前 Router（预编译处理器 + 角色位图 + 会话角色缓存）
+ */
+public class RouterBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 2_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Router router = new Router();
+        router.initialize("com.vcampus.server.core.system");
+
+        Request request = new Request("system/heartbeat");
+        request.setSession(new Session("213220001", "张三", "ROLE_Student"));
+
+        SystemController controller = new SystemController();
+        Method method = SystemController.class.getMethod("heartbeat", Request.class);
+
+        for (int i = 0; i < WARMUP; i++) {
+            reflectiveRoute(controller, method, request, "student,teacher");
+            router.route(request);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            reflectiveRoute(controller, method, request, "student,teacher");
+        }
+        long reflective = (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            router.route(request);
+        }
+        long compiled = (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.printf("system/heartbeat reflective: %d ns/op | router: %d ns/op%n", reflective, compiled);
+    }
+
+    private static Response reflectiveRoute(Object controller, Method method, Request request, String requiredRole) throws Exception {
+        boolean allowed = false;
+        for (String role : requiredRole.split(",")) {
+            String req = role.trim().toLowerCase();
+            for (String r : request.getSession().getRoles()) {
+                String lower = r.trim().replaceFirst("(?i)^role_", "").toLowerCase();
+                if (lower.equals(req) || "admin".equals(lower)) {
+                    allowed = true;
+                }
+            }
+        }
+        if (!allowed) {
+            return Response.Builder.forbidden();
+        }
+        return ((Response) method.invoke(controller, request)).withId(request.getId());
+    }
+}
@@ -0,0 +1,161 @@
+package com.vcampus.server.core.course.grade;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class GradeAggregatorTest {
+
+    private FakeStore store;
+    private GradeAggregator aggregator;
+
+    @Before
+    public void setUp() {
+        store = new FakeStore();
+        store.rows.add(row("S1", "C1", "张三", 1, 3, 90, 4.0));
+        store.rows.add(row("S1", "C1", "张三", 2, 2, 80, 3.3));
+        store.rows.add(row("S1", "C1", "张三", 3, 1, 60, null));
+        store.rows.add(row("S2", "C2", "李四", 1, 3, 70, 2.0));
+        aggregator = new GradeAggregator(store);
+        aggregator.rebuild();
+    }
+
+    @Test
+    public void testStatisticsUseCreditWeighting() {
+        Map<String, Object> statistics = aggregator.statistics("C1");
+        assertEquals(3, statistics.get("totalCount"));
+        assertEquals(new BigDecimal("6"), statistics.get("totalCredits"));
+        assertEquals(new BigDecimal("490.00"), statistics.get("totalScore"));
+        assertEquals(new BigDecimal("81.6667"), statistics.get("avgScore"));
+        assertEquals(new BigDecimal("18.60"), statistics.get("totalGPA"));
+        assertEquals(new BigDecimal("3.1000"), statistics.get("avgGPA"));
+
+        Map<String, Object> averages = aggregator.averages("S9");
+        assertEquals(0, averages.get("courseCount"));
+        assertEquals(new BigDecimal("0.0000"), averages.get("avgScore"));
+    }
+
+    @Test
+    public void testRecordedRowsUpdateSumsAndRanking() {
+        List<Map<String, Object>> ranking = aggregator.ranking();
+        assertEquals("S1", ranking.get(0).get("studentId"));
+        assertEquals(2, ranking.get(1).get("rank"));
+
+        store.rows.set(3, row("S2", "C2", "李四", 1, 3, 95, 4.0));
+        aggregator.recordRows(Collections.singletonList(store.rows.get(3)));
+        ranking = aggregator.ranking();
+        assertEquals("S2", ranking.get(0).get("studentId"));
+        assertEquals(new BigDecimal("95.0000"), ranking.get(0).get("avgScore"));
+        assertEquals(1, aggregator.averages("S2").get("courseCount"));
+
+        aggregator.recordRows(Collections.singletonList(row("S1", "C1", "张三", 3, 1, null, null)));
+        assertEquals(2, aggregator.statistics("C1").get("totalCount"));
+        assertEquals(new BigDecimal("86.0000"), aggregator.statistics("C1").get("avgScore"));
+    }
+
+    @Test
+    public void testTiesShareRank() {
+        aggregator.recordRows(Arrays.asList(
+                row("S3", "C3", "王五", 1, 2, 70, 2.0),
+                row("S4", "C4", "赵六", 2, 4, 50, 1.0)));
+        List<Map<String, Object>> ranking = aggregator.ranking();
+        assertEquals(4, ranking.size());
+        assertEquals(2, ranking.get(1).get("rank"));
+        assertEquals(2, ranking.get(2).get("rank"));
+        assertEquals(4, ranking.get(3).get("rank"));
+    }
+
+    @Test
+    public void testRefreshStudentsReplacesFromStore() {
+        store.rows.remove(0);
+        aggregator.refreshStudents(Collections.singleton("S1"));
+        Map<String, Object> statistics = aggregator.statistics("C1");
+        assertEquals(2, statistics.get("totalCount"));
+        assertEquals(new BigDecimal("3"), statistics.get("totalCredits"));
+    }
+
+    @Test
+    public void testRefreshDoesNotOverwriteConcurrentGradeWrite() {
+        store.afterStudentLoad = () -> {
+            // 刷新读库之后、登记之前，另一线程提交了该学生的成绩
+            store.rows.set(0, row("S1", "C1", "张三", 1, 3, 100, 4.0));
+            aggregator.recordRows(Collections.singletonList(store.rows.get(0)));
+        };
+        aggregator.refreshStudents(Collections.singleton("S1"));
+
+        Map<String, Object> statistics = aggregator.statistics("C1");
+        assertEquals(3, statistics.get("totalCount"));
+        assertEquals(new BigDecimal("520.00"), statistics.get("totalScore"));
+        assertEquals(2, store.studentLoads);
+    }
+
+    @Test
+    public void testRebuildCountsDriftedStudents() {
+        assertEquals(0, aggregator.rebuild());
+
+        store.rows.add(row("S2", "C2", "李四", 2, 2, 100, 4.0));
+        store.rows.add(row("S5", "C5", "孙七", 1, 3, 88, 3.7));
+        assertEquals(2, aggregator.rebuild());
+        assertEquals(2, aggregator.averages("S2").get("courseCount"));
+        assertEquals(new BigDecimal("82.0000"), aggregator.averages("S2").get("avgScore"));
+        assertEquals(3, aggregator.ranking().size());
+        assertEquals(0, aggregator.rebuild());
+    }
+
+    private static Map<String, Object> row(String studentId, String cardNum, String name,
+                                           int sectionId, int credit, Integer score, Double gpa) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("student_Id", studentId);
+        row.put("cardNum", cardNum);
+        row.put("Name", name);
+        row.put("section_Id", sectionId);
+        row.put("Credit", credit);
+        row.put("Score", score);
+        row.put("GPA", gpa == null ? null : BigDecimal.valueOf(gpa));
+        return row;
+    }
+
+    private static final class FakeStore implements GradeStore {
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        Runnable afterStudentLoad;
+        int studentLoads;
+
+        @Override
+        public List<Map<String, Object>> loadGradeRows(int chunk, int chunks) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            for (Map<String, Object> row : rows) {
+                if (Math.floorMod(row.get("student_Id").hashCode(), chunks) == chunk) {
+                    result.add(row);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public List<Map<String, Object>> loadStudentGradeRows(Collection<String> studentIds) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            for (Map<String, Object> row : rows) {
+                if (studentIds.contains(row.get("student_Id"))) {
+                    result.add(row);
+                }
+            }
+            studentLoads++;
+            Runnable hook = afterStudentLoad;
+            afterStudentLoad = null;
+            if (hook != null) {
+                hook.run();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.vcampus.server.core.course.grade;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ScoreBatchParserTest {
+
+    @Test
+    public void testParsesRowsAndComputesGpa() {
+        BatchScoreResult result = new BatchScoreResult(1);
+        List<ScoreEntry> entries = ScoreBatchParser.parse("[{\"cardNum\":\"1001\",\"score\":96,\"gpa\":\"1.0\"},"
+                + "{\"cardNum\":\"1002\",\"score\":\"84.6\"},"
+                + "{\"cardNum\":\"1003\",\"score\":\"\"}]", result);
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.getTotalCount());
+        assertEquals(1, result.getSkippedCount());
+        assertEquals(2, entries.size());
+        assertEquals(4.8, entries.get(0).getGpa(), 1e-9);
+        assertEquals(84.6, entries.get(1).getScore(), 1e-9);
+        assertEquals(3.5, entries.get(1).getGpa(), 1e-9);
+        assertEquals(2, entries.get(1).getRow());
+    }
+
+    @Test
+    public void testReportsEveryInvalidRow() {
+        BatchScoreResult result = new BatchScoreResult(1);
+        List<ScoreEntry> entries = ScoreBatchParser.parse("[{\"cardNum\":\"1001\",\"score\":101},"
+                + "{\"score\":80},"
+                + "{\"cardNum\":\"1003\",\"score\":\"abc\"},"
+                + "{\"cardNum\":\"1004\",\"score\":70},"
+                + "{\"cardNum\":\"1004\",\"score\":75}]", result);
+
+        assertFalse(result.isSuccess());
+        assertEquals(4, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("第1行(1001)"));
+        assertTrue(result.getErrors().get(3).contains("学号重复"));
+        assertEquals(1, entries.size());
+    }
+
+    @Test
+    public void testMalformedPayload() {
+        BatchScoreResult result = new BatchScoreResult(1);
+        ScoreBatchParser.parse("{\"cardNum\":\"1001\"}", result);
+        assertFalse(result.isSuccess());
+        assertTrue(result.getErrors().get(0).startsWith("成绩数据格式错误"));
+    }
+}
@@ -0,0 +1,258 @@
+package com.vcampus.server.core.course.registration;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CourseRegistrarTest {
+
+    @Test
+    public void testCapacityIsEnforcedUnderContention() throws Exception {
+        FakeStore store = new FakeStore();
+        store.sections.add(section(1, 10, 5, null));
+        for (int i = 0; i < 50; i++) {
+            store.students.put("c" + i, "s" + i);
+        }
+        CourseRegistrar registrar = new CourseRegistrar(store);
+        registrar.load();
+
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String cardNum = "c" + i;
+            Thread t = new Thread(() -> {
+                try {
+                    go.await();
+                    registrar.select(cardNum, 1);
+                    admitted.incrementAndGet();
+                } catch (InterruptedException | RuntimeException ignored) {
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        go.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals(5, admitted.get());
+        assertEquals(5, registrar.flush());
+        assertEquals(5, store.written.size());
+    }
+
+    @Test
+    public void testRejectsDuplicateSameCourseAndTimeConflict() {
+        FakeStore store = new FakeStore();
+        store.sections.add(section(1, 10, 30, "周一 1-2节"));
+        store.sections.add(section(2, 10, 30, "周三 1-2节"));
+        store.sections.add(section(3, 11, 30, "周一 1-3节"));
+        store.sections.add(section(4, 12, 30, "周二 1-2节"));
+        store.enrollments.add(enrollment("c1", "s1", 1));
+        CourseRegistrar registrar = new CourseRegistrar(store);
+        registrar.load();
+
+        assertRejected(() -> registrar.select("c1", 1), "已选择该教学班");
+        assertRejected(() -> registrar.select("c1", 2), "同一门课程");
+        assertRejected(() -> registrar.select("c1", 3), "时间冲突");
+        assertRejected(() -> registrar.select("c1", 99), "教学班不存在");
+        assertRejected(() -> registrar.select("nobody", 4), "学生不存在");
+        registrar.select("c1", 4);
+
+        registrar.drop("c1", 1);
+        registrar.select("c1", 3);
+        assertRejected(() -> registrar.drop("c1", 1), "未选该课");
+        assertEquals(3, registrar.flush());
+        assertEquals(Arrays.asList("+s1/4", "-s1/1", "+s1/3"), store.written);
+    }
+
+    @Test
+    public void testConflictingSectionsFollowTimetable() {
+        FakeStore store = new FakeStore();
+        store.sections.add(section(1, 10, 30, "周一 1-2节"));
+        store.sections.add(section(2, 11, 30, "周一 1-3节"));
+        store.sections.add(section(3, 12, 30, "周二 1-2节, 周一 1-2节"));
+        store.sections.add(section(4, 13, 30, "周三 1-2节"));
+        store.students.put("c1", "s1");
+        CourseRegistrar registrar = new CourseRegistrar(store);
+        registrar.load();
+
+        assertTrue(registrar.conflictingSections("c1").isEmpty());
+        registrar.select("c1", 1);
+        assertEquals(Arrays.asList(2, 3), registrar.conflictingSections("c1"));
+
+        store.sections.set(0, section(1, 10, 30, "周三 1-2节"));
+        registrar.sectionChanged(1);
+        assertEquals(Arrays.asList(4), registrar.conflictingSections("c1"));
+        registrar.select("c1", 2);
+
+        registrar.drop("c1", 1);
+        assertEquals(Arrays.asList(3), registrar.conflictingSections("c1"));
+    }
+
+    @Test
+    public void testAvailableSectionsTrackSeatsAndFilters() {
+        FakeStore store = new FakeStore();
+        store.sections.add(catalog(1, 10, 1, "计算机学院", "2024-2025-1"));
+        store.sections.add(catalog(2, 11, 30, "数学学院", "2024-2025-1"));
+        store.sections.add(catalog(3, 12, 30, "计算机学院", "2024-2025-2"));
+        store.students.put("c1", "s1");
+        store.students.put("c2", "s2");
+        CourseRegistrar registrar = new CourseRegistrar(store);
+        registrar.load();
+
+        assertEquals(Arrays.asList(1, 2, 3), sectionIds(registrar.availableSections("c1", null, "")));
+        assertEquals(Arrays.asList(1, 3), sectionIds(registrar.availableSections("c1", "计算机学院", null)));
+        assertEquals(Arrays.asList(3), sectionIds(registrar.availableSections("c1", "计算机学院", "2024-2025-2")));
+
+        registrar.select("c1", 1);
+        registrar.select("c1", 2);
+        assertEquals(Arrays.asList(3), sectionIds(registrar.availableSections("c1", null, null)));
+        assertEquals(Arrays.asList(2, 3), sectionIds(registrar.availableSections("c2", null, null)));
+        registrar.drop("c1", 1);
+        assertEquals(Arrays.asList(1, 2, 3), sectionIds(registrar.availableSections("c2", null, null)));
+
+        store.sections.remove(2);
+        store.sections.add(catalog(4, 13, 30, "数学学院", "2024-2025-1"));
+        registrar.reloadCatalog();
+        assertEquals(Arrays.asList(1, 4), sectionIds(registrar.availableSections("c1", null, null)));
+        assertEquals("数学学院", registrar.availableSections("c1", null, null).get(1).get("Department"));
+    }
+
+    @Test
+    public void testFailedBatchKeepsOrder() {
+        FakeStore store = new FakeStore();
+        store.sections.add(section(1, 10, 1, null));
+        store.students.put("c1", "s1");
+        store.students.put("c2", "s2");
+        CourseRegistrar registrar = new CourseRegistrar(store);
+        registrar.load();
+
+        registrar.select("c1", 1);
+        registrar.drop("c1", 1);
+        store.down = true;
+        try {
+            registrar.flush();
+            fail("expected failure");
+        } catch (IllegalStateException expected) {
+            assertTrue(store.written.isEmpty());
+        }
+        registrar.select("c2", 1);
+        store.down = false;
+        assertEquals(3, registrar.flush());
+        assertEquals(Arrays.asList("+s1/1", "-s1/1", "+s2/1"), store.written);
+    }
+
+    @Test
+    public void testCapacityChangeAndRemovedSection() {
+        FakeStore store = new FakeStore();
+        store.sections.add(section(1, 10, 1, null));
+        store.enrollments.add(enrollment("c1", "s1", 1));
+        store.students.put("c2", "s2");
+        CourseRegistrar registrar = new CourseRegistrar(store);
+        registrar.load();
+
+        assertRejected(() -> registrar.select("c2", 1), "人数已满");
+        store.sections.set(0, section(1, 10, 2, null));
+        registrar.sectionChanged(1);
+        registrar.select("c2", 1);
+
+        store.sections.clear();
+        registrar.sectionChanged(1);
+        assertRejected(() -> registrar.drop("c1", 1), "未选该课");
+        assertRejected(() -> registrar.select("c1", 1), "教学班不存在");
+    }
+
+    private static void assertRejected(Runnable action, String reason) {
+        try {
+            action.run();
+            fail("expected rejection: " + reason);
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(reason));
+        }
+    }
+
+    private static Map<String, Object> section(int sectionId, int courseId, int capacity, String schedule) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("section_Id", sectionId);
+        row.put("course_Id", courseId);
+        row.put("Capacity", (short) capacity);
+        row.put("Schedule", schedule);
+        return row;
+    }
+
+    private static Map<String, Object> catalog(int sectionId, int courseId, int capacity, String department, String term) {
+        Map<String, Object> row = section(sectionId, courseId, capacity, null);
+        row.put("Department", department);
+        row.put("Term", term);
+        return row;
+    }
+
+    private static List<Integer> sectionIds(List<Map<String, Object>> rows) {
+        List<Integer> ids = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            ids.add((Integer) row.get("section_Id"));
+        }
+        return ids;
+    }
+
+    private static Map<String, Object> enrollment(String cardNum, String studentId, int sectionId) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("cardNum", cardNum);
+        row.put("student_Id", studentId);
+        row.put("section_Id", sectionId);
+        return row;
+    }
+
+    private static class FakeStore implements EnrollmentStore {
+        final List<Map<String, Object>> sections = new ArrayList<>();
+        final List<Map<String, Object>> enrollments = new ArrayList<>();
+        final Map<String, String> students = new HashMap<>();
+        final List<String> written = new ArrayList<>();
+        boolean down;
+
+        @Override
+        public List<Map<String, Object>> loadSections() {
+            return new ArrayList<>(sections);
+        }
+
+        @Override
+        public List<Map<String, Object>> loadEnrollments() {
+            return new ArrayList<>(enrollments);
+        }
+
+        @Override
+        public Map<String, Object> findSection(int sectionId) {
+            for (Map<String, Object> row : sections) {
+                if (row.get("section_Id").equals(sectionId)) {
+                    return row;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String findStudentId(String cardNum) {
+            return students.get(cardNum);
+        }
+
+        @Override
+        public void persistEnrollmentChanges(List<EnrollmentChange> changes) {
+            if (down) {
+                throw new IllegalStateException("db down");
+            }
+            for (EnrollmentChange change : changes) {
+                written.add((change.isEnroll() ? "+" : "-") + change.getStudentId() + "/" + change.getSectionId());
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.vcampus.server.core.course.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ScheduleConflictCheckerTest {
+
+    @Test
+    public void testPeriodAndTimeFormats() {
+        assertTrue(ScheduleConflictChecker.hasConflict("周一 1-2节", "周一 第1-3节"));
+        assertFalse(ScheduleConflictChecker.hasConflict("周一 1-2节", "周一 2-3节"));
+        assertFalse(ScheduleConflictChecker.hasConflict("周一 1-2节", "周二 1-2节"));
+        assertTrue(ScheduleConflictChecker.hasConflict("周二 3-4节, 周四 5-6节", "周四 5-7节"));
+        assertTrue(ScheduleConflictChecker.hasConflict("Monday 08:00-09:50", "Monday 09:30-10:20"));
+        assertFalse(ScheduleConflictChecker.hasConflict("Monday 08:00-09:50", "Monday 09:50-10:20"));
+        assertTrue(ScheduleConflictChecker.hasConflict("周三", "周三 9-10节"));
+        // 同一天一方按节次、一方按时间时视为冲突
+        assertTrue(ScheduleConflictChecker.hasConflict("周一 1-2节", "Monday 18:00-19:00"));
+        assertFalse(ScheduleConflictChecker.hasConflict("周一 1-2节", "Tuesday 08:00-09:00"));
+        assertFalse(ScheduleConflictChecker.hasConflict(null, "周一 1-2节"));
+        assertFalse(ScheduleConflictChecker.hasConflict("待定", "周一 1-2节"));
+    }
+
+    @Test
+    public void testUnionConflictsIfAnyPartConflicts() {
+        ScheduleMask occupied = ScheduleMask.EMPTY
+                .union(ScheduleConflictChecker.toMask("周一 1-2节"))
+                .union(ScheduleConflictChecker.toMask("Wednesday 14:00-15:30"));
+
+        assertTrue(occupied.conflictsWith(ScheduleConflictChecker.toMask("周一 1-4节")));
+        assertTrue(occupied.conflictsWith(ScheduleConflictChecker.toMask("Wednesday 15:00-16:00")));
+        assertTrue(occupied.conflictsWith(ScheduleConflictChecker.toMask("周三 1-2节")));
+        assertFalse(occupied.conflictsWith(ScheduleConflictChecker.toMask("周五 1-2节")));
+        assertFalse(occupied.conflictsWith(ScheduleMask.EMPTY));
+        assertEquals(ScheduleConflictChecker.toMask("周一 1-2节"), ScheduleConflictChecker.toMask("周一 第1-2节"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.vcampus.server.core.library.category;
+
+import com.vcampus.server.core.library.entity.core.BookCategory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CategoryRegistryTest {
+
+    @Test
+    public void testLoadsOnceUntilInvalidated() {
+        List<BookCategory> categories = new ArrayList<>(Arrays.asList(
+                BookCategory.create("I", "文学", "文学类", 9),
+                BookCategory.create("B", "哲学、宗教", "哲学宗教类", 2)));
+        int[] loads = {0};
+        CategoryRegistry registry = new CategoryRegistry(() -> {
+            loads[0]++;
+            return new ArrayList<>(categories);
+        });
+
+        CategoryRegistry.Snapshot first = registry.snapshot();
+        assertEquals("B", first.getCategories().get(0).get("categoryCode"));
+        assertEquals("I", registry.codeOf(" 文学 "));
+        assertNull(registry.codeOf("军事"));
+        assertEquals(1, loads[0]);
+
+        categories.add(BookCategory.create("E", "军事", "军事类", 5));
+        assertNull(registry.codeOf("军事"));
+        registry.invalidate();
+        assertEquals("E", registry.codeOf("军事"));
+        assertEquals(2, loads[0]);
+        assertFalse(registry.snapshot().matches(first.getVersion()));
+    }
+
+    @Test
+    public void testVersionDependsOnlyOnContent() {
+        List<BookCategory> categories = Arrays.asList(
+                BookCategory.create("A", "马克思主义", "马克思主义理论类", 1),
+                BookCategory.create("B", "哲学、宗教", "哲学宗教类", 2));
+        CategoryRegistry.Snapshot snapshot = new CategoryRegistry.Snapshot(categories);
+        CategoryRegistry.Snapshot reordered = new CategoryRegistry.Snapshot(
+                Arrays.asList(categories.get(1), categories.get(0)));
+        CategoryRegistry.Snapshot renamed = new CategoryRegistry.Snapshot(Arrays.asList(
+                categories.get(0), BookCategory.create("B", "哲学", "哲学宗教类", 2)));
+
+        assertTrue(snapshot.matches(reordered.getVersion()));
+        assertFalse(snapshot.matches(renamed.getVersion()));
+        assertFalse(snapshot.matches(""));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCategoriesAreReadOnly() {
+        CategoryRegistry.Snapshot snapshot = new CategoryRegistry.Snapshot(
+                Arrays.asList(BookCategory.create("A", "马克思主义", "马克思主义理论类", 1)));
+        snapshot.getCategories().get(0).put("categoryName", "x");
+    }
+}
@@ -0,0 +1,108 @@
+package com.vcampus.server.core.library.exporter;
+
+import com.vcampus.server.core.library.entity.core.Book;
+import com.vcampus.server.core.library.entity.view.UserBorrowHistory;
+import com.vcampus.server.core.library.enums.BookStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BookExporterTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("book-export-test-", ".csv");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testBooksAreReadInWindows() throws Exception {
+        List<Book> books = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            books.add(Book.builder().bookId(i).isbn("978-" + i).title("书" + i).totalQty(i)
+                    .status(BookStatus.IN_LIBRARY).publishDate(LocalDate.of(2020, 1, i)).build());
+        }
+        List<Integer> requestedKeys = new ArrayList<>();
+        List<Long> progress = new ArrayList<>();
+
+        long count;
+        try (SheetWriter out = SheetWriter.open(file, "books.csv", "图书数据")) {
+            count = BookExporter.writeBooks(out, (afterId, limit) -> {
+                requestedKeys.add(afterId);
+                List<Book> window = new ArrayList<>();
+                for (Book book : books) {
+                    if ((afterId == null || book.getBookId() > afterId) && window.size() < limit) {
+                        window.add(book);
+                    }
+                }
+                return window;
+            }, 2, progress::add);
+        }
+
+        assertEquals(5, count);
+        assertEquals(Arrays.asList(null, 2, 4), requestedKeys);
+        assertEquals(Arrays.asList(2L, 4L, 5L), progress);
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).startsWith("\uFEFF图书ID,ISBN,书名"));
+        assertEquals("1,978-1,书1,,,2020-01-01,,,1,,在库,", lines.get(1));
+    }
+
+    @Test
+    public void testExactWindowEndsWithEmptyWindow() throws Exception {
+        List<Integer> requestedKeys = new ArrayList<>();
+        long count;
+        try (SheetWriter out = SheetWriter.open(file, "borrows.csv", "借阅记录")) {
+            count = BookExporter.writeBorrowHistory(out, (beforeTransId, limit) -> {
+                requestedKeys.add(beforeTransId);
+                if (beforeTransId != null) {
+                    return new ArrayList<>();
+                }
+                UserBorrowHistory history = new UserBorrowHistory();
+                history.setTransId(9);
+                history.setUserName("张三");
+                history.setBookTitle("Hello, \"World\"");
+                history.setBorrowTime(LocalDateTime.of(2024, 3, 1, 8, 30));
+                history.setBorrowStatus("BORROWED");
+                return new ArrayList<>(Arrays.asList(history));
+            }, 1, total -> { });
+        }
+
+        assertEquals(1, count);
+        assertEquals(Arrays.asList(null, 9), requestedKeys);
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals("9,,张三,,\"Hello, \"\"World\"\"\",,,2024-03-01 08:30:00,,,BORROWED,", lines.get(1));
+    }
+
+    @Test
+    public void testSupportedFormats() {
+        assertTrue(SheetWriter.isSupported("a.XLSX"));
+        assertTrue(SheetWriter.isSupported("a.csv"));
+        assertFalse(SheetWriter.isSupported("a.xls"));
+        assertFalse(SheetWriter.isSupported(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedFormat() throws Exception {
+        SheetWriter.open(file, "a.txt", "sheet");
+    }
+}
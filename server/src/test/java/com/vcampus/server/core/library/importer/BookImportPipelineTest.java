@@ -0,0 +1,134 @@
+package com.vcampus.server.core.library.importer;
+
+import com.vcampus.server.core.library.entity.core.Book;
+import com.vcampus.server.core.library.enums.BookStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class BookImportPipelineTest {
+
+    private Set<String> stored;
+    private List<Integer> batchSizes;
+    private int lookups;
+    private BookImportPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        stored = new HashSet<>();
+        batchSizes = new ArrayList<>();
+        lookups = 0;
+        pipeline = new BookImportPipeline(isbns -> {
+            lookups++;
+            Set<String> existing = new HashSet<>(isbns);
+            existing.retainAll(stored);
+            return existing;
+        }, books -> {
+            batchSizes.add(books.size());
+            for (Book book : books) {
+                stored.add(book.getIsbn());
+            }
+        }, 2);
+    }
+
+    @Test
+    public void testHeaderByNameAndBatches() {
+        stored.add("978-3");
+        pipeline.acceptRow(1, Arrays.asList("ISBN", "书名", "作者", "出版社", "总数量", "状态", "出版日期"));
+        pipeline.acceptRow(2, Arrays.asList("978-1", "红楼梦", "曹雪芹", "人民文学", "3", "在库", "2020/1/5"));
+        pipeline.acceptRow(3, Arrays.asList("978-2", "三国演义", "罗贯中", "人民文学", null, null, null));
+        pipeline.acceptRow(4, Arrays.asList("978-3", "水浒传", "施耐庵", "人民文学", "1", null, null));
+        pipeline.acceptRow(5, Arrays.asList(null, "", null));
+        pipeline.finish();
+
+        assertEquals(3, pipeline.getTotalCount());
+        assertEquals(2, pipeline.getSuccessCount());
+        assertEquals(1, pipeline.getSkipCount());
+        assertEquals(0, pipeline.getFailCount());
+        assertEquals(Arrays.asList(2), batchSizes);
+        assertEquals(2, lookups);
+        assertTrue(pipeline.getWarnings().get(0).startsWith("第4行"));
+    }
+
+    @Test
+    public void testDefaultColumnsAndValidation() {
+        pipeline.acceptRow(1, Arrays.asList("a", "b", "c"));
+        pipeline.acceptRow(2, Arrays.asList("算法导论", "Cormen", "978-7", "机械工业", "2012-01-01", "T", "A-1", "2"));
+        pipeline.acceptRow(3, Arrays.asList("", "无名", "978-8", "出版社"));
+        pipeline.acceptRow(4, Arrays.asList("书", "作者", "978-9", "出版社", null, null, null, "两本"));
+        pipeline.acceptRow(5, Arrays.asList("算法导论", "Cormen", "978-7", "机械工业"));
+        pipeline.finish();
+
+        assertEquals(4, pipeline.getTotalCount());
+        assertEquals(1, pipeline.getSuccessCount());
+        assertEquals(2, pipeline.getFailCount());
+        assertEquals(1, pipeline.getSkipCount());
+        assertTrue(pipeline.getErrors().get(0).contains("书名不能为空"));
+        assertTrue(pipeline.getErrors().get(1).contains("总数量不是整数"));
+        assertTrue(stored.contains("978-7"));
+    }
+
+    @Test
+    public void testAcceptBookAppliesDefaults() {
+        Book book = Book.builder().title("t").author("a").isbn(" 978-5 ").publisher("p").build();
+        List<Book> inserted = new ArrayList<>();
+        BookImportPipeline direct = new BookImportPipeline(isbns -> new HashSet<>(), inserted::addAll, 10);
+        direct.acceptBook(1, book);
+        direct.finish();
+
+        assertEquals(1, inserted.size());
+        assertEquals("978-5", book.getIsbn());
+        assertEquals(Integer.valueOf(1), book.getTotalQty());
+        assertEquals(Integer.valueOf(1), book.getAvailQty());
+        assertEquals(BookStatus.IN_LIBRARY, book.getStatus());
+    }
+
+    @Test
+    public void testFailedBatchCountsAsFailures() {
+        BookImportPipeline failing = new BookImportPipeline(isbns -> new HashSet<>(), books -> {
+            throw new IllegalStateException("duplicate key");
+        }, 10);
+        failing.acceptRow(1, Arrays.asList("书名", "作者", "ISBN", "出版社"));
+        failing.acceptRow(2, Arrays.asList("a", "b", "1", "c"));
+        failing.acceptRow(3, Arrays.asList("a", "b", "2", "c"));
+        failing.finish();
+
+        assertEquals(0, failing.getSuccessCount());
+        assertEquals(2, failing.getFailCount());
+        assertTrue(failing.getErrors().get(0).startsWith("第2-3行"));
+    }
+
+    @Test
+    public void testFailedBatchDoesNotCountSkippedRows() {
+        BookImportPipeline failing = new BookImportPipeline(isbns -> new HashSet<>(Arrays.asList("2")), books -> {
+            throw new IllegalStateException("duplicate key");
+        }, 10);
+        failing.acceptRow(1, Arrays.asList("书名", "作者", "ISBN", "出版社"));
+        failing.acceptRow(2, Arrays.asList("a", "b", "1", "c"));
+        failing.acceptRow(3, Arrays.asList("a", "b", "2", "c"));
+        failing.acceptRow(4, Arrays.asList("a", "b", "3", "c"));
+        failing.finish();
+
+        assertEquals(3, failing.getTotalCount());
+        assertEquals(2, failing.getFailCount());
+        assertEquals(1, failing.getSkipCount());
+        assertTrue(failing.getErrors().get(0).startsWith("第2-4行"));
+    }
+
+    @Test
+    public void testParseDate() {
+        assertEquals(LocalDate.of(2020, 1, 5), BookImportPipeline.parseDate("2020/1/5"));
+        assertEquals(LocalDate.of(2020, 1, 5), BookImportPipeline.parseDate("2020年1月5日"));
+        assertEquals(LocalDate.of(2020, 1, 5), BookImportPipeline.parseDate("1/5/20"));
+        assertEquals(LocalDate.of(2020, 1, 5), BookImportPipeline.parseDate("2020-01-05 00:00:00"));
+        assertNull(BookImportPipeline.parseDate("去年"));
+    }
+}
@@ -0,0 +1,164 @@
+package com.vcampus.server.core.library.index;
+
+import com.vcampus.server.core.library.entity.core.Book;
+import com.vcampus.server.core.library.entity.search.BookSearchResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BookSearchIndexTest {
+
+    private List<Book> books;
+    private BookSearchIndex index;
+
+    @Before
+    public void setUp() {
+        books = new ArrayList<>();
+        books.add(book(1, "数据结构与算法分析", "马克·艾伦·维斯", "机械工业出版社", "978-7-111-54748-1", "T"));
+        books.add(book(2, "算法导论", "Thomas H. Cormen", "机械工业出版社", "9787111407010", "T"));
+        books.add(book(3, "红楼梦", "曹雪芹", "人民文学出版社", "9787020002207", "I"));
+        books.add(book(4, "Java编程思想", "Bruce Eckel", "机械工业出版社", "9787111213826", "T"));
+        index = new BookSearchIndex(() -> books,
+                id -> books.stream().filter(b -> b.getBookId().equals(id)).findFirst());
+    }
+
+    @Test
+    public void testChineseBigramMatch() {
+        assertEquals(List.of(1), ids(index.search("数据结构", null, 0, 10)));
+        assertEquals(List.of(3), ids(index.search("红楼", null, 0, 10)));
+        // 单字查询
+        assertEquals(List.of(3), ids(index.search("梦", null, 0, 10)));
+    }
+
+    @Test
+    public void testTitleRanksAboveLongerTitle() {
+        assertEquals(List.of(2, 1), ids(index.search("算法", null, 0, 10)));
+    }
+
+    @Test
+    public void testPrefixAndCaseInsensitive() {
+        assertEquals(List.of(4), ids(index.search("JAV", null, 0, 10)));
+        assertEquals(List.of(2), ids(index.search("cormen", null, 0, 10)));
+    }
+
+    @Test
+    public void testIsbnMatch() {
+        assertEquals(List.of(1), ids(index.search("978-7-111-54748-1", null, 0, 10)));
+        assertEquals(List.of(4), ids(index.search("97871112", null, 0, 10)));
+    }
+
+    @Test
+    public void testAllTermsPreferredThenFallback() {
+        assertEquals(List.of(4), ids(index.search("机械 java", null, 0, 10)));
+        // 没有同时命中两个词的图书时，返回任一词命中的结果
+        assertEquals(3, index.search("算法 红楼", null, 0, 10).getTotalCount());
+    }
+
+    @Test
+    public void testCategoryFilterAndPaging() {
+        assertEquals(List.of(3), ids(index.search("出版社", "I", 0, 10)));
+
+        BookSearchResult page = index.search("出版社", null, 1, 2);
+        assertEquals(4, page.getTotalCount());
+        assertEquals(2, page.getBooks().size());
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        index.search("算法", null, 0, 10);
+
+        books.add(book(5, "算法竞赛入门经典", "刘汝佳", "清华大学出版社", "9787302291077", "T"));
+        index.refresh(5);
+        index.remove(2);
+        books.get(2).setTitle("石头记");
+        index.index(books.get(2));
+
+        assertEquals(List.of(1, 5), sorted(ids(index.search("算法", null, 0, 10))));
+        assertTrue(ids(index.search("红楼", null, 0, 10)).isEmpty());
+        assertEquals(List.of(3), ids(index.search("石头记", null, 0, 10)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testConcurrentRefreshAppliesLatestRead() throws Exception {
+        CountDownLatch firstRead = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        BookSearchIndex slow = new BookSearchIndex(() -> books, id -> {
+            Book current = books.get(id - 1);
+            Book copy = book(id, current.getTitle(), current.getAuthor(), current.getPublisher(),
+                    current.getIsbn(), current.getCategory());
+            if (reads.getAndIncrement() == 0) {
+                firstRead.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Optional.of(copy);
+        });
+        slow.search("红楼", null, 0, 10);
+
+        // 第一次刷新读到旧书名后停住，第二次刷新在其后读到新书名
+        Thread first = new Thread(() -> slow.refresh(3));
+        first.start();
+        assertTrue(firstRead.await(5, TimeUnit.SECONDS));
+        books.get(2).setTitle("石头记");
+        Thread second = new Thread(() -> slow.refresh(3));
+        second.start();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (second.getState() != Thread.State.BLOCKED && second.isAlive()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertEquals(List.of(3), ids(slow.search("石头记", null, 0, 10)));
+        assertTrue(ids(slow.search("红楼", null, 0, 10)).isEmpty());
+    }
+
+    @Test
+    public void testResultsAreCopies() {
+        Book result = index.search("红楼梦", null, 0, 10).getBooks().get(0);
+        result.setTitle("changed");
+        assertEquals("红楼梦", index.search("红楼梦", null, 0, 10).getBooks().get(0).getTitle());
+    }
+
+    private static Book book(int id, String title, String author, String publisher, String isbn, String category) {
+        return Book.builder()
+                .bookId(id)
+                .title(title)
+                .author(author)
+                .publisher(publisher)
+                .isbn(isbn)
+                .category(category)
+                .totalQty(1)
+                .availQty(1)
+                .build();
+    }
+
+    private static List<Integer> ids(BookSearchResult result) {
+        List<Integer> ids = new ArrayList<>();
+        for (Book book : result.getBooks()) {
+            ids.add(book.getBookId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        List<Integer> copy = new ArrayList<>(ids);
+        copy.sort(null);
+        return copy;
+    }
+}
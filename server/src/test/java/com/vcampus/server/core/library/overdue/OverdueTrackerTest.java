@@ -0,0 +1,108 @@
+package com.vcampus.server.core.library.overdue;
+
+import com.vcampus.server.core.library.entity.core.BookBorrow;
+import com.vcampus.server.core.library.enums.BorrowStatus;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OverdueTrackerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Test
+    public void testFlushMarksOnlyExpiredBorrows() {
+        List<List<Integer>> batches = new ArrayList<>();
+        OverdueTracker tracker = new OverdueTracker(() -> new ArrayList<>(Arrays.asList(
+                borrow(1, "A", NOW.minusDays(3), BorrowStatus.OVERDUE),
+                borrow(2, "A", NOW.minusHours(1), BorrowStatus.BORROWED),
+                borrow(3, "B", NOW, BorrowStatus.BORROWED),
+                borrow(4, "B", NOW.plusDays(2), BorrowStatus.BORROWED))), (transIds, now) -> {
+            batches.add(new ArrayList<>(transIds));
+            return transIds.size();
+        });
+        tracker.load();
+        assertEquals(1, tracker.overdueCount());
+
+        assertEquals(2, tracker.flushExpired(NOW));
+        assertEquals(Arrays.asList(Arrays.asList(2, 3)), batches);
+        assertEquals(3, tracker.overdueCount());
+        assertEquals(2, tracker.overdueUserCount());
+        assertEquals(Arrays.asList(1, 2), tracker.overdueTransIds(2));
+
+        assertEquals(0, tracker.flushExpired(NOW.plusDays(1)));
+        assertEquals(1, tracker.flushExpired(NOW.plusDays(2)));
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    public void testRenewAndReturnReplaceQueuedEntries() {
+        List<Integer> marked = new ArrayList<>();
+        OverdueTracker tracker = new OverdueTracker(() -> new ArrayList<>(Arrays.asList(
+                borrow(1, "A", NOW.minusDays(1), BorrowStatus.BORROWED),
+                borrow(2, "A", NOW.minusDays(1), BorrowStatus.BORROWED),
+                borrow(3, "B", NOW.minusDays(5), BorrowStatus.OVERDUE))), (transIds, now) -> {
+            marked.addAll(transIds);
+            return transIds.size();
+        });
+        tracker.load();
+
+        tracker.track(borrow(1, "A", NOW.plusDays(10), BorrowStatus.BORROWED));
+        tracker.untrack(2);
+        tracker.untrack(3);
+        tracker.track(borrow(5, "C", NOW.minusMinutes(1), BorrowStatus.BORROWED));
+
+        assertEquals(1, tracker.flushExpired(NOW));
+        assertEquals(Arrays.asList(5), marked);
+        assertEquals(1, tracker.overdueCount());
+        assertEquals(1, tracker.overdueUserCount());
+    }
+
+    @Test
+    public void testFailedBatchIsRetried() {
+        boolean[] down = {true};
+        OverdueTracker tracker = new OverdueTracker(() -> new ArrayList<>(Arrays.asList(
+                borrow(1, "A", NOW.minusDays(1), BorrowStatus.BORROWED))), (transIds, now) -> {
+            if (down[0]) {
+                throw new IllegalStateException("db down");
+            }
+            return transIds.size();
+        });
+        tracker.load();
+
+        try {
+            tracker.flushExpired(NOW);
+            fail("expected failure");
+        } catch (IllegalStateException expected) {
+            assertEquals(0, tracker.overdueCount());
+        }
+        down[0] = false;
+        assertEquals(1, tracker.flushExpired(NOW));
+        assertEquals(1, tracker.overdueCount());
+    }
+
+    @Test
+    public void testEventsBeforeLoadAreIgnored() {
+        OverdueTracker tracker = new OverdueTracker(ArrayList::new, (transIds, now) -> transIds.size());
+        tracker.track(borrow(1, "A", NOW.minusDays(1), BorrowStatus.BORROWED));
+        assertFalse(tracker.isLoaded());
+
+        tracker.load();
+        assertTrue(tracker.isLoaded());
+        assertEquals(0, tracker.flushExpired(NOW));
+    }
+
+    private static BookBorrow borrow(int transId, String cardNum, LocalDateTime dueTime, BorrowStatus status) {
+        return BookBorrow.builder()
+                .transId(transId)
+                .cardNum(cardNum)
+                .dueTime(dueTime)
+                .status(status)
+                .build();
+    }
+}
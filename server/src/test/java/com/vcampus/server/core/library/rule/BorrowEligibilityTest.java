@@ -0,0 +1,79 @@
+package com.vcampus.server.core.library.rule;
+
+import com.vcampus.server.core.library.entity.core.BorrowRule;
+import com.vcampus.server.core.library.enums.UserType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BorrowEligibilityTest {
+
+    private static BorrowCandidate candidate(int bookId, int availQty, int current, boolean alreadyBorrowed) {
+        return BorrowCandidate.builder().bookId(bookId).availQty(availQty).userExists(true)
+                .currentBorrowCount(current).alreadyBorrowed(alreadyBorrowed).build();
+    }
+
+    private static Map<Integer, BorrowCandidate> index(BorrowCandidate... candidates) {
+        Map<Integer, BorrowCandidate> indexed = new HashMap<>();
+        for (BorrowCandidate candidate : candidates) {
+            indexed.put(candidate.getBookId(), candidate);
+        }
+        return indexed;
+    }
+
+    @Test
+    public void testSingleBookRules() {
+        BorrowRule rule = BorrowRule.createDefault(UserType.STUDENT);
+        Map<Integer, BorrowCandidate> candidates = index(
+                candidate(1, 2, 0, false),
+                candidate(2, 0, 0, false),
+                candidate(3, 1, 0, true),
+                candidate(4, 1, 5, false));
+
+        assertNull(BorrowEligibility.evaluate(Arrays.asList(1), candidates, rule).get(0));
+        assertEquals("图书库存不足", BorrowEligibility.evaluate(Arrays.asList(2), candidates, rule).get(0));
+        assertEquals("已借阅该图书", BorrowEligibility.evaluate(Arrays.asList(3), candidates, rule).get(0));
+        assertTrue(BorrowEligibility.evaluate(Arrays.asList(4), candidates, rule).get(0).startsWith("已达个人最大借书量"));
+        assertEquals("图书不存在", BorrowEligibility.evaluate(Arrays.asList(9), candidates, rule).get(0));
+    }
+
+    @Test
+    public void testBatchCountsEarlierBooksTowardsLimit() {
+        BorrowRule rule = BorrowRule.createDefault(UserType.STUDENT);
+        rule.setMaxBorrowCount(3);
+        Map<Integer, BorrowCandidate> candidates = index(
+                candidate(1, 1, 1, false),
+                candidate(2, 0, 1, false),
+                candidate(3, 1, 1, false),
+                candidate(4, 1, 1, false));
+
+        List<String> reasons = BorrowEligibility.evaluate(Arrays.asList(1, 2, 1, 3, 4), candidates, rule);
+        assertNull(reasons.get(0));
+        assertEquals("图书库存不足", reasons.get(1));
+        assertEquals("重复的图书", reasons.get(2));
+        assertNull(reasons.get(3));
+        assertEquals("已达个人最大借书量（3本）", reasons.get(4));
+    }
+
+    @Test
+    public void testMissingRuleOrUser() {
+        Map<Integer, BorrowCandidate> candidates = index(candidate(1, 1, 0, false));
+        assertEquals("未找到用户类型的借阅规则",
+                BorrowEligibility.evaluate(Collections.singletonList(1), candidates, null).get(0));
+
+        BorrowRule inactive = BorrowRule.createDefault(UserType.STAFF);
+        inactive.setIsActive(false);
+        assertEquals("借阅规则未启用",
+                BorrowEligibility.evaluate(Collections.singletonList(1), candidates, inactive).get(0));
+
+        candidates.get(1).setUserExists(false);
+        assertEquals("用户不存在", BorrowEligibility.evaluate(Collections.singletonList(1), candidates,
+                BorrowRule.createDefault(UserType.STAFF)).get(0));
+    }
+}
@@ -0,0 +1,35 @@
+package com.vcampus.server.core.library.rule;
+
+import com.vcampus.server.core.library.entity.core.BorrowRule;
+import com.vcampus.server.core.library.enums.UserType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BorrowRuleCacheTest {
+
+    @Test
+    public void testLoadsOnceUntilInvalidated() {
+        List<BorrowRule> rules = new ArrayList<>(Arrays.asList(BorrowRule.createDefault(UserType.STUDENT)));
+        int[] loads = {0};
+        BorrowRuleCache cache = new BorrowRuleCache(() -> {
+            loads[0]++;
+            return new ArrayList<>(rules);
+        });
+
+        assertTrue(cache.get(UserType.STUDENT).isPresent());
+        assertFalse(cache.get(UserType.STAFF).isPresent());
+        assertFalse(cache.get(null).isPresent());
+        assertEquals(1, loads[0]);
+
+        rules.add(BorrowRule.createDefault(UserType.STAFF));
+        assertFalse(cache.get(UserType.STAFF).isPresent());
+        cache.invalidate();
+        assertTrue(cache.get(UserType.STAFF).isPresent());
+        assertEquals(2, loads[0]);
+    }
+}
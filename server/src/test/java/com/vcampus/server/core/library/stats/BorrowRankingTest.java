@@ -0,0 +1,150 @@
+package com.vcampus.server.core.library.stats;
+
+import com.vcampus.server.core.library.entity.core.Book;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class BorrowRankingTest {
+
+    private final LocalDate today = LocalDate.now();
+    private List<Map<String, Object>> rows;
+    private int queries;
+    private BorrowRanking ranking;
+
+    @Before
+    public void setUp() {
+        rows = new ArrayList<>();
+        queries = 0;
+        ranking = new BorrowRanking(this::query,
+                id -> Optional.of(Book.builder().bookId(id).title("新书" + id).author("作者").category("T").build()),
+                cardNum -> Optional.of("用户" + cardNum));
+    }
+
+    @Test
+    public void testWindowsAndCategories() {
+        rows.add(row(1, "T", "u1", today, 3));
+        rows.add(row(2, "I", "u2", today.minusDays(10), 5));
+        rows.add(row(3, "T", "u1", today.minusDays(100), 9));
+
+        assertEquals(List.of(1), bookIds(ranking.topBooks(BorrowRanking.Period.WEEK, null, 10)));
+        assertEquals(List.of(2, 1), bookIds(ranking.topBooks(BorrowRanking.Period.MONTH, null, 10)));
+        assertEquals(List.of(3, 2, 1), bookIds(ranking.topBooks(BorrowRanking.Period.YEAR, null, 10)));
+        assertEquals(List.of(3, 1), bookIds(ranking.topBooks(BorrowRanking.Period.YEAR, "T", 10)));
+        assertEquals(List.of(3), bookIds(ranking.topBooks(BorrowRanking.Period.YEAR, null, 1)));
+        assertTrue(ranking.topBooks(BorrowRanking.Period.YEAR, "Z", 10).isEmpty());
+
+        List<BorrowRanking.UserRank> users = ranking.topUsers(BorrowRanking.Period.YEAR, 10);
+        assertEquals("u1", users.get(0).getCardNum());
+        assertEquals(12, users.get(0).getBorrowCount());
+        assertEquals(1, queries);
+    }
+
+    @Test
+    public void testRecordBorrowReordersWithoutReload() {
+        rows.add(row(1, "T", "u1", today, 2));
+        rows.add(row(2, "T", "u2", today, 1));
+        assertEquals(List.of(1, 2), bookIds(ranking.topBooks(BorrowRanking.Period.WEEK, null, 10)));
+
+        ranking.recordBorrow(2, "u2");
+        ranking.recordBorrow(2, "u3");
+        ranking.recordBorrow(4, "u3");
+
+        assertEquals(List.of(2, 1, 4), bookIds(ranking.topBooks(BorrowRanking.Period.WEEK, null, 10)));
+        assertEquals(List.of(2, 1, 4), bookIds(ranking.topBooks(BorrowRanking.Period.WEEK, "T", 10)));
+        assertEquals(3, ranking.topBooks(BorrowRanking.Period.YEAR, null, 1).get(0).getBorrowCount());
+        assertEquals("新书4", ranking.topBooks(BorrowRanking.Period.WEEK, null, 10).get(2).getTitle());
+
+        List<BorrowRanking.UserRank> users = ranking.topUsers(BorrowRanking.Period.WEEK, 10);
+        assertEquals(3, users.size());
+        assertEquals("u3", users.get(2).getCardNum());
+        assertEquals(2, users.get(2).getBorrowCount());
+        assertEquals("用户u3", users.get(2).getUserName());
+        assertEquals(1, queries);
+    }
+
+    @Test
+    public void testRecordBorrowOrdersTiesLikeReload() {
+        rows.add(row(1, "T", "u1", today, 1));
+        rows.add(row(3, "T", "u3", today, 2));
+        assertEquals(List.of(3, 1), bookIds(ranking.topBooks(BorrowRanking.Period.WEEK, null, 10)));
+
+        ranking.recordBorrow(2, "u2");
+        ranking.recordBorrow(2, "u2");
+
+        // 与 3 号书计数相同，按 ID 升序排在前面，与重新载入后的顺序一致
+        assertEquals(List.of(2, 3, 1), bookIds(ranking.topBooks(BorrowRanking.Period.WEEK, null, 10)));
+        List<BorrowRanking.UserRank> users = ranking.topUsers(BorrowRanking.Period.WEEK, 10);
+        assertEquals("u2", users.get(0).getCardNum());
+        assertEquals("u3", users.get(1).getCardNum());
+    }
+
+    @Test
+    public void testTopListKeepsOnlyK() {
+        for (int i = 1; i <= BorrowRanking.MAX_K + 10; i++) {
+            rows.add(row(i, "T", "u" + i, today, i));
+        }
+        List<BorrowRanking.BookRank> top = ranking.topBooks(BorrowRanking.Period.WEEK, null, 100);
+        assertEquals(BorrowRanking.MAX_K, top.size());
+        assertEquals(BorrowRanking.MAX_K + 10, top.get(0).getBookId().intValue());
+
+        // 榜外的图书被借到超过榜尾时进入排行
+        for (int i = 0; i < 20; i++) {
+            ranking.recordBorrow(1, "u1");
+        }
+        top = ranking.topBooks(BorrowRanking.Period.WEEK, null, 100);
+        assertEquals(BorrowRanking.MAX_K, top.size());
+        assertTrue(bookIds(top).contains(1));
+        assertFalse(bookIds(top).contains(11));
+    }
+
+    @Test
+    public void testRecordBeforeLoadIsIgnored() {
+        ranking.recordBorrow(1, "u1");
+        assertTrue(ranking.topBooks(BorrowRanking.Period.WEEK, null, 10).isEmpty());
+        assertEquals(1, queries);
+    }
+
+    private List<Map<String, Object>> query(LocalDateTime start, LocalDateTime end) {
+        queries++;
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            LocalDateTime day = LocalDate.parse((String) row.get("day")).atStartOfDay();
+            if (!day.isBefore(start) && day.isBefore(end)) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Object> row(int bookId, String category, String cardNum, LocalDate day, long count) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("bookId", bookId);
+        row.put("title", "图书" + bookId);
+        row.put("author", "作者" + bookId);
+        row.put("category", category);
+        row.put("cardNum", cardNum);
+        row.put("userName", "用户" + cardNum);
+        row.put("day", day.toString());
+        row.put("cnt", count);
+        row.put("lastBorrow", day.atTime(10, 0));
+        return row;
+    }
+
+    private static List<Integer> bookIds(List<BorrowRanking.BookRank> ranks) {
+        List<Integer> ids = new ArrayList<>();
+        for (BorrowRanking.BookRank rank : ranks) {
+            ids.add(rank.getBookId());
+        }
+        return ids;
+    }
+}
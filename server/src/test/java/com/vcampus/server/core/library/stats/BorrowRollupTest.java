@@ -0,0 +1,121 @@
+package com.vcampus.server.core.library.stats;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BorrowRollupTest {
+
+    private final LocalDate today = LocalDate.now();
+    private List<Map<String, Object>> rows;
+    private int queries;
+    private Runnable afterQuery;
+    private BorrowRollup rollup;
+
+    @Before
+    public void setUp() {
+        rows = new ArrayList<>();
+        queries = 0;
+        rollup = new BorrowRollup(this::query);
+    }
+
+    @Test
+    public void testDailyBucketsFromSingleQuery() {
+        rows.add(row("borrow", today, 3));
+        rows.add(row("return", today, 2));
+        rows.add(row("borrow", today.minusDays(1), 5));
+
+        Map<LocalDate, long[]> buckets = rollup.buckets(today.minusDays(3), today.plusDays(1), BorrowRollup.Unit.DAY);
+        assertEquals(4, buckets.size());
+        assertArrayEquals(new long[]{0, 0}, buckets.get(today.minusDays(3)));
+        assertArrayEquals(new long[]{5, 0}, buckets.get(today.minusDays(1)));
+        assertArrayEquals(new long[]{3, 2}, buckets.get(today));
+
+        rollup.buckets(today.minusDays(30), today.plusDays(1), BorrowRollup.Unit.WEEK);
+        assertEquals(1, queries);
+    }
+
+    @Test
+    public void testMonthBucketsMergeDays() {
+        LocalDate monthStart = today.withDayOfMonth(1);
+        rows.add(row("borrow", monthStart, 4));
+        rows.add(row("borrow", today, 1));
+        rows.add(row("return", monthStart.minusDays(1), 7));
+
+        Map<LocalDate, long[]> buckets = rollup.buckets(monthStart.minusMonths(1), today.plusDays(1), BorrowRollup.Unit.MONTH);
+        assertEquals(2, buckets.size());
+        assertArrayEquals(new long[]{5, 0}, buckets.get(monthStart));
+        assertArrayEquals(new long[]{0, 7}, buckets.get(monthStart.minusMonths(1)));
+    }
+
+    @Test
+    public void testIncrementalRecords() {
+        rows.add(row("borrow", today, 1));
+        assertArrayEquals(new long[]{1, 0}, rollup.totals(today, today.plusDays(1)));
+
+        rollup.recordBorrow();
+        rollup.recordBorrow();
+        rollup.recordReturn();
+        assertArrayEquals(new long[]{3, 1}, rollup.totals(today, today.plusDays(1)));
+        assertEquals(1, queries);
+    }
+
+    @Test
+    public void testRecordsDuringLoadAreKept() {
+        rows.add(row("borrow", today, 1));
+        afterQuery = () -> {
+            // 聚合查询读完后、窗口替换前，另一线程完成了借阅与归还
+            rollup.recordBorrow();
+            rollup.recordReturn();
+        };
+        assertArrayEquals(new long[]{2, 1}, rollup.totals(today, today.plusDays(1)));
+
+        rollup.invalidate();
+        rollup.recordBorrow();
+        rows.add(row("borrow", today, 1));
+        assertArrayEquals(new long[]{2, 0}, rollup.totals(today, today.plusDays(1)));
+        assertEquals(2, queries);
+    }
+
+    @Test
+    public void testRangeBeforeWindowQueriesDatabase() {
+        LocalDate old = today.minusYears(3);
+        rows.add(row("borrow", old, 6));
+
+        assertArrayEquals(new long[]{6, 0}, rollup.totals(old, old.plusDays(1)));
+        assertEquals(2, queries);
+    }
+
+    private List<Map<String, Object>> query(LocalDateTime start, LocalDateTime end) {
+        queries++;
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            LocalDateTime day = LocalDate.parse((String) row.get("day")).atStartOfDay();
+            if (!day.isBefore(start) && day.isBefore(end)) {
+                result.add(row);
+            }
+        }
+        Runnable hook = afterQuery;
+        afterQuery = null;
+        if (hook != null) {
+            hook.run();
+        }
+        return result;
+    }
+
+    private static Map<String, Object> row(String kind, LocalDate day, long count) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("kind", kind);
+        row.put("day", day.toString());
+        row.put("cnt", count);
+        return row;
+    }
+}
@@ -0,0 +1,94 @@
+package com.vcampus.server.core.library.stats;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class StatisticsEngineTest {
+
+    private List<Map<String, Object>> bookRows;
+    private Map<String, Object> borrowRow;
+    private int queries;
+    private StatisticsEngine engine;
+
+    @Before
+    public void setUp() {
+        bookRows = new ArrayList<>();
+        bookRows.add(bookRow("T", "IN_LIBRARY", 3, 7));
+        bookRows.add(bookRow("T", "BORROWED", 2, 2));
+        bookRows.add(bookRow("I", "AVAILABLE", 4, 4));
+        bookRows.add(bookRow(null, null, 1, 1));
+
+        borrowRow = new HashMap<>();
+        borrowRow.put("total", 10L);
+        borrowRow.put("borrowed", new BigDecimal(3));
+        borrowRow.put("returned", new BigDecimal(6));
+        borrowRow.put("overdue", new BigDecimal(1));
+        borrowRow.put("renewed", new BigDecimal(2));
+        borrowRow.put("borrowers", 5L);
+
+        queries = 0;
+        engine = new StatisticsEngine(() -> {
+            queries++;
+            return bookRows;
+        }, () -> borrowRow, () -> {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            Map<String, Object> row = new HashMap<>();
+            row.put("category", "T");
+            row.put("borrowCount", 9L);
+            rows.add(row);
+            return rows;
+        });
+    }
+
+    @Test
+    public void testAggregatesRows() {
+        StatisticsEngine.Snapshot snapshot = engine.snapshot();
+        assertEquals(10, snapshot.getTotalBooks());
+        assertEquals(3, snapshot.getBookCount("IN_LIBRARY"));
+        assertEquals(2, snapshot.getBookCount("BORROWED"));
+        assertEquals(1, snapshot.getBookCount(""));
+        assertEquals(0, snapshot.getBookCount("MAINTENANCE"));
+
+        StatisticsEngine.CategoryCounts t = snapshot.getCategories().get("T");
+        assertEquals(5, t.getBookCount());
+        assertEquals(2, t.getBorrowedBooks());
+        assertEquals(9, t.getTotalQty());
+        assertEquals(2, snapshot.getCategories().size());
+        assertEquals(Long.valueOf(9), snapshot.getCategoryBorrowCounts().get("T"));
+
+        assertEquals(10, snapshot.getTotalBorrows());
+        assertEquals(3, snapshot.getCurrentBorrows());
+        assertEquals(6, snapshot.getReturnedBorrows());
+        assertEquals(1, snapshot.getOverdueBorrows());
+        assertEquals(2, snapshot.getRenewedBorrows());
+        assertEquals(5, snapshot.getBorrowers());
+    }
+
+    @Test
+    public void testSnapshotIsCachedUntilInvalidated() {
+        StatisticsEngine.Snapshot first = engine.snapshot();
+        assertSame(first, engine.snapshot());
+        assertEquals(1, queries);
+
+        engine.invalidate();
+        assertNotSame(first, engine.snapshot());
+        assertEquals(2, queries);
+    }
+
+    private static Map<String, Object> bookRow(String category, String status, long bookCount, long totalQty) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("category", category);
+        row.put("status", status);
+        row.put("bookCount", bookCount);
+        row.put("totalQty", new BigDecimal(totalQty));
+        return row;
+    }
+}
@@ -0,0 +1,47 @@
+package com.vcampus.server.core.system.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void testBucketBoundsCoverValue() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 100, 1000, 123456, (1L << 32) - 1};
+        for (long value : values) {
+            int index = Histogram.indexOf(value);
+            assertTrue("upper bound below value " + value, Histogram.upperBoundOf(index) >= value);
+            if (index > 0) {
+                assertTrue("previous bucket covers value " + value, Histogram.upperBoundOf(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+        // 相对误差不超过 1/16
+        assertEquals(500, histogram.getValueAtPercentile(50.0), 500 / 16.0);
+        assertEquals(990, histogram.getValueAtPercentile(99.0), 990 / 16.0);
+        assertEquals(1000, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    public void testReset() {
+        Histogram histogram = new Histogram();
+        histogram.record(42);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99.0));
+    }
+}